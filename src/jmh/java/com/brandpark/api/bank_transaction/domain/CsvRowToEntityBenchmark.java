@@ -0,0 +1,55 @@
+package com.brandpark.api.bank_transaction.domain;
+
+import com.brandpark.jmh.BenchmarkCsv;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JPA 엔진이 행마다 호출하는 split + csvRowToEntity 의 행당 비용
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CsvRowToEntityBenchmark {
+
+    static final int ROWS = 1024;
+
+    String[] rows;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        BankCode[] bankCodes = BankCode.values();
+        rows = new String[ROWS];
+
+        for (int i = 0; i < ROWS; i++) {
+            rows[i] = BenchmarkCsv.row(i + 1, LocalDate.of(2021, 1, 1).plusDays(random.nextInt(365)), random.nextInt(10_000)
+                    , bankCodes[random.nextInt(bankCodes.length)], random.nextInt(1_000_000), random.nextBoolean());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void csvRowToEntity(Blackhole bh) {
+        for (String row : rows) {
+            bh.consume(BankTransaction.csvRowToEntity(row.split(",")));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.brandpark.api.bank_transaction.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 행마다 호출되는 은행코드, 거래타입 조회의 비용을 이전 방식(legacy*)과 비교한다. 한 번의 호출이 ROWS 행을 처리한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EnumLookupBenchmark {
+
+    static final int ROWS = 1024;
+
+    String[] codes;
+    byte[] codeBytes;
+    String[] typeNames;
+    ByteBuffer typeTokens;
+    int[] typeTokenStarts;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        BankCode[] bankCodes = BankCode.values();
+        String[] names = {"DEPOSIT", "WITHDRAW", "deposit", "withdraw"};
+
+        codes = new String[ROWS];
+        codeBytes = new byte[ROWS * 3];
+        typeNames = new String[ROWS];
+        typeTokenStarts = new int[ROWS + 1];
+
+        StringBuilder tokens = new StringBuilder();
+
+        for (int i = 0; i < ROWS; i++) {
+            codes[i] = new String(bankCodes[random.nextInt(bankCodes.length)].getCode());      // 파싱한 문자열처럼 매번 다른 인스턴스
+            System.arraycopy(codes[i].getBytes(StandardCharsets.US_ASCII), 0, codeBytes, i * 3, 3);
+
+            typeNames[i] = new String(names[random.nextInt(names.length)]);
+            typeTokenStarts[i] = tokens.length();
+            tokens.append(typeNames[i]);
+        }
+
+        typeTokenStarts[ROWS] = tokens.length();
+        typeTokens = ByteBuffer.wrap(tokens.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Benchmark
+    public void legacyBankCodeOfCode(Blackhole bh) {
+        for (String code : codes) {
+            bh.consume(legacyOfCode(code));
+        }
+    }
+
+    @Benchmark
+    public void bankCodeOfCode(Blackhole bh) {
+        for (String code : codes) {
+            bh.consume(BankCode.ofCode(code));
+        }
+    }
+
+    @Benchmark
+    public void bankCodeOfDigits(Blackhole bh) {
+        for (int i = 0; i < ROWS * 3; i += 3) {
+            bh.consume(BankCode.ofDigits(codeBytes[i], codeBytes[i + 1], codeBytes[i + 2]));
+        }
+    }
+
+    @Benchmark
+    public void legacyTransactionTypeValueOf(Blackhole bh) {
+        for (String name : typeNames) {
+            bh.consume(TransactionType.valueOf(name.toUpperCase(Locale.ROOT)));
+        }
+    }
+
+    @Benchmark
+    public void transactionTypeOfName(Blackhole bh) {
+        for (String name : typeNames) {
+            bh.consume(TransactionType.ofName(name));
+        }
+    }
+
+    @Benchmark
+    public void transactionTypeOfToken(Blackhole bh) {
+        for (int i = 0; i < ROWS; i++) {
+            bh.consume(TransactionType.ofToken(typeTokens, typeTokenStarts[i], typeTokenStarts[i + 1]));
+        }
+    }
+
+    /*
+     * 변경 전의 BankCode.ofCode
+     */
+    private static BankCode legacyOfCode(String code) {
+        for (BankCode bc : BankCode.values()) {
+            if (bc.getCode().equals(code)) {
+                return bc;
+            }
+        }
+
+        throw new IllegalArgumentException("코드와 일치하는 은행이 존재하지 않습니다.");
+    }
+}
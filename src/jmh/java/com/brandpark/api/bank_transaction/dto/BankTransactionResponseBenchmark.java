@@ -0,0 +1,89 @@
+package com.brandpark.api.bank_transaction.dto;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.BankTransaction;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 1,000 행 페이지의 응답 DTO 생성(엔티티 복사, 생성자 표현식)과 JSON 직렬화의 행당 비용
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BankTransactionResponseBenchmark {
+
+    static final int ROWS = 1000;
+
+    List<BankTransaction> entities;
+    List<BankTransactionResponse> responses;
+    ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        BankCode[] bankCodes = BankCode.values();
+
+        entities = new ArrayList<>(ROWS);
+
+        for (int i = 0; i < ROWS; i++) {
+            LocalDate date = LocalDate.of(2021, 1, 1).plusDays(random.nextInt(365));
+
+            entities.add(BankTransaction.builder()
+                    .id((long) i + 1).year(date.getYear()).month(date.getMonthValue()).day(date.getDayOfMonth()).transactionDate(date)
+                    .userId((long) random.nextInt(10_000)).bankCode(bankCodes[random.nextInt(bankCodes.length)])
+                    .transactionAmount(random.nextInt(1_000_000)).transactionType(random.nextBoolean() ? TransactionType.DEPOSIT : TransactionType.WITHDRAW)
+                    .build());
+        }
+
+        responses = new ArrayList<>(ROWS);
+        entities.forEach(entity -> responses.add(new BankTransactionResponse(entity)));
+
+        objectMapper = new ObjectMapper();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void constructFromEntity(Blackhole bh) {
+        for (BankTransaction entity : entities) {
+            bh.consume(new BankTransactionResponse(entity));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void constructFromColumns(Blackhole bh) {
+        for (BankTransaction entity : entities) {
+            bh.consume(new BankTransactionResponse(entity.getId(), entity.getUserId(), entity.getBankCode(), entity.getTransactionType()
+                    , entity.getTransactionDate(), entity.getTransactionAmount()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+}
@@ -0,0 +1,89 @@
+package com.brandpark.api.bank_transaction.query;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.brandpark.api.bank_transaction.dto.BankTransactionResponse;
+import com.brandpark.api.bank_transaction.dto.PageResult;
+import com.brandpark.api.upload.UploadEngine;
+import com.brandpark.api.upload.UploadProgress;
+import com.brandpark.api.upload.UploadRepository;
+import com.brandpark.jmh.BenchmarkContexts;
+import com.brandpark.jmh.BenchmarkCsv;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 유저별 / 은행별 거래 내역 페이지 조회. 테이블 크기와 페이지 깊이(OFFSET)에 따른 응답 시간을 본다.
+ * 행은 10일에 고르게 흩어지므로 조회하는 하루치 입금 거래는 테이블의 약 1/15 이다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class BankTransactionQueryBenchmark {
+
+    static final int DAYS = 10;
+    static final int PAGE_SIZE = 20;
+    static final LocalDate TRANSACTION_DATE = LocalDate.of(2021, 1, 1);
+
+    @Param({"100000", "1000000"})
+    int tableRows;
+
+    @Param({"0", "50", "300"})
+    int page;
+
+    @Param({"NONE", "EXACT"})
+    CountStrategy countStrategy;
+
+    ConfigurableApplicationContext context;
+    BankTransactionQueryRepository queryRepository;
+    PageRequest pageRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkContexts.start("batchSize=1000");
+        queryRepository = context.getBean(BankTransactionQueryRepository.class);
+
+        Path csv = BenchmarkCsv.write(tableRows, 10_000, DAYS);
+        context.getBean(UploadRepository.class).batchInsertBankTransactionFromCsvFile(csv, UploadEngine.JDBC, new UploadProgress());
+        Files.delete(csv);
+
+        pageRequest = PageRequest.of(page, PAGE_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PageResult<BankTransactionResponse> byUser() {
+        return queryRepository.findAllBankTransactionResponseByUser(TRANSACTION_DATE, TransactionType.DEPOSIT, pageRequest, countStrategy);
+    }
+
+    @Benchmark
+    public PageResult<BankTransactionResponse> byBank() {
+        return queryRepository.findAllBankTransactionResponseByBank(TRANSACTION_DATE, TransactionType.DEPOSIT, BankCode.KB, pageRequest, countStrategy);
+    }
+}
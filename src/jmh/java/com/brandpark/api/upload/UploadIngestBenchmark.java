@@ -0,0 +1,76 @@
+package com.brandpark.api.upload;
+
+import com.brandpark.jmh.BenchmarkContexts;
+import com.brandpark.jmh.BenchmarkCsv;
+import com.brandpark.jmh.BenchmarkTables;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * csv 파일 하나를 UploadRepository 로 적재하는 전체 시간(파싱 + INSERT + 집계 갱신 + 커밋).
+ * 한 번의 호출이 곧 한 번의 업로드이므로 SingleShotTime 으로 측정하고, 호출 전마다 테이블을 비운다.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class UploadIngestBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    int rows;
+
+    @Param({"100", "1000", "5000"})
+    int batchSize;
+
+    @Param({"JDBC", "JPA"})
+    UploadEngine engine;
+
+    ConfigurableApplicationContext context;
+    UploadRepository uploadRepository;
+    JdbcTemplate jdbcTemplate;
+    Path csv;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkContexts.start("batchSize=" + batchSize);
+        uploadRepository = context.getBean(UploadRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        csv = BenchmarkCsv.write(rows, 10_000, 90);
+    }
+
+    @Setup(Level.Invocation)
+    public void truncate() {
+        BenchmarkTables.truncateAll(jdbcTemplate);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        Files.deleteIfExists(csv);
+    }
+
+    @Benchmark
+    public long ingest() {
+        return uploadRepository.batchInsertBankTransactionFromCsvFile(csv, engine, new UploadProgress());
+    }
+}
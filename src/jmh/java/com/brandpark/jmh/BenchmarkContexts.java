@@ -0,0 +1,35 @@
+package com.brandpark.jmh;
+
+import com.brandpark.Application;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 벤치마크마다 웹 서버 없이 애플리케이션 컨텍스트를 띄운다. DB 는 벤치마크마다 새로 만드는 in-memory H2 다.
+ */
+public final class BenchmarkContexts {
+
+    private BenchmarkContexts() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+
+        List<String> merged = new ArrayList<>(List.of(
+                "spring.profiles.include="
+                , "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1"
+                , "spring.jpa.properties.hibernate.generate_statistics=false"
+                , "logging.level.root=WARN"
+                , "spring.main.banner-mode=off"));
+        merged.addAll(List.of(properties));
+
+        return new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .properties(merged.toArray(new String[0]))
+                .run();
+    }
+}
@@ -0,0 +1,46 @@
+package com.brandpark.jmh;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * 벤치마크용 csv. 같은 seed 면 같은 파일이 만들어진다.
+ */
+public final class BenchmarkCsv {
+
+    private static final LocalDate FIRST_DATE = LocalDate.of(2021, 1, 1);
+
+    private BenchmarkCsv() {
+    }
+
+    public static Path write(int rows, int users, int days) throws IOException {
+
+        Path file = Files.createTempFile("bench-", ".csv");
+        file.toFile().deleteOnExit();
+
+        Random random = new Random(42);
+        BankCode[] bankCodes = BankCode.values();
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            for (int i = 1; i <= rows; i++) {
+                writer.write(row(i, FIRST_DATE.plusDays(random.nextInt(days)), 1 + random.nextInt(users)
+                        , bankCodes[random.nextInt(bankCodes.length)], 1000L * (1 + random.nextInt(1000)), random.nextInt(3) == 0));
+                writer.write('\n');
+            }
+        }
+
+        return file;
+    }
+
+    public static String row(long id, LocalDate date, long userId, BankCode bankCode, long amount, boolean withdraw) {
+        return id + "," + date.getYear() + "," + date.getMonthValue() + "," + date.getDayOfMonth() + "," + userId + ","
+                + bankCode.getCode() + "," + amount + "," + (withdraw ? "WITHDRAW" : "DEPOSIT");
+    }
+}
@@ -0,0 +1,25 @@
+package com.brandpark.jmh;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+public final class BenchmarkTables {
+
+    private BenchmarkTables() {
+    }
+
+    /**
+     * 거래 내역과 업로드 중 함께 쌓이는 집계 테이블을 모두 비운다.
+     */
+    public static void truncateAll(JdbcTemplate jdbcTemplate) {
+
+        List<String> tables = jdbcTemplate.queryForList(
+                "SELECT table_name FROM information_schema.tables WHERE table_schema = 'PUBLIC' AND table_type IN ('TABLE', 'BASE TABLE')"
+                , String.class);
+
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        tables.forEach(table -> jdbcTemplate.execute("TRUNCATE TABLE " + table));
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+    }
+}
@@ -1,12 +1,16 @@
 package com.brandpark.api.bank_transaction;
 
-import com.brandpark.api.bank_transaction.query.BankTransactionQueryRepository;
+import com.brandpark.api.bank_transaction.columnar.ColumnarTransactionCache;
+import com.brandpark.api.bank_transaction.query.BankTransactionResultCache;
+import com.brandpark.api.bank_transaction.query.CountStrategy;
+import com.brandpark.api.bank_transaction.store.TransactionStore;
 import com.brandpark.api.bank_transaction.domain.BankCode;
-import com.brandpark.api.bank_transaction.domain.BankTransaction;
 import com.brandpark.api.bank_transaction.domain.TransactionType;
 import com.brandpark.api.bank_transaction.dto.BankTransactionResponse;
+import com.brandpark.api.bank_transaction.dto.CursorResult;
 import com.brandpark.api.bank_transaction.dto.PageResult;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,25 +19,33 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.LocalDate;
-import java.util.List;
-import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @RequestMapping("/api/v1")
 @RestController
 public class BankTransactionApiController {
 
-    private final BankTransactionQueryRepository bankTransactionQueryRepository;
+    private static final int MAX_CURSOR_PAGE_SIZE = 2000;     // Pageable 의 최대 페이지 크기와 같다.
+
+    private final ColumnarTransactionCache columnarTransactionCache;
+    private final TransactionStore transactionStore;
+    private final BankTransactionResultCache bankTransactionResultCache;
+
+    @Value("${aggregate.counter.enabled:false}")
+    private boolean counterEnabled;
 
     @GetMapping("/bank-transactions/by-user")
     public PageResult<BankTransactionResponse> getAllTransactionListByUser(
             @RequestParam(value = "transaction_date", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate transactionDate
             , @RequestParam(value = "transaction_type", required = false) TransactionType transactionType
+            , @RequestParam(value = "count", required = false, defaultValue = "EXACT") CountStrategy countStrategy
             , Pageable pageable) {
 
-        PageResult<BankTransaction> byUser = bankTransactionQueryRepository.findAllBankTransactionByUser(transactionDate, transactionType, pageable);
+        final CountStrategy count = available(countStrategy);
 
-        return convertToResponsePageResult(byUser);
+        return columnarTransactionCache.findAllByUser(transactionDate, transactionType, pageable, count)
+                .orElseGet(() -> bankTransactionResultCache.findAllByUser(transactionDate, transactionType, count, pageable
+                        , () -> transactionStore.findAllByUser(transactionDate, transactionType, pageable, count)));
     }
 
     @GetMapping("/bank-transactions/by-bank")
@@ -41,21 +53,45 @@ public class BankTransactionApiController {
             @RequestParam(value = "transaction_date", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate transactionDate
             , @RequestParam(value = "transaction_type", required = false) TransactionType transactionType
             , @RequestParam(value = "bank_code", required = false) BankCode bankCode
+            , @RequestParam(value = "count", required = false, defaultValue = "EXACT") CountStrategy countStrategy
             , Pageable pageable) {
 
-        PageResult<BankTransaction> byBank = bankTransactionQueryRepository.findAllBankTransactionByBank(transactionDate, transactionType, bankCode, pageable);
+        final CountStrategy count = available(countStrategy);
+
+        return columnarTransactionCache.findAllByBank(transactionDate, transactionType, bankCode, pageable, count)
+                .orElseGet(() -> bankTransactionResultCache.findAllByBank(transactionDate, transactionType, bankCode, count, pageable
+                        , () -> transactionStore.findAllByBank(transactionDate, transactionType, bankCode, pageable, count)));
+    }
+
+    @GetMapping("/bank-transactions/by-user/cursor")
+    public CursorResult<BankTransactionResponse> getAllTransactionListByUserAfterCursor(
+            @RequestParam(value = "transaction_date", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate transactionDate
+            , @RequestParam(value = "transaction_type", required = false) TransactionType transactionType
+            , @RequestParam(value = "cursor", required = false) String cursor
+            , @RequestParam(value = "size", required = false, defaultValue = "20") int size) {
 
-        return convertToResponsePageResult(byBank);
+        return transactionStore.findAllByUserAfter(transactionDate, transactionType, cursor, limitSize(size));
     }
 
-    private PageResult<BankTransactionResponse> convertToResponsePageResult(PageResult<BankTransaction> page) {
+    @GetMapping("/bank-transactions/by-bank/cursor")
+    public CursorResult<BankTransactionResponse> getAllTransactionListByBankAfterCursor(
+            @RequestParam(value = "transaction_date", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate transactionDate
+            , @RequestParam(value = "transaction_type", required = false) TransactionType transactionType
+            , @RequestParam(value = "bank_code", required = false) BankCode bankCode
+            , @RequestParam(value = "cursor", required = false) String cursor
+            , @RequestParam(value = "size", required = false, defaultValue = "20") int size) {
 
-        List<BankTransaction> entityContents = page.getContents();
+        return transactionStore.findAllByBankAfter(transactionDate, transactionType, bankCode, cursor, limitSize(size));
+    }
 
-        List<BankTransactionResponse> responseContents = entityContents.stream()
-                .map(BankTransactionResponse::new)
-                .collect(Collectors.toList());
+    /*
+     * 카운터를 누적하지 않으면(aggregate.counter.enabled=false) APPROXIMATE 는 COUNT 쿼리로 센다.
+     */
+    private CountStrategy available(CountStrategy countStrategy) {
+        return countStrategy == CountStrategy.APPROXIMATE && !counterEnabled ? CountStrategy.EXACT : countStrategy;
+    }
 
-        return PageResult.create(responseContents, page.getPageable(), page.getTotalElements());
+    private int limitSize(int size) {
+        return Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
     }
 }
@@ -0,0 +1,319 @@
+package com.brandpark.api.bank_transaction.columnar;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.brandpark.api.bank_transaction.dto.BankTransactionResponse;
+import com.brandpark.api.bank_transaction.dto.PageResult;
+import com.brandpark.api.bank_transaction.query.CountStrategy;
+import com.brandpark.api.replica.ConsistencyTokenInterceptor;
+import com.brandpark.api.replica.ReplicationWatermarkRepository;
+import com.brandpark.api.upload.BankTransactionBatchListener;
+import com.brandpark.api.upload.BankTransactionRowBuffer;
+import com.brandpark.api.upload.BankTransactionUploadedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 최근 N 일(가장 최근 거래일자 기준)의 거래내역을 컬럼 배열과 비트맵 인덱스로 메모리에 올려두고, 그 범위의 거래일자로 조회하면 DB 대신 응답한다.
+ * 범위 밖이거나 거래일자 조건이 없으면 Optional.empty() 를 반환하여 DB 에서 조회하도록 한다.
+ * 업로드 트랜잭션(chunk)이 커밋될 때마다 비우고 백그라운드에서 다시 적재하며, 적재가 끝나기 전까지는 DB 에서 조회한다.
+ * 캐시 범위보다 이전 거래일자만 저장한 chunk 는 캐시에 영향이 없으므로 비우지 않는다.
+ * 적재를 시작할 때의 업로드 순번보다 큰 일관성 토큰을 보낸 조회는 캐시가 그 업로드를 반영했는지 알 수 없으므로 DB 에서 조회한다.
+ * bank_transaction 테이블에서 적재하므로 storage.backend 가 jpa 일 때만 동작한다.
+ */
+@Slf4j
+@Component
+public class ColumnarTransactionCache implements BankTransactionBatchListener {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final String SELECT_SQL = "SELECT bank_transaction_id, transaction_date, user_id, bank_code, transaction_amount, transaction_type"
+            + " FROM bank_transaction WHERE transaction_date >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int days;
+    private final int maxRows;
+    private final ExecutorService loader;
+    private final AtomicLong generation = new AtomicLong();     // 적재 도중 업로드가 끝났다면 적재한 결과를 버린다.
+
+    private volatile Snapshot snapshot;
+
+    public ColumnarTransactionCache(JdbcTemplate jdbcTemplate
+            , @Value("${query.hot-cache.enabled:false}") boolean enabled
+            , @Value("${query.hot-cache.days:7}") int days
+            , @Value("${query.hot-cache.max-rows:5000000}") int maxRows
+            , @Value("${storage.backend:jpa}") String storageBackend) {
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled && "jpa".equals(storageBackend);
+        this.days = days;
+        this.maxRows = maxRows;
+        this.loader = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("columnar-cache-"));
+    }
+
+    @EventListener({ApplicationReadyEvent.class, BankTransactionUploadedEvent.class})
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+
+        long refreshedAt;
+
+        synchronized (this) {
+            refreshedAt = generation.incrementAndGet();
+            snapshot = null;
+        }
+
+        loader.execute(() -> reload(refreshedAt));
+    }
+
+    public boolean isLoaded() {
+        return snapshot != null;
+    }
+
+    /**
+     * 업로드 트랜잭션 안에서 호출된다. 저장한 가장 최근 거래일자를 모아 두었다가 커밋된 뒤에 비운다.
+     */
+    @Override
+    public void onBatchInserted(BankTransactionRowBuffer batch) {
+        if (!enabled || batch.size() == 0) {
+            return;
+        }
+
+        long lastEpochDay = Long.MIN_VALUE;
+
+        for (int i = 0; i < batch.size(); i++) {
+            lastEpochDay = Math.max(lastEpochDay, batch.getTransactionDate(i).toEpochDay());
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {      // 트랜잭션 밖에서는 바로 비운다.
+            refreshIfTouched(lastEpochDay);
+            return;
+        }
+
+        CommittedChunk chunk = (CommittedChunk) TransactionSynchronizationManager.getResource(this);
+
+        if (chunk == null) {
+            chunk = new CommittedChunk();
+            TransactionSynchronizationManager.bindResource(this, chunk);
+            TransactionSynchronizationManager.registerSynchronization(chunk);
+        }
+
+        chunk.lastEpochDay = Math.max(chunk.lastEpochDay, lastEpochDay);
+    }
+
+    /*
+     * 적재 중이거나(스냅샷이 없음) 캐시 범위 이후의 거래일자를 저장했다면 다시 적재한다.
+     * 더 최근의 거래일자는 캐시 범위를 옮기므로 캐시 범위의 마지막 날 이후도 포함한다.
+     */
+    private void refreshIfTouched(long lastEpochDay) {
+        Snapshot current = snapshot;
+
+        if (current == null || lastEpochDay >= current.firstEpochDay) {
+            refresh();
+        }
+    }
+
+    /**
+     * 유저별 조회와 같은 결과({거래일자, 유저ID, 거래ID} ASC)를 응답한다. 전체 개수는 countStrategy 가 NONE 이 아니면 항상 정확한 개수다.
+     */
+    public Optional<PageResult<BankTransactionResponse>> findAllByUser(LocalDate transactionDate, TransactionType transactionType, Pageable pageable, CountStrategy countStrategy) {
+
+        Snapshot current = snapshot;
+
+        if (current == null || !current.covers(transactionDate, ConsistencyTokenInterceptor.current())) {
+            return Optional.empty();
+        }
+
+        return Optional.of(findPage(current.byUser, current.byUserIndex.filter((int) transactionDate.toEpochDay(), transactionType, null), pageable, countStrategy));
+    }
+
+    /**
+     * 은행별 조회와 같은 결과({거래일자, 은행코드, 거래ID} ASC)를 응답한다.
+     */
+    public Optional<PageResult<BankTransactionResponse>> findAllByBank(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, Pageable pageable, CountStrategy countStrategy) {
+
+        Snapshot current = snapshot;
+
+        if (current == null || !current.covers(transactionDate, ConsistencyTokenInterceptor.current())) {
+            return Optional.empty();
+        }
+
+        return Optional.of(findPage(current.byBank, current.byBankIndex.filter((int) transactionDate.toEpochDay(), transactionType, bankCode), pageable, countStrategy));
+    }
+
+    /*
+     * 비트맵의 cardinality 가 전체 개수이므로 어떤 countStrategy 로 요청해도 정확한 개수로 응답한다. NONE 이면 DB 조회와 같이 개수를 생략한다.
+     * 행의 위치가 정렬 순서이므로 offset 번째 행부터 페이지 크기만큼 읽는다.
+     */
+    private PageResult<BankTransactionResponse> findPage(TransactionColumns columns, RoaringBitmap rows, Pageable pageable, CountStrategy countStrategy) {
+
+        long totalElements = rows.getLongCardinality();
+        List<BankTransactionResponse> contents = new ArrayList<>();
+
+        if (pageable.getOffset() < totalElements) {
+            PeekableIntIterator iterator = rows.getIntIterator();
+            iterator.advanceIfNeeded(rows.select((int) pageable.getOffset()));
+
+            while (iterator.hasNext() && contents.size() < pageable.getPageSize()) {
+                contents.add(columns.toResponse(iterator.next()));
+            }
+        }
+
+        if (countStrategy == CountStrategy.NONE) {
+            return PageResult.createSlice(contents, pageable, pageable.getOffset() + contents.size() < totalElements);
+        }
+
+        return PageResult.create(contents, pageable, totalElements, countStrategy);
+    }
+
+    private void reload(long refreshedAt) {
+        if (generation.get() != refreshedAt) {
+            return;     // 더 최근의 갱신이 대기 중이다.
+        }
+
+        try {
+            Snapshot loaded = load();
+
+            synchronized (this) {
+                if (generation.get() == refreshedAt) {
+                    snapshot = loaded;
+                }
+            }
+        } catch (Exception e) {
+            log.error("컬럼 캐시 적재 실패", e);
+        }
+    }
+
+    /*
+     * 업로드 순번은 행을 읽기 전에 읽는다. 순번이 늘어난 업로드의 행은 모두 커밋된 뒤이므로 스냅샷에 포함된다.
+     */
+    private Snapshot load() {
+
+        long uploadSequence = ReplicationWatermarkRepository.uploadSequence(jdbcTemplate);
+        LocalDate lastDate = jdbcTemplate.queryForObject("SELECT MAX(transaction_date) FROM bank_transaction", LocalDate.class);
+
+        if (lastDate == null) {
+            return Snapshot.empty(uploadSequence);
+        }
+
+        LocalDate firstDate = lastDate.minusDays(days - 1L);
+        Integer rowCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bank_transaction WHERE transaction_date >= ?", Integer.class, firstDate);
+
+        if (rowCount != null && rowCount > maxRows) {
+            log.warn("최근 {}일의 거래내역이 {} 행으로 컬럼 캐시의 최대 행 수({})보다 많아 DB 에서 조회합니다.", days, rowCount, maxRows);
+            return Snapshot.empty(uploadSequence);
+        }
+
+        int capacity = rowCount == null ? 0 : rowCount;
+        long start = System.nanoTime();
+
+        TransactionColumns byUser = loadColumns(firstDate, " ORDER BY transaction_date, user_id, bank_transaction_id", capacity);
+        TransactionColumns byBank = loadColumns(firstDate, " ORDER BY transaction_date, bank_code, bank_transaction_id", capacity);
+
+        Snapshot loaded = new Snapshot(firstDate.toEpochDay(), lastDate.toEpochDay(), uploadSequence, byUser, byBank);
+
+        log.info("컬럼 캐시 적재 완료 : {} ~ {}, {} 행, {} ms", firstDate, lastDate, byUser.size(), (System.nanoTime() - start) / 1_000_000);
+
+        return loaded;
+    }
+
+    private TransactionColumns loadColumns(LocalDate firstDate, String order, int capacity) {
+
+        TransactionColumns columns = new TransactionColumns(capacity);
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_SQL + order, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setObject(1, firstDate);
+
+            return ps;
+        }, rs -> {
+            columns.add(rs.getLong(1), rs.getObject(2, LocalDate.class), rs.getLong(3), BankCode.ofCode(rs.getString(4))
+                    , rs.getLong(5), TransactionType.ofName(rs.getString(6)));
+        });
+
+        return columns;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+
+    /**
+     * 업로드 트랜잭션 하나가 저장한 가장 최근 거래일자. 커밋되기 전에 다시 적재하면 커밋 전의 행을 읽으므로 커밋된 뒤에 비운다.
+     */
+    private class CommittedChunk implements TransactionSynchronization {
+
+        private long lastEpochDay = Long.MIN_VALUE;
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ColumnarTransactionCache.this);
+
+            if (status == STATUS_COMMITTED) {
+                refreshIfTouched(lastEpochDay);
+            }
+        }
+    }
+
+    private static class Snapshot {
+
+        final long firstEpochDay;
+        final long lastEpochDay;
+        final long uploadSequence;
+        final TransactionColumns byUser;
+        final TransactionColumns byBank;
+        final TransactionBitmapIndex byUserIndex;
+        final TransactionBitmapIndex byBankIndex;
+
+        Snapshot(long firstEpochDay, long lastEpochDay, long uploadSequence, TransactionColumns byUser, TransactionColumns byBank) {
+            this.firstEpochDay = firstEpochDay;
+            this.lastEpochDay = lastEpochDay;
+            this.uploadSequence = uploadSequence;
+            this.byUser = byUser;
+            this.byBank = byBank;
+            this.byUserIndex = TransactionBitmapIndex.build(byUser);
+            this.byBankIndex = TransactionBitmapIndex.build(byBank);
+        }
+
+        static Snapshot empty(long uploadSequence) {
+            return new Snapshot(1, 0, uploadSequence, new TransactionColumns(0), new TransactionColumns(0));
+        }
+
+        /*
+         * consistencyToken 이 스냅샷의 업로드 순번보다 크면 스냅샷이 그 업로드를 반영했는지 알 수 없다.
+         */
+        boolean covers(LocalDate transactionDate, long consistencyToken) {
+            if (transactionDate == null || consistencyToken > uploadSequence) {
+                return false;
+            }
+
+            long epochDay = transactionDate.toEpochDay();
+
+            return firstEpochDay <= epochDay && epochDay <= lastEpochDay;
+        }
+    }
+}
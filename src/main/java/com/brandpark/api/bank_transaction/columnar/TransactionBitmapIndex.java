@@ -0,0 +1,81 @@
+package com.brandpark.api.bank_transaction.columnar;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link TransactionColumns} 의 행 위치를 은행코드별, 거래타입별, 거래일자별 압축 비트맵으로 갖는다.
+ * 조건의 조합은 비트맵의 AND 로 구하며, 결과 비트맵의 cardinality 가 곧 조건에 맞는 행의 수다.
+ */
+class TransactionBitmapIndex {
+
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+    private final RoaringBitmap[] byBankCode;
+    private final RoaringBitmap[] byTransactionType;
+    private final Map<Integer, RoaringBitmap> byDate;
+
+    private TransactionBitmapIndex(RoaringBitmap[] byBankCode, RoaringBitmap[] byTransactionType, Map<Integer, RoaringBitmap> byDate) {
+        this.byBankCode = byBankCode;
+        this.byTransactionType = byTransactionType;
+        this.byDate = byDate;
+    }
+
+    static TransactionBitmapIndex build(TransactionColumns columns) {
+
+        RoaringBitmap[] byBankCode = newBitmaps(BankCode.values().length);
+        RoaringBitmap[] byTransactionType = newBitmaps(TransactionType.values().length);
+        Map<Integer, RoaringBitmap> byDate = new HashMap<>();
+
+        for (int row = 0; row < columns.size(); row++) {
+            byBankCode[columns.getBankCodeOrdinal(row)].add(row);
+            byTransactionType[columns.getTransactionTypeOrdinal(row)].add(row);
+            byDate.computeIfAbsent(columns.getEpochDay(row), epochDay -> new RoaringBitmap()).add(row);
+        }
+
+        // 행이 정렬 키 순서로 들어 있어 거래일자 비트맵은 연속된 구간 하나이므로 run 으로 압축된다.
+        for (RoaringBitmap bitmap : byBankCode) {
+            bitmap.runOptimize();
+        }
+
+        for (RoaringBitmap bitmap : byTransactionType) {
+            bitmap.runOptimize();
+        }
+
+        byDate.values().forEach(RoaringBitmap::runOptimize);
+
+        return new TransactionBitmapIndex(byBankCode, byTransactionType, byDate);
+    }
+
+    /**
+     * 조건에 맞는 행의 위치. null 인 조건은 거르지 않는다.
+     */
+    RoaringBitmap filter(int epochDay, TransactionType transactionType, BankCode bankCode) {
+
+        RoaringBitmap result = byDate.getOrDefault(epochDay, EMPTY);
+
+        if (transactionType != null) {
+            result = RoaringBitmap.and(result, byTransactionType[transactionType.ordinal()]);
+        }
+
+        if (bankCode != null) {
+            result = RoaringBitmap.and(result, byBankCode[bankCode.ordinal()]);
+        }
+
+        return result;
+    }
+
+    private static RoaringBitmap[] newBitmaps(int length) {
+        RoaringBitmap[] bitmaps = new RoaringBitmap[length];
+
+        for (int i = 0; i < length; i++) {
+            bitmaps[i] = new RoaringBitmap();
+        }
+
+        return bitmaps;
+    }
+}
@@ -0,0 +1,83 @@
+package com.brandpark.api.bank_transaction.columnar;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.brandpark.api.bank_transaction.dto.BankTransactionResponse;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * 거래내역을 컬럼별 primitive 배열로 보관한다. 행은 조회 API 의 정렬 순서대로 들어 있어야 한다.
+ * 은행코드와 거래타입은 enum 의 ordinal 로 저장한다. (BankCode 의 선언 순서는 은행코드 순서와 같다.)
+ */
+class TransactionColumns {
+
+    private static final BankCode[] BANK_CODES = BankCode.values();
+    private static final TransactionType[] TRANSACTION_TYPES = TransactionType.values();
+
+    private int size;
+    private long[] ids;
+    private int[] epochDays;
+    private long[] userIds;
+    private byte[] bankCodes;
+    private long[] amounts;
+    private byte[] transactionTypes;
+
+    TransactionColumns(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 16);
+
+        ids = new long[capacity];
+        epochDays = new int[capacity];
+        userIds = new long[capacity];
+        bankCodes = new byte[capacity];
+        amounts = new long[capacity];
+        transactionTypes = new byte[capacity];
+    }
+
+    void add(long id, LocalDate transactionDate, long userId, BankCode bankCode, long amount, TransactionType transactionType) {
+        if (size == ids.length) {
+            grow();
+        }
+
+        ids[size] = id;
+        epochDays[size] = (int) transactionDate.toEpochDay();
+        userIds[size] = userId;
+        bankCodes[size] = (byte) bankCode.ordinal();
+        amounts[size] = amount;
+        transactionTypes[size] = (byte) transactionType.ordinal();
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int getEpochDay(int row) {
+        return epochDays[row];
+    }
+
+    int getBankCodeOrdinal(int row) {
+        return bankCodes[row];
+    }
+
+    int getTransactionTypeOrdinal(int row) {
+        return transactionTypes[row];
+    }
+
+    BankTransactionResponse toResponse(int row) {
+        return new BankTransactionResponse(ids[row], userIds[row], BANK_CODES[bankCodes[row]], TRANSACTION_TYPES[transactionTypes[row]]
+                , LocalDate.ofEpochDay(epochDays[row]), amounts[row]);
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+
+        ids = Arrays.copyOf(ids, capacity);
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        userIds = Arrays.copyOf(userIds, capacity);
+        bankCodes = Arrays.copyOf(bankCodes, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        transactionTypes = Arrays.copyOf(transactionTypes, capacity);
+    }
+}
@@ -0,0 +1,42 @@
+package com.brandpark.api.bank_transaction.counter;
+
+import com.brandpark.api.bank_transaction.converter.BankCodePersistConverter;
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * (거래일자, 거래타입, 은행코드) 별 거래내역의 수. 업로드할 때 {@link BankTransactionCounterUpdater} 가 누적한다.
+ */
+@NoArgsConstructor
+@Getter
+@Table(
+        name = "bank_transaction_counter"
+        , uniqueConstraints = @UniqueConstraint(name = "uk_bank_transaction_counter", columnNames = {"transaction_date", "transaction_type", "bank_code"})
+)
+@Entity
+public class BankTransactionCounter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "bank_transaction_counter_id")
+    private Long id;
+
+    @Column(name = "transaction_date", nullable = false)
+    private LocalDate transactionDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_type", nullable = false)
+    private TransactionType transactionType;
+
+    @Convert(converter = BankCodePersistConverter.class)
+    @Column(name = "bank_code", nullable = false)
+    private BankCode bankCode;
+
+    @Column(name = "row_count", nullable = false)
+    private long rowCount;
+}
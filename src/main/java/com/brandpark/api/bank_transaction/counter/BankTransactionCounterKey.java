@@ -0,0 +1,30 @@
+package com.brandpark.api.bank_transaction.counter;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+
+@EqualsAndHashCode
+@Getter
+@RequiredArgsConstructor
+class BankTransactionCounterKey implements Comparable<BankTransactionCounterKey> {
+
+    private static final Comparator<BankTransactionCounterKey> ORDER = Comparator
+            .comparing(BankTransactionCounterKey::getTransactionDate)
+            .thenComparing(BankTransactionCounterKey::getTransactionType)
+            .thenComparing(BankTransactionCounterKey::getBankCode);
+
+    private final LocalDate transactionDate;
+    private final TransactionType transactionType;
+    private final BankCode bankCode;
+
+    @Override
+    public int compareTo(BankTransactionCounterKey o) {
+        return ORDER.compare(this, o);
+    }
+}
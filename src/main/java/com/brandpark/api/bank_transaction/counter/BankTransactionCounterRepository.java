@@ -0,0 +1,87 @@
+package com.brandpark.api.bank_transaction.counter;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.brandpark.api.upload.BatchMerge;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+
+@RequiredArgsConstructor
+@Repository
+public class BankTransactionCounterRepository {
+
+    private static final String MERGE_SQL = "MERGE INTO bank_transaction_counter c"
+            + " USING (SELECT CAST(? AS DATE) transaction_date, CAST(? AS VARCHAR) transaction_type, CAST(? AS VARCHAR) bank_code, CAST(? AS BIGINT) row_count) d"
+            + " ON (c.transaction_date = d.transaction_date AND c.transaction_type = d.transaction_type AND c.bank_code = d.bank_code)"
+            + " WHEN MATCHED THEN UPDATE SET row_count = c.row_count + d.row_count"
+            + " WHEN NOT MATCHED THEN INSERT (transaction_date, transaction_type, bank_code, row_count)"
+            + " VALUES (d.transaction_date, d.transaction_type, d.bank_code, d.row_count)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 키 순서대로 정렬된 변화량을 MERGE 한 번(batch)으로 더한다.
+     */
+    void addAll(SortedMap<BankTransactionCounterKey, Long> deltas) {
+
+        List<Object[]> batchArgs = new ArrayList<>(deltas.size());
+
+        deltas.forEach((key, delta) -> batchArgs.add(new Object[]{
+                key.getTransactionDate(), key.getTransactionType().name(), key.getBankCode().getCode(), delta}));
+
+        BatchMerge.execute(jdbcTemplate, MERGE_SQL, batchArgs);
+    }
+
+    /**
+     * 조건에 해당하는 카운터의 합. null 인 조건은 모든 값을 합산한다.
+     */
+    public long sum(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode) {
+        return sumBetween(transactionDate, transactionDate, transactionType, bankCode);
+    }
+
+    /**
+     * 거래일자가 [from, to] 인 카운터의 합. null 인 조건은 모든 값을 합산한다.
+     */
+    public long sumBetween(LocalDate from, LocalDate to, TransactionType transactionType, BankCode bankCode) {
+
+        final StringBuilder sql = new StringBuilder("SELECT COALESCE(SUM(row_count), 0) FROM bank_transaction_counter WHERE 1=1");
+        List<Object> args = new ArrayList<>();
+
+        if (from != null) {
+            sql.append(" AND transaction_date >= ?");
+            args.add(from);
+        }
+
+        if (to != null) {
+            sql.append(" AND transaction_date <= ?");
+            args.add(to);
+        }
+
+        if (transactionType != null) {
+            sql.append(" AND transaction_type = ?");
+            args.add(transactionType.name());
+        }
+
+        if (bankCode != null) {
+            sql.append(" AND bank_code = ?");
+            args.add(bankCode.getCode());
+        }
+
+        Long sum = jdbcTemplate.queryForObject(sql.toString(), Long.class, args.toArray());
+
+        return sum == null ? 0 : sum;
+    }
+
+    /**
+     * 거래일자가 [from, to] 인 카운터를 지운다. 거래내역 파티션을 지울 때 함께 지운다.
+     */
+    public int deleteBetween(LocalDate from, LocalDate to) {
+        return jdbcTemplate.update("DELETE FROM bank_transaction_counter WHERE transaction_date >= ? AND transaction_date <= ?", from, to);
+    }
+}
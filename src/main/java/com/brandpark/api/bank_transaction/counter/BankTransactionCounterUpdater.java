@@ -0,0 +1,33 @@
+package com.brandpark.api.bank_transaction.counter;
+
+import com.brandpark.api.upload.BankTransactionBatchListener;
+import com.brandpark.api.upload.BankTransactionRowBuffer;
+import com.brandpark.api.upload.ChunkDeltas;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 업로드된 batch 를 (거래일자, 거래타입, 은행코드) 별로 모아 카운터에 더한다.
+ * chunk 하나의 변화량을 모두 모은 뒤 커밋 직전에 키 순서대로 한 번에 더한다. ({@link ChunkDeltas})
+ */
+@ConditionalOnProperty(name = "aggregate.counter.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Component
+public class BankTransactionCounterUpdater implements BankTransactionBatchListener {
+
+    private final BankTransactionCounterRepository bankTransactionCounterRepository;
+
+    @Override
+    public void onBatchInserted(BankTransactionRowBuffer batch) {
+
+        ChunkDeltas.<BankTransactionCounterKey, Long>collect(this, deltas -> {
+            for (int i = 0; i < batch.size(); i++) {
+                BankTransactionCounterKey key = new BankTransactionCounterKey(
+                        batch.getTransactionDate(i), batch.getTransactionType(i), batch.getBankCode(i));
+
+                deltas.merge(key, 1L, Long::sum);
+            }
+        }, bankTransactionCounterRepository::addAll);
+    }
+}
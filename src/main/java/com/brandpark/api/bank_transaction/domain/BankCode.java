@@ -13,6 +13,17 @@ public enum BankCode {
     SH("088", "신한은행"),
     KK("090", "카카오뱅크");
 
+    private static final int CODE_LENGTH = 3;
+
+    // 3자리 은행코드를 정수로 바꾼 값이 곧 인덱스인 테이블. 조회할 때 values() 를 복사하거나 문자열을 비교하지 않는다.
+    private static final BankCode[] BY_NUMERIC_CODE = new BankCode[1000];
+
+    static {
+        for (BankCode bc : values()) {
+            BY_NUMERIC_CODE[Integer.parseInt(bc.code)] = bc;
+        }
+    }
+
     private final String code;
     private final String bankName;
 
@@ -21,12 +32,31 @@ public enum BankCode {
             throw new IllegalArgumentException("은행코드가 null 입니다.");
         }
 
-        for (BankCode bc : BankCode.values()) {
-            if(bc.getCode().equals(code)) {
+        if (code.length() == CODE_LENGTH) {
+            BankCode bc = ofDigits(code.charAt(0), code.charAt(1), code.charAt(2));
+
+            if (bc != null) {
                 return bc;
             }
         }
 
         throw new IllegalArgumentException("코드와 일치하는 은행이 존재하지 않습니다.");
     }
+
+    /**
+     * 은행코드의 세 자리 문자(또는 ASCII 바이트)로 찾는다. 바이트 버퍼에서 문자열을 만들지 않고 조회할 때 사용한다.
+     *
+     * @return 일치하는 은행이 없으면 null
+     */
+    public static BankCode ofDigits(int hundreds, int tens, int ones) {
+        int h = hundreds - '0';
+        int t = tens - '0';
+        int o = ones - '0';
+
+        if ((h | t | o) < 0 || h > 9 || t > 9 || o > 9) {
+            return null;
+        }
+
+        return BY_NUMERIC_CODE[h * 100 + t * 10 + o];
+    }
 }
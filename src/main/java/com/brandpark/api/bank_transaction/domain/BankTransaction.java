@@ -8,14 +8,16 @@ import lombok.NoArgsConstructor;
 
 import javax.persistence.*;
 import java.time.LocalDate;
-import java.util.Locale;
 
 @Builder
 @NoArgsConstructor @AllArgsConstructor
 @Getter
 @Table(
         name = "bank_transaction"
-        , indexes = @Index(name = "idx_bank_transaction", columnList = "transaction_date")
+        , indexes = {       // 조회 API 의 {조건, 정렬} 순서와 같다.
+                @Index(name = "idx_bank_transaction_date_user", columnList = "transaction_date, user_id, bank_transaction_id")
+                , @Index(name = "idx_bank_transaction_date_bank", columnList = "transaction_date, bank_code, bank_transaction_id")
+        }
 )
 @Entity
 public class BankTransaction {
@@ -65,7 +67,7 @@ public class BankTransaction {
         bt.userId = Long.parseLong(split[4]);
         bt.bankCode = BankCode.ofCode(split[5]);
         bt.transactionAmount = Integer.parseInt(split[6]);
-        bt.transactionType = TransactionType.valueOf(split[7].toUpperCase(Locale.ROOT));
+        bt.transactionType = TransactionType.ofName(split[7]);
         bt.transactionDate = LocalDate.of(bt.year, bt.month, bt.day);
 
         return bt;
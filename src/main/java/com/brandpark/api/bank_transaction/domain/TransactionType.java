@@ -2,11 +2,66 @@ package com.brandpark.api.bank_transaction.domain;
 
 import lombok.RequiredArgsConstructor;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
 @RequiredArgsConstructor
 public enum TransactionType {
 
     WITHDRAW("출금"),
     DEPOSIT("입금");
 
+    private static final byte[] WITHDRAW_BYTES = "WITHDRAW".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DEPOSIT_BYTES = "DEPOSIT".getBytes(StandardCharsets.US_ASCII);
+
     private final String typeName;
+
+    /**
+     * 대소문자를 구분하지 않고 이름으로 찾는다. toUpperCase 로 새 문자열을 만들지 않는다.
+     */
+    public static TransactionType ofName(String name) {
+        if (name != null) {
+            if (name.length() == WITHDRAW_BYTES.length && name.equalsIgnoreCase("WITHDRAW")) {
+                return WITHDRAW;
+            }
+
+            if (name.length() == DEPOSIT_BYTES.length && name.equalsIgnoreCase("DEPOSIT")) {
+                return DEPOSIT;
+            }
+        }
+
+        throw new IllegalArgumentException("거래타입과 일치하는 이름이 존재하지 않습니다.");
+    }
+
+    /**
+     * buffer 의 [from, to) 바이트를 대소문자를 구분하지 않고 이름과 비교한다. 두 이름의 길이가 달라 길이로 먼저 후보를 정한다.
+     *
+     * @return 일치하는 거래타입이 없으면 null
+     */
+    public static TransactionType ofToken(ByteBuffer buffer, int from, int to) {
+        switch (to - from) {
+            case 8:
+                return matchesIgnoreCase(WITHDRAW_BYTES, buffer, from) ? WITHDRAW : null;
+            case 7:
+                return matchesIgnoreCase(DEPOSIT_BYTES, buffer, from) ? DEPOSIT : null;
+            default:
+                return null;
+        }
+    }
+
+    private static boolean matchesIgnoreCase(byte[] upperCase, ByteBuffer buffer, int from) {
+        for (int i = 0; i < upperCase.length; i++) {
+            int actual = buffer.get(from + i);
+
+            if (actual >= 'a' && actual <= 'z') {
+                actual -= 'a' - 'A';
+            }
+
+            if (actual != upperCase[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
 }
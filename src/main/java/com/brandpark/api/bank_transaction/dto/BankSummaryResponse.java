@@ -0,0 +1,15 @@
+package com.brandpark.api.bank_transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor @AllArgsConstructor
+@Data
+public class BankSummaryResponse {
+    private String transactionDate;
+    private String bankCode;
+    private String transactionType;
+    private long count;
+    private long amountSum;
+}
@@ -0,0 +1,13 @@
+package com.brandpark.api.bank_transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor @AllArgsConstructor
+@Data
+public class BankTransactionPartitionResponse {
+    private String month;
+    private String tableName;
+    private long rowCount;
+}
@@ -1,14 +1,20 @@
 package com.brandpark.api.bank_transaction.dto;
 
+import com.brandpark.api.bank_transaction.domain.BankCode;
 import com.brandpark.api.bank_transaction.domain.BankTransaction;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
 @NoArgsConstructor
 @Data
 public class BankTransactionResponse {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
     private Long bankTransactionId;
     private Long userId;
     private String bankCode;
@@ -17,11 +23,18 @@ public class BankTransactionResponse {
     private long transactionAmount;
 
     public BankTransactionResponse(BankTransaction entity) {
-        bankTransactionId = entity.getId();
-        userId = entity.getUserId();
-        bankCode = entity.getBankCode().getCode();
-        transactionType = entity.getTransactionType().name();
-        transactionDate = entity.getTransactionDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-        transactionAmount = entity.getTransactionAmount();
+        this(entity.getId(), entity.getUserId(), entity.getBankCode(), entity.getTransactionType(), entity.getTransactionDate(), entity.getTransactionAmount());
+    }
+
+    /**
+     * JPQL 생성자 표현식(SELECT new ...)으로 엔티티를 거치지 않고 조회할 때 사용한다.
+     */
+    public BankTransactionResponse(Long bankTransactionId, Long userId, BankCode bankCode, TransactionType transactionType, LocalDate transactionDate, long transactionAmount) {
+        this.bankTransactionId = bankTransactionId;
+        this.userId = userId;
+        this.bankCode = bankCode.getCode();
+        this.transactionType = transactionType.name();
+        this.transactionDate = transactionDate.format(DATE_FORMATTER);
+        this.transactionAmount = transactionAmount;
     }
 }
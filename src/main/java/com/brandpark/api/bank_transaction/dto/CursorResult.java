@@ -0,0 +1,44 @@
+package com.brandpark.api.bank_transaction.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+@NoArgsConstructor
+@Data
+public class CursorResult<T> {
+
+    private int pageSize;
+    private int contentsSize;
+    private boolean hasNext;
+    private String nextCursor;      // 다음 페이지를 조회할 때 cursor 파라미터로 전달한다. 마지막 페이지면 null
+    private List<T> contents;
+
+    public static <T> CursorResult<T> create(List<T> contents, int pageSize, String nextCursor) {
+        CursorResult<T> ret = new CursorResult<>();
+
+        ret.contents = contents;
+        ret.pageSize = pageSize;
+        ret.contentsSize = contents.size();
+        ret.hasNext = nextCursor != null;
+        ret.nextCursor = nextCursor;
+
+        return ret;
+    }
+
+    /**
+     * size + 1 개까지 조회한 결과로 페이지를 만든다. size 개를 넘으면 size 번째 행의 커서가 nextCursor 가 된다.
+     */
+    public static <T> CursorResult<T> fromFetched(List<T> fetched, int size, Function<T, String> cursorOf) {
+
+        if (fetched.size() <= size) {
+            return create(fetched, size, null);
+        }
+
+        List<T> contents = fetched.subList(0, size);
+
+        return create(contents, size, cursorOf.apply(contents.get(size - 1)));
+    }
+}
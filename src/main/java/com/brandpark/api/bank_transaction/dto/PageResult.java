@@ -1,5 +1,6 @@
 package com.brandpark.api.bank_transaction.dto;
 
+import com.brandpark.api.bank_transaction.query.CountStrategy;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -16,12 +17,57 @@ public class PageResult<T> {
     private int pageNumber;
     private int pageSize;
     private long offset;
-    private int totalPages;
-    private long totalElements;
+    private int totalPages;         // countStrategy 가 NONE 이면 -1
+    private long totalElements;     // countStrategy 가 NONE 이면 -1
+    private CountStrategy countStrategy;
+    private boolean hasNext;
     private int contentsSize;
     private List<T> contents;
 
     public static <T> PageResult<T> create(List<T> contents, Pageable pageable, long totalElements) {
+        return create(contents, pageable, totalElements, CountStrategy.EXACT);
+    }
+
+    public static <T> PageResult<T> create(List<T> contents, Pageable pageable, long totalElements, CountStrategy countStrategy) {
+        PageResult<T> ret = of(contents, pageable);
+
+        ret.totalElements = totalElements;
+        ret.totalPages = totalElements == 0 ? 0 : (int) ((totalElements - 1) / pageable.getPageSize()) + 1;
+        ret.countStrategy = countStrategy;
+        ret.hasNext = pageable.getOffset() + contents.size() < totalElements;
+
+        return ret;
+    }
+
+    /**
+     * 전체 개수를 세지 않은 페이지
+     */
+    public static <T> PageResult<T> createSlice(List<T> contents, Pageable pageable, boolean hasNext) {
+        PageResult<T> ret = of(contents, pageable);
+
+        ret.totalElements = -1;
+        ret.totalPages = -1;
+        ret.countStrategy = CountStrategy.NONE;
+        ret.hasNext = hasNext;
+
+        return ret;
+    }
+
+    /**
+     * 페이지 정보는 그대로 두고 내용물만 바꾼다.
+     */
+    public <R> PageResult<R> withContents(List<R> contents) {
+        PageResult<R> ret = of(contents, pageable);
+
+        ret.totalElements = totalElements;
+        ret.totalPages = totalPages;
+        ret.countStrategy = countStrategy;
+        ret.hasNext = hasNext;
+
+        return ret;
+    }
+
+    private static <T> PageResult<T> of(List<T> contents, Pageable pageable) {
         PageResult<T> ret = new PageResult<>();
 
         ret.contents = contents;
@@ -30,8 +76,6 @@ public class PageResult<T> {
         ret.offset = pageable.getOffset();
         ret.pageable = pageable;
         ret.contentsSize = contents.size();
-        ret.totalElements = totalElements;
-        ret.totalPages = totalElements == 0 ? 0 : (int) ((totalElements - 1) / pageable.getPageSize()) + 1;
 
         return ret;
     }
@@ -0,0 +1,7 @@
+package com.brandpark.api.bank_transaction.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
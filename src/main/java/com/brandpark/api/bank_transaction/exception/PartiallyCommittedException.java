@@ -0,0 +1,10 @@
+package com.brandpark.api.bank_transaction.exception;
+
+/**
+ * 업로드 트랜잭션이 커밋된 뒤 저장소의 일부(샤드 등)만 커밋된 경우. 커밋된 chunk 의 행이 일부 빠져 있으므로 이어서 저장할 수 없다.
+ */
+public class PartiallyCommittedException extends RuntimeException {
+    public PartiallyCommittedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package com.brandpark.api.bank_transaction.exception;
+
+public class PartitionNotFoundException extends RuntimeException {
+    public PartitionNotFoundException(String message) {
+        super(message);
+    }
+}
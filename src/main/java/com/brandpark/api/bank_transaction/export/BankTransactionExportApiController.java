@@ -0,0 +1,45 @@
+package com.brandpark.api.bank_transaction.export;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping("/api/v1")
+@RestController
+public class BankTransactionExportApiController {
+
+    private final BankTransactionExportRepository bankTransactionExportRepository;
+
+    @GetMapping("/bank-transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactionList(
+            @RequestParam(value = "transaction_date", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate transactionDate
+            , @RequestParam(value = "transaction_type", required = false) TransactionType transactionType
+            , @RequestParam(value = "bank_code", required = false) BankCode bankCode
+            , @RequestParam(value = "format", required = false, defaultValue = "NDJSON") ExportFormat format) {
+
+        StreamingResponseBody body = out -> {
+            long rows = bankTransactionExportRepository.export(transactionDate, transactionType, bankCode, format, out);
+
+            log.info("거래내역 내보내기 완료 : {} 행 ({})", rows, format);
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bank-transactions" + format.getExtension() + "\"")
+                .body(body);
+    }
+}
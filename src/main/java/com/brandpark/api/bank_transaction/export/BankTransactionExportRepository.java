@@ -0,0 +1,131 @@
+package com.brandpark.api.bank_transaction.export;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.brandpark.api.bank_transaction.store.TransactionRowHandler;
+import com.brandpark.api.bank_transaction.store.TransactionStore;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * 조건에 해당하는 거래내역을 엔티티나 리스트로 모으지 않고, 저장소에서 한 행씩 읽어 바로 스트림에 쓴다. ({@link TransactionStore#forEachByUser})
+ * 메모리 사용량은 행의 수와 상관없이 저장소의 fetch size 만큼이다.
+ */
+@Repository
+public class BankTransactionExportRepository {
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final TransactionStore transactionStore;
+    private final TransactionTemplate transactionTemplate;
+
+    public BankTransactionExportRepository(TransactionStore transactionStore, PlatformTransactionManager transactionManager) {
+        this.transactionStore = transactionStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);     // 커서를 유지하려면 auto commit 이 꺼져 있어야 하는 DB 가 있다.
+    }
+
+    /**
+     * {거래일자, 유저ID, 거래ID} ASC 로 (유저별 조회 인덱스 순서대로) 쓴다.
+     *
+     * @return 쓴 행의 수
+     */
+    public long export(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, ExportFormat format, OutputStream out) {
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        RowWriter rowWriter = new RowWriter(writer, format);
+
+        transactionTemplate.executeWithoutResult(status -> transactionStore.forEachByUser(transactionDate, transactionType, bankCode, rowWriter));
+
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return rowWriter.rows;
+    }
+
+    private static class RowWriter implements TransactionRowHandler {
+
+        private final Writer writer;
+        private final ExportFormat format;
+        private long rows;
+
+        RowWriter(Writer writer, ExportFormat format) {
+            this.writer = writer;
+            this.format = format;
+        }
+
+        @Override
+        public void handle(long bankTransactionId, long userId, BankCode bankCode, TransactionType transactionType, LocalDate transactionDate, long transactionAmount) {
+            try {
+                if (format == ExportFormat.CSV) {
+                    writeCsv(bankTransactionId, userId, bankCode, transactionType, transactionDate, transactionAmount);
+                } else {
+                    writeJson(bankTransactionId, userId, bankCode, transactionType, transactionDate, transactionAmount);
+                }
+
+                rows++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);      // 클라이언트가 연결을 끊은 경우 조회를 멈춘다.
+            }
+        }
+
+        private void writeCsv(long bankTransactionId, long userId, BankCode bankCode, TransactionType transactionType, LocalDate transactionDate, long transactionAmount) throws IOException {
+            writer.write(Long.toString(bankTransactionId));
+            writer.write(',');
+            writer.write(Integer.toString(transactionDate.getYear()));
+            writer.write(',');
+            writer.write(Integer.toString(transactionDate.getMonthValue()));
+            writer.write(',');
+            writer.write(Integer.toString(transactionDate.getDayOfMonth()));
+            writer.write(',');
+            writer.write(Long.toString(userId));
+            writer.write(',');
+            writer.write(bankCode.getCode());
+            writer.write(',');
+            writer.write(Long.toString(transactionAmount));
+            writer.write(',');
+            writer.write(transactionType.name());
+            writer.write('\n');
+        }
+
+        /*
+         * 컬럼이 모두 숫자, 코드, 날짜라 이스케이프할 문자가 없으므로 ObjectMapper 를 거치지 않고 직접 쓴다.
+         */
+        private void writeJson(long bankTransactionId, long userId, BankCode bankCode, TransactionType transactionType, LocalDate transactionDate, long transactionAmount) throws IOException {
+            writer.write("{\"bankTransactionId\":");
+            writer.write(Long.toString(bankTransactionId));
+            writer.write(",\"userId\":");
+            writer.write(Long.toString(userId));
+            writer.write(",\"bankCode\":\"");
+            writer.write(bankCode.getCode());
+            writer.write("\",\"transactionType\":\"");
+            writer.write(transactionType.name());
+            writer.write("\",\"transactionDate\":\"");
+            writeDate(transactionDate.getYear(), transactionDate.getMonthValue(), transactionDate.getDayOfMonth());
+            writer.write("\",\"transactionAmount\":");
+            writer.write(Long.toString(transactionAmount));
+            writer.write("}\n");
+        }
+
+        private void writeDate(int year, int month, int day) throws IOException {
+            writer.write(Integer.toString(year));
+            writer.write(month < 10 ? "-0" : "-");
+            writer.write(Integer.toString(month));
+            writer.write(day < 10 ? "-0" : "-");
+            writer.write(Integer.toString(day));
+        }
+    }
+}
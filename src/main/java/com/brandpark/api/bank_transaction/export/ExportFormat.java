@@ -0,0 +1,15 @@
+package com.brandpark.api.bank_transaction.export;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+
+    NDJSON("application/x-ndjson", ".ndjson"),     // 한 줄에 BankTransactionResponse 형식의 JSON 하나
+    CSV("text/csv", ".csv");                       // 업로드 csv 와 같은 8개의 컬럼. 그대로 다시 업로드할 수 있다.
+
+    private final String contentType;
+    private final String extension;
+}
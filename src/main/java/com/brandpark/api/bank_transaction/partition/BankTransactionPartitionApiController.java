@@ -0,0 +1,45 @@
+package com.brandpark.api.bank_transaction.partition;
+
+import com.brandpark.api.bank_transaction.dto.BankTransactionPartitionResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * 거래월 파티션 관리. storage.backend 가 partitioned 일 때만 등록된다. 거래월은 yyyy-MM 형식이다.
+ */
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "storage.backend", havingValue = "partitioned")
+@RequestMapping("/api/v1/admin")
+@RestController
+public class BankTransactionPartitionApiController {
+
+    private final BankTransactionPartitionService bankTransactionPartitionService;
+
+    @GetMapping("/bank-transactions/partitions")
+    public List<BankTransactionPartitionResponse> getPartitions() {
+        return bankTransactionPartitionService.findAll();
+    }
+
+    @DeleteMapping("/bank-transactions/partitions/{month}")
+    public ResponseEntity<Void> dropPartition(@PathVariable("month") YearMonth month) {
+
+        bankTransactionPartitionService.drop(month);
+
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/bank-transactions/partitions")
+    public List<String> dropPartitionsBefore(@RequestParam("before") YearMonth before) {
+        return bankTransactionPartitionService.dropBefore(before);
+    }
+}
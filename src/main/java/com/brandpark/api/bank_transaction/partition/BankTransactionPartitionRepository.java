@@ -0,0 +1,132 @@
+package com.brandpark.api.bank_transaction.partition;
+
+import com.brandpark.api.bank_transaction.store.BankTransactionTableDdl;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 거래월별 파티션 테이블(bank_transaction_yyyyMM)을 만들고 지운다.
+ *
+ * <p>파티션은 Hibernate 가 만든 bank_transaction 과 같은 구조로 만든다. ({@link BankTransactionTableDdl})
+ * 파티션 목록은 처음 사용할 때 INFORMATION_SCHEMA 에서 읽은 뒤 이 클래스가 만들고 지울 때마다 갱신한다.
+ */
+@Slf4j
+@ConditionalOnProperty(name = "storage.backend", havingValue = "partitioned")
+@Repository
+public class BankTransactionPartitionRepository {
+
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern PARTITION_NAME = Pattern.compile(BankTransactionTableDdl.TABLE_NAME.toUpperCase(Locale.ROOT) + "_(\\d{6})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate ddlTransaction;
+    private final NavigableSet<YearMonth> partitions = new ConcurrentSkipListSet<>();
+
+    private volatile boolean loaded;
+
+    public BankTransactionPartitionRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ddlTransaction = new TransactionTemplate(transactionManager);
+        this.ddlTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public static String tableName(YearMonth month) {
+        return BankTransactionTableDdl.TABLE_NAME + "_" + month.format(SUFFIX_FORMAT);
+    }
+
+    /**
+     * 거래월 오름차순의 파티션 목록. 반환한 뒤에 만들어지거나 지워진 파티션은 반영되지 않을 수 있다.
+     */
+    public NavigableSet<YearMonth> findAll() {
+        load();
+        return partitions;
+    }
+
+    public boolean exists(YearMonth month) {
+        load();
+        return partitions.contains(month);
+    }
+
+    /**
+     * 파티션이 없으면 만든다. H2 는 DDL 을 실행하면 진행 중인 트랜잭션을 커밋하므로, 업로드 트랜잭션과 분리된 새 트랜잭션(다른 커넥션)에서 만든다.
+     */
+    public void ensure(YearMonth month) {
+        if (exists(month)) {
+            return;
+        }
+
+        synchronized (this) {
+            if (partitions.contains(month)) {
+                return;
+            }
+
+            String table = tableName(month);
+
+            ddlTransaction.executeWithoutResult(status -> BankTransactionTableDdl.copyOf(jdbcTemplate, table, "_" + month.format(SUFFIX_FORMAT))
+                    .forEach(jdbcTemplate::execute));
+
+            partitions.add(month);
+            log.info("파티션 생성 : {}", table);
+        }
+    }
+
+    /**
+     * 파티션 테이블을 통째로 지운다. 지운 행의 수와 상관없이 시간이 일정하다.
+     */
+    public synchronized boolean drop(YearMonth month) {
+        if (!exists(month)) {
+            return false;
+        }
+
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + tableName(month));
+        partitions.remove(month);
+
+        log.info("파티션 삭제 : {}", tableName(month));
+
+        return true;
+    }
+
+    public long countRows(YearMonth month) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tableName(month), Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private void load() {
+        if (loaded) {
+            return;
+        }
+
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+
+            List<String> tables = jdbcTemplate.queryForList(
+                    "SELECT table_name FROM information_schema.tables WHERE table_schema = SCHEMA()", String.class);
+
+            for (String table : tables) {
+                Matcher matcher = PARTITION_NAME.matcher(table.toUpperCase(Locale.ROOT));
+
+                if (matcher.matches()) {
+                    partitions.add(YearMonth.parse(matcher.group(1), SUFFIX_FORMAT));
+                }
+            }
+
+            loaded = true;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.brandpark.api.bank_transaction.partition;
+
+import com.brandpark.api.bank_transaction.counter.BankTransactionCounterRepository;
+import com.brandpark.api.bank_transaction.dto.BankTransactionPartitionResponse;
+import com.brandpark.api.bank_transaction.exception.PartitionNotFoundException;
+import com.brandpark.api.bank_transaction.query.BankTransactionCountCache;
+import com.brandpark.api.bank_transaction.query.BankTransactionResultCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 지난 거래월의 거래내역을 파티션 단위로 지운다. 행마다 DELETE 하지 않고 테이블을 지우므로 행 수와 상관없이 빠르다.
+ * 페이지 조회의 전체 개수로 쓰는 카운터와 COUNT 캐시는 함께 지우고, 요약/잔액 집계는 그대로 둔다.
+ */
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "storage.backend", havingValue = "partitioned")
+@Service
+public class BankTransactionPartitionService {
+
+    private final BankTransactionPartitionRepository bankTransactionPartitionRepository;
+    private final BankTransactionCounterRepository bankTransactionCounterRepository;
+    private final BankTransactionCountCache bankTransactionCountCache;
+    private final BankTransactionResultCache bankTransactionResultCache;
+
+    public List<BankTransactionPartitionResponse> findAll() {
+        return bankTransactionPartitionRepository.findAll().stream()
+                .map(month -> new BankTransactionPartitionResponse(month.toString(), BankTransactionPartitionRepository.tableName(month)
+                        , bankTransactionPartitionRepository.countRows(month)))
+                .collect(Collectors.toList());
+    }
+
+    public void drop(YearMonth month) {
+        if (!dropPartition(month)) {
+            throw new PartitionNotFoundException("파티션을 찾을 수 없습니다. : " + month);
+        }
+    }
+
+    /**
+     * before 이전 거래월의 파티션을 모두 지우고, 지운 거래월을 반환한다.
+     */
+    public List<String> dropBefore(YearMonth before) {
+        List<String> dropped = new ArrayList<>();
+
+        for (YearMonth month : new ArrayList<>(bankTransactionPartitionRepository.findAll().headSet(before))) {
+            if (dropPartition(month)) {
+                dropped.add(month.toString());
+            }
+        }
+
+        return dropped;
+    }
+
+    private boolean dropPartition(YearMonth month) {
+        if (!bankTransactionPartitionRepository.drop(month)) {
+            return false;
+        }
+
+        bankTransactionCounterRepository.deleteBetween(month.atDay(1), month.atEndOfMonth());
+        bankTransactionCountCache.invalidate();
+        bankTransactionResultCache.invalidateBetween(month.atDay(1), month.atEndOfMonth());
+
+        return true;
+    }
+}
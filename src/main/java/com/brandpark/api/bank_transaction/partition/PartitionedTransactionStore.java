@@ -0,0 +1,285 @@
+package com.brandpark.api.bank_transaction.partition;
+
+import com.brandpark.api.bank_transaction.counter.BankTransactionCounterRepository;
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.brandpark.api.bank_transaction.dto.BankTransactionResponse;
+import com.brandpark.api.bank_transaction.dto.CursorResult;
+import com.brandpark.api.bank_transaction.dto.PageResult;
+import com.brandpark.api.bank_transaction.query.BankTransactionCountCache;
+import com.brandpark.api.bank_transaction.query.BankTransactionCursor;
+import com.brandpark.api.bank_transaction.query.CountStrategy;
+import com.brandpark.api.bank_transaction.query.QueryMetrics;
+import com.brandpark.api.bank_transaction.store.BankTransactionInsertSql;
+import com.brandpark.api.bank_transaction.store.TransactionCondition;
+import com.brandpark.api.bank_transaction.store.TransactionRowHandler;
+import com.brandpark.api.bank_transaction.store.TransactionStore;
+import com.brandpark.api.upload.BankTransactionRowBuffer;
+import com.brandpark.api.upload.UploadEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 거래내역을 거래월별 파티션 테이블에 저장하고 조회한다.
+ * <p>
+ * 업로드는 버퍼의 행을 거래월별로 나누어 각 파티션에 multi-row INSERT 한다.
+ * 조회는 거래일자 조건이 있으면 그 달의 파티션 하나만 읽는다. 없으면 정렬 순서의 첫 키가 거래일자이므로 파티션을 거래월 순으로 이어 읽고,
+ * 페이지 앞에 있는 파티션은 행 수만 세어 통째로 건너뛴다.
+ * <p>
+ * 커서 조회는 커서의 거래월 파티션부터 읽으므로, 다음 페이지가 커서와 같은 달에서 채워지면 그 파티션 하나만 읽는다.
+ */
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "storage.backend", havingValue = "partitioned")
+@Repository
+public class PartitionedTransactionStore implements TransactionStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BankTransactionPartitionRepository bankTransactionPartitionRepository;
+    private final BankTransactionCounterRepository bankTransactionCounterRepository;
+    private final BankTransactionCountCache bankTransactionCountCache;
+    private final QueryMetrics queryMetrics;
+
+    /**
+     * 엔진과 상관없이 multi-row INSERT 로 저장한다. 처음 보는 거래월이면 파티션을 먼저 만든다.
+     */
+    @Override
+    public void append(BankTransactionRowBuffer rows, UploadEngine engine) {
+
+        for (Map.Entry<YearMonth, int[]> partition : groupByMonth(rows).entrySet()) {
+            int[] positions = partition.getValue();
+
+            bankTransactionPartitionRepository.ensure(partition.getKey());
+
+            jdbcTemplate.update(BankTransactionInsertSql.build(BankTransactionPartitionRepository.tableName(partition.getKey()), positions.length), ps -> {
+                for (int i = 0; i < positions.length; i++) {
+                    BankTransactionInsertSql.setParameters(ps, i, rows, positions[i]);
+                }
+            });
+        }
+    }
+
+    @Override
+    public PageResult<BankTransactionResponse> findAllByUser(LocalDate transactionDate, TransactionType transactionType, Pageable pageable, CountStrategy countStrategy) {
+        return findPage("by-user", new TransactionCondition(transactionDate, transactionType, null)
+                , TransactionCondition.ORDER_BY_USER, pageable, countStrategy);
+    }
+
+    @Override
+    public PageResult<BankTransactionResponse> findAllByBank(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, Pageable pageable, CountStrategy countStrategy) {
+        return findPage("by-bank", new TransactionCondition(transactionDate, transactionType, bankCode)
+                , TransactionCondition.ORDER_BY_BANK, pageable, countStrategy);
+    }
+
+    @Override
+    public CursorResult<BankTransactionResponse> findAllByUserAfter(LocalDate transactionDate, TransactionType transactionType, String cursor, int size) {
+
+        BankTransactionCursor after = cursor == null ? null : BankTransactionCursor.decode(cursor);
+        List<BankTransactionResponse> fetched = findAfter("by-user-cursor", new TransactionCondition(transactionDate, transactionType, null).afterUser(after)
+                , TransactionCondition.ORDER_BY_USER, after, size + 1);
+
+        return CursorResult.fromFetched(fetched, size, last -> BankTransactionCursor.byUser(last).encode());
+    }
+
+    @Override
+    public CursorResult<BankTransactionResponse> findAllByBankAfter(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, String cursor, int size) {
+
+        BankTransactionCursor after = cursor == null ? null : BankTransactionCursor.decode(cursor);
+        List<BankTransactionResponse> fetched = findAfter("by-bank-cursor", new TransactionCondition(transactionDate, transactionType, bankCode).afterBank(after)
+                , TransactionCondition.ORDER_BY_BANK, after, size + 1);
+
+        return CursorResult.fromFetched(fetched, size, last -> BankTransactionCursor.byBank(last).encode());
+    }
+
+    /**
+     * 파티션을 거래월 순으로 하나씩 forward-only 커서로 읽는다.
+     */
+    @Override
+    public void forEachByUser(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, TransactionRowHandler handler) {
+
+        TransactionCondition condition = new TransactionCondition(transactionDate, transactionType, bankCode);
+
+        for (YearMonth month : partitionsOf(transactionDate)) {
+            condition.stream(jdbcTemplate, BankTransactionPartitionRepository.tableName(month), TransactionCondition.ORDER_BY_USER, handler);
+        }
+    }
+
+    /*
+     * 커서의 거래월 파티션부터 차례로 읽어 limit 개를 채운다. 거래일자 조건이 있으면 그 달의 파티션 하나만 읽는다.
+     */
+    private List<BankTransactionResponse> findAfter(String query, TransactionCondition condition, String order, BankTransactionCursor after, int limit) {
+
+        List<BankTransactionResponse> fetched = new ArrayList<>(limit);
+
+        for (YearMonth month : partitionsFrom(condition.getTransactionDate(), after)) {
+            fetched.addAll(fetch(query, month, condition, order, 0, limit - fetched.size()));
+
+            if (fetched.size() >= limit) {
+                break;
+            }
+        }
+
+        return fetched;
+    }
+
+    /*
+     * NONE 이면 pageSize + 1 개를 채우는 즉시 멈춘다. 건너뛸 파티션의 행 수는 countStrategy 로 센다.
+     * 파티션의 마지막 행까지 읽었다면 읽은 행 수가 그 파티션의 행 수이므로 따로 세지 않는다.
+     */
+    private PageResult<BankTransactionResponse> findPage(String query, TransactionCondition condition, String order, Pageable pageable, CountStrategy countStrategy) {
+
+        boolean countTotal = countStrategy != CountStrategy.NONE;
+        int limit = countTotal ? pageable.getPageSize() : pageable.getPageSize() + 1;
+        long skip = pageable.getOffset();
+        long totalElements = 0;
+        long countNanos = 0;
+        List<BankTransactionResponse> contents = new ArrayList<>();
+        List<YearMonth> partitions = partitionsOf(condition.getTransactionDate());
+
+        for (int i = 0; i < partitions.size(); i++) {
+
+            YearMonth month = partitions.get(i);
+            boolean lastPartition = i == partitions.size() - 1;
+            long count = -1;
+
+            if (contents.size() < limit) {
+                if (skip > 0 && !lastPartition) {
+                    long countStart = System.nanoTime();
+                    count = count(month, condition, countStrategy);
+                    countNanos += System.nanoTime() - countStart;
+
+                    if (skip >= count) {
+                        skip -= count;
+                        totalElements += count;
+                        continue;
+                    }
+                }
+
+                int want = limit - contents.size();
+                List<BankTransactionResponse> fetched = fetch(query, month, condition, order, skip, want);
+                contents.addAll(fetched);
+
+                if (count < 0 && fetched.size() < want && (skip == 0 || !fetched.isEmpty())) {
+                    count = skip + fetched.size();
+                }
+
+                skip = 0;
+            } else if (!countTotal) {
+                break;
+            }
+
+            if (countTotal) {
+                if (count < 0) {
+                    long countStart = System.nanoTime();
+                    count = count(month, condition, countStrategy);
+                    countNanos += System.nanoTime() - countStart;
+                }
+                totalElements += count;
+            }
+        }
+
+        if (!countTotal) {
+            boolean hasNext = contents.size() > pageable.getPageSize();
+            return PageResult.createSlice(hasNext ? contents.subList(0, pageable.getPageSize()) : contents, pageable, hasNext);
+        }
+
+        queryMetrics.recordCount(query, countStrategy, countNanos);
+
+        return PageResult.create(contents, pageable, totalElements, countStrategy);
+    }
+
+    private List<YearMonth> partitionsOf(LocalDate transactionDate) {
+        if (transactionDate == null) {
+            return new ArrayList<>(bankTransactionPartitionRepository.findAll());
+        }
+
+        YearMonth month = YearMonth.from(transactionDate);
+
+        return bankTransactionPartitionRepository.exists(month) ? Collections.singletonList(month) : Collections.emptyList();
+    }
+
+    private List<YearMonth> partitionsFrom(LocalDate transactionDate, BankTransactionCursor after) {
+        if (transactionDate != null || after == null) {
+            return partitionsOf(transactionDate);
+        }
+
+        return new ArrayList<>(bankTransactionPartitionRepository.findAll().tailSet(YearMonth.from(after.getTransactionDate()), true));
+    }
+
+    private List<BankTransactionResponse> fetch(String query, YearMonth month, TransactionCondition condition, String order, long offset, int limit) {
+
+        long start = System.nanoTime();
+        List<BankTransactionResponse> fetched = jdbcTemplate.query(
+                TransactionCondition.SELECT + BankTransactionPartitionRepository.tableName(month) + condition.getWhere() + order + " LIMIT ? OFFSET ?"
+                , TransactionCondition.RESPONSE_MAPPER, condition.argsWithPage(limit, offset));
+
+        queryMetrics.recordContent(query, offset, fetched.size(), System.nanoTime() - start);
+
+        return fetched;
+    }
+
+    private long count(YearMonth month, TransactionCondition condition, CountStrategy countStrategy) {
+        String table = BankTransactionPartitionRepository.tableName(month);
+
+        switch (countStrategy) {
+            case APPROXIMATE:
+                return condition.getTransactionDate() != null
+                        ? bankTransactionCounterRepository.sum(condition.getTransactionDate(), condition.getTransactionType(), condition.getBankCode())
+                        : bankTransactionCounterRepository.sumBetween(month.atDay(1), month.atEndOfMonth(), condition.getTransactionType(), condition.getBankCode());
+            case CACHED:
+                return bankTransactionCountCache.get(table + condition.getWhere() + condition.getArgs(), () -> countRows(table, condition));
+            default:
+                return countRows(table, condition);
+        }
+    }
+
+    private long countRows(String table, TransactionCondition condition) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + condition.getWhere(), Long.class, condition.getArgs().toArray());
+        return count == null ? 0 : count;
+    }
+
+    /*
+     * 거래월(year * 12 + month) 별 버퍼 내 위치. 업로드 파일은 대부분 한 달치이므로 파티션은 보통 하나다.
+     */
+    private static Map<YearMonth, int[]> groupByMonth(BankTransactionRowBuffer rows) {
+
+        Map<Integer, int[]> counts = new TreeMap<>();
+
+        for (int i = 0; i < rows.size(); i++) {
+            counts.computeIfAbsent(monthKey(rows, i), k -> new int[1])[0]++;
+        }
+
+        Map<YearMonth, int[]> positions = new TreeMap<>();
+        Map<Integer, int[]> byKey = new HashMap<>();
+
+        counts.forEach((key, count) -> {
+            int[] p = new int[count[0]];
+
+            byKey.put(key, p);
+            positions.put(YearMonth.of(key / 12, key % 12 + 1), p);
+            count[0] = 0;       // 이제부터 채운 개수
+        });
+
+        for (int i = 0; i < rows.size(); i++) {
+            int key = monthKey(rows, i);
+            byKey.get(key)[counts.get(key)[0]++] = i;
+        }
+
+        return positions;
+    }
+
+    private static int monthKey(BankTransactionRowBuffer rows, int i) {
+        return rows.getYear(i) * 12 + rows.getMonth(i) - 1;
+    }
+}
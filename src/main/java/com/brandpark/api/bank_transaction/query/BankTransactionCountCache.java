@@ -0,0 +1,52 @@
+package com.brandpark.api.bank_transaction.query;
+
+import com.brandpark.api.upload.BankTransactionUploadedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 조회 조건별 COUNT 쿼리의 결과. 거래내역은 업로드로만 추가되므로 업로드가 끝나면 모두 비운다.
+ */
+@Component
+public class BankTransactionCountCache {
+
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final Map<String, Long> counts = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();     // 세는 도중 무효화되었다면 결과를 캐시하지 않는다.
+
+    public long get(String key, Supplier<Long> counter) {
+
+        Long cached = counts.get(key);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        long countedAt = generation.get();
+        long count = counter.get();
+
+        if (counts.size() >= MAX_ENTRIES) {
+            counts.clear();
+        }
+
+        counts.put(key, count);
+
+        if (generation.get() != countedAt) {
+            counts.remove(key);
+        }
+
+        return count;
+    }
+
+    @EventListener(BankTransactionUploadedEvent.class)
+    public void invalidate() {
+        generation.incrementAndGet();
+        counts.clear();
+    }
+}
@@ -0,0 +1,91 @@
+package com.brandpark.api.bank_transaction.query;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.dto.BankTransactionResponse;
+import com.brandpark.api.bank_transaction.exception.InvalidCursorException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 마지막으로 조회한 행의 정렬 키 (거래일자, 유저ID 또는 은행코드, 거래ID). 클라이언트에게는 불투명한 토큰으로 전달한다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class BankTransactionCursor {
+
+    private static final String BY_USER = "U";
+    private static final String BY_BANK = "B";
+    private static final String DELIMITER = ",";
+
+    private final String sortKey;
+    private final LocalDate transactionDate;
+    private final String groupKey;
+    private final long id;
+
+    public static BankTransactionCursor byUser(LocalDate transactionDate, long userId, long id) {
+        return new BankTransactionCursor(BY_USER, transactionDate, String.valueOf(userId), id);
+    }
+
+    public static BankTransactionCursor byBank(LocalDate transactionDate, BankCode bankCode, long id) {
+        return new BankTransactionCursor(BY_BANK, transactionDate, bankCode.getCode(), id);
+    }
+
+    public static BankTransactionCursor byUser(BankTransactionResponse last) {
+        return byUser(LocalDate.parse(last.getTransactionDate()), last.getUserId(), last.getBankTransactionId());
+    }
+
+    public static BankTransactionCursor byBank(BankTransactionResponse last) {
+        return byBank(LocalDate.parse(last.getTransactionDate()), BankCode.ofCode(last.getBankCode()), last.getBankTransactionId());
+    }
+
+    public static BankTransactionCursor decode(String token) {
+        try {
+            String[] split = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(DELIMITER);
+
+            if (split.length != 4) {
+                throw new InvalidCursorException("올바르지 않은 커서입니다.");
+            }
+
+            return new BankTransactionCursor(split[0], LocalDate.parse(split[1]), split[2], Long.parseLong(split[3]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("올바르지 않은 커서입니다.");
+        }
+    }
+
+    public String encode() {
+        String raw = String.join(DELIMITER, sortKey, transactionDate.toString(), groupKey, String.valueOf(id));
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public long getUserId() {
+        checkSortKey(BY_USER);
+
+        try {
+            return Long.parseLong(groupKey);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("올바르지 않은 커서입니다.");
+        }
+    }
+
+    public BankCode getBankCode() {
+        checkSortKey(BY_BANK);
+
+        try {
+            return BankCode.ofCode(groupKey);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("올바르지 않은 커서입니다.");
+        }
+    }
+
+    private void checkSortKey(String expected) {
+        if (!expected.equals(sortKey)) {
+            throw new InvalidCursorException("다른 조회에서 발급된 커서입니다.");
+        }
+    }
+}
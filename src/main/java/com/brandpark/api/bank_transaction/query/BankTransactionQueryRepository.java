@@ -1,10 +1,14 @@
 package com.brandpark.api.bank_transaction.query;
 
+import com.brandpark.api.bank_transaction.counter.BankTransactionCounterRepository;
 import com.brandpark.api.bank_transaction.domain.BankCode;
 import com.brandpark.api.bank_transaction.domain.BankTransaction;
 import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.brandpark.api.bank_transaction.dto.BankTransactionResponse;
+import com.brandpark.api.bank_transaction.dto.CursorResult;
 import com.brandpark.api.bank_transaction.dto.PageResult;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.QueryHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,7 +16,11 @@ import org.springframework.transaction.annotation.Transactional;
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
@@ -20,92 +28,287 @@ import java.util.List;
 public class BankTransactionQueryRepository {
 
     private final EntityManager entityManager;
+    private final BankTransactionCounterRepository bankTransactionCounterRepository;
+    private final BankTransactionCountCache bankTransactionCountCache;
+    private final QueryMetrics queryMetrics;
 
     public PageResult<BankTransaction> findAllBankTransactionByUser(LocalDate transactionDate, TransactionType transactionType, Pageable pageable) {
+        return findAllBankTransactionByUser(transactionDate, transactionType, pageable, CountStrategy.EXACT);
+    }
+
+    public PageResult<BankTransaction> findAllBankTransactionByUser(LocalDate transactionDate, TransactionType transactionType, Pageable pageable, CountStrategy countStrategy) {
+        return findPageByUser(Projection.ENTITY, transactionDate, transactionType, pageable, countStrategy);
+    }
+
+    /**
+     * 유저별 조회와 같은 행을 엔티티 대신 응답 DTO 로 바로 조회한다.
+     */
+    public PageResult<BankTransactionResponse> findAllBankTransactionResponseByUser(LocalDate transactionDate, TransactionType transactionType, Pageable pageable, CountStrategy countStrategy) {
+        return findPageByUser(Projection.RESPONSE, transactionDate, transactionType, pageable, countStrategy);
+    }
+
+    public PageResult<BankTransaction> findAllBankTransactionByBank(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, Pageable pageable) {
+        return findAllBankTransactionByBank(transactionDate, transactionType, bankCode, pageable, CountStrategy.EXACT);
+    }
+
+    public PageResult<BankTransaction> findAllBankTransactionByBank(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, Pageable pageable, CountStrategy countStrategy) {
+        return findPageByBank(Projection.ENTITY, transactionDate, transactionType, bankCode, pageable, countStrategy);
+    }
+
+    /**
+     * 은행별 조회와 같은 행을 엔티티 대신 응답 DTO 로 바로 조회한다.
+     */
+    public PageResult<BankTransactionResponse> findAllBankTransactionResponseByBank(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, Pageable pageable, CountStrategy countStrategy) {
+        return findPageByBank(Projection.RESPONSE, transactionDate, transactionType, bankCode, pageable, countStrategy);
+    }
+
+    /**
+     * 커서 이후의 행을 {거래일자, 유저ID, 거래ID} ASC 로 조회한다. OFFSET 대신 정렬 키로 시작 위치를 찾기 때문에 몇 번째 페이지든 비용이 같다.
+     *
+     * @param cursor 이전 페이지의 nextCursor. 첫 페이지는 null
+     */
+    public CursorResult<BankTransaction> findAllBankTransactionByUserAfter(LocalDate transactionDate, TransactionType transactionType, String cursor, int size) {
+        return findCursorPageByUser(Projection.ENTITY, transactionDate, transactionType, cursor, size);
+    }
+
+    public CursorResult<BankTransactionResponse> findAllBankTransactionResponseByUserAfter(LocalDate transactionDate, TransactionType transactionType, String cursor, int size) {
+        return findCursorPageByUser(Projection.RESPONSE, transactionDate, transactionType, cursor, size);
+    }
+
+    /**
+     * 커서 이후의 행을 {거래일자, 은행코드, 거래ID} ASC 로 조회한다.
+     *
+     * @param cursor 이전 페이지의 nextCursor. 첫 페이지는 null
+     */
+    public CursorResult<BankTransaction> findAllBankTransactionByBankAfter(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, String cursor, int size) {
+        return findCursorPageByBank(Projection.ENTITY, transactionDate, transactionType, bankCode, cursor, size);
+    }
+
+    public CursorResult<BankTransactionResponse> findAllBankTransactionResponseByBankAfter(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, String cursor, int size) {
+        return findCursorPageByBank(Projection.RESPONSE, transactionDate, transactionType, bankCode, cursor, size);
+    }
+
+    private <T> PageResult<T> findPageByUser(Projection<T> projection, LocalDate transactionDate, TransactionType transactionType, Pageable pageable, CountStrategy countStrategy) {
 
         final StringBuilder where = new StringBuilder(" WHERE 1=1");
+        final Map<String, Object> parameters = new LinkedHashMap<>();
 
         if (transactionDate != null) {
             where.append(" AND bt.transactionDate = :transactionDate");
+            parameters.put("transactionDate", transactionDate);
         }
 
         if (transactionType != null) {
             where.append(" AND bt.transactionType = :transactionType");
+            parameters.put("transactionType", transactionType);
         }
 
         String order = " ORDER BY bt.transactionDate, bt.userId";
-        var contentsQuery = getContentsQuery(pageable, where.toString(), order);
-        var totalElementsQuery = getCountElements(where.toString());
+
+        return findPage("by-user", projection, where.toString(), order, parameters, pageable, countStrategy
+                , () -> bankTransactionCounterRepository.sum(transactionDate, transactionType, null));
+    }
+
+    private <T> PageResult<T> findPageByBank(Projection<T> projection, LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, Pageable pageable, CountStrategy countStrategy) {
+
+        final StringBuilder where = new StringBuilder(" WHERE 1=1");
+        final Map<String, Object> parameters = new LinkedHashMap<>();
 
         if (transactionDate != null) {
-            contentsQuery.setParameter("transactionDate", transactionDate);
-            totalElementsQuery.setParameter("transactionDate", transactionDate);
+            where.append(" AND bt.transactionDate = :transactionDate");
+            parameters.put("transactionDate", transactionDate);
         }
 
         if (transactionType != null) {
-            contentsQuery.setParameter("transactionType", transactionType);
-            totalElementsQuery.setParameter("transactionType", transactionType);
+            where.append(" AND bt.transactionType = :transactionType");
+            parameters.put("transactionType", transactionType);
         }
 
-        List<BankTransaction> contents = contentsQuery.getResultList();
-        final long totalElements = totalElementsQuery.getSingleResult();
+        if (bankCode != null) {
+            where.append(" AND bt.bankCode = :bankCode");
+            parameters.put("bankCode", bankCode);
+        }
 
-        return PageResult.create(contents, pageable, totalElements);
+        String order = " ORDER BY bt.transactionDate, bt.bankCode";
+
+        return findPage("by-bank", projection, where.toString(), order, parameters, pageable, countStrategy
+                , () -> bankTransactionCounterRepository.sum(transactionDate, transactionType, bankCode));
     }
 
-    public PageResult<BankTransaction> findAllBankTransactionByBank(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, Pageable pageable) {
+    private <T> CursorResult<T> findCursorPageByUser(Projection<T> projection, LocalDate transactionDate, TransactionType transactionType, String cursor, int size) {
 
         final StringBuilder where = new StringBuilder(" WHERE 1=1");
+        final Map<String, Object> parameters = new LinkedHashMap<>();
 
         if (transactionDate != null) {
             where.append(" AND bt.transactionDate = :transactionDate");
+            parameters.put("transactionDate", transactionDate);
         }
 
         if (transactionType != null) {
             where.append(" AND bt.transactionType = :transactionType");
+            parameters.put("transactionType", transactionType);
         }
 
-        if (bankCode != null) {
-            where.append(" AND bt.bankCode = :bankCode");
+        BankTransactionCursor after = cursor == null ? null : BankTransactionCursor.decode(cursor);
+
+        if (after != null) {
+            where.append(" AND bt.transactionDate >= :cursorDate")     // 인덱스의 탐색 시작 위치로 사용된다.
+                    .append(" AND (bt.transactionDate > :cursorDate")
+                    .append(" OR (bt.transactionDate = :cursorDate AND bt.userId > :cursorUserId)")
+                    .append(" OR (bt.transactionDate = :cursorDate AND bt.userId = :cursorUserId AND bt.id > :cursorId))");
+            parameters.put("cursorDate", after.getTransactionDate());
+            parameters.put("cursorUserId", after.getUserId());
+            parameters.put("cursorId", after.getId());
         }
 
-        String order = " ORDER BY bt.transactionDate, bt.bankCode";
-        var contentsQuery = getContentsQuery(pageable, where.toString(), order);
-        var totalElementsQuery = getCountElements(where.toString());
+        String order = " ORDER BY bt.transactionDate, bt.userId, bt.id";
+        var contentsQuery = getContentsQuery(projection, size + 1, where.toString(), order);
+        parameters.forEach(contentsQuery::setParameter);
+
+        return CursorResult.fromFetched(getResultList("by-user-cursor", contentsQuery, 0), size, last -> projection.userCursor.apply(last).encode());
+    }
+
+    private <T> CursorResult<T> findCursorPageByBank(Projection<T> projection, LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, String cursor, int size) {
+
+        final StringBuilder where = new StringBuilder(" WHERE 1=1");
+        final Map<String, Object> parameters = new LinkedHashMap<>();
 
         if (transactionDate != null) {
-            contentsQuery.setParameter("transactionDate", transactionDate);
-            totalElementsQuery.setParameter("transactionDate", transactionDate);
+            where.append(" AND bt.transactionDate = :transactionDate");
+            parameters.put("transactionDate", transactionDate);
         }
 
         if (transactionType != null) {
-            contentsQuery.setParameter("transactionType", transactionType);
-            totalElementsQuery.setParameter("transactionType", transactionType);
+            where.append(" AND bt.transactionType = :transactionType");
+            parameters.put("transactionType", transactionType);
         }
 
         if (bankCode != null) {
-            contentsQuery.setParameter("bankCode", bankCode);
-            totalElementsQuery.setParameter("bankCode", bankCode);
+            where.append(" AND bt.bankCode = :bankCode");
+            parameters.put("bankCode", bankCode);
         }
 
-        List<BankTransaction> contents = contentsQuery.getResultList();
-        final long totalElements = totalElementsQuery.getSingleResult();
+        BankTransactionCursor after = cursor == null ? null : BankTransactionCursor.decode(cursor);
+
+        if (after != null) {
+            where.append(" AND bt.transactionDate >= :cursorDate")     // 인덱스의 탐색 시작 위치로 사용된다.
+                    .append(" AND (bt.transactionDate > :cursorDate")
+                    .append(" OR (bt.transactionDate = :cursorDate AND bt.bankCode > :cursorBankCode)")
+                    .append(" OR (bt.transactionDate = :cursorDate AND bt.bankCode = :cursorBankCode AND bt.id > :cursorId))");
+            parameters.put("cursorDate", after.getTransactionDate());
+            parameters.put("cursorBankCode", after.getBankCode());
+            parameters.put("cursorId", after.getId());
+        }
 
-        return PageResult.create(contents, pageable, totalElements);
+        String order = " ORDER BY bt.transactionDate, bt.bankCode, bt.id";
+        var contentsQuery = getContentsQuery(projection, size + 1, where.toString(), order);
+        parameters.forEach(contentsQuery::setParameter);
+
+        return CursorResult.fromFetched(getResultList("by-bank-cursor", contentsQuery, 0), size, last -> projection.bankCursor.apply(last).encode());
     }
 
-    private TypedQuery<BankTransaction> getContentsQuery(Pageable pageable, final String where, final String order) {
+    /*
+     * 조회한 행은 수정하지 않으므로 read-only 로 조회하여 영속성 컨텍스트가 스냅샷을 만들지 않도록 한다.
+     */
+    private <T> TypedQuery<T> getContentsQuery(Projection<T> projection, int maxResults, final String where, final String order) {
 
         return entityManager.createQuery(
-                        "SELECT bt FROM BankTransaction bt" +
+                        projection.select +
                                 where +
                                 order
-                        , BankTransaction.class)
-                .setMaxResults(pageable.getPageSize())
+                        , projection.type)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .setMaxResults(maxResults);
+    }
+
+    private <T> List<T> getResultList(String query, TypedQuery<T> contentsQuery, long offset) {
+        long start = System.nanoTime();
+        List<T> fetched = contentsQuery.getResultList();
+
+        queryMetrics.recordContent(query, offset, fetched.size(), System.nanoTime() - start);
+
+        return fetched;
+    }
+
+    private <T> PageResult<T> findPage(String query, Projection<T> projection, String where, String order, Map<String, Object> parameters
+            , Pageable pageable, CountStrategy countStrategy, Supplier<Long> approximateCount) {
+
+        if (countStrategy == CountStrategy.NONE) {
+            var contentsQuery = getContentsQuery(projection, pageable.getPageSize() + 1, where, order)
+                    .setFirstResult((int) pageable.getOffset());
+            parameters.forEach(contentsQuery::setParameter);
+
+            List<T> fetched = getResultList(query, contentsQuery, pageable.getOffset());
+            boolean hasNext = fetched.size() > pageable.getPageSize();
+
+            return PageResult.createSlice(hasNext ? fetched.subList(0, pageable.getPageSize()) : fetched, pageable, hasNext);
+        }
+
+        var contentsQuery = getContentsQuery(projection, pageable.getPageSize(), where, order)
                 .setFirstResult((int) pageable.getOffset());
+        parameters.forEach(contentsQuery::setParameter);
+
+        List<T> contents = getResultList(query, contentsQuery, pageable.getOffset());
+        final long totalElements;
+        long countStart = System.nanoTime();
+
+        switch (countStrategy) {
+            case APPROXIMATE:
+                totalElements = approximateCount.get();
+                break;
+            case CACHED:
+                totalElements = bankTransactionCountCache.get(where + parameters, () -> countElements(where, parameters));
+                break;
+            default:
+                totalElements = countElements(where, parameters);
+        }
+
+        queryMetrics.recordCount(query, countStrategy, System.nanoTime() - countStart);
+
+        return PageResult.create(contents, pageable, totalElements, countStrategy);
+    }
+
+    private long countElements(String where, Map<String, Object> parameters) {
+        var totalElementsQuery = getCountElements(where);
+        parameters.forEach(totalElementsQuery::setParameter);
+
+        return totalElementsQuery.getSingleResult();
     }
 
     private TypedQuery<Long> getCountElements(final String where) {
         return entityManager.createQuery("SELECT COUNT(bt.id) FROM BankTransaction bt " + where, Long.class);
     }
+
+    /*
+     * 조회 결과의 형태. RESPONSE 는 생성자 표현식으로 필요한 컬럼만 조회하여 엔티티를 영속성 컨텍스트에 올리지 않는다.
+     */
+    private static class Projection<T> {
+
+        static final Projection<BankTransaction> ENTITY = new Projection<>(
+                "SELECT bt FROM BankTransaction bt"
+                , BankTransaction.class
+                , last -> BankTransactionCursor.byUser(last.getTransactionDate(), last.getUserId(), last.getId())
+                , last -> BankTransactionCursor.byBank(last.getTransactionDate(), last.getBankCode(), last.getId()));
+
+        static final Projection<BankTransactionResponse> RESPONSE = new Projection<>(
+                "SELECT new com.brandpark.api.bank_transaction.dto.BankTransactionResponse(" +
+                        "bt.id, bt.userId, bt.bankCode, bt.transactionType, bt.transactionDate, bt.transactionAmount)" +
+                        " FROM BankTransaction bt"
+                , BankTransactionResponse.class
+                , BankTransactionCursor::byUser
+                , BankTransactionCursor::byBank);
+
+        final String select;
+        final Class<T> type;
+        final Function<T, BankTransactionCursor> userCursor;
+        final Function<T, BankTransactionCursor> bankCursor;
+
+        Projection(String select, Class<T> type, Function<T, BankTransactionCursor> userCursor, Function<T, BankTransactionCursor> bankCursor) {
+            this.select = select;
+            this.type = type;
+            this.userCursor = userCursor;
+            this.bankCursor = bankCursor;
+        }
+    }
 }
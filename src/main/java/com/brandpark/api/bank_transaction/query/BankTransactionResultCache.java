@@ -0,0 +1,211 @@
+package com.brandpark.api.bank_transaction.query;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.brandpark.api.bank_transaction.dto.BankTransactionResponse;
+import com.brandpark.api.bank_transaction.dto.PageResult;
+import com.brandpark.api.replica.ConsistencyTokenInterceptor;
+import com.brandpark.api.upload.BankTransactionBatchListener;
+import com.brandpark.api.upload.BankTransactionRowBuffer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 유저별/은행별 페이지 조회의 결과. 키는 (조회, 거래일자, 거래타입, 은행코드, count, 페이지 번호, 페이지 크기)이다.
+ *
+ * <p>Caffeine 의 W-TinyLFU 로 내보내며, 항목의 무게는 페이지의 행 수이고 전체 무게는 max-rows 를 넘지 않는다.
+ * 업로드 트랜잭션이 저장한 거래일자를 모아 두었다가 커밋된 뒤에 그 거래일자의 항목과 거래일자 조건이 없는 항목만 지운다.
+ * 롤백된 업로드는 지우지 않는다.
+ *
+ * <p>복제 DB 에서 읽은 결과는 무효화가 끝난 뒤에 읽었더라도 복제 지연만큼 늦을 수 있다.
+ * 그래서 복제 DB 를 사용하면 ttl 을 datasource.replica.max-lag 이하로 줄여, 늦은 결과가 복제 지연보다 오래 남지 않게 한다.
+ */
+@Component
+public class BankTransactionResultCache implements BankTransactionBatchListener {
+
+    private final boolean enabled;
+    private final Cache<Key, PageResult<BankTransactionResponse>> cache;
+    private final AtomicLong generation = new AtomicLong();     // 조회 도중 무효화되었다면 결과를 캐시하지 않는다.
+    private final Counter invalidated;
+
+    public BankTransactionResultCache(MeterRegistry meterRegistry
+            , @Value("${query.result-cache.enabled:false}") boolean enabled
+            , @Value("${query.result-cache.max-rows:200000}") long maxRows
+            , @Value("${query.result-cache.ttl:10m}") Duration ttl
+            , @Value("${datasource.replica.urls:}") String replicaUrls
+            , @Value("${datasource.replica.max-lag:5s}") Duration replicaMaxLag) {
+
+        if (!replicaUrls.isBlank() && replicaMaxLag.compareTo(ttl) < 0) {
+            ttl = replicaMaxLag;
+        }
+
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxRows)
+                .weigher((Key key, PageResult<BankTransactionResponse> page) -> page.getContentsSize() + 1)
+                .expireAfterWrite(ttl)
+                .executor(Runnable::run)        // 내보내기를 요청한 스레드에서 바로 처리한다.
+                .recordStats()
+                .build();
+        this.invalidated = Counter.builder("bank_transaction.result_cache.invalidated")
+                .description("업로드나 파티션 삭제로 지운 항목의 수").register(meterRegistry);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "bank_transaction_result");
+    }
+
+    public PageResult<BankTransactionResponse> findAllByUser(LocalDate transactionDate, TransactionType transactionType, CountStrategy countStrategy
+            , Pageable pageable, Supplier<PageResult<BankTransactionResponse>> loader) {
+
+        return get(new Key("by-user", transactionDate, transactionType, null, countStrategy, pageable), loader);
+    }
+
+    public PageResult<BankTransactionResponse> findAllByBank(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, CountStrategy countStrategy
+            , Pageable pageable, Supplier<PageResult<BankTransactionResponse>> loader) {
+
+        return get(new Key("by-bank", transactionDate, transactionType, bankCode, countStrategy, pageable), loader);
+    }
+
+    /*
+     * 같은 키를 동시에 조회하면 각자 DB 에서 읽는다. (Cache.get 의 로더는 다른 키의 갱신을 막을 수 있어 사용하지 않는다.)
+     * 일관성 토큰을 보낸 조회는 복제 지연 동안 캐시된 결과를 받지 않도록 캐시를 거치지 않는다.
+     */
+    private PageResult<BankTransactionResponse> get(Key key, Supplier<PageResult<BankTransactionResponse>> loader) {
+        if (!enabled || ConsistencyTokenInterceptor.current() > 0) {
+            return loader.get();
+        }
+
+        PageResult<BankTransactionResponse> cached = cache.getIfPresent(key);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        long loadedAt = generation.get();
+        PageResult<BankTransactionResponse> result = loader.get();
+
+        cache.put(key, result);
+
+        if (generation.get() != loadedAt) {
+            cache.invalidate(key);
+        }
+
+        return result;
+    }
+
+    /**
+     * 업로드 트랜잭션 안에서 호출된다. 저장한 거래일자를 모아 두었다가 커밋된 뒤에 지운다.
+     */
+    @Override
+    public void onBatchInserted(BankTransactionRowBuffer batch) {
+        if (!enabled) {
+            return;
+        }
+
+        Set<LocalDate> dates = TransactionSynchronizationManager.isSynchronizationActive() ? touchedDates() : new HashSet<>();
+
+        for (int i = 0; i < batch.size(); i++) {
+            dates.add(batch.getTransactionDate(i));
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {      // 트랜잭션 밖에서는 바로 지운다.
+            invalidate(dates::contains);
+        }
+    }
+
+    /**
+     * 거래일자가 [from, to] 인 항목과 거래일자 조건이 없는 항목을 지운다.
+     */
+    public void invalidateBetween(LocalDate from, LocalDate to) {
+        invalidate(date -> !date.isBefore(from) && !date.isAfter(to));
+    }
+
+    private void invalidate(Predicate<LocalDate> touched) {
+        if (!enabled) {
+            return;
+        }
+
+        generation.incrementAndGet();
+
+        AtomicLong removed = new AtomicLong();
+
+        cache.asMap().keySet().removeIf(key -> {
+            boolean remove = key.transactionDate == null || touched.test(key.transactionDate);
+            if (remove) {
+                removed.incrementAndGet();
+            }
+            return remove;
+        });
+
+        invalidated.increment(removed.get());
+    }
+
+    private Set<LocalDate> touchedDates() {
+
+        TouchedDates touched = (TouchedDates) TransactionSynchronizationManager.getResource(this);
+
+        if (touched == null) {
+            touched = new TouchedDates();
+            TransactionSynchronizationManager.bindResource(this, touched);
+            TransactionSynchronizationManager.registerSynchronization(touched);
+        }
+
+        return touched.dates;
+    }
+
+    /**
+     * 트랜잭션 하나가 저장한 거래일자. 커밋되기 전에 지우면 커밋 전의 결과가 다시 캐시될 수 있으므로 커밋된 뒤에 지운다.
+     * 세그먼트 저장소는 afterCommit 에서 세그먼트를 공개하므로, 모든 afterCommit 이 끝난 뒤인 afterCompletion 에서 지운다.
+     */
+    private class TouchedDates implements TransactionSynchronization {
+
+        private final Set<LocalDate> dates = new HashSet<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(BankTransactionResultCache.this);
+
+            if (status == STATUS_COMMITTED) {
+                invalidate(dates::contains);
+            }
+        }
+    }
+
+    @EqualsAndHashCode
+    private static class Key {
+
+        private final String query;
+        private final LocalDate transactionDate;
+        private final TransactionType transactionType;
+        private final BankCode bankCode;
+        private final CountStrategy countStrategy;
+        private final int page;
+        private final int size;
+
+        Key(String query, LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, CountStrategy countStrategy, Pageable pageable) {
+            this.query = query;
+            this.transactionDate = transactionDate;
+            this.transactionType = transactionType;
+            this.bankCode = bankCode;
+            this.countStrategy = countStrategy;
+            this.page = pageable.getPageNumber();
+            this.size = pageable.getPageSize();
+        }
+    }
+}
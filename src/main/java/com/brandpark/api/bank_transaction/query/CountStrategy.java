@@ -0,0 +1,19 @@
+package com.brandpark.api.bank_transaction.query;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 페이지 조회에서 totalElements 를 구하는 방법
+ */
+@Getter
+@RequiredArgsConstructor
+public enum CountStrategy {
+
+    EXACT("매 요청마다 COUNT 쿼리로 센다."),
+    NONE("세지 않는다. pageSize + 1 개를 조회하여 다음 페이지가 있는지만 알려준다."),
+    APPROXIMATE("업로드할 때 (거래일자, 거래타입, 은행코드) 별로 누적한 카운터를 합산한다."),
+    CACHED("COUNT 쿼리의 결과를 캐시하고, 업로드가 끝나면 무효화한다.");
+
+    private final String description;
+}
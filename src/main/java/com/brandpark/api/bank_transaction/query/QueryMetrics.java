@@ -0,0 +1,53 @@
+package com.brandpark.api.bank_transaction.query;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 거래 내역 조회의 지표. 행을 가져오는 쿼리(content)와 totalElements 를 구하는 쿼리(count)를 나누어 기록한다.
+ */
+@Component
+public class QueryMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> contentTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> countTimers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> rowsSummaries = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> offsetSummaries = new ConcurrentHashMap<>();
+
+    public QueryMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param query by-user, by-bank, by-user-cursor, by-bank-cursor
+     */
+    public void recordContent(String query, long offset, int rows, long nanos) {
+
+        contentTimers.computeIfAbsent(query, q -> Timer.builder("bank_transaction.query.content")
+                        .description("거래 내역 행을 가져오는 쿼리 시간").tag("query", q).publishPercentileHistogram().register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+
+        rowsSummaries.computeIfAbsent(query, q -> DistributionSummary.builder("bank_transaction.query.returned")
+                        .description("한 페이지로 반환한 행의 수").baseUnit("rows").tag("query", q).register(meterRegistry))
+                .record(rows);
+
+        offsetSummaries.computeIfAbsent(query, q -> DistributionSummary.builder("bank_transaction.query.page.offset")
+                        .description("페이지의 깊이(OFFSET). 커서 조회는 0").baseUnit("rows").tag("query", q).register(meterRegistry))
+                .record(offset);
+    }
+
+    public void recordCount(String query, CountStrategy countStrategy, long nanos) {
+
+        countTimers.computeIfAbsent(query + countStrategy, key -> Timer.builder("bank_transaction.query.count")
+                        .description("totalElements 를 구하는 시간").tag("query", query).tag("count", countStrategy.name())
+                        .publishPercentileHistogram().register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
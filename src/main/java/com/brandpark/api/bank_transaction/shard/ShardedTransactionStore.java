@@ -0,0 +1,459 @@
+package com.brandpark.api.bank_transaction.shard;
+
+import com.brandpark.api.bank_transaction.counter.BankTransactionCounterRepository;
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.brandpark.api.bank_transaction.dto.BankTransactionResponse;
+import com.brandpark.api.bank_transaction.dto.CursorResult;
+import com.brandpark.api.bank_transaction.dto.PageResult;
+import com.brandpark.api.bank_transaction.exception.PartiallyCommittedException;
+import com.brandpark.api.bank_transaction.query.BankTransactionCountCache;
+import com.brandpark.api.bank_transaction.query.BankTransactionCursor;
+import com.brandpark.api.bank_transaction.query.CountStrategy;
+import com.brandpark.api.bank_transaction.query.QueryMetrics;
+import com.brandpark.api.bank_transaction.store.BankTransactionInsertSql;
+import com.brandpark.api.bank_transaction.store.BankTransactionTableDdl;
+import com.brandpark.api.bank_transaction.store.TransactionCondition;
+import com.brandpark.api.bank_transaction.store.TransactionRowHandler;
+import com.brandpark.api.bank_transaction.store.TransactionStore;
+import com.brandpark.api.upload.BankTransactionRowBuffer;
+import com.brandpark.api.upload.UploadEngine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 거래내역을 유저ID 의 해시로 나눈 샤드 DB 들에 저장하고 조회한다. ({@link TransactionShards})
+ * <p>
+ * 업로드는 버퍼의 행을 샤드별로 나누어 각 샤드에 multi-row INSERT 한다.
+ * 조회는 모든 샤드에 같은 쿼리로 앞에서부터 (offset + size) 개를 동시에 요청하고, 정렬 순서로 k-way 병합한 뒤 offset 만큼 건너뛴다.
+ * 커서 조회는 OFFSET 없이 커서 다음 행부터 샤드마다 (size + 1) 개만 요청하므로 페이지 깊이와 상관없이 읽는 양이 같다.
+ */
+@Slf4j
+@ConditionalOnProperty(name = "storage.backend", havingValue = "sharded")
+@Repository
+public class ShardedTransactionStore implements TransactionStore {
+
+    private static final String TABLE = BankTransactionTableDdl.TABLE_NAME;
+    private static final int EXPORT_BATCH = 1000;
+
+    private final TransactionShards shards;
+    private final BankTransactionCounterRepository bankTransactionCounterRepository;
+    private final BankTransactionCountCache bankTransactionCountCache;
+    private final QueryMetrics queryMetrics;
+    private final ExecutorService executor;
+
+    public ShardedTransactionStore(TransactionShards shards
+            , BankTransactionCounterRepository bankTransactionCounterRepository
+            , BankTransactionCountCache bankTransactionCountCache
+            , QueryMetrics queryMetrics
+            , @Value("${storage.shard.query-threads:0}") int queryThreads) {
+
+        this.shards = shards;
+        this.bankTransactionCounterRepository = bankTransactionCounterRepository;
+        this.bankTransactionCountCache = bankTransactionCountCache;
+        this.queryMetrics = queryMetrics;
+        this.executor = Executors.newFixedThreadPool(queryThreads > 0 ? queryThreads : shards.size(), new CustomizableThreadFactory("shard-query-"));
+    }
+
+    /**
+     * 엔진과 상관없이 multi-row INSERT 로 저장한다.
+     * 진행 중인 트랜잭션이 있으면 샤드마다 커넥션 하나를 열어 두고, 업로드 트랜잭션(체크포인트 포함)이 커밋된 뒤에 샤드들을 차례로 커밋한다.
+     */
+    @Override
+    public void append(BankTransactionRowBuffer rows, UploadEngine engine) {
+
+        List<int[]> positions = groupByShard(rows);
+        ShardWrites writes = TransactionSynchronizationManager.isSynchronizationActive() ? writes() : null;
+
+        for (int shard = 0; shard < positions.size(); shard++) {
+            int[] p = positions.get(shard);
+
+            if (p.length == 0) {
+                continue;
+            }
+
+            JdbcTemplate jdbcTemplate = writes != null ? writes.jdbcTemplate(shard) : shards.jdbcTemplate(shard);
+
+            jdbcTemplate.update(BankTransactionInsertSql.build(TABLE, p.length), ps -> {
+                for (int i = 0; i < p.length; i++) {
+                    BankTransactionInsertSql.setParameters(ps, i, rows, p[i]);
+                }
+            });
+        }
+    }
+
+    @Override
+    public PageResult<BankTransactionResponse> findAllByUser(LocalDate transactionDate, TransactionType transactionType, Pageable pageable, CountStrategy countStrategy) {
+        return findPage("by-user", new TransactionCondition(transactionDate, transactionType, null)
+                , TransactionCondition.ORDER_BY_USER, TransactionCondition.USER_ORDER, pageable, countStrategy);
+    }
+
+    @Override
+    public PageResult<BankTransactionResponse> findAllByBank(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, Pageable pageable, CountStrategy countStrategy) {
+        return findPage("by-bank", new TransactionCondition(transactionDate, transactionType, bankCode)
+                , TransactionCondition.ORDER_BY_BANK, TransactionCondition.BANK_ORDER, pageable, countStrategy);
+    }
+
+    @Override
+    public CursorResult<BankTransactionResponse> findAllByUserAfter(LocalDate transactionDate, TransactionType transactionType, String cursor, int size) {
+
+        BankTransactionCursor after = cursor == null ? null : BankTransactionCursor.decode(cursor);
+        List<BankTransactionResponse> fetched = findAfter("by-user-cursor", new TransactionCondition(transactionDate, transactionType, null).afterUser(after)
+                , TransactionCondition.ORDER_BY_USER, TransactionCondition.USER_ORDER, size + 1);
+
+        return CursorResult.fromFetched(fetched, size, last -> BankTransactionCursor.byUser(last).encode());
+    }
+
+    @Override
+    public CursorResult<BankTransactionResponse> findAllByBankAfter(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, String cursor, int size) {
+
+        BankTransactionCursor after = cursor == null ? null : BankTransactionCursor.decode(cursor);
+        List<BankTransactionResponse> fetched = findAfter("by-bank-cursor", new TransactionCondition(transactionDate, transactionType, bankCode).afterBank(after)
+                , TransactionCondition.ORDER_BY_BANK, TransactionCondition.BANK_ORDER, size + 1);
+
+        return CursorResult.fromFetched(fetched, size, last -> BankTransactionCursor.byBank(last).encode());
+    }
+
+    /**
+     * EXPORT_BATCH 개씩 커서 조회를 반복한다. 한 번에 들고 있는 행은 샤드 수 * EXPORT_BATCH 개 이하이다.
+     */
+    @Override
+    public void forEachByUser(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, TransactionRowHandler handler) {
+
+        TransactionCondition condition = new TransactionCondition(transactionDate, transactionType, bankCode);
+        BankTransactionCursor after = null;
+        List<BankTransactionResponse> batch;
+
+        do {
+            batch = fetchAfter(condition.afterUser(after), TransactionCondition.ORDER_BY_USER, TransactionCondition.USER_ORDER, EXPORT_BATCH);
+
+            for (BankTransactionResponse row : batch) {
+                handler.handle(row.getBankTransactionId(), row.getUserId(), BankCode.ofCode(row.getBankCode()), TransactionType.ofName(row.getTransactionType())
+                        , LocalDate.parse(row.getTransactionDate()), row.getTransactionAmount());
+            }
+
+            if (!batch.isEmpty()) {
+                after = BankTransactionCursor.byUser(batch.get(batch.size() - 1));
+            }
+        } while (batch.size() == EXPORT_BATCH);
+    }
+
+    private List<BankTransactionResponse> findAfter(String query, TransactionCondition condition, String order, Comparator<BankTransactionResponse> comparator, int limit) {
+
+        long start = System.nanoTime();
+        List<BankTransactionResponse> contents = fetchAfter(condition, order, comparator, limit);
+
+        queryMetrics.recordContent(query, 0, contents.size(), System.nanoTime() - start);
+
+        return contents;
+    }
+
+    /*
+     * 모든 샤드에 (거래일자, 정렬 키, 거래ID) > 커서 조건으로 limit 개씩 요청하고 k-way 병합한 앞의 limit 개.
+     * 다음 행이 어느 샤드에 있든 그 샤드의 앞 limit 개 안에 있으므로 OFFSET 없이 샤드마다 limit 개만 읽는다.
+     */
+    private List<BankTransactionResponse> fetchAfter(TransactionCondition condition, String order, Comparator<BankTransactionResponse> comparator, int limit) {
+
+        String sql = TransactionCondition.SELECT + TABLE + condition.getWhere() + order + " LIMIT ? OFFSET ?";
+        Object[] args = condition.argsWithPage(limit, 0);
+
+        return merge(onAllShards(shard -> shards.jdbcTemplate(shard).query(sql, TransactionCondition.RESPONSE_MAPPER, args)), comparator, 0, limit);
+    }
+
+    /*
+     * 페이지의 행은 어느 샤드에서든 나올 수 있으므로 샤드마다 (offset + limit) 개를 가져와야 한다.
+     * 깊은 페이지일수록 샤드 수에 비례해 더 많이 읽으므로, 깊은 페이지는 커서 조회를 사용한다.
+     */
+    private PageResult<BankTransactionResponse> findPage(String query, TransactionCondition condition, String order, Comparator<BankTransactionResponse> comparator
+            , Pageable pageable, CountStrategy countStrategy) {
+
+        boolean countTotal = countStrategy != CountStrategy.NONE;
+        int limit = countTotal ? pageable.getPageSize() : pageable.getPageSize() + 1;
+        long offset = pageable.getOffset();
+        String sql = TransactionCondition.SELECT + TABLE + condition.getWhere() + order + " LIMIT ? OFFSET ?";
+        Object[] args = condition.argsWithPage(offset + limit, 0);
+
+        long start = System.nanoTime();
+        List<List<BankTransactionResponse>> fetched = onAllShards(shard -> shards.jdbcTemplate(shard).query(sql, TransactionCondition.RESPONSE_MAPPER, args));
+        List<BankTransactionResponse> contents = merge(fetched, comparator, offset, limit);
+
+        queryMetrics.recordContent(query, offset, contents.size(), System.nanoTime() - start);
+
+        if (!countTotal) {
+            boolean hasNext = contents.size() > pageable.getPageSize();
+            return PageResult.createSlice(hasNext ? contents.subList(0, pageable.getPageSize()) : contents, pageable, hasNext);
+        }
+
+        long countStart = System.nanoTime();
+        long totalElements = count(condition, countStrategy);
+
+        queryMetrics.recordCount(query, countStrategy, System.nanoTime() - countStart);
+
+        return PageResult.create(contents, pageable, totalElements, countStrategy);
+    }
+
+    private long count(TransactionCondition condition, CountStrategy countStrategy) {
+        switch (countStrategy) {
+            case APPROXIMATE:
+                return bankTransactionCounterRepository.sum(condition.getTransactionDate(), condition.getTransactionType(), condition.getBankCode());
+            case CACHED:
+                return bankTransactionCountCache.get("shards" + condition.getWhere() + condition.getArgs(), () -> countRows(condition));
+            default:
+                return countRows(condition);
+        }
+    }
+
+    private long countRows(TransactionCondition condition) {
+        String sql = "SELECT COUNT(*) FROM " + TABLE + condition.getWhere();
+        Object[] args = condition.getArgs().toArray();
+
+        long total = 0;
+
+        for (Long count : onAllShards(shard -> shards.jdbcTemplate(shard).queryForObject(sql, Long.class, args))) {
+            total += count == null ? 0 : count;
+        }
+
+        return total;
+    }
+
+    /*
+     * 모든 샤드에 같은 작업을 동시에 실행하고 샤드 순서대로 결과를 모은다.
+     */
+    private <T> List<T> onAllShards(ShardTask<T> task) {
+
+        List<Future<T>> futures = new ArrayList<>(shards.size());
+
+        for (int shard = 0; shard < shards.size(); shard++) {
+            int s = shard;
+            futures.add(executor.submit((Callable<T>) () -> task.run(s)));
+        }
+
+        List<T> results = new ArrayList<>(futures.size());
+
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("샤드 조회가 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("샤드 조회 중 에러 발생", e.getCause());
+        }
+
+        return results;
+    }
+
+    /*
+     * 샤드마다 정렬된 결과를 k-way 병합해 앞에서 offset 개를 건너뛰고 limit 개를 반환한다.
+     */
+    private static List<BankTransactionResponse> merge(List<List<BankTransactionResponse>> sorted, Comparator<BankTransactionResponse> comparator, long offset, int limit) {
+
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, sorted.size())
+                , (a, b) -> comparator.compare(sorted.get(a[0]).get(a[1]), sorted.get(b[0]).get(b[1])));
+
+        for (int shard = 0; shard < sorted.size(); shard++) {
+            if (!sorted.get(shard).isEmpty()) {
+                heads.add(new int[]{shard, 0});
+            }
+        }
+
+        List<BankTransactionResponse> contents = new ArrayList<>(limit);
+        long skipped = 0;
+
+        while (!heads.isEmpty() && contents.size() < limit) {
+            int[] head = heads.poll();
+            List<BankTransactionResponse> rows = sorted.get(head[0]);
+
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                contents.add(rows.get(head[1]));
+            }
+
+            if (++head[1] < rows.size()) {
+                heads.add(head);
+            }
+        }
+
+        return contents;
+    }
+
+    /*
+     * 샤드별 버퍼 내 위치.
+     */
+    private List<int[]> groupByShard(BankTransactionRowBuffer rows) {
+
+        int[] shardOf = new int[rows.size()];
+        int[] counts = new int[shards.size()];
+
+        for (int i = 0; i < rows.size(); i++) {
+            shardOf[i] = shards.shardOf(rows.getUserId(i));
+            counts[shardOf[i]]++;
+        }
+
+        List<int[]> positions = new ArrayList<>(counts.length);
+
+        for (int count : counts) {
+            positions.add(new int[count]);
+        }
+
+        int[] filled = new int[counts.length];
+
+        for (int i = 0; i < rows.size(); i++) {
+            positions.get(shardOf[i])[filled[shardOf[i]]++] = i;
+        }
+
+        return positions;
+    }
+
+    private ShardWrites writes() {
+
+        ShardWrites writes = (ShardWrites) TransactionSynchronizationManager.getResource(this);
+
+        if (writes == null) {
+            writes = new ShardWrites();
+            TransactionSynchronizationManager.bindResource(this, writes);
+            TransactionSynchronizationManager.registerSynchronization(writes);
+        }
+
+        return writes;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @FunctionalInterface
+    private interface ShardTask<T> {
+        T run(int shard);
+    }
+
+    /**
+     * 트랜잭션 하나가 샤드에 쓰는 커넥션들. 처음 쓰는 샤드의 커넥션을 autoCommit 없이 열고, 업로드 트랜잭션이 커밋된 뒤에 커밋한다.
+     *
+     * <p>샤드 사이에는 2단계 커밋이 없다. 업로드 트랜잭션보다 먼저 커밋하면 업로드 트랜잭션이나 뒤의 샤드가 실패했을 때
+     * 체크포인트 없이 앞의 샤드에 행이 남아, 재개하면 중복 저장된다. 그래서 업로드 트랜잭션이 롤백되면 샤드도 모두 롤백하고,
+     * 업로드 트랜잭션이 커밋된 뒤 샤드 커밋이 실패하면 나머지 샤드를 커밋한 뒤 {@link PartiallyCommittedException} 으로 알린다.
+     * (afterCommit 의 예외는 커밋을 요청한 쪽으로 전달된다.) 업로드 작업은 이 예외를 받으면 재개할 수 없는 상태로 남긴다.
+     */
+    private class ShardWrites implements TransactionSynchronization {
+
+        private final Connection[] connections = new Connection[shards.size()];
+        private final JdbcTemplate[] jdbcTemplates = new JdbcTemplate[shards.size()];
+        private final boolean[] committed = new boolean[shards.size()];
+
+        JdbcTemplate jdbcTemplate(int shard) {
+            if (jdbcTemplates[shard] == null) {
+                try {
+                    Connection connection = shards.dataSource(shard).getConnection();
+                    connections[shard] = connection;
+                    connection.setAutoCommit(false);
+                } catch (SQLException e) {
+                    throw translate(shard, "getConnection", e);
+                }
+
+                jdbcTemplates[shard] = new JdbcTemplate(new SingleConnectionDataSource(connections[shard], true));
+            }
+
+            return jdbcTemplates[shard];
+        }
+
+        @Override
+        public void afterCommit() {
+            DataAccessException failure = null;
+            int failedShard = -1;
+
+            for (int shard = 0; shard < connections.length; shard++) {
+                if (connections[shard] == null) {
+                    continue;
+                }
+
+                try {
+                    connections[shard].commit();
+                    committed[shard] = true;
+                } catch (SQLException e) {
+                    log.error("업로드 트랜잭션이 커밋된 뒤 샤드 {} 의 커밋이 실패했습니다.", shard, e);
+
+                    if (failure == null) {
+                        failure = translate(shard, "commit", e);
+                        failedShard = shard;
+                    }
+                }
+            }
+
+            if (failure != null) {
+                throw new PartiallyCommittedException("업로드 트랜잭션은 커밋되었지만 샤드 " + failedShard + " 의 커밋이 실패했습니다.", failure);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ShardedTransactionStore.this);
+
+            for (int shard = 0; shard < connections.length; shard++) {
+                Connection connection = connections[shard];
+
+                if (connection == null) {
+                    continue;
+                }
+
+                try {
+                    if (!committed[shard]) {
+                        connection.rollback();
+                    }
+                    connection.setAutoCommit(true);
+                } catch (SQLException e) {
+                    log.warn("샤드 {} 의 커넥션을 정리하지 못했습니다.", shard, e);
+                } finally {
+                    try {
+                        connection.close();
+                    } catch (SQLException e) {
+                        log.warn("샤드 {} 의 커넥션을 닫지 못했습니다.", shard, e);
+                    }
+                }
+            }
+        }
+
+        /*
+         * 번역기가 분류하지 못한 예외(null)는 JdbcTemplate 과 같이 UncategorizedSQLException 으로 감싼다.
+         */
+        private DataAccessException translate(int shard, String task, SQLException e) {
+            String name = "shard-" + shard + " " + task;
+            DataAccessException translated = shards.jdbcTemplate(shard).getExceptionTranslator().translate(name, null, e);
+
+            return translated != null ? translated : new UncategorizedSQLException(name, null, e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.brandpark.api.bank_transaction.shard;
+
+import com.brandpark.api.bank_transaction.store.BankTransactionTableDdl;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 거래내역을 나누어 저장하는 샤드 DB 들. 거래내역은 유저ID 의 해시로 샤드 하나에 저장된다.
+ * 카운터, 요약, 잔액 같은 집계 테이블은 샤드에 나누지 않고 기본 DB 에 둔다.
+ *
+ * <p>샤드의 bank_transaction 은 기본 DB 에 Hibernate 가 만든 bank_transaction 과 같은 구조로 만든다. ({@link BankTransactionTableDdl})
+ * 기본 DB 를 create, create-drop 으로 다시 만든다면 샤드의 테이블도 비우고 다시 만든다.
+ */
+@Slf4j
+@ConditionalOnProperty(name = "storage.backend", havingValue = "sharded")
+@Component
+public class TransactionShards {
+
+    private static final String SHARD_PLACEHOLDER = "{shard}";
+
+    private final JdbcTemplate primary;
+    private final boolean recreate;
+    private final List<HikariDataSource> dataSources = new ArrayList<>();
+    private final List<JdbcTemplate> jdbcTemplates = new ArrayList<>();
+
+    public TransactionShards(JdbcTemplate primary
+            , @Value("${storage.shard.count:2}") int count
+            , @Value("${storage.shard.url:jdbc:h2:~/karrotcruit-shard-{shard};AUTO_SERVER=TRUE}") String url
+            , @Value("${storage.shard.username:sa}") String username
+            , @Value("${storage.shard.password:}") String password
+            , @Value("${storage.shard.pool-size:4}") int poolSize
+            , @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+
+        if (count < 1) {
+            throw new IllegalArgumentException("storage.shard.count 는 1 이상이어야 합니다. : " + count);
+        }
+        if (count > 1 && !url.contains(SHARD_PLACEHOLDER)) {
+            throw new IllegalArgumentException("storage.shard.url 에 샤드 번호 자리(" + SHARD_PLACEHOLDER + ")가 없습니다. : " + url);
+        }
+
+        this.primary = primary;
+        this.recreate = ddlAuto.startsWith("create");
+
+        for (int shard = 0; shard < count; shard++) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("shard-" + shard);
+            config.setJdbcUrl(url.replace(SHARD_PLACEHOLDER, String.valueOf(shard)));
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setMaximumPoolSize(poolSize);
+
+            HikariDataSource dataSource = new HikariDataSource(config);
+            dataSources.add(dataSource);
+            jdbcTemplates.add(new JdbcTemplate(dataSource));
+        }
+    }
+
+    /**
+     * 기본 DB 의 bank_transaction 은 Hibernate 가 만들므로 애플리케이션이 준비된 뒤에 샤드의 테이블을 만든다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createTables() {
+        List<String> ddl = BankTransactionTableDdl.copyOf(primary, BankTransactionTableDdl.TABLE_NAME, "");
+
+        for (int shard = 0; shard < size(); shard++) {
+            JdbcTemplate jdbcTemplate = jdbcTemplates.get(shard);
+
+            if (recreate) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + BankTransactionTableDdl.TABLE_NAME);
+            }
+
+            ddl.forEach(jdbcTemplate::execute);
+        }
+
+        log.info("샤드 {} 개의 거래내역 테이블을 준비했습니다.", size());
+    }
+
+    public int size() {
+        return dataSources.size();
+    }
+
+    /**
+     * 유저ID 의 샤드 번호. 연속된 유저ID 도 고르게 나뉘도록 섞은 뒤 나눈다.
+     */
+    public int shardOf(long userId) {
+        return Math.floorMod(Long.hashCode(userId * 0x9E3779B97F4A7C15L), dataSources.size());
+    }
+
+    public DataSource dataSource(int shard) {
+        return dataSources.get(shard);
+    }
+
+    public JdbcTemplate jdbcTemplate(int shard) {
+        return jdbcTemplates.get(shard);
+    }
+
+    @PreDestroy
+    public void close() {
+        dataSources.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,49 @@
+package com.brandpark.api.bank_transaction.store;
+
+import com.brandpark.api.upload.BankTransactionRowBuffer;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * 거래내역 테이블(bank_transaction 또는 그 파티션)에 여러 행을 하나의 multi-row VALUES INSERT 문으로 저장한다.
+ */
+public final class BankTransactionInsertSql {
+
+    private static final String COLUMNS = " (bank_transaction_id, year, month, day, transaction_date, user_id, bank_code, transaction_amount, transaction_type)";
+    private static final String VALUES = "(?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int COLUMN_COUNT = 9;
+
+    private BankTransactionInsertSql() {
+    }
+
+    public static String build(String table, int rows) {
+        String prefix = "INSERT INTO " + table + COLUMNS + " VALUES ";
+        StringBuilder sql = new StringBuilder(prefix.length() + rows * (VALUES.length() + 2));
+
+        sql.append(prefix).append(VALUES);
+
+        for (int i = 1; i < rows; i++) {
+            sql.append(", ").append(VALUES);
+        }
+
+        return sql.toString();
+    }
+
+    /**
+     * 버퍼의 i 번째 행을 INSERT 문의 row 번째 VALUES 에 바인딩한다.
+     */
+    public static void setParameters(PreparedStatement ps, int row, BankTransactionRowBuffer buff, int i) throws SQLException {
+        int offset = row * COLUMN_COUNT;
+
+        ps.setLong(offset + 1, buff.getId(i));
+        ps.setInt(offset + 2, buff.getYear(i));
+        ps.setInt(offset + 3, buff.getMonth(i));
+        ps.setInt(offset + 4, buff.getDay(i));
+        ps.setObject(offset + 5, buff.getTransactionDate(i));
+        ps.setLong(offset + 6, buff.getUserId(i));
+        ps.setString(offset + 7, buff.getBankCode(i).getCode());
+        ps.setLong(offset + 8, buff.getTransactionAmount(i));
+        ps.setString(offset + 9, buff.getTransactionType(i).name());
+    }
+}
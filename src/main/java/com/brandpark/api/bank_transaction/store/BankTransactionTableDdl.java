@@ -0,0 +1,54 @@
+package com.brandpark.api.bank_transaction.store;
+
+import com.brandpark.api.bank_transaction.domain.BankTransaction;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Hibernate 가 만든 bank_transaction 과 같은 구조의 테이블(파티션, 샤드)을 만드는 DDL.
+ * 컬럼은 INFORMATION_SCHEMA 에서, 인덱스는 {@link BankTransaction} 의 {@link Table#indexes()} 에서 가져온다.
+ */
+public final class BankTransactionTableDdl {
+
+    public static final String TABLE_NAME = BankTransaction.class.getAnnotation(Table.class).name();
+
+    private static final Index[] INDEXES = BankTransaction.class.getAnnotation(Table.class).indexes();
+
+    private BankTransactionTableDdl() {
+    }
+
+    /**
+     * @param source bank_transaction 이 있는 DB
+     * @param indexSuffix 인덱스 이름은 스키마 안에서 유일해야 하므로 원래 이름 뒤에 붙인다.
+     */
+    public static List<String> copyOf(JdbcTemplate source, String table, String indexSuffix) {
+        List<String> ddl = new ArrayList<>();
+
+        ddl.add("CREATE TABLE IF NOT EXISTS " + table + " (" + columnDefinitions(source)
+                + ", CONSTRAINT pk_" + table + " PRIMARY KEY (bank_transaction_id))");
+
+        for (Index index : INDEXES) {
+            ddl.add("CREATE INDEX IF NOT EXISTS " + index.name() + indexSuffix + " ON " + table + " (" + index.columnList() + ")");
+        }
+
+        return ddl;
+    }
+
+    /*
+     * INFORMATION_SCHEMA.COLUMNS 의 COLUMN_TYPE 은 H2 에서 NOT NULL 까지 포함한 컬럼 정의이다.
+     */
+    private static String columnDefinitions(JdbcTemplate source) {
+        return source.query("SELECT column_name, column_type FROM information_schema.columns"
+                                + " WHERE table_schema = SCHEMA() AND table_name = ? ORDER BY ordinal_position"
+                        , (rs, rowNum) -> rs.getString(1) + " " + rs.getString(2)
+                        , TABLE_NAME.toUpperCase(Locale.ROOT))
+                .stream()
+                .collect(Collectors.joining(", "));
+    }
+}
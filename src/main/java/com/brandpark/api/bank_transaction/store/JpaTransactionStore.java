@@ -0,0 +1,134 @@
+package com.brandpark.api.bank_transaction.store;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.BankTransaction;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.brandpark.api.bank_transaction.dto.BankTransactionResponse;
+import com.brandpark.api.bank_transaction.dto.CursorResult;
+import com.brandpark.api.bank_transaction.dto.PageResult;
+import com.brandpark.api.bank_transaction.query.BankTransactionQueryRepository;
+import com.brandpark.api.bank_transaction.query.CountStrategy;
+import com.brandpark.api.upload.BankTransactionRowBuffer;
+import com.brandpark.api.upload.UploadEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+
+/**
+ * bank_transaction 테이블에 저장하고 조회한다. 저장은 엔진에 따라 엔티티 persist(JPA) 또는 multi-row INSERT(JDBC) 로 한다.
+ */
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "storage.backend", havingValue = "jpa", matchIfMissing = true)
+@Repository
+public class JpaTransactionStore implements TransactionStore {
+
+    private static final String TABLE = "bank_transaction";
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final BankTransactionQueryRepository bankTransactionQueryRepository;
+
+    private volatile InsertSql batchInsertSql;      // 마지막 행 수의 INSERT 문. 버퍼가 가득 찬 경우가 대부분이라 매번 만들지 않는다.
+
+    @Override
+    public void append(BankTransactionRowBuffer rows, UploadEngine engine) {
+        if (engine == UploadEngine.JDBC) {
+            jdbcFlushBuff(rows);
+        } else {
+            flushBuff(rows);
+        }
+    }
+
+    @Override
+    public PageResult<BankTransactionResponse> findAllByUser(LocalDate transactionDate, TransactionType transactionType, Pageable pageable, CountStrategy countStrategy) {
+        return bankTransactionQueryRepository.findAllBankTransactionResponseByUser(transactionDate, transactionType, pageable, countStrategy);
+    }
+
+    @Override
+    public PageResult<BankTransactionResponse> findAllByBank(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, Pageable pageable, CountStrategy countStrategy) {
+        return bankTransactionQueryRepository.findAllBankTransactionResponseByBank(transactionDate, transactionType, bankCode, pageable, countStrategy);
+    }
+
+    @Override
+    public CursorResult<BankTransactionResponse> findAllByUserAfter(LocalDate transactionDate, TransactionType transactionType, String cursor, int size) {
+        return bankTransactionQueryRepository.findAllBankTransactionResponseByUserAfter(transactionDate, transactionType, cursor, size);
+    }
+
+    @Override
+    public CursorResult<BankTransactionResponse> findAllByBankAfter(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, String cursor, int size) {
+        return bankTransactionQueryRepository.findAllBankTransactionResponseByBankAfter(transactionDate, transactionType, bankCode, cursor, size);
+    }
+
+    /**
+     * 엔티티를 거치지 않고 JDBC forward-only 커서로 읽는다.
+     */
+    @Override
+    public void forEachByUser(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, TransactionRowHandler handler) {
+        new TransactionCondition(transactionDate, transactionType, bankCode).stream(jdbcTemplate, TABLE, TransactionCondition.ORDER_BY_USER, handler);
+    }
+
+    private void flushBuff(BankTransactionRowBuffer batchInsertBuff) {
+
+        for (int i = 0; i < batchInsertBuff.size(); i++) {
+            entityManager.persist(toEntity(batchInsertBuff, i));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private BankTransaction toEntity(BankTransactionRowBuffer buff, int i) {
+        return BankTransaction.builder()
+                .id(buff.getId(i))
+                .year(buff.getYear(i))
+                .month(buff.getMonth(i))
+                .day(buff.getDay(i))
+                .transactionDate(buff.getTransactionDate(i))
+                .userId(buff.getUserId(i))
+                .bankCode(buff.getBankCode(i))
+                .transactionAmount(buff.getTransactionAmount(i))
+                .transactionType(buff.getTransactionType(i))
+                .build();
+    }
+
+    /*
+     * rewriteBatchedStatements 처럼 버퍼의 행들을 하나의 multi-row VALUES INSERT 문으로 전송한다.
+     */
+    private void jdbcFlushBuff(BankTransactionRowBuffer batchInsertBuff) {
+
+        final int rows = batchInsertBuff.size();
+
+        jdbcTemplate.update(multiRowInsertSql(rows), ps -> {
+            for (int i = 0; i < rows; i++) {
+                BankTransactionInsertSql.setParameters(ps, i, batchInsertBuff, i);
+            }
+        });
+    }
+
+    private String multiRowInsertSql(int rows) {
+        InsertSql cached = batchInsertSql;
+
+        if (cached == null || cached.rows != rows) {
+            cached = new InsertSql(rows, BankTransactionInsertSql.build(TABLE, rows));
+            batchInsertSql = cached;
+        }
+
+        return cached.sql;
+    }
+
+    private static class InsertSql {
+
+        final int rows;
+        final String sql;
+
+        InsertSql(int rows, String sql) {
+            this.rows = rows;
+            this.sql = sql;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.brandpark.api.bank_transaction.store;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.brandpark.api.bank_transaction.dto.BankTransactionResponse;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.BANK_CODES;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.HEADER_SIZE;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.H_BANK_COUNT;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.H_COUNTS;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.H_EPOCH_DAY;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.H_INDEX_ENTRIES;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.H_INDEX_INTERVAL;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.H_MAGIC;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.H_ORDER;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.H_RECORD_COUNT;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.H_TYPE_COUNT;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.H_VERSION;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.INDEX_ENTRY_SIZE;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.I_COUNT_BEFORE;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.I_ID;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.I_KEY;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.MAGIC;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.RECORD_SIZE;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.R_AMOUNT;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.R_BANK_CODE;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.R_ID;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.R_TYPE;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.R_USER_ID;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.TRANSACTION_TYPES;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.VERSION;
+
+/**
+ * 메모리 매핑한 세그먼트 파일 하나. 파일은 쓰여진 뒤 바뀌지 않으므로 절대 위치로만 읽고 여러 스레드가 함께 사용한다.
+ */
+class Segment {
+
+    private final Path path;
+    private final SegmentOrder order;
+    private final LocalDate transactionDate;
+    private final MappedByteBuffer buf;
+    private final int recordCount;
+    private final int indexInterval;
+    private final int indexEntries;
+    private final int indexOffset;
+    private final long[] counts;
+
+    private Segment(Path path, MappedByteBuffer buf) {
+        this.path = path;
+        this.buf = buf;
+
+        if (buf.getInt(H_MAGIC) != MAGIC || buf.getShort(H_VERSION) != VERSION) {
+            throw new IllegalStateException("세그먼트 파일의 형식이 올바르지 않습니다. : " + path);
+        }
+        if (buf.get(H_BANK_COUNT) != BANK_CODES.length || buf.get(H_TYPE_COUNT) != TRANSACTION_TYPES.length) {
+            throw new IllegalStateException("세그먼트 파일의 은행코드, 거래타입 수가 일치하지 않습니다. : " + path);
+        }
+
+        this.order = SegmentOrder.values()[buf.get(H_ORDER)];
+        this.recordCount = Math.toIntExact(buf.getLong(H_RECORD_COUNT));
+        this.transactionDate = LocalDate.ofEpochDay(buf.getLong(H_EPOCH_DAY));
+        this.indexInterval = buf.getInt(H_INDEX_INTERVAL);
+        this.indexEntries = buf.getInt(H_INDEX_ENTRIES);
+        this.indexOffset = HEADER_SIZE + recordCount * RECORD_SIZE;
+        this.counts = new long[BANK_CODES.length * TRANSACTION_TYPES.length];
+
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buf.getLong(H_COUNTS + i * 8);
+        }
+    }
+
+    static Segment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new Segment(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    SegmentOrder getOrder() {
+        return order;
+    }
+
+    LocalDate getTransactionDate() {
+        return transactionDate;
+    }
+
+    int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * 헤더의 (은행코드, 거래타입) 별 행 수를 더한다. null 인 조건은 전체이다.
+     */
+    long count(TransactionType type, BankCode bankCode) {
+        long sum = 0;
+
+        for (BankCode bc : BANK_CODES) {
+            if (bankCode != null && bc != bankCode) {
+                continue;
+            }
+            for (TransactionType t : TRANSACTION_TYPES) {
+                if (type == null || t == type) {
+                    sum += counts[SegmentFormat.countSlot(bc.ordinal(), t.ordinal())];
+                }
+            }
+        }
+
+        return sum;
+    }
+
+    long key(int pos) {
+        return order.key(buf, recordOffset(pos));
+    }
+
+    long id(int pos) {
+        return buf.getLong(recordOffset(pos) + R_ID);
+    }
+
+    int typeOrdinal(int pos) {
+        return buf.get(recordOffset(pos) + R_TYPE);
+    }
+
+    short bankCodeNumber(int pos) {
+        return buf.getShort(recordOffset(pos) + R_BANK_CODE);
+    }
+
+    BankTransactionResponse response(int pos) {
+        int offset = recordOffset(pos);
+
+        return new BankTransactionResponse(
+                buf.getLong(offset + R_ID)
+                , buf.getLong(offset + R_USER_ID)
+                , SegmentFormat.bankCode(buf.getShort(offset + R_BANK_CODE))
+                , TRANSACTION_TYPES[buf.get(offset + R_TYPE)]
+                , transactionDate
+                , buf.getLong(offset + R_AMOUNT));
+    }
+
+    void handle(int pos, TransactionRowHandler handler) {
+        int offset = recordOffset(pos);
+
+        handler.handle(
+                buf.getLong(offset + R_ID)
+                , buf.getLong(offset + R_USER_ID)
+                , SegmentFormat.bankCode(buf.getShort(offset + R_BANK_CODE))
+                , TRANSACTION_TYPES[buf.get(offset + R_TYPE)]
+                , transactionDate
+                , buf.getLong(offset + R_AMOUNT));
+    }
+
+    /**
+     * key 이상인 첫 레코드의 위치.
+     */
+    int lowerBound(long key) {
+        return lowerBound(key, Long.MIN_VALUE);
+    }
+
+    /**
+     * (key, id) 이상인 첫 레코드의 위치. 희소 인덱스로 구간을 찾은 뒤 그 구간만 훑는다.
+     */
+    int lowerBound(long key, long id) {
+        int lo = 0;
+        int hi = indexEntries - 1;
+        int entry = 0;
+
+        while (lo <= hi) {      // (key, id) 보다 작은 마지막 인덱스 항목
+            int mid = (lo + hi) >>> 1;
+            int offset = indexEntryOffset(mid);
+
+            if (compare(buf.getLong(offset + I_KEY), buf.getLong(offset + I_ID), key, id) < 0) {
+                entry = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+
+        int pos = entry * indexInterval;
+
+        while (pos < recordCount && compare(key(pos), id(pos), key, id) < 0) {
+            pos++;
+        }
+
+        return pos;
+    }
+
+    /**
+     * [from, to) 에서 type 인 행을 skip 개 건너뛴 위치. 모자라면 to 를 반환한다.
+     * 인덱스 항목마다 그 앞까지의 거래타입별 행 수가 있으므로 건너뛸 구간의 대부분은 읽지 않는다.
+     */
+    int seek(int from, int to, TransactionType type, long skip) {
+
+        if (type == null) {
+            return (int) Math.min(to, from + skip);
+        }
+
+        long target = countBefore(from, type) + skip;      // 찾는 행 앞에 있는 type 인 행의 수
+        int lo = from / indexInterval + 1;
+        int hi = indexEntries - 1;
+        int entry = -1;
+
+        while (lo <= hi) {      // countBefore 가 target 이하인 마지막 인덱스 항목
+            int mid = (lo + hi) >>> 1;
+
+            if (indexCountBefore(mid, type) <= target) {
+                entry = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+
+        int pos = entry < 0 ? from : entry * indexInterval;
+        long matched = entry < 0 ? countBefore(from, type) : indexCountBefore(entry, type);
+        int typeOrdinal = type.ordinal();
+
+        for (; pos < to; pos++) {
+            if (typeOrdinal(pos) == typeOrdinal) {
+                if (matched == target) {
+                    return pos;
+                }
+                matched++;
+            }
+        }
+
+        return to;
+    }
+
+    private long countBefore(int pos, TransactionType type) {
+        int entry = Math.min(pos / indexInterval, indexEntries - 1);
+
+        if (entry < 0) {
+            return 0;
+        }
+
+        long matched = indexCountBefore(entry, type);
+        int typeOrdinal = type.ordinal();
+
+        for (int i = entry * indexInterval; i < pos; i++) {
+            if (typeOrdinal(i) == typeOrdinal) {
+                matched++;
+            }
+        }
+
+        return matched;
+    }
+
+    private long indexCountBefore(int entry, TransactionType type) {
+        return buf.getLong(indexEntryOffset(entry) + I_COUNT_BEFORE + type.ordinal() * 8);
+    }
+
+    private static int compare(long key, long id, long otherKey, long otherId) {
+        int ret = Long.compare(key, otherKey);
+        return ret != 0 ? ret : Long.compare(id, otherId);
+    }
+
+    private int indexEntryOffset(int entry) {
+        return indexOffset + entry * INDEX_ENTRY_SIZE;
+    }
+
+    private static int recordOffset(int pos) {
+        return HEADER_SIZE + pos * RECORD_SIZE;
+    }
+}
@@ -0,0 +1,93 @@
+package com.brandpark.api.bank_transaction.store;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 세그먼트 파일의 배치.
+ *
+ * <pre>
+ * [헤더 128 bytes][레코드 32 bytes * recordCount][희소 인덱스 32 bytes * indexEntries]
+ *
+ * 헤더   : magic(4) version(2) order(1) - (1) recordCount(8) epochDay(8) indexInterval(4) indexEntries(4)
+ *          bankCount(1) typeCount(1) - (6) counts(8 * bankCount * typeCount)
+ * 레코드 : id(8) userId(8) amount(8) epochDay(4) bankCode(2) type(1) - (1)
+ * 인덱스 : indexInterval 번째 레코드마다 key(8) id(8) 그 앞까지의 거래타입별 행 수(8 * typeCount)
+ * </pre>
+ *
+ * 레코드는 스테이징 파일에서도 같은 배치로 쓴다. 은행코드는 세 자리 코드를 정수로 저장하여 코드 문자열과 정렬 순서가 같다.
+ */
+final class SegmentFormat {
+
+    static final int MAGIC = 0x42545347;   // "BTSG"
+    static final short VERSION = 1;
+
+    static final int HEADER_SIZE = 128;
+    static final int RECORD_SIZE = 32;
+    static final int INDEX_ENTRY_SIZE = 32;
+
+    static final int H_MAGIC = 0;
+    static final int H_VERSION = 4;
+    static final int H_ORDER = 6;
+    static final int H_RECORD_COUNT = 8;
+    static final int H_EPOCH_DAY = 16;
+    static final int H_INDEX_INTERVAL = 24;
+    static final int H_INDEX_ENTRIES = 28;
+    static final int H_BANK_COUNT = 32;
+    static final int H_TYPE_COUNT = 33;
+    static final int H_COUNTS = 40;
+
+    static final int R_ID = 0;
+    static final int R_USER_ID = 8;
+    static final int R_AMOUNT = 16;
+    static final int R_EPOCH_DAY = 24;
+    static final int R_BANK_CODE = 28;
+    static final int R_TYPE = 30;
+
+    static final int I_KEY = 0;
+    static final int I_ID = 8;
+    static final int I_COUNT_BEFORE = 16;
+
+    static final BankCode[] BANK_CODES = BankCode.values();
+    static final TransactionType[] TRANSACTION_TYPES = TransactionType.values();
+
+    private static final short[] BANK_CODE_NUMBERS = new short[BANK_CODES.length];
+
+    static {
+        for (BankCode bc : BANK_CODES) {
+            BANK_CODE_NUMBERS[bc.ordinal()] = Short.parseShort(bc.getCode());
+        }
+
+        if (HEADER_SIZE < H_COUNTS + 8 * BANK_CODES.length * TRANSACTION_TYPES.length
+                || INDEX_ENTRY_SIZE < I_COUNT_BEFORE + 8 * TRANSACTION_TYPES.length) {
+            throw new IllegalStateException("은행코드, 거래타입의 수가 세그먼트 헤더에 들어가지 않습니다.");
+        }
+    }
+
+    private SegmentFormat() {
+    }
+
+    static void putRecord(ByteBuffer buf, int offset, long id, long userId, long amount, int epochDay, BankCode bankCode, TransactionType type) {
+        buf.putLong(offset + R_ID, id);
+        buf.putLong(offset + R_USER_ID, userId);
+        buf.putLong(offset + R_AMOUNT, amount);
+        buf.putInt(offset + R_EPOCH_DAY, epochDay);
+        buf.putShort(offset + R_BANK_CODE, BANK_CODE_NUMBERS[bankCode.ordinal()]);
+        buf.put(offset + R_TYPE, (byte) type.ordinal());
+        buf.put(offset + R_TYPE + 1, (byte) 0);
+    }
+
+    static short bankCodeNumber(BankCode bankCode) {
+        return BANK_CODE_NUMBERS[bankCode.ordinal()];
+    }
+
+    static BankCode bankCode(int number) {
+        return BankCode.ofDigits('0' + number / 100, '0' + number / 10 % 10, '0' + number % 10);
+    }
+
+    static int countSlot(int bankOrdinal, int typeOrdinal) {
+        return bankOrdinal * TRANSACTION_TYPES.length + typeOrdinal;
+    }
+}
@@ -0,0 +1,37 @@
+package com.brandpark.api.bank_transaction.store;
+
+import java.nio.ByteBuffer;
+
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.R_BANK_CODE;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.R_USER_ID;
+
+/**
+ * 세그먼트의 레코드 정렬 순서. 같은 날짜의 레코드를 조회 API 마다 하나씩, 두 파일로 쓴다. 같은 키는 거래ID 순이다.
+ */
+enum SegmentOrder {
+
+    USER("user") {
+        @Override
+        long key(ByteBuffer buf, int recordOffset) {
+            return buf.getLong(recordOffset + R_USER_ID);
+        }
+    },
+    BANK("bank") {
+        @Override
+        long key(ByteBuffer buf, int recordOffset) {
+            return buf.getShort(recordOffset + R_BANK_CODE);
+        }
+    };
+
+    final String suffix;
+
+    SegmentOrder(String suffix) {
+        this.suffix = suffix;
+    }
+
+    abstract long key(ByteBuffer buf, int recordOffset);
+
+    String fileName(String segmentName) {
+        return segmentName + "." + suffix + ".seg";
+    }
+}
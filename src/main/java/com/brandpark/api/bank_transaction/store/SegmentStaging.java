@@ -0,0 +1,265 @@
+package com.brandpark.api.bank_transaction.store;
+
+import com.brandpark.api.upload.BankTransactionRowBuffer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntBinaryOperator;
+
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.BANK_CODES;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.HEADER_SIZE;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.H_BANK_COUNT;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.H_COUNTS;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.H_EPOCH_DAY;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.H_INDEX_ENTRIES;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.H_INDEX_INTERVAL;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.H_MAGIC;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.H_ORDER;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.H_RECORD_COUNT;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.H_TYPE_COUNT;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.H_VERSION;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.INDEX_ENTRY_SIZE;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.I_COUNT_BEFORE;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.I_ID;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.I_KEY;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.MAGIC;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.RECORD_SIZE;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.R_BANK_CODE;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.R_EPOCH_DAY;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.R_ID;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.R_TYPE;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.TRANSACTION_TYPES;
+import static com.brandpark.api.bank_transaction.store.SegmentFormat.VERSION;
+
+/**
+ * 트랜잭션 하나가 저장하는 행을 모으는 스테이징 파일. 행은 도착한 순서대로 파일 끝에 이어 쓴다.
+ * 커밋할 때 거래일자별로 나누고 정렬하여 세그먼트 파일을 쓴다.
+ */
+class SegmentStaging implements Closeable {
+
+    private static final int WRITE_BUFFER_RECORDS = 2048;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_RECORDS * RECORD_SIZE);
+    private long rows;
+
+    SegmentStaging(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    void append(BankTransactionRowBuffer buff) throws IOException {
+
+        for (int i = 0; i < buff.size(); i++) {
+            if (!writeBuffer.hasRemaining()) {
+                drain();
+            }
+
+            SegmentFormat.putRecord(writeBuffer, writeBuffer.position(), buff.getId(i), buff.getUserId(i), buff.getTransactionAmount(i)
+                    , (int) buff.getTransactionDate(i).toEpochDay(), buff.getBankCode(i), buff.getTransactionType(i));
+            writeBuffer.position(writeBuffer.position() + RECORD_SIZE);
+        }
+
+        rows += buff.size();
+    }
+
+    long getRows() {
+        return rows;
+    }
+
+    /**
+     * 거래일자마다 정렬 순서별 세그먼트 파일을 dir/거래일자/ 아래에 임시 파일(.tmp)로 쓰고 그 경로를 반환한다.
+     */
+    List<Path> writeSegments(Path dir, String segmentName, int indexInterval) throws IOException {
+
+        drain();
+
+        long size = channel.size();
+
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("한 트랜잭션으로 저장할 수 있는 행의 수를 넘었습니다. : " + rows);
+        }
+
+        MappedByteBuffer staged = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        List<Path> written = new ArrayList<>();
+
+        for (Map.Entry<Integer, int[]> day : groupByDay(staged).entrySet()) {
+
+            Path dayDir = dir.resolve(LocalDate.ofEpochDay(day.getKey()).toString());
+            Files.createDirectories(dayDir);
+
+            for (SegmentOrder order : SegmentOrder.values()) {
+                int[] positions = day.getValue().clone();
+
+                sort(positions, (a, b) -> {
+                    int c = Long.compare(order.key(staged, a * RECORD_SIZE), order.key(staged, b * RECORD_SIZE));
+                    return c != 0 ? c : Long.compare(staged.getLong(a * RECORD_SIZE + R_ID), staged.getLong(b * RECORD_SIZE + R_ID));
+                });
+
+                Path tmp = dayDir.resolve(order.fileName(segmentName) + ".tmp");
+                writeSegment(tmp, staged, positions, day.getKey(), order, indexInterval);
+                written.add(tmp);
+            }
+        }
+
+        return written;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+
+    private void drain() throws IOException {
+        writeBuffer.flip();
+
+        while (writeBuffer.hasRemaining()) {
+            channel.write(writeBuffer);
+        }
+
+        writeBuffer.clear();
+    }
+
+    private static Map<Integer, int[]> groupByDay(ByteBuffer staged) {
+
+        int records = staged.limit() / RECORD_SIZE;
+        Map<Integer, int[]> counts = new TreeMap<>();
+
+        for (int i = 0; i < records; i++) {
+            counts.computeIfAbsent(staged.getInt(i * RECORD_SIZE + R_EPOCH_DAY), d -> new int[1])[0]++;
+        }
+
+        Map<Integer, int[]> positions = new TreeMap<>();
+        Map<Integer, int[]> filled = new TreeMap<>();
+
+        counts.forEach((day, count) -> {
+            positions.put(day, new int[count[0]]);
+            filled.put(day, new int[1]);
+        });
+
+        for (int i = 0; i < records; i++) {
+            int day = staged.getInt(i * RECORD_SIZE + R_EPOCH_DAY);
+            positions.get(day)[filled.get(day)[0]++] = i;
+        }
+
+        return positions;
+    }
+
+    private static void writeSegment(Path tmp, ByteBuffer staged, int[] positions, int epochDay, SegmentOrder order, int indexInterval) throws IOException {
+
+        int indexEntries = (positions.length + indexInterval - 1) / indexInterval;
+        long[] counts = new long[BANK_CODES.length * TRANSACTION_TYPES.length];
+        long[] typeCounts = new long[TRANSACTION_TYPES.length];
+        ByteBuffer index = ByteBuffer.allocate(indexEntries * INDEX_ENTRY_SIZE);
+        ByteBuffer out = ByteBuffer.allocateDirect(WRITE_BUFFER_RECORDS * RECORD_SIZE);
+
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+            channel.position(HEADER_SIZE);
+
+            for (int i = 0; i < positions.length; i++) {
+                int offset = positions[i] * RECORD_SIZE;
+                int typeOrdinal = staged.get(offset + R_TYPE);
+                int bankOrdinal = SegmentFormat.bankCode(staged.getShort(offset + R_BANK_CODE)).ordinal();
+
+                if (i % indexInterval == 0) {
+                    int entry = i / indexInterval * INDEX_ENTRY_SIZE;
+
+                    index.putLong(entry + I_KEY, order.key(staged, offset));
+                    index.putLong(entry + I_ID, staged.getLong(offset + R_ID));
+                    for (int t = 0; t < typeCounts.length; t++) {
+                        index.putLong(entry + I_COUNT_BEFORE + t * 8, typeCounts[t]);
+                    }
+                }
+
+                counts[SegmentFormat.countSlot(bankOrdinal, typeOrdinal)]++;
+                typeCounts[typeOrdinal]++;
+
+                if (!out.hasRemaining()) {
+                    write(channel, out);
+                }
+
+                for (int k = 0; k < RECORD_SIZE; k += 8) {
+                    out.putLong(staged.getLong(offset + k));
+                }
+            }
+
+            write(channel, out);
+
+            while (index.hasRemaining()) {
+                channel.write(index);
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(H_MAGIC, MAGIC);
+            header.putShort(H_VERSION, VERSION);
+            header.put(H_ORDER, (byte) order.ordinal());
+            header.putLong(H_RECORD_COUNT, positions.length);
+            header.putLong(H_EPOCH_DAY, epochDay);
+            header.putInt(H_INDEX_INTERVAL, indexInterval);
+            header.putInt(H_INDEX_ENTRIES, indexEntries);
+            header.put(H_BANK_COUNT, (byte) BANK_CODES.length);
+            header.put(H_TYPE_COUNT, (byte) TRANSACTION_TYPES.length);
+            for (int i = 0; i < counts.length; i++) {
+                header.putLong(H_COUNTS + i * 8, counts[i]);
+            }
+
+            for (long at = 0; header.hasRemaining(); ) {    // 헤더는 레코드와 인덱스를 다 쓴 뒤 마지막에 채운다.
+                at += channel.write(header, at);
+            }
+
+            channel.force(true);
+        }
+    }
+
+    private static void write(FileChannel channel, ByteBuffer out) throws IOException {
+        out.flip();
+
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+
+        out.clear();
+    }
+
+    /*
+     * 위치 배열을 cmp 순으로 정렬한다. (안정 정렬, 병합 정렬)
+     */
+    static void sort(int[] a, IntBinaryOperator cmp) {
+        int[] tmp = new int[a.length];
+
+        for (int width = 1; width < a.length; width <<= 1) {
+            for (int lo = 0; lo < a.length - width; lo += width << 1) {
+                int mid = lo + width;
+                int hi = Math.min(lo + (width << 1), a.length);
+
+                if (cmp.applyAsInt(a[mid - 1], a[mid]) <= 0) {
+                    continue;       // 이미 정렬된 구간
+                }
+
+                System.arraycopy(a, lo, tmp, lo, hi - lo);
+
+                for (int i = lo, l = lo, r = mid; i < hi; i++) {
+                    if (r >= hi || (l < mid && cmp.applyAsInt(tmp[l], tmp[r]) <= 0)) {
+                        a[i] = tmp[l++];
+                    } else {
+                        a[i] = tmp[r++];
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,519 @@
+package com.brandpark.api.bank_transaction.store;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.brandpark.api.bank_transaction.dto.BankTransactionResponse;
+import com.brandpark.api.bank_transaction.dto.CursorResult;
+import com.brandpark.api.bank_transaction.dto.PageResult;
+import com.brandpark.api.bank_transaction.query.BankTransactionCursor;
+import com.brandpark.api.bank_transaction.query.CountStrategy;
+import com.brandpark.api.upload.BankTransactionRowBuffer;
+import com.brandpark.api.upload.UploadEngine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 거래일자별 디렉토리에 불변 세그먼트 파일을 쓰고, 메모리 매핑하여 조회한다.
+ * <p>
+ * 업로드는 고정 길이 레코드를 스테이징 파일 끝에 이어 쓰기만 한다. 트랜잭션이 커밋될 때 거래일자별로 나누어 유저별/은행별 순서로 정렬한
+ * 세그먼트 두 개를 쓰고, 커밋된 뒤에 파일 이름을 바꾸어 조회할 수 있게 한다. 롤백되면 아무것도 남기지 않는다.
+ * <p>
+ * 조회는 거래일자 순으로 세그먼트를 훑는다. 전체 개수는 세그먼트 헤더의 (은행코드, 거래타입) 별 행 수를 더하므로 countStrategy 와 상관없이 정확하다.
+ * 한 거래일자에 세그먼트가 여럿이면 (정렬 키, 거래ID) 순으로 병합하며 읽는다.
+ * 커서 조회는 커서의 거래일자부터 읽고, 그 거래일자에서는 희소 인덱스로 커서의 (정렬 키, 거래ID) 다음 위치를 찾아 시작한다.
+ */
+@Slf4j
+@ConditionalOnProperty(name = "storage.backend", havingValue = "segment")
+@Repository
+public class SegmentTransactionStore implements TransactionStore {
+
+    private static final String STAGING_SUFFIX = ".staging";
+    private static final String TMP_SUFFIX = ".tmp";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path dir;
+    private final int indexInterval;
+    private final ConcurrentSkipListMap<LocalDate, Partition> partitions = new ConcurrentSkipListMap<>();
+
+    public SegmentTransactionStore(@Value("${storage.segment.dir:${user.home}/karrotcruit-segments}") String dir
+            , @Value("${storage.segment.index-interval:256}") int indexInterval) {
+
+        if (indexInterval < 1) {
+            throw new IllegalArgumentException("storage.segment.index-interval 은 1 이상이어야 합니다. : " + indexInterval);
+        }
+
+        this.dir = Paths.get(dir);
+        this.indexInterval = indexInterval;
+
+        load();
+    }
+
+    @Override
+    public void append(BankTransactionRowBuffer rows, UploadEngine engine) {
+        try {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                pending().staging.append(rows);
+                return;
+            }
+
+            Pending pending = new Pending();      // 트랜잭션 밖에서 호출하면 바로 세그먼트를 쓴다.
+
+            try (SegmentStaging staging = pending.staging) {
+                staging.append(rows);
+                publish(staging.writeSegments(dir, pending.name, indexInterval));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("세그먼트 파일을 쓰지 못했습니다. : " + dir, e);
+        }
+    }
+
+    @Override
+    public PageResult<BankTransactionResponse> findAllByUser(LocalDate transactionDate, TransactionType transactionType, Pageable pageable, CountStrategy countStrategy) {
+        return findPage(SegmentOrder.USER, transactionDate, transactionType, null, pageable, countStrategy);
+    }
+
+    @Override
+    public PageResult<BankTransactionResponse> findAllByBank(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, Pageable pageable, CountStrategy countStrategy) {
+        return findPage(SegmentOrder.BANK, transactionDate, transactionType, bankCode, pageable, countStrategy);
+    }
+
+    @Override
+    public CursorResult<BankTransactionResponse> findAllByUserAfter(LocalDate transactionDate, TransactionType transactionType, String cursor, int size) {
+
+        BankTransactionCursor after = cursor == null ? null : BankTransactionCursor.decode(cursor);
+        List<BankTransactionResponse> fetched = findAfter(SegmentOrder.USER, transactionDate, transactionType, null
+                , after, after == null ? 0 : after.getUserId(), size + 1);
+
+        return CursorResult.fromFetched(fetched, size, last -> BankTransactionCursor.byUser(last).encode());
+    }
+
+    @Override
+    public CursorResult<BankTransactionResponse> findAllByBankAfter(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, String cursor, int size) {
+
+        BankTransactionCursor after = cursor == null ? null : BankTransactionCursor.decode(cursor);
+        List<BankTransactionResponse> fetched = findAfter(SegmentOrder.BANK, transactionDate, transactionType, bankCode
+                , after, after == null ? 0 : SegmentFormat.bankCodeNumber(after.getBankCode()), size + 1);
+
+        return CursorResult.fromFetched(fetched, size, last -> BankTransactionCursor.byBank(last).encode());
+    }
+
+    /**
+     * 유저별 세그먼트를 거래일자 순으로 병합하며 읽는다. 은행코드 조건은 행마다 거른다.
+     */
+    @Override
+    public void forEachByUser(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, TransactionRowHandler handler) {
+
+        for (Partition partition : partitionsOf(transactionDate)) {
+            scan(partition.segments(SegmentOrder.USER), SegmentOrder.USER, transactionType, bankCode, Long.MIN_VALUE, Long.MIN_VALUE, (segment, pos) -> {
+                segment.handle(pos, handler);
+                return true;
+            });
+        }
+    }
+
+    /*
+     * after 의 거래일자부터 limit 개를 모은다. 그 거래일자에서는 (afterKey, after 의 거래ID) 다음 행부터 읽는다.
+     */
+    private List<BankTransactionResponse> findAfter(SegmentOrder order, LocalDate transactionDate, TransactionType transactionType, BankCode bankCode
+            , BankTransactionCursor after, long afterKey, int limit) {
+
+        List<BankTransactionResponse> fetched = new ArrayList<>(limit);
+
+        for (Map.Entry<LocalDate, Partition> partition : partitionsFrom(transactionDate, after == null ? null : after.getTransactionDate()).entrySet()) {
+
+            boolean cursorDate = after != null && partition.getKey().equals(after.getTransactionDate());
+            boolean more = scan(partition.getValue().segments(order), order, transactionType, bankCode
+                    , cursorDate ? afterKey : Long.MIN_VALUE, cursorDate ? after.getId() + 1 : Long.MIN_VALUE, (segment, pos) -> {
+                        fetched.add(segment.response(pos));
+                        return fetched.size() < limit;
+                    });
+
+            if (!more) {
+                break;
+            }
+        }
+
+        return fetched;
+    }
+
+    /*
+     * 페이지 앞에 있는 거래일자는 행 수만 보고 통째로 건너뛴다.
+     * NONE 이면 pageSize + 1 개를 채우는 즉시 멈추고, 그 외에는 남은 거래일자의 행 수도 더하여 전체 개수를 구한다.
+     */
+    private PageResult<BankTransactionResponse> findPage(SegmentOrder order, LocalDate transactionDate, TransactionType transactionType, BankCode bankCode
+            , Pageable pageable, CountStrategy countStrategy) {
+
+        boolean countTotal = countStrategy != CountStrategy.NONE;
+        int limit = countTotal ? pageable.getPageSize() : pageable.getPageSize() + 1;
+        long skip = pageable.getOffset();
+        long totalElements = 0;
+        List<BankTransactionResponse> contents = new ArrayList<>();
+
+        for (Partition partition : partitionsOf(transactionDate)) {
+
+            List<Segment> segments = partition.segments(order);
+            long count = 0;
+
+            for (Segment segment : segments) {
+                count += segment.count(transactionType, bankCode);
+            }
+
+            totalElements += count;
+
+            if (contents.size() >= limit) {
+                if (!countTotal) {
+                    break;
+                }
+                continue;
+            }
+
+            if (skip >= count) {
+                skip -= count;
+                continue;
+            }
+
+            read(segments, transactionType, bankCode, skip, limit - contents.size(), contents);
+            skip = 0;
+        }
+
+        if (!countTotal) {
+            boolean hasNext = contents.size() > pageable.getPageSize();
+            return PageResult.createSlice(hasNext ? contents.subList(0, pageable.getPageSize()) : contents, pageable, hasNext);
+        }
+
+        return PageResult.create(contents, pageable, totalElements, countStrategy);
+    }
+
+    private Collection<Partition> partitionsOf(LocalDate transactionDate) {
+        if (transactionDate == null) {
+            return partitions.values();
+        }
+
+        Partition partition = partitions.get(transactionDate);
+        return partition == null ? Collections.emptyList() : Collections.singletonList(partition);
+    }
+
+    /*
+     * from 부터의 거래일자. 거래일자 조건이 있으면 그 거래일자 하나만.
+     */
+    private NavigableMap<LocalDate, Partition> partitionsFrom(LocalDate transactionDate, LocalDate from) {
+        if (transactionDate != null) {
+            return from != null && transactionDate.isBefore(from)
+                    ? Collections.emptyNavigableMap()
+                    : partitions.subMap(transactionDate, true, transactionDate, true);
+        }
+
+        return from == null ? partitions : partitions.tailMap(from, true);
+    }
+
+    /*
+     * 은행코드 조건은 은행별 세그먼트에서 그 은행코드의 구간만 읽는다. (유저별 조회에는 은행코드 조건이 없다.)
+     */
+    private void read(List<Segment> segments, TransactionType transactionType, BankCode bankCode, long skip, int limit, List<BankTransactionResponse> out) {
+
+        if (segments.size() == 1) {
+            Segment segment = segments.get(0);
+            int from = from(segment, bankCode);
+            int to = to(segment, bankCode);
+            int typeOrdinal = transactionType == null ? -1 : transactionType.ordinal();
+
+            for (int pos = segment.seek(from, to, transactionType, skip); pos < to && limit > 0; pos++) {
+                if (typeOrdinal < 0 || segment.typeOrdinal(pos) == typeOrdinal) {
+                    out.add(segment.response(pos));
+                    limit--;
+                }
+            }
+            return;
+        }
+
+        PriorityQueue<Cursor> queue = new PriorityQueue<>(segments.size(), Cursor.ORDER);
+
+        for (Segment segment : segments) {
+            Cursor cursor = new Cursor(segment, from(segment, bankCode), to(segment, bankCode), transactionType, null);
+
+            if (cursor.hasCurrent()) {
+                queue.add(cursor);
+            }
+        }
+
+        while (!queue.isEmpty() && limit > 0) {
+            Cursor cursor = queue.poll();
+
+            if (skip > 0) {
+                skip--;
+            } else {
+                out.add(cursor.segment.response(cursor.pos));
+                limit--;
+            }
+
+            if (cursor.next()) {
+                queue.add(cursor);
+            }
+        }
+    }
+
+    /*
+     * 세그먼트들에서 (정렬 키, 거래ID) 가 (fromKey, fromId) 이상인 행부터 순서대로 병합하며 visitor 에 넘긴다.
+     * visitor 가 false 를 반환하면 멈추고 false 를 반환한다. 은행코드 조건은 은행별 세그먼트에서는 구간으로, 유저별 세그먼트에서는 행마다 거른다.
+     */
+    private static boolean scan(List<Segment> segments, SegmentOrder order, TransactionType transactionType, BankCode bankCode
+            , long fromKey, long fromId, RowVisitor visitor) {
+
+        BankCode range = order == SegmentOrder.BANK ? bankCode : null;
+        BankCode filter = order == SegmentOrder.BANK ? null : bankCode;
+        PriorityQueue<Cursor> queue = new PriorityQueue<>(Math.max(1, segments.size()), Cursor.ORDER);
+
+        for (Segment segment : segments) {
+            int from = Math.max(from(segment, range), segment.lowerBound(fromKey, fromId));
+            Cursor cursor = new Cursor(segment, from, to(segment, range), transactionType, filter);
+
+            if (cursor.hasCurrent()) {
+                queue.add(cursor);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            Cursor cursor = queue.poll();
+
+            if (!visitor.visit(cursor.segment, cursor.pos)) {
+                return false;
+            }
+
+            if (cursor.next()) {
+                queue.add(cursor);
+            }
+        }
+
+        return true;
+    }
+
+    private static int from(Segment segment, BankCode bankCode) {
+        return bankCode == null ? 0 : segment.lowerBound(SegmentFormat.bankCodeNumber(bankCode));
+    }
+
+    private static int to(Segment segment, BankCode bankCode) {
+        return bankCode == null ? segment.getRecordCount() : segment.lowerBound(SegmentFormat.bankCodeNumber(bankCode) + 1L);
+    }
+
+    private Pending pending() throws IOException {
+
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+
+        return pending;
+    }
+
+    /*
+     * 임시 파일을 최종 이름으로 바꾼 뒤 열어서 거래일자별 파티션에 더한다.
+     */
+    private void publish(List<Path> written) throws IOException {
+
+        List<Segment> segments = new ArrayList<>(written.size());
+
+        for (Path tmp : written) {
+            String fileName = tmp.getFileName().toString();
+            Path target = tmp.resolveSibling(fileName.substring(0, fileName.length() - TMP_SUFFIX.length()));
+
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            segments.add(Segment.open(target));
+        }
+
+        for (Segment segment : segments) {
+            partitions.merge(segment.getTransactionDate(), Partition.of(segment), Partition::merge);
+        }
+    }
+
+    /*
+     * 끝나지 않은 업로드가 남긴 스테이징 파일과 임시 파일은 지우고, 세그먼트 파일을 연다.
+     */
+    private void load() {
+        try {
+            Files.createDirectories(dir);
+
+            List<Path> files;
+
+            try (Stream<Path> walk = Files.walk(dir, 2)) {
+                files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+
+                if (fileName.endsWith(STAGING_SUFFIX) || fileName.endsWith(TMP_SUFFIX)) {
+                    Files.delete(file);
+                } else if (fileName.endsWith(SEGMENT_SUFFIX)) {
+                    Segment segment = Segment.open(file);
+                    partitions.merge(segment.getTransactionDate(), Partition.of(segment), Partition::merge);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("세그먼트 디렉토리를 읽지 못했습니다. : " + dir, e);
+        }
+
+        log.info("세그먼트 저장소를 열었습니다. dir={}, 거래일자={}", dir, partitions.size());
+    }
+
+    /**
+     * 트랜잭션 하나가 저장하는 행. 커밋 직전에 세그먼트를 임시 파일로 쓰고(실패하면 롤백된다), 커밋된 뒤에 공개한다.
+     */
+    private class Pending implements TransactionSynchronization {
+
+        private final String name = UUID.randomUUID().toString();
+        private final SegmentStaging staging;
+        private List<Path> written = Collections.emptyList();
+
+        Pending() throws IOException {
+            this.staging = new SegmentStaging(dir.resolve(name + STAGING_SUFFIX));
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            try {
+                written = staging.writeSegments(dir, name, indexInterval);
+            } catch (IOException e) {
+                throw new IllegalStateException("세그먼트 파일을 쓰지 못했습니다. : " + dir, e);
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            try {
+                publish(written);
+                written = Collections.emptyList();
+            } catch (IOException e) {
+                log.error("커밋된 세그먼트를 공개하지 못했습니다. : {}", written, e);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(SegmentTransactionStore.this);
+
+            try {
+                staging.close();
+
+                for (Path tmp : written) {
+                    Files.deleteIfExists(tmp);
+                }
+            } catch (IOException e) {
+                log.warn("세그먼트 스테이징 파일을 지우지 못했습니다. : {}", name, e);
+            }
+        }
+    }
+
+    /**
+     * 한 거래일자의 세그먼트들. 바꾸지 않고 새로 만들어 교체하므로 조회 도중에 목록이 바뀌지 않는다.
+     */
+    private static class Partition {
+
+        private final List<Segment> byUser;
+        private final List<Segment> byBank;
+
+        private Partition(List<Segment> byUser, List<Segment> byBank) {
+            this.byUser = byUser;
+            this.byBank = byBank;
+        }
+
+        static Partition of(Segment segment) {
+            List<Segment> one = Collections.singletonList(segment);
+            return segment.getOrder() == SegmentOrder.USER
+                    ? new Partition(one, Collections.emptyList())
+                    : new Partition(Collections.emptyList(), one);
+        }
+
+        static Partition merge(Partition a, Partition b) {
+            return new Partition(concat(a.byUser, b.byUser), concat(a.byBank, b.byBank));
+        }
+
+        List<Segment> segments(SegmentOrder order) {
+            return order == SegmentOrder.USER ? byUser : byBank;
+        }
+
+        private static List<Segment> concat(List<Segment> a, List<Segment> b) {
+            List<Segment> ret = new ArrayList<>(a.size() + b.size());
+            ret.addAll(a);
+            ret.addAll(b);
+            return Collections.unmodifiableList(ret);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowVisitor {
+        boolean visit(Segment segment, int pos);
+    }
+
+    /**
+     * 세그먼트 하나의 [pos, to) 에서 거래타입, 은행코드 조건에 맞는 행을 차례로 가리킨다.
+     */
+    private static class Cursor {
+
+        static final Comparator<Cursor> ORDER = Comparator.<Cursor>comparingLong(c -> c.segment.key(c.pos))
+                .thenComparingLong(c -> c.segment.id(c.pos));
+
+        private final Segment segment;
+        private final int to;
+        private final int typeOrdinal;
+        private final int bankCodeNumber;
+        private int pos;
+
+        Cursor(Segment segment, int from, int to, TransactionType transactionType, BankCode bankCode) {
+            this.segment = segment;
+            this.to = to;
+            this.typeOrdinal = transactionType == null ? -1 : transactionType.ordinal();
+            this.bankCodeNumber = bankCode == null ? -1 : SegmentFormat.bankCodeNumber(bankCode);
+            this.pos = from;
+
+            skipUnmatched();
+        }
+
+        boolean hasCurrent() {
+            return pos < to;
+        }
+
+        boolean next() {
+            pos++;
+            skipUnmatched();
+            return hasCurrent();
+        }
+
+        private void skipUnmatched() {
+            while (pos < to && !matches()) {
+                pos++;
+            }
+        }
+
+        private boolean matches() {
+            return (typeOrdinal < 0 || segment.typeOrdinal(pos) == typeOrdinal)
+                    && (bankCodeNumber < 0 || segment.bankCodeNumber(pos) == bankCodeNumber);
+        }
+    }
+}
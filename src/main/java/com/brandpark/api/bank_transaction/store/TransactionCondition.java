@@ -0,0 +1,140 @@
+package com.brandpark.api.bank_transaction.store;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.brandpark.api.bank_transaction.dto.BankTransactionResponse;
+import com.brandpark.api.bank_transaction.query.BankTransactionCursor;
+import lombok.Getter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * bank_transaction 과 같은 구조의 테이블(파티션, 샤드)에 보내는 페이지 조회의 조건. 테이블마다 같은 WHERE 절과 인자를 사용한다.
+ */
+@Getter
+public class TransactionCondition {
+
+    private static final int FETCH_SIZE = 1000;
+
+    public static final String SELECT = "SELECT bank_transaction_id, user_id, bank_code, transaction_type, transaction_date, transaction_amount FROM ";
+    public static final String ORDER_BY_USER = " ORDER BY transaction_date, user_id, bank_transaction_id";
+    public static final String ORDER_BY_BANK = " ORDER BY transaction_date, bank_code, bank_transaction_id";
+
+    public static final RowMapper<BankTransactionResponse> RESPONSE_MAPPER = (rs, rowNum) -> new BankTransactionResponse(
+            rs.getLong(1), rs.getLong(2), BankCode.ofCode(rs.getString(3)), TransactionType.ofName(rs.getString(4))
+            , rs.getObject(5, LocalDate.class), rs.getLong(6));
+
+    /**
+     * ORDER_BY_USER, ORDER_BY_BANK 와 같은 순서. 여러 테이블의 결과를 병합할 때 사용한다.
+     */
+    public static final Comparator<BankTransactionResponse> USER_ORDER = Comparator.comparing(BankTransactionResponse::getTransactionDate)
+            .thenComparing(BankTransactionResponse::getUserId)
+            .thenComparing(BankTransactionResponse::getBankTransactionId);
+    public static final Comparator<BankTransactionResponse> BANK_ORDER = Comparator.comparing(BankTransactionResponse::getTransactionDate)
+            .thenComparing(BankTransactionResponse::getBankCode)
+            .thenComparing(BankTransactionResponse::getBankTransactionId);
+
+    private final LocalDate transactionDate;
+    private final TransactionType transactionType;
+    private final BankCode bankCode;
+    private final String where;
+    private final List<Object> args = new ArrayList<>();
+
+    public TransactionCondition(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode) {
+        this.transactionDate = transactionDate;
+        this.transactionType = transactionType;
+        this.bankCode = bankCode;
+
+        StringBuilder where = new StringBuilder(" WHERE 1=1");
+
+        if (transactionDate != null) {
+            where.append(" AND transaction_date = ?");
+            args.add(transactionDate);
+        }
+
+        if (transactionType != null) {
+            where.append(" AND transaction_type = ?");
+            args.add(transactionType.name());
+        }
+
+        if (bankCode != null) {
+            where.append(" AND bank_code = ?");
+            args.add(bankCode.getCode());
+        }
+
+        this.where = where.toString();
+    }
+
+    private TransactionCondition(TransactionCondition condition, String keyColumn, Object key, BankTransactionCursor after) {
+        this.transactionDate = condition.transactionDate;
+        this.transactionType = condition.transactionType;
+        this.bankCode = condition.bankCode;
+        this.where = condition.where
+                + " AND transaction_date >= ?"      // 인덱스의 탐색 시작 위치로 사용된다.
+                + " AND (transaction_date > ?"
+                + " OR (transaction_date = ? AND " + keyColumn + " > ?)"
+                + " OR (transaction_date = ? AND " + keyColumn + " = ? AND bank_transaction_id > ?))";
+
+        args.addAll(condition.args);
+        args.add(after.getTransactionDate());
+        args.add(after.getTransactionDate());
+        args.add(after.getTransactionDate());
+        args.add(key);
+        args.add(after.getTransactionDate());
+        args.add(key);
+        args.add(after.getId());
+    }
+
+    /**
+     * ORDER_BY_USER 에서 after 다음 행부터 읽는 조건. after 가 null 이면 그대로 반환한다.
+     */
+    public TransactionCondition afterUser(BankTransactionCursor after) {
+        return after == null ? this : new TransactionCondition(this, "user_id", after.getUserId(), after);
+    }
+
+    /**
+     * ORDER_BY_BANK 에서 after 다음 행부터 읽는 조건. after 가 null 이면 그대로 반환한다.
+     */
+    public TransactionCondition afterBank(BankTransactionCursor after) {
+        return after == null ? this : new TransactionCondition(this, "bank_code", after.getBankCode().getCode(), after);
+    }
+
+    /**
+     * table 에서 조건에 맞는 행을 order 순으로 forward-only 커서로 읽어 하나씩 handler 에 넘긴다. 메모리 사용량은 fetch size 만큼이다.
+     */
+    public void stream(JdbcTemplate jdbcTemplate, String table, String order, TransactionRowHandler handler) {
+
+        String sql = SELECT + table + where + order;
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+
+            return ps;
+        }, rs -> {
+            handler.handle(rs.getLong(1), rs.getLong(2), BankCode.ofCode(rs.getString(3)), TransactionType.ofName(rs.getString(4))
+                    , rs.getObject(5, LocalDate.class), rs.getLong(6));
+        });
+    }
+
+    /**
+     * 조건의 인자 뒤에 LIMIT, OFFSET 인자를 붙인다.
+     */
+    public Object[] argsWithPage(long limit, long offset) {
+        List<Object> ret = new ArrayList<>(args);
+        ret.add(limit);
+        ret.add(offset);
+        return ret.toArray();
+    }
+}
@@ -0,0 +1,15 @@
+package com.brandpark.api.bank_transaction.store;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+
+import java.time.LocalDate;
+
+/**
+ * {@link TransactionStore#forEachByUser} 가 조회한 행을 하나씩 받는다. 행마다 객체를 만들지 않도록 컬럼을 그대로 넘긴다.
+ */
+@FunctionalInterface
+public interface TransactionRowHandler {
+
+    void handle(long bankTransactionId, long userId, BankCode bankCode, TransactionType transactionType, LocalDate transactionDate, long transactionAmount);
+}
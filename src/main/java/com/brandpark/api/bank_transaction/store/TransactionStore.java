@@ -0,0 +1,62 @@
+package com.brandpark.api.bank_transaction.store;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.brandpark.api.bank_transaction.dto.BankTransactionResponse;
+import com.brandpark.api.bank_transaction.dto.CursorResult;
+import com.brandpark.api.bank_transaction.dto.PageResult;
+import com.brandpark.api.bank_transaction.query.CountStrategy;
+import com.brandpark.api.upload.BankTransactionRowBuffer;
+import com.brandpark.api.upload.UploadEngine;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+
+/**
+ * 거래 내역을 저장하고 유저별/은행별 페이지로 조회하는 저장소. storage.backend 로 구현체를 고른다.
+ * <ul>
+ *     <li>jpa : bank_transaction 테이블 ({@link JpaTransactionStore})</li>
+ *     <li>segment : 거래일자별 불변 세그먼트 파일 ({@link SegmentTransactionStore})</li>
+ *     <li>partitioned : 거래월별 파티션 테이블 bank_transaction_yyyyMM ({@link com.brandpark.api.bank_transaction.partition.PartitionedTransactionStore})</li>
+ *     <li>sharded : 유저ID 의 해시로 나눈 샤드 DB ({@link com.brandpark.api.bank_transaction.shard.ShardedTransactionStore})</li>
+ * </ul>
+ */
+public interface TransactionStore {
+
+    /**
+     * 버퍼의 행들을 저장한다. 호출이 끝나면 버퍼는 재사용되므로 구현체는 버퍼를 들고 있으면 안 된다.
+     * 진행 중인 트랜잭션이 있으면 그 트랜잭션이 커밋될 때 조회할 수 있게 된다.
+     *
+     * @param engine JPA 저장소에서만 사용한다.
+     */
+    void append(BankTransactionRowBuffer rows, UploadEngine engine);
+
+    /**
+     * {거래일자, 유저ID} ASC
+     */
+    PageResult<BankTransactionResponse> findAllByUser(LocalDate transactionDate, TransactionType transactionType, Pageable pageable, CountStrategy countStrategy);
+
+    /**
+     * {거래일자, 은행코드} ASC
+     */
+    PageResult<BankTransactionResponse> findAllByBank(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, Pageable pageable, CountStrategy countStrategy);
+
+    /**
+     * {거래일자, 유저ID, 거래ID} ASC 에서 cursor 다음 행부터 size 개
+     *
+     * @param cursor 이전 페이지의 nextCursor. 첫 페이지는 null
+     */
+    CursorResult<BankTransactionResponse> findAllByUserAfter(LocalDate transactionDate, TransactionType transactionType, String cursor, int size);
+
+    /**
+     * {거래일자, 은행코드, 거래ID} ASC 에서 cursor 다음 행부터 size 개
+     *
+     * @param cursor 이전 페이지의 nextCursor. 첫 페이지는 null
+     */
+    CursorResult<BankTransactionResponse> findAllByBankAfter(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, String cursor, int size);
+
+    /**
+     * 조건에 맞는 행을 {거래일자, 유저ID, 거래ID} ASC 로 모으지 않고 하나씩 handler 에 넘긴다. 내보내기에서 사용한다.
+     */
+    void forEachByUser(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode, TransactionRowHandler handler);
+}
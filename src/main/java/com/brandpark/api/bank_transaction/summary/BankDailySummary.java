@@ -0,0 +1,45 @@
+package com.brandpark.api.bank_transaction.summary;
+
+import com.brandpark.api.bank_transaction.converter.BankCodePersistConverter;
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * (거래일자, 은행코드, 거래타입) 별 거래 수와 거래금액 합계. 업로드할 때 {@link BankTransactionSummaryUpdater} 가 누적한다.
+ */
+@NoArgsConstructor
+@Getter
+@Table(
+        name = "bank_daily_summary"
+        , uniqueConstraints = @UniqueConstraint(name = "uk_bank_daily_summary", columnNames = {"transaction_date", "bank_code", "transaction_type"})
+)
+@Entity
+public class BankDailySummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "bank_daily_summary_id")
+    private Long id;
+
+    @Column(name = "transaction_date", nullable = false)
+    private LocalDate transactionDate;
+
+    @Convert(converter = BankCodePersistConverter.class)
+    @Column(name = "bank_code", nullable = false)
+    private BankCode bankCode;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_type", nullable = false)
+    private TransactionType transactionType;
+
+    @Column(name = "row_count", nullable = false)
+    private long rowCount;
+
+    @Column(name = "amount_sum", nullable = false)
+    private long amountSum;
+}
@@ -0,0 +1,30 @@
+package com.brandpark.api.bank_transaction.summary;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+
+@EqualsAndHashCode
+@Getter
+@RequiredArgsConstructor
+class BankDailySummaryKey implements Comparable<BankDailySummaryKey> {
+
+    private static final Comparator<BankDailySummaryKey> ORDER = Comparator
+            .comparing(BankDailySummaryKey::getTransactionDate)
+            .thenComparing(BankDailySummaryKey::getBankCode)
+            .thenComparing(BankDailySummaryKey::getTransactionType);
+
+    private final LocalDate transactionDate;
+    private final BankCode bankCode;
+    private final TransactionType transactionType;
+
+    @Override
+    public int compareTo(BankDailySummaryKey o) {
+        return ORDER.compare(this, o);
+    }
+}
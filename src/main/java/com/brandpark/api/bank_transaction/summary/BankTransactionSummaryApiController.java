@@ -0,0 +1,33 @@
+package com.brandpark.api.bank_transaction.summary;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.brandpark.api.bank_transaction.dto.BankSummaryResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@ConditionalOnProperty(name = "aggregate.bank-summary.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@RequestMapping("/api/v1")
+@RestController
+public class BankTransactionSummaryApiController {
+
+    private final BankTransactionSummaryRepository bankTransactionSummaryRepository;
+
+    @GetMapping("/bank-transactions/summary/by-bank")
+    public List<BankSummaryResponse> getSummaryByBank(
+            @RequestParam(value = "transaction_date", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate transactionDate
+            , @RequestParam(value = "transaction_type", required = false) TransactionType transactionType
+            , @RequestParam(value = "bank_code", required = false) BankCode bankCode) {
+
+        return bankTransactionSummaryRepository.findAllByBank(transactionDate, transactionType, bankCode);
+    }
+}
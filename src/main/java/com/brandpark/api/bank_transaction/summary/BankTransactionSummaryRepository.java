@@ -0,0 +1,71 @@
+package com.brandpark.api.bank_transaction.summary;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.brandpark.api.bank_transaction.dto.BankSummaryResponse;
+import com.brandpark.api.upload.BatchMerge;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+
+@RequiredArgsConstructor
+@Repository
+public class BankTransactionSummaryRepository {
+
+    private static final String MERGE_BANK_SQL = "MERGE INTO bank_daily_summary s"
+            + " USING (SELECT CAST(? AS DATE) transaction_date, CAST(? AS VARCHAR) bank_code, CAST(? AS VARCHAR) transaction_type"
+            + ", CAST(? AS BIGINT) row_count, CAST(? AS BIGINT) amount_sum) d"
+            + " ON (s.transaction_date = d.transaction_date AND s.bank_code = d.bank_code AND s.transaction_type = d.transaction_type)"
+            + " WHEN MATCHED THEN UPDATE SET row_count = s.row_count + d.row_count, amount_sum = s.amount_sum + d.amount_sum"
+            + " WHEN NOT MATCHED THEN INSERT (transaction_date, bank_code, transaction_type, row_count, amount_sum)"
+            + " VALUES (d.transaction_date, d.bank_code, d.transaction_type, d.row_count, d.amount_sum)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 키 순서대로 정렬된 변화량을 MERGE 한 번(batch)으로 더한다.
+     */
+    void addAllBank(SortedMap<BankDailySummaryKey, SummaryDelta> deltas) {
+
+        List<Object[]> batchArgs = new ArrayList<>(deltas.size());
+
+        deltas.forEach((key, delta) -> batchArgs.add(new Object[]{key.getTransactionDate(), key.getBankCode().getCode(), key.getTransactionType().name()
+                , delta.getRowCount(), delta.getAmountSum()}));
+
+        BatchMerge.execute(jdbcTemplate, MERGE_BANK_SQL, batchArgs);
+    }
+
+    /**
+     * 은행별 일 단위 요약을 {거래일자, 은행코드, 거래타입} ASC 로 조회한다. null 인 조건은 모든 값을 조회한다.
+     */
+    public List<BankSummaryResponse> findAllByBank(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode) {
+
+        final StringBuilder sql = new StringBuilder("SELECT transaction_date, bank_code, transaction_type, row_count, amount_sum FROM bank_daily_summary WHERE 1=1");
+        List<Object> args = new ArrayList<>();
+
+        if (transactionDate != null) {
+            sql.append(" AND transaction_date = ?");
+            args.add(transactionDate);
+        }
+
+        if (transactionType != null) {
+            sql.append(" AND transaction_type = ?");
+            args.add(transactionType.name());
+        }
+
+        if (bankCode != null) {
+            sql.append(" AND bank_code = ?");
+            args.add(bankCode.getCode());
+        }
+
+        sql.append(" ORDER BY transaction_date, bank_code, transaction_type");
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new BankSummaryResponse(
+                rs.getObject(1, LocalDate.class).toString(), rs.getString(2), rs.getString(3), rs.getLong(4), rs.getLong(5)), args.toArray());
+    }
+}
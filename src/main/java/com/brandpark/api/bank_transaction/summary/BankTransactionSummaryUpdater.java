@@ -0,0 +1,31 @@
+package com.brandpark.api.bank_transaction.summary;
+
+import com.brandpark.api.upload.BankTransactionBatchListener;
+import com.brandpark.api.upload.BankTransactionRowBuffer;
+import com.brandpark.api.upload.ChunkDeltas;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 업로드된 batch 를 은행별 일 단위로 모아 요약 테이블에 더한다.
+ * 카운터와 마찬가지로 chunk 하나의 변화량을 모두 모은 뒤 커밋 직전에 키 순서대로 한 번에 더한다. ({@link ChunkDeltas})
+ */
+@ConditionalOnProperty(name = "aggregate.bank-summary.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Component
+public class BankTransactionSummaryUpdater implements BankTransactionBatchListener {
+
+    private final BankTransactionSummaryRepository bankTransactionSummaryRepository;
+
+    @Override
+    public void onBatchInserted(BankTransactionRowBuffer batch) {
+
+        ChunkDeltas.<BankDailySummaryKey, SummaryDelta>collect(this, deltas -> {
+            for (int i = 0; i < batch.size(); i++) {
+                deltas.computeIfAbsent(new BankDailySummaryKey(batch.getTransactionDate(i), batch.getBankCode(i), batch.getTransactionType(i))
+                        , key -> new SummaryDelta()).add(batch.getTransactionAmount(i));
+            }
+        }, bankTransactionSummaryRepository::addAllBank);
+    }
+}
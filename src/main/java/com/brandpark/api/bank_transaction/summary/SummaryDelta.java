@@ -0,0 +1,18 @@
+package com.brandpark.api.bank_transaction.summary;
+
+import lombok.Getter;
+
+/**
+ * 한 chunk 에서 같은 키로 모인 거래 수와 거래금액 합계
+ */
+@Getter
+class SummaryDelta {
+
+    private long rowCount;
+    private long amountSum;
+
+    void add(long transactionAmount) {
+        rowCount++;
+        amountSum += transactionAmount;
+    }
+}
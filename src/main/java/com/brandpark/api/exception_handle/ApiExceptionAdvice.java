@@ -1,7 +1,13 @@
 package com.brandpark.api.exception_handle;
 
+import com.brandpark.api.bank_transaction.exception.InvalidCursorException;
+import com.brandpark.api.bank_transaction.exception.PartitionNotFoundException;
 import com.brandpark.api.upload.exception.CsvColumnNotValidException;
 import com.brandpark.api.upload.exception.IllegalFileFormatException;
+import com.brandpark.api.upload.exception.UploadFileTooLargeException;
+import com.brandpark.api.upload.exception.UploadJobNotFoundException;
+import com.brandpark.api.upload.exception.UploadJobNotResumableException;
+import com.brandpark.api.user_balance.exception.UserBalanceNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
@@ -11,13 +17,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 @Slf4j
 @Order(Ordered.HIGHEST_PRECEDENCE)
 @RestControllerAdvice
 public class ApiExceptionAdvice {
 
-    @ExceptionHandler({CsvColumnNotValidException.class, IllegalFileFormatException.class, MethodArgumentTypeMismatchException.class})
+    @ExceptionHandler({CsvColumnNotValidException.class, IllegalFileFormatException.class, MethodArgumentTypeMismatchException.class, InvalidCursorException.class})
     public ResponseEntity<ApiError> handleException(RuntimeException ex) {
 
         log.error("API Error : {}", ex.getMessage());
@@ -27,9 +34,39 @@ public class ApiExceptionAdvice {
         return createResponseEntity(apiError);
     }
 
+    @ExceptionHandler({UploadJobNotFoundException.class, UserBalanceNotFoundException.class, PartitionNotFoundException.class})
+    public ResponseEntity<ApiError> handleNotFoundException(RuntimeException ex) {
+
+        log.error("API Error : {}", ex.getMessage());
+
+        ApiError apiError = new ApiError(HttpStatus.NOT_FOUND, ex.getMessage(), ex);
+
+        return createResponseEntity(apiError);
+    }
+
+    @ExceptionHandler(UploadJobNotResumableException.class)
+    public ResponseEntity<ApiError> handleConflictException(RuntimeException ex) {
+
+        log.error("API Error : {}", ex.getMessage());
+
+        ApiError apiError = new ApiError(HttpStatus.CONFLICT, ex.getMessage(), ex);
+
+        return createResponseEntity(apiError);
+    }
+
+    @ExceptionHandler({UploadFileTooLargeException.class, MaxUploadSizeExceededException.class})
+    public ResponseEntity<ApiError> handlePayloadTooLargeException(RuntimeException ex) {
+
+        log.error("API Error : {}", ex.getMessage());
+
+        ApiError apiError = new ApiError(HttpStatus.PAYLOAD_TOO_LARGE, ex.getMessage(), ex);
+
+        return createResponseEntity(apiError);
+    }
+
     private ResponseEntity<ApiError> createResponseEntity(ApiError apiError) {
         return ResponseEntity
-                .status(HttpStatus.BAD_REQUEST)
+                .status(apiError.getStatus())
                 .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
                 .body(apiError);
     }
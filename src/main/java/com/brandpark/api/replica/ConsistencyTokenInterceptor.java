@@ -0,0 +1,52 @@
+package com.brandpark.api.replica;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 요청의 일관성 토큰(업로드 API 가 응답한 업로드 순번)을 요청을 처리하는 스레드에 둔다.
+ * 토큰이 있으면 그 순번까지 반영한 복제 DB 에서만 읽고, 그런 복제 DB 가 없으면 기본 DB 에서 읽는다.
+ */
+public class ConsistencyTokenInterceptor implements HandlerInterceptor {
+
+    public static final String HEADER = "X-Consistency-Token";
+
+    private static final ThreadLocal<Long> TOKEN = new ThreadLocal<>();
+
+    /**
+     * 현재 요청이 요구하는 업로드 순번. 토큰이 없으면 0
+     */
+    public static long current() {
+        Long token = TOKEN.get();
+        return token == null ? 0 : token;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String token = request.getHeader(HEADER);
+
+        if (token != null) {
+            TOKEN.set(parse(token.trim()));
+        }
+
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        TOKEN.remove();
+    }
+
+    /*
+     * 읽을 수 없는 토큰은 어떤 복제 DB 도 만족하지 못하도록 하여 기본 DB 에서 읽게 한다.
+     */
+    private static long parse(String token) {
+        try {
+            return Long.parseLong(token);
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
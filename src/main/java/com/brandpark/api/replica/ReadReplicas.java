@@ -0,0 +1,180 @@
+package com.brandpark.api.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 복제 DB 들의 상태. probe-interval 마다 기본 DB 와 복제 DB 의 업로드 순번({@link ReplicationWatermark})을 읽어 복제 지연을 잰다.
+ *
+ * <p>복제 지연은 복제 DB 가 아직 반영하지 못한 첫 업로드 순번을 기본 DB 에서 처음 본 뒤로 지난 시간이다. (정밀도는 probe-interval)
+ * 읽기 전용 트랜잭션은 응답이 있고, 지연이 max-lag 이하이며, 요청의 일관성 토큰 이상을 반영한 복제 DB 에 돌아가며 보낸다. 그런 복제 DB 가 없으면 기본 DB 에서 읽는다.
+ */
+@Slf4j
+public class ReadReplicas {
+
+    public static final String PRIMARY = "primary";
+
+    private final JdbcTemplate primary;
+    @Getter
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final NavigableMap<Long, Long> firstSeen = new ConcurrentSkipListMap<>();     // 기본 DB 의 업로드 순번 -> 처음 본 시각
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Counter> routed = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final ScheduledExecutorService prober;
+
+    public ReadReplicas(DataSource primary, List<HikariDataSource> replicas, Duration maxLag, Duration probeInterval, MeterRegistry meterRegistry) {
+
+        this.primary = new JdbcTemplate(primary);
+        this.maxLagMillis = maxLag.toMillis();
+        this.meterRegistry = meterRegistry;
+
+        List<Replica> list = new ArrayList<>(replicas.size());
+
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = new Replica("replica-" + i, replicas.get(i));
+
+            Gauge.builder("datasource.replica.lag", replica, Replica::getLagMillis)
+                    .description("복제 DB 가 기본 DB 보다 늦은 시간. 응답이 없으면 -1").baseUnit("milliseconds").tag("replica", replica.getName())
+                    .register(meterRegistry);
+            list.add(replica);
+        }
+
+        this.replicas = Collections.unmodifiableList(list);
+        this.prober = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("replica-probe-"));
+        this.prober.scheduleWithFixedDelay(this::probe, probeInterval.toMillis(), probeInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 읽기 전용 트랜잭션을 보낼 DB 의 이름. ({@link #PRIMARY} 또는 복제 DB 의 이름)
+     *
+     * @param uploadSequence 복제 DB 가 반영했어야 하는 업로드 순번. 0 이면 조건이 없다.
+     */
+    public String route(long uploadSequence) {
+
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        String target = PRIMARY;
+
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+
+            if (replica.isReadable(uploadSequence, maxLagMillis)) {
+                target = replica.getName();
+                break;
+            }
+        }
+
+        routed.computeIfAbsent(target, t -> Counter.builder("datasource.routing.reads")
+                        .description("읽기 전용 트랜잭션을 보낸 DB").tag("target", t).register(meterRegistry))
+                .increment();
+
+        return target;
+    }
+
+    public void probe() {
+        probe(System.currentTimeMillis());
+    }
+
+    /*
+     * 기본 DB 를 읽지 못하면(아직 테이블이 없는 시작 직후 등) 이번 측정은 건너뛴다.
+     */
+    void probe(long now) {
+
+        long primarySequence;
+
+        try {
+            primarySequence = ReplicationWatermarkRepository.uploadSequence(primary);
+        } catch (DataAccessException e) {
+            log.debug("기본 DB 의 업로드 순번을 읽지 못했습니다. : {}", e.getMessage());
+            return;
+        }
+
+        firstSeen.putIfAbsent(primarySequence, now);
+
+        long minSequence = primarySequence;
+
+        for (Replica replica : replicas) {
+            try {
+                long sequence = ReplicationWatermarkRepository.uploadSequence(replica.jdbcTemplate);
+                Map.Entry<Long, Long> missing = firstSeen.higherEntry(sequence);
+
+                if (!replica.isUp()) {
+                    log.info("복제 DB 를 읽기에 사용합니다. : {}, 업로드 순번 {}", replica.getName(), sequence);
+                }
+
+                replica.update(sequence, missing == null ? 0 : Math.max(0, now - missing.getValue()));
+                minSequence = Math.min(minSequence, sequence);
+
+            } catch (DataAccessException e) {
+                if (replica.isUp()) {
+                    log.warn("복제 DB 가 응답하지 않아 읽기에서 제외합니다. : {}", replica.getName(), e);
+                }
+
+                replica.down();
+            }
+        }
+
+        firstSeen.headMap(minSequence, true).clear();
+    }
+
+    public void close() {
+        prober.shutdownNow();
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    @Getter
+    public static class Replica {
+
+        private final String name;
+        private final HikariDataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+
+        private volatile boolean up;
+        private volatile long uploadSequence;
+        private volatile long lagMillis = -1;
+
+        Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+        }
+
+        boolean isReadable(long requiredSequence, long maxLagMillis) {
+            return up && uploadSequence >= requiredSequence && lagMillis <= maxLagMillis;
+        }
+
+        void update(long uploadSequence, long lagMillis) {
+            this.uploadSequence = uploadSequence;
+            this.lagMillis = lagMillis;
+            this.up = true;
+        }
+
+        void down() {
+            this.up = false;
+            this.lagMillis = -1;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.brandpark.api.replica;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 읽기 전용 트랜잭션({@code @Transactional(readOnly = true)})의 커넥션은 복제 DB 에서, 나머지는 기본 DB 에서 얻는다.
+ *
+ * <p>트랜잭션의 readOnly 는 트랜잭션을 시작한 뒤에 알 수 있으므로, 커넥션을 처음 사용할 때 얻도록 LazyConnectionDataSourceProxy 로 감싸서 사용한다.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReadReplicas readReplicas;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReadReplicas readReplicas) {
+        this.readReplicas = readReplicas;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReadReplicas.PRIMARY, primary);
+        readReplicas.getReplicas().forEach(replica -> targets.put(replica.getName(), replica.getDataSource()));
+
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return ReadReplicas.PRIMARY;
+        }
+
+        return readReplicas.route(ConsistencyTokenInterceptor.current());
+    }
+}
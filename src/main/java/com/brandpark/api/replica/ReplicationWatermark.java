@@ -0,0 +1,31 @@
+package com.brandpark.api.replica;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * 기본 DB 에서 끝난 업로드의 순번. 행은 하나({@link ReplicationWatermarkRepository#ID})이며 업로드가 끝날 때마다 1 씩 늘어난다.
+ * 복제 DB 에 복제된 이 값으로 복제 DB 가 어느 업로드까지 반영했는지 알 수 있다.
+ */
+@NoArgsConstructor
+@Getter
+@Table(name = "replication_watermark")
+@Entity
+public class ReplicationWatermark {
+
+    @Id
+    @Column(name = "replication_watermark_id")
+    private Long id;
+
+    @Column(name = "upload_sequence", nullable = false)
+    private long uploadSequence;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,49 @@
+package com.brandpark.api.replica;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+@Repository
+public class ReplicationWatermarkRepository {
+
+    static final long ID = 1L;
+
+    private static final String SELECT_SQL = "SELECT upload_sequence FROM replication_watermark WHERE replication_watermark_id = " + ID;
+    private static final String UPDATE_SQL = "UPDATE replication_watermark SET upload_sequence = upload_sequence + 1, updated_at = ?"
+            + " WHERE replication_watermark_id = " + ID;
+    private static final String INSERT_SQL = "INSERT INTO replication_watermark (replication_watermark_id, upload_sequence, updated_at)"
+            + " VALUES (" + ID + ", 1, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 업로드 순번을 1 늘리고 늘린 값을 반환한다. 동시에 끝난 업로드가 있으면 그 업로드가 늘린 값이 반환될 수 있다.
+     */
+    public long advance() {
+        LocalDateTime now = LocalDateTime.now();
+
+        if (jdbcTemplate.update(UPDATE_SQL, now) == 0) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, now);
+            } catch (DuplicateKeyException e) {
+                jdbcTemplate.update(UPDATE_SQL, now);
+            }
+        }
+
+        return uploadSequence(jdbcTemplate);
+    }
+
+    /**
+     * jdbcTemplate 이 가리키는 DB(기본 DB 또는 복제 DB)의 업로드 순번. 아직 업로드가 없으면 0
+     */
+    public static long uploadSequence(JdbcTemplate jdbcTemplate) {
+        List<Long> sequence = jdbcTemplate.queryForList(SELECT_SQL, Long.class);
+        return sequence.isEmpty() ? 0 : sequence.get(0);
+    }
+}
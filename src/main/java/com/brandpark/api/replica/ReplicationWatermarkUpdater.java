@@ -0,0 +1,40 @@
+package com.brandpark.api.replica;
+
+import com.brandpark.api.upload.BankTransactionUploadedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 업로드가 끝나면(커밋된 행이 있을 수 있으므로 실패하더라도) 업로드 순번을 늘린다.
+ * 업로드 API 는 늘어난 순번을 일관성 토큰으로 응답하고, 토큰을 보낸 조회는 그 순번까지 반영한 복제 DB 나 기본 DB 에서 읽는다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class ReplicationWatermarkUpdater {
+
+    private final ReplicationWatermarkRepository replicationWatermarkRepository;
+    private final AtomicLong lastUploadSequence = new AtomicLong();
+
+    @EventListener(BankTransactionUploadedEvent.class)
+    public void advance() {
+        try {
+            long sequence = replicationWatermarkRepository.advance();
+            lastUploadSequence.accumulateAndGet(sequence, Math::max);
+        } catch (DataAccessException e) {
+            log.error("업로드 순번을 늘리지 못했습니다.", e);
+        }
+    }
+
+    /**
+     * 이 인스턴스가 마지막으로 늘린 업로드 순번. 업로드가 끝난 뒤에 읽으면 그 업로드의 순번보다 작지 않다.
+     */
+    public long lastUploadSequence() {
+        return lastUploadSequence.get();
+    }
+}
@@ -0,0 +1,10 @@
+package com.brandpark.api.upload;
+
+/**
+ * 업로드 중 batch 가 DB 에 전송될 때마다 같은 트랜잭션 안에서 호출된다.
+ * 업로드된 행으로 파생 데이터(카운터 등)를 갱신하면 chunk 가 롤백될 때 함께 롤백된다.
+ */
+public interface BankTransactionBatchListener {
+
+    void onBatchInserted(BankTransactionRowBuffer batch);
+}
@@ -0,0 +1,104 @@
+package com.brandpark.api.upload;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+
+import java.time.LocalDate;
+
+/**
+ * csv 행을 엔티티로 만들지 않고 컬럼별 primitive 배열에 모아두는 버퍼.
+ * 배열은 한 번만 할당하고 flush 후 clear 하여 재사용한다.
+ */
+public class BankTransactionRowBuffer {
+
+    private final int capacity;
+    private int size;
+
+    private final long[] ids;
+    private final int[] years;
+    private final int[] months;
+    private final int[] days;
+    private final long[] userIds;
+    private final BankCode[] bankCodes;
+    private final long[] transactionAmounts;
+    private final TransactionType[] transactionTypes;
+
+    public BankTransactionRowBuffer(int capacity) {
+        this.capacity = capacity;
+        ids = new long[capacity];
+        years = new int[capacity];
+        months = new int[capacity];
+        days = new int[capacity];
+        userIds = new long[capacity];
+        bankCodes = new BankCode[capacity];
+        transactionAmounts = new long[capacity];
+        transactionTypes = new TransactionType[capacity];
+    }
+
+    public void add(long id, int year, int month, int day, long userId
+            , BankCode bankCode, long transactionAmount, TransactionType transactionType) {
+
+        ids[size] = id;
+        years[size] = year;
+        months[size] = month;
+        days[size] = day;
+        userIds[size] = userId;
+        bankCodes[size] = bankCode;
+        transactionAmounts[size] = transactionAmount;
+        transactionTypes[size] = transactionType;
+
+        size++;
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public long getId(int i) {
+        return ids[i];
+    }
+
+    public int getYear(int i) {
+        return years[i];
+    }
+
+    public int getMonth(int i) {
+        return months[i];
+    }
+
+    public int getDay(int i) {
+        return days[i];
+    }
+
+    public LocalDate getTransactionDate(int i) {
+        return LocalDate.of(years[i], months[i], days[i]);
+    }
+
+    public long getUserId(int i) {
+        return userIds[i];
+    }
+
+    public BankCode getBankCode(int i) {
+        return bankCodes[i];
+    }
+
+    public long getTransactionAmount(int i) {
+        return transactionAmounts[i];
+    }
+
+    public TransactionType getTransactionType(int i) {
+        return transactionTypes[i];
+    }
+}
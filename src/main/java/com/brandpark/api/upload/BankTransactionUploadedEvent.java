@@ -0,0 +1,14 @@
+package com.brandpark.api.upload;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 업로드가 끝나면(실패하더라도 커밋된 행이 있을 수 있으므로) 발행된다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class BankTransactionUploadedEvent {
+
+    private final long insertedRows;
+}
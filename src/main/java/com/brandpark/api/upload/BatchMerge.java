@@ -0,0 +1,55 @@
+package com.brandpark.api.upload;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * 키별 변화량을 더하는 MERGE 를 batch 하나로 보낸다.
+ */
+public final class BatchMerge {
+
+    private BatchMerge() {
+    }
+
+    /*
+     * 다른 chunk 가 같은 키를 먼저 INSERT 했다면 그 트랜잭션이 끝난 뒤 그 문장만 중복 키 예외로 실패한다.
+     * 실패했거나 실행되지 않은 문장만 다시 보내며, 이때는 행이 있으므로 UPDATE 로 처리된다.
+     * JdbcTemplate.batchUpdate 는 실패한 문장을 알려주지 않으므로 BatchUpdateException 의 update count 를 직접 읽는다.
+     */
+    public static void execute(JdbcTemplate jdbcTemplate, String mergeSql, List<Object[]> batchArgs) {
+
+        if (batchArgs.isEmpty()) {
+            return;
+        }
+
+        int[] updateCounts = jdbcTemplate.execute((ConnectionCallback<int[]>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(mergeSql)) {
+                for (Object[] args : batchArgs) {
+                    for (int i = 0; i < args.length; i++) {
+                        StatementCreatorUtils.setParameterValue(ps, i + 1, SqlTypeValue.TYPE_UNKNOWN, args[i]);
+                    }
+                    ps.addBatch();
+                }
+
+                try {
+                    return ps.executeBatch();
+                } catch (BatchUpdateException e) {
+                    return e.getUpdateCounts();
+                }
+            }
+        });
+
+        for (int i = 0; i < batchArgs.size(); i++) {
+            if (i >= updateCounts.length || updateCounts[i] == Statement.EXECUTE_FAILED) {
+                jdbcTemplate.update(mergeSql, batchArgs.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.brandpark.api.upload;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * {@link BankTransactionBatchListener} 가 batch 마다 구한 키별 변화량을 업로드 트랜잭션(chunk) 단위로 모은다.
+ * 모은 변화량은 커밋 직전(beforeCommit)에 키 순서대로 한 번에 반영하므로, batch 마다 키별로 문장을 보내지 않고
+ * 병렬로 저장되는 chunk 끼리 교착 상태에 빠지지도 않는다. 반영에 실패하면 chunk 가 롤백된다.
+ *
+ * <p>트랜잭션 밖에서는 batch 의 변화량을 바로 반영한다.
+ */
+public final class ChunkDeltas {
+
+    private ChunkDeltas() {
+    }
+
+    /**
+     * @param owner   트랜잭션에 변화량을 묶어 둘 키. 리스너마다 다르다.
+     * @param collect 이번 batch 의 변화량을 더한다.
+     * @param apply   모은 변화량을 반영한다.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K extends Comparable<K>, V> void collect(Object owner, Consumer<SortedMap<K, V>> collect, Consumer<SortedMap<K, V>> apply) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            SortedMap<K, V> deltas = new TreeMap<>();
+            collect.accept(deltas);
+            apply.accept(deltas);
+            return;
+        }
+
+        Pending<K, V> pending = (Pending<K, V>) TransactionSynchronizationManager.getResource(owner);
+
+        if (pending == null) {
+            pending = new Pending<>(owner, apply);
+            TransactionSynchronizationManager.bindResource(owner, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+
+        collect.accept(pending.deltas);
+    }
+
+    private static class Pending<K, V> implements TransactionSynchronization {
+
+        private final Object owner;
+        private final Consumer<SortedMap<K, V>> apply;
+        private final SortedMap<K, V> deltas = new TreeMap<>();
+
+        Pending(Object owner, Consumer<SortedMap<K, V>> apply) {
+            this.owner = owner;
+            this.apply = apply;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!deltas.isEmpty()) {
+                apply.accept(deltas);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(owner);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.brandpark.api.upload;
+
+import com.brandpark.api.bank_transaction.domain.BankTransaction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * 빈 테이블에 처음 적재하는 동안 bank_transaction 의 보조 인덱스를 지웠다가 업로드가 끝나면 한 번에 다시 만든다.
+ * 행마다 인덱스를 갱신하는 것보다 정렬된 인덱스를 한 번 만드는 것이 빠르다.
+ *
+ * <p>인덱스 정의는 {@link BankTransaction} 의 {@link Table#indexes()} 를 그대로 사용한다.
+ * 인덱스가 없는 동안에는 모든 조회가 인덱스 없이 수행되므로, 테이블에 행이 있거나 다른 업로드가 진행 중이면 지우지 않는다.
+ * 지운 뒤에 시작된 업로드가 있으면 마지막 업로드가 끝날 때 다시 만든다.
+ */
+@Slf4j
+@Component
+public class DeferredIndexBuilder {
+
+    private static final Table TABLE = BankTransaction.class.getAnnotation(Table.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private int activeUploads;
+    private boolean dropped;
+    private boolean rebuilding;
+
+    public DeferredIndexBuilder(JdbcTemplate jdbcTemplate, @Value("${upload.defer-index-build:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    public synchronized void beginUpload() {
+        if (!enabled) {
+            return;
+        }
+
+        if (activeUploads++ == 0 && !dropped && !rebuilding && isTableEmpty()) {
+            for (Index index : TABLE.indexes()) {
+                jdbcTemplate.execute("DROP INDEX IF EXISTS " + index.name());
+            }
+
+            dropped = true;
+        }
+    }
+
+    /*
+     * 인덱스를 만드는 동안 잠금을 쥐고 있지 않는다. 그 사이에 시작된 업로드는 인덱스를 지우지 않고 진행한다.
+     */
+    public void endUpload() {
+        if (!enabled) {
+            return;
+        }
+
+        synchronized (this) {
+            if (--activeUploads > 0 || !dropped) {
+                return;
+            }
+
+            dropped = false;
+            rebuilding = true;
+        }
+
+        try {
+            createIndexes();
+        } finally {
+            synchronized (this) {
+                rebuilding = false;
+            }
+        }
+    }
+
+    /*
+     * 업로드 도중 서버가 중단되었다면 인덱스가 없는 상태이므로 다시 만든다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        if (!enabled) {
+            return;
+        }
+
+        for (Index index : TABLE.indexes()) {
+            long startedAt = System.currentTimeMillis();
+
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + index.name() + " ON " + TABLE.name() + " (" + index.columnList() + ")");
+
+            log.info("인덱스 생성 : {} ({}ms)", index.name(), System.currentTimeMillis() - startedAt);
+        }
+    }
+
+    private boolean isTableEmpty() {
+        return jdbcTemplate.queryForList("SELECT 1 FROM " + TABLE.name() + " LIMIT 1").isEmpty();
+    }
+}
@@ -0,0 +1,205 @@
+package com.brandpark.api.upload;
+
+import com.brandpark.api.bank_transaction.exception.PartiallyCommittedException;
+import com.brandpark.api.upload.csv.CsvChunk;
+import com.brandpark.api.upload.csv.CsvChunkListener;
+import com.brandpark.api.upload.csv.CsvChunkSplitter;
+import com.brandpark.api.upload.exception.CsvColumnNotValidException;
+import io.airlift.compress.MalformedInputException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 업로드 파일을 개행 경계에서 chunk 로 나누고, 고정 크기의 워커 풀에서 chunk 별로 파싱과 batch insert 를 동시에 수행한다.
+ *
+ * <p>원자성 모델
+ * <ul>
+ *     <li>chunk 하나가 하나의 트랜잭션이다. chunk 안의 행은 모두 저장되거나 모두 저장되지 않는다.</li>
+ *     <li>파일 전체는 원자적이지 않다. 한 chunk 가 실패하면 새로운 chunk 는 시작하지 않고, 이미 실행 중인 chunk 는 끝까지 수행된다.</li>
+ *     <li>실패한 chunk 중 원본 파일 기준으로 가장 앞선 행의 예외를 던진다. 그 전에 커밋된 chunk 의 행은 DB 에 남는다.</li>
+ *     <li>일부만 커밋된 chunk({@link PartiallyCommittedException})가 있으면 재개할 수 없으므로 다른 예외보다 먼저 던진다.</li>
+ *     <li>파일을 끝까지 읽지 못하면(잘리거나 손상된 압축 파일) 실행 중인 chunk 가 끝나기를 기다린 뒤 실패로 끝난다.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class ParallelCsvUploader {
+
+    private final UploadRepository uploadRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int parallelism;
+    private final int chunkRows;
+    private final ExecutorService executor;
+
+    public ParallelCsvUploader(UploadRepository uploadRepository
+            , PlatformTransactionManager transactionManager
+            , @Value("${upload.parallelism:1}") int parallelism
+            , @Value("${upload.chunk-rows:10000}") int chunkRows) {
+
+        this.uploadRepository = uploadRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.parallelism = parallelism;
+        this.chunkRows = chunkRows;
+        this.executor = Executors.newFixedThreadPool(Math.max(parallelism, 1), new CustomizableThreadFactory("csv-chunk-"));
+    }
+
+    public boolean isEnabled() {
+        return parallelism > 1;
+    }
+
+    public int getChunkRows() {
+        return chunkRows;
+    }
+
+    public long upload(InputStream in, UploadEngine engine, UploadProgress progress) {
+        return upload(new CsvChunkSplitter(in, chunkRows), engine, progress, CsvChunkListener.NONE);
+    }
+
+    /**
+     * parallelism 이 1 이면 chunk 를 순서대로 하나씩 커밋한다.
+     */
+    public long upload(CsvChunkSplitter splitter, UploadEngine engine, UploadProgress progress, CsvChunkListener listener) {
+
+        Semaphore inFlight = new Semaphore(Math.max(parallelism, 1) * 2);     // 메모리에 올라가는 chunk 의 수를 제한한다.
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Future<Long>> futures = new ArrayList<>();
+        RuntimeException readException = null;
+
+        try {
+            CsvChunk chunk;
+
+            while (!failed.get() && (chunk = splitter.next()) != null) {
+
+                if (listener.isAlreadyCommitted(chunk)) {
+                    continue;
+                }
+
+                inFlight.acquire();
+
+                final CsvChunk target = chunk;
+                futures.add(executor.submit(() -> {
+                    try {
+                        if (failed.get()) {     // 실패 이후에 대기열에 남아있던 chunk 는 저장하지 않는다.
+                            return 0L;
+                        }
+
+                        return insertChunk(target, engine, progress, listener);
+                    } catch (RuntimeException e) {
+                        failed.set(true);
+                        throw e;
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+        } catch (IOException | MalformedInputException e) {
+            failed.set(true);
+            readException = UploadCompression.unreadable(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(f -> f.cancel(true));
+            throw new IllegalStateException("csv 업로드가 중단되었습니다.", e);
+        }
+
+        long totalInsertedRow = awaitChunks(futures);
+
+        if (readException != null) {
+            log.error("파일을 읽는 중 에러 발생 : 저장된 행 {}개, {}", totalInsertedRow, readException.getMessage());
+            throw readException;
+        }
+
+        return totalInsertedRow;
+    }
+
+    /*
+     * 저장된 행의 수는 chunk 가 커밋된 뒤에 반영하여 롤백된 행이 진행 상황에 포함되지 않도록 한다.
+     */
+    private long insertChunk(CsvChunk chunk, UploadEngine engine, UploadProgress progress, CsvChunkListener listener) {
+
+        UploadProgress chunkProgress = new UploadProgress();
+
+        try {
+            long insertedRows = transactionTemplate.execute(status -> {
+                long rows = uploadRepository.batchInsertBankTransactionFromCsv(chunk.getInputStream(), chunk.getRowNumOffset(), engine, chunkProgress);
+
+                listener.beforeCommit(chunk, rows);
+
+                return rows;
+            });
+
+            progress.addRowsInserted(insertedRows);
+
+            return insertedRows;
+        } finally {
+            progress.addRowsParsed(chunkProgress.getRowsParsed());
+        }
+    }
+
+    private long awaitChunks(List<Future<Long>> futures) {
+
+        long totalInsertedRow = 0;
+        int committedChunks = 0;
+        CsvColumnNotValidException firstColumnException = null;
+        PartiallyCommittedException partialException = null;
+        RuntimeException otherException = null;
+
+        for (Future<Long> future : futures) {
+            try {
+                totalInsertedRow += future.get();
+                committedChunks++;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+
+                if (cause instanceof CsvColumnNotValidException) {
+                    CsvColumnNotValidException ex = (CsvColumnNotValidException) cause;
+
+                    if (firstColumnException == null || ex.getRow() < firstColumnException.getRow()) {
+                        firstColumnException = ex;
+                    }
+                } else if (cause instanceof PartiallyCommittedException) {
+                    if (partialException == null) {
+                        partialException = (PartiallyCommittedException) cause;
+                    }
+                } else if (otherException == null) {
+                    otherException = cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("csv 업로드가 중단되었습니다.", e);
+            }
+        }
+
+        if (partialException != null) {
+            log.error("csv chunk 일부 커밋 : 커밋된 chunk {}개, 저장된 행 {}개", committedChunks, totalInsertedRow);
+            throw partialException;
+        }
+
+        if (firstColumnException != null || otherException != null) {
+            log.error("csv chunk 저장 실패 : 커밋된 chunk {}개, 저장된 행 {}개", committedChunks, totalInsertedRow);
+            throw firstColumnException != null ? firstColumnException : otherException;
+        }
+
+        return totalInsertedRow;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -1,6 +1,10 @@
 package com.brandpark.api.upload;
 
-import com.brandpark.api.upload.exception.IllegalFileFormatException;
+import com.brandpark.api.replica.ConsistencyTokenInterceptor;
+import com.brandpark.api.replica.ReplicationWatermarkUpdater;
+import com.brandpark.api.upload.job.UploadJob;
+import com.brandpark.api.upload.job.UploadJobService;
+import com.brandpark.api.upload.job.dto.UploadJobResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -10,26 +14,41 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.net.URI;
+
 @RequiredArgsConstructor
 @RequestMapping("/api/v1")
 @RestController
 public class UploadApiController {
 
     private final UploadService uploadService;
+    private final UploadJobService uploadJobService;
+    private final UploadFileValidator uploadFileValidator;
+    private final ReplicationWatermarkUpdater replicationWatermarkUpdater;
 
     @PostMapping("/bank-transactions/persist-csv")
-    public ResponseEntity persistTransactionListUsingCsv(@RequestParam("file") MultipartFile file) {
-
-        validateRequest(file);
+    public ResponseEntity persistTransactionListUsingCsv(
+            @RequestParam("file") MultipartFile file
+            , @RequestParam(value = "engine", required = false, defaultValue = "JPA") UploadEngine engine
+            , @RequestParam(value = "async", required = false, defaultValue = "false") boolean async) {
 
-        long persistedRows = uploadService.persistTransactionListUsingCsv(file);
+        UploadCompression compression = uploadFileValidator.validate(file);
 
-        return new ResponseEntity(persistedRows, HttpStatus.OK);
-    }
+        if (async) {
+            UploadJob job = uploadJobService.submit(file, compression, engine);
 
-    private void validateRequest(MultipartFile file) {
-        if (file.getContentType() == null || !file.getContentType().equals("text/csv")) {
-            throw new IllegalFileFormatException("지원되지 않는 파일형식입니다. csv 파일만 가능합니다.");
+            return ResponseEntity
+                    .accepted()
+                    .location(URI.create("/api/v1/upload-jobs/" + job.getId()))
+                    .body(new UploadJobResponse(job));
         }
+
+        long persistedRows = uploadService.persistTransactionListUsingCsv(file, compression, engine);
+
+        // 이 토큰을 조회 요청의 헤더로 보내면 이 업로드를 반영한 DB 에서 읽는다.
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .header(ConsistencyTokenInterceptor.HEADER, String.valueOf(replicationWatermarkUpdater.lastUploadSequence()))
+                .body(persistedRows);
     }
 }
@@ -0,0 +1,70 @@
+package com.brandpark.api.upload;
+
+import com.brandpark.api.upload.exception.IllegalFileFormatException;
+import io.airlift.compress.zstd.ZstdInputStream;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 업로드 파일의 압축 형식. 압축된 파일은 그대로 임시 저장하고, 파싱할 때 스트림으로 조금씩 풀어서 읽는다.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum UploadCompression {
+    NONE(List.of("text/csv"), ".csv"),
+    GZIP(List.of("application/gzip", "application/x-gzip"), ".gz"),
+    ZSTD(List.of("application/zstd"), ".zst");
+
+    private static final String OCTET_STREAM = "application/octet-stream";
+    private static final int DECOMPRESS_BUFFER_SIZE = 64 * 1024;
+
+    private final List<String> contentTypes;
+    private final String extension;
+
+    /**
+     * content type 으로 압축 형식을 찾는다. application/octet-stream 이면 파일의 확장자로 찾는다.
+     */
+    public static Optional<UploadCompression> of(String contentType, String filename) {
+        for (UploadCompression compression : values()) {
+            if (compression.contentTypes.contains(contentType)) {
+                return Optional.of(compression);
+            }
+        }
+
+        if (OCTET_STREAM.equals(contentType) && filename != null) {
+            for (UploadCompression compression : values()) {
+                if (compression != NONE && filename.endsWith(compression.extension)) {
+                    return Optional.of(compression);
+                }
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    public InputStream decompress(InputStream in) throws IOException {
+        switch (this) {
+            case GZIP:
+                return new GZIPInputStream(in, DECOMPRESS_BUFFER_SIZE);
+            case ZSTD:
+                return new BufferedInputStream(new ZstdInputStream(in), DECOMPRESS_BUFFER_SIZE);
+            default:
+                return in;
+        }
+    }
+
+    /**
+     * 업로드 파일을 읽다가 실패한 예외. 압축이 잘리거나 손상된 파일은 끝까지 읽지 못하므로(EOFException, ZipException 등)
+     * 지금까지 읽은 행만 저장하고 성공으로 응답하지 않도록 400 으로 응답하는 예외로 바꾼다.
+     */
+    static IllegalFileFormatException unreadable(Exception e) {
+        return new IllegalFileFormatException("파일을 끝까지 읽을 수 없습니다. 압축된 파일이 잘리거나 손상되었는지 확인해주세요. (" + e.getMessage() + ")", e);
+    }
+}
@@ -0,0 +1,7 @@
+package com.brandpark.api.upload;
+
+public enum UploadEngine {
+
+    JPA,    // 엔티티 단위 persist + flush
+    JDBC    // 엔티티를 만들지 않고 multi-row INSERT 로 바로 저장
+}
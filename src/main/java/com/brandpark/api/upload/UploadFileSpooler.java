@@ -0,0 +1,76 @@
+package com.brandpark.api.upload;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 업로드 파일을 spool-dir 의 임시 파일로 옮긴다.
+ * 멀티파트가 이미 디스크에 있다면 {@link FileChannel#transferFrom} 으로 커널 안에서 복사되어 힙을 거치지 않는다.
+ */
+@Slf4j
+@Component
+public class UploadFileSpooler {
+
+    private static final long TRANSFER_SIZE = 64 * 1024 * 1024;
+
+    private final Path spoolDir;
+
+    public UploadFileSpooler(@Value("${upload.spool-dir:${java.io.tmpdir}}") String spoolDir) {
+        this.spoolDir = Paths.get(spoolDir);
+    }
+
+    /**
+     * @param compression 임시 파일의 확장자를 정한다. (upload-*.csv, upload-*.csv.gz, upload-*.csv.zst)
+     */
+    public Path spool(MultipartFile file, UploadCompression compression) {
+        try {
+            Files.createDirectories(spoolDir);
+
+            Path spooled = Files.createTempFile(spoolDir, "upload-", suffixOf(compression));
+
+            try (InputStream in = file.getInputStream()
+                 ; ReadableByteChannel src = in instanceof FileInputStream ? ((FileInputStream) in).getChannel() : Channels.newChannel(in)
+                 ; FileChannel dst = FileChannel.open(spooled, StandardOpenOption.WRITE)) {
+
+                long position = 0;
+                long transferred;
+
+                while ((transferred = dst.transferFrom(src, position, TRANSFER_SIZE)) > 0) {
+                    position += transferred;
+                }
+            } catch (IOException e) {
+                delete(spooled);
+                throw e;
+            }
+
+            return spooled;
+        } catch (IOException e) {
+            throw new IllegalStateException("업로드 파일을 임시 저장하지 못했습니다.", e);
+        }
+    }
+
+    private static String suffixOf(UploadCompression compression) {
+        return compression == UploadCompression.NONE ? ".csv" : ".csv" + compression.getExtension();
+    }
+
+    public void delete(Path spooled) {
+        try {
+            Files.deleteIfExists(spooled);
+        } catch (IOException e) {
+            log.error("임시 파일 삭제 실패 : {}", spooled, e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.brandpark.api.upload;
+
+import com.brandpark.api.upload.exception.IllegalFileFormatException;
+import com.brandpark.api.upload.exception.UploadFileTooLargeException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+@Component
+public class UploadFileValidator {
+
+    private final DataSize maxFileSize;
+
+    public UploadFileValidator(@Value("${upload.max-file-size:10GB}") DataSize maxFileSize) {
+        this.maxFileSize = maxFileSize;
+    }
+
+    /**
+     * 멀티파트 파싱 단계에서도 같은 크기로 제한하지만(spring.servlet.multipart), 컨테이너 설정과 상관없이 한 번 더 확인한다.
+     *
+     * @return 업로드 파일의 압축 형식
+     */
+    public UploadCompression validate(MultipartFile file) {
+        if (file.getSize() > maxFileSize.toBytes()) {
+            throw new UploadFileTooLargeException("업로드 파일이 너무 큽니다. 최대 크기 : " + maxFileSize);
+        }
+
+        return UploadCompression.of(file.getContentType(), file.getOriginalFilename())
+                .orElseThrow(() -> new IllegalFileFormatException("지원되지 않는 파일형식입니다. csv 파일 또는 gzip, zstd 로 압축한 csv 파일만 가능합니다."));
+    }
+}
@@ -0,0 +1,91 @@
+package com.brandpark.api.upload;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 업로드 경로의 지표. 엔진(JPA/JDBC) 별로 태그를 나누어 기록한다.
+ */
+@Component
+public class UploadMetrics {
+
+    private final Map<UploadEngine, EngineMeters> meters = new EnumMap<>(UploadEngine.class);
+
+    public UploadMetrics(MeterRegistry meterRegistry) {
+        for (UploadEngine engine : UploadEngine.values()) {
+            meters.put(engine, new EngineMeters(meterRegistry, engine));
+        }
+    }
+
+    /**
+     * 버퍼 하나를 저장한 결과. 시간에는 집계 테이블 갱신이 포함된다.
+     */
+    public void recordFlush(UploadEngine engine, int rows, long nanos) {
+        EngineMeters m = meters.get(engine);
+
+        m.flush.record(nanos, TimeUnit.NANOSECONDS);
+        m.batchRows.record(rows);
+        m.rowsParsed.increment(rows);
+    }
+
+    /**
+     * 파일(또는 chunk) 하나를 모두 저장한 결과
+     */
+    public void recordUpload(UploadEngine engine, long rows, long bytes, long nanos) {
+        EngineMeters m = meters.get(engine);
+
+        m.upload.record(nanos, TimeUnit.NANOSECONDS);
+        m.bytesRead.increment(bytes);
+
+        if (nanos > 0) {
+            m.throughput.record(rows * 1_000_000_000.0 / nanos);
+        }
+    }
+
+    /**
+     * 유효하지 않은 행을 만나 업로드가 중단되었다.
+     */
+    public void recordRejected(UploadEngine engine, long bytes) {
+        EngineMeters m = meters.get(engine);
+
+        m.rowsRejected.increment();
+        m.bytesRead.increment(bytes);
+    }
+
+    private static class EngineMeters {
+
+        final Counter rowsParsed;
+        final Counter rowsRejected;
+        final Counter bytesRead;
+        final Timer flush;
+        final Timer upload;
+        final DistributionSummary batchRows;
+        final DistributionSummary throughput;
+
+        EngineMeters(MeterRegistry registry, UploadEngine engine) {
+            String tag = engine.name();
+
+            rowsParsed = Counter.builder("bank_transaction.upload.parsed")
+                    .description("파싱하여 저장한 행의 수").baseUnit("rows").tag("engine", tag).register(registry);
+            rowsRejected = Counter.builder("bank_transaction.upload.rejected")
+                    .description("유효하지 않아 업로드를 중단시킨 행의 수").baseUnit("rows").tag("engine", tag).register(registry);
+            bytesRead = Counter.builder("bank_transaction.upload.read")
+                    .description("파싱한 csv 의 바이트 수").baseUnit("bytes").tag("engine", tag).register(registry);
+            flush = Timer.builder("bank_transaction.upload.flush")
+                    .description("버퍼 하나를 저장하는 시간").tag("engine", tag).publishPercentileHistogram().register(registry);
+            upload = Timer.builder("bank_transaction.upload")
+                    .description("파일 하나를 저장하는 시간").tag("engine", tag).publishPercentileHistogram().register(registry);
+            batchRows = DistributionSummary.builder("bank_transaction.upload.batch")
+                    .description("한 번에 저장한 행의 수").baseUnit("rows").tag("engine", tag).register(registry);
+            throughput = DistributionSummary.builder("bank_transaction.upload.throughput")
+                    .description("파일 하나를 저장할 때의 초당 행 수").baseUnit("rows_per_second").tag("engine", tag).register(registry);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.brandpark.api.upload;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 업로드 중 파싱/저장된 행의 수. 여러 chunk 워커가 동시에 갱신하고 다른 스레드에서 조회한다.
+ */
+public class UploadProgress {
+
+    private final AtomicLong rowsParsed = new AtomicLong();
+    private final AtomicLong rowsInserted = new AtomicLong();
+
+    public void addRowsParsed(long rows) {
+        rowsParsed.addAndGet(rows);
+    }
+
+    public void addRowsInserted(long rows) {
+        rowsInserted.addAndGet(rows);
+    }
+
+    public long getRowsParsed() {
+        return rowsParsed.get();
+    }
+
+    public long getRowsInserted() {
+        return rowsInserted.get();
+    }
+}
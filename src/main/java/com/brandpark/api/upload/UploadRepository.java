@@ -1,20 +1,23 @@
 package com.brandpark.api.upload;
 
-import com.brandpark.api.bank_transaction.domain.BankTransaction;
+import com.brandpark.api.bank_transaction.store.TransactionStore;
+import com.brandpark.api.upload.csv.BankTransactionCsvReader;
+import com.brandpark.api.upload.csv.MappedCsvByteSource;
 import com.brandpark.api.upload.exception.CsvColumnNotValidException;
+import io.airlift.compress.MalformedInputException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import javax.persistence.EntityManager;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 
 @Slf4j
@@ -26,74 +29,117 @@ public class UploadRepository {
     @Value("${batchSize}")
     private int batchSize = 1;
 
-    private final EntityManager entityManager;
+    private final TransactionStore transactionStore;
+    private final UploadMetrics uploadMetrics;
+
+    @Autowired(required = false)
+    private List<BankTransactionBatchListener> batchListeners = List.of();
 
     @Transactional
     public long batchInsertBankTransactionFromCsvFile(MultipartFile file) {
+        return batchInsertFromCsvFile(file, UploadEngine.JPA);
+    }
 
-        List<BankTransaction> batchInsertBuff = new ArrayList<>();
-        int count = 0;
+    @Transactional
+    public long jdbcBatchInsertBankTransactionFromCsvFile(MultipartFile file) {
+        return batchInsertFromCsvFile(file, UploadEngine.JDBC);
+    }
 
-        long totalInsertedRow = 0;
+    /**
+     * @param rowNumOffset 스트림 앞에 위치한 행의 수. 파일을 나누어 저장할 때 원본 파일 기준 행 번호를 유지하기 위해 사용한다.
+     */
+    @Transactional
+    public long batchInsertBankTransactionFromCsv(InputStream in, long rowNumOffset, UploadEngine engine, UploadProgress progress) {
+        return batchInsert(new BankTransactionCsvReader(in, rowNumOffset), engine, progress);
+    }
 
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+    /**
+     * 디스크에 저장된 csv 파일을 메모리 매핑하여 읽는다. 파일의 크기와 상관없이 힙 사용량이 일정하다.
+     */
+    @Transactional
+    public long batchInsertBankTransactionFromCsvFile(Path file, UploadEngine engine, UploadProgress progress) {
+        try {
+            return batchInsert(openMappedCsvReader(file), engine, progress);
+        } catch(IOException e) {
+            log.error("파일을 읽는 중 에러 발생 : {}", e.getMessage());
+            throw UploadCompression.unreadable(e);
+        }
+    }
 
-            String line = null;
-            long rowNum = 0;
+    /*
+     * 리더를 만든 뒤에는 리더를 닫을 때 채널도 닫힌다. 매핑에 실패하면(빈 파일 등) 여기서 채널을 닫는다.
+     */
+    private BankTransactionCsvReader openMappedCsvReader(Path file) throws IOException {
 
-            while ((line = br.readLine()) != null) {
-                rowNum++;
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
 
-                String[] row = line.split(",");
+        try {
+            return new BankTransactionCsvReader(new MappedCsvByteSource(channel), 0);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private long batchInsert(BankTransactionCsvReader csvReader, UploadEngine engine, UploadProgress progress) {
 
-                BankTransaction transactionEntity = csvRowConvertToBankTransaction(row, rowNum);
+        BankTransactionRowBuffer batchInsertBuff = new BankTransactionRowBuffer(batchSize);
+
+        long totalInsertedRow = 0;
+        long start = System.nanoTime();
 
-                batchInsertBuff.add(transactionEntity);
+        try (BankTransactionCsvReader reader = csvReader) {
 
-                if(++count % batchSize == 0) {
-                    totalInsertedRow += batchInsertBuff.size();
+            try {
+                while (reader.readRow(batchInsertBuff)) {
 
-                    flushBuff(batchInsertBuff);
+                    if(batchInsertBuff.isFull()) {
+                        totalInsertedRow += flush(batchInsertBuff, engine, progress);
+                    }
                 }
+            } catch(CsvColumnNotValidException e) {
+                uploadMetrics.recordRejected(engine, reader.getBytesRead());
+                throw e;
             }
 
             if(!batchInsertBuff.isEmpty()) {
-                totalInsertedRow += batchInsertBuff.size();
-
-                flushBuff(batchInsertBuff);
+                totalInsertedRow += flush(batchInsertBuff, engine, progress);
             }
 
-        } catch(IOException e) {
-            e.printStackTrace();
+            uploadMetrics.recordUpload(engine, totalInsertedRow, reader.getBytesRead(), System.nanoTime() - start);
+
+        } catch(IOException | MalformedInputException e) {     // 지금까지 저장한 행도 롤백한다.
             log.error("파일을 읽는 중 에러 발생 : {}", e.getMessage());
+            throw UploadCompression.unreadable(e);
         }
 
         return totalInsertedRow;
     }
 
-    private BankTransaction csvRowConvertToBankTransaction(String[] row, long rowNum) {
-        if(row.length != 8) {
-            throw new CsvColumnNotValidException(rowNum + "행의 컬럼의 수가 일치하지 않습니다.", rowNum);
-        }
-
+    private long batchInsertFromCsvFile(MultipartFile file, UploadEngine engine) {
         try {
-            return BankTransaction.csvRowToEntity(row);
-        } catch(NumberFormatException e) {
-            throw new CsvColumnNotValidException(rowNum + "행의 컬럼 중 타입이 올바르지 않은 것이 있습니다.", e, rowNum);
-        } catch(IllegalArgumentException e) {
-            throw new CsvColumnNotValidException(rowNum + "행의 컬럼 중 타입이 올바르지 않은 것이 있습니다.", e, rowNum);
+            return batchInsertBankTransactionFromCsv(file.getInputStream(), 0, engine, new UploadProgress());
+        } catch(IOException e) {
+            log.error("파일을 읽는 중 에러 발생 : {}", e.getMessage());
+            throw UploadCompression.unreadable(e);
         }
     }
 
-    private void flushBuff(List<BankTransaction> batchInsertBuff) {
+    private int flush(BankTransactionRowBuffer batchInsertBuff, UploadEngine engine, UploadProgress progress) {
+        int rows = batchInsertBuff.size();
+        long start = System.nanoTime();
 
-        for (BankTransaction entity : batchInsertBuff) {
-            entityManager.persist(entity);
+        progress.addRowsParsed(rows);
+
+        for (BankTransactionBatchListener listener : batchListeners) {
+            listener.onBatchInserted(batchInsertBuff);
         }
 
-        entityManager.flush();
-        entityManager.clear();
+        transactionStore.append(batchInsertBuff, engine);
         batchInsertBuff.clear();
+        progress.addRowsInserted(rows);
+        uploadMetrics.recordFlush(engine, rows, System.nanoTime() - start);
+
+        return rows;
     }
 }
-
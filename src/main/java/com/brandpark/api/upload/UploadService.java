@@ -2,21 +2,82 @@ package com.brandpark.api.upload;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
 @Slf4j
 @RequiredArgsConstructor
 @Service
 public class UploadService {
 
     private final UploadRepository uploadRepository;
+    private final ParallelCsvUploader parallelCsvUploader;
+    private final UploadFileSpooler uploadFileSpooler;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DeferredIndexBuilder deferredIndexBuilder;
+
+    public long persistTransactionListUsingCsv(MultipartFile file, UploadEngine engine) {
+        return persistTransactionListUsingCsv(file, UploadCompression.NONE, engine);
+    }
+
+    /**
+     * 업로드 파일을 (압축된 경우 압축된 그대로) 임시 파일로 옮긴 뒤 파일에서 직접 읽는다.
+     */
+    public long persistTransactionListUsingCsv(MultipartFile file, UploadCompression compression, UploadEngine engine) {
+
+        Path spooled = uploadFileSpooler.spool(file, compression);
+        UploadProgress progress = new UploadProgress();
+
+        deferredIndexBuilder.beginUpload();
+
+        try {
+            return persistTransactionListUsingCsv(spooled, compression, engine, progress);
+        } finally {
+            deferredIndexBuilder.endUpload();
+            uploadFileSpooler.delete(spooled);
+            eventPublisher.publishEvent(new BankTransactionUploadedEvent(progress.getRowsInserted()));
+        }
+    }
+
+    public long persistTransactionListUsingCsv(Path file, UploadCompression compression, UploadEngine engine, UploadProgress progress) {
+
+        if (!parallelCsvUploader.isEnabled() && compression == UploadCompression.NONE) {
+            return uploadRepository.batchInsertBankTransactionFromCsvFile(file, engine, progress);
+        }
+
+        try (InputStream in = openDecompressed(file, compression)) {
 
-    @Transactional
-    public long persistTransactionListUsingCsv(MultipartFile file) {
-        return uploadRepository.batchInsertBankTransactionFromCsvFile(file);
+            if (!parallelCsvUploader.isEnabled()) {
+                return uploadRepository.batchInsertBankTransactionFromCsv(in, 0, engine, progress);
+            }
+
+            return parallelCsvUploader.upload(in, engine, progress);
+        } catch (IOException e) {
+            log.error("파일을 읽는 중 에러 발생 : {}", e.getMessage());
+            throw UploadCompression.unreadable(e);
+        }
     }
 
+    /*
+     * 압축 헤더가 잘못되어 decompress 가 실패하면 연 채널을 닫는다.
+     */
+    private static InputStream openDecompressed(Path file, UploadCompression compression) throws IOException {
+
+        InputStream raw = Channels.newInputStream(FileChannel.open(file, StandardOpenOption.READ));
 
+        try {
+            return compression.decompress(raw);
+        } catch (IOException | RuntimeException e) {
+            raw.close();
+            throw e;
+        }
+    }
 }
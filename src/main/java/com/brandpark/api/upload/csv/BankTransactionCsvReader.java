@@ -0,0 +1,321 @@
+package com.brandpark.api.upload.csv;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.brandpark.api.upload.BankTransactionRowBuffer;
+import com.brandpark.api.upload.exception.CsvColumnNotValidException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.time.Year;
+
+/**
+ * 거래내역 csv 를 String 으로 디코딩하지 않고 UTF-8 바이트 그대로 읽어 8개의 컬럼을 primitive 로 파싱한다.
+ * 읽기 버퍼는 생성 시 한 번만 할당하고, 한 행을 파싱하는 동안에는 객체를 생성하지 않는다.
+ * 바이트는 {@link CsvByteSource} 가 공급하며 파일이라면 {@link MappedCsvByteSource} 로 힙에 복사하지 않고 읽을 수 있다.
+ */
+public class BankTransactionCsvReader implements Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final int COLUMN_COUNT = 8;
+
+    private final CsvByteSource source;
+    private ByteBuffer buffer;
+    private boolean eof;
+    private boolean firstLine;
+    private long rowNum;
+    private long bytesRead;
+
+    private long id;
+    private int year;
+    private int month;
+    private int day;
+    private long userId;
+    private BankCode bankCode;
+    private long transactionAmount;
+    private TransactionType transactionType;
+
+    public BankTransactionCsvReader(InputStream in) {
+        this(in, 0);
+    }
+
+    /**
+     * @param rowNumOffset 스트림 앞에 이미 읽힌 행의 수. 예외의 행 번호를 원본 파일 기준으로 보고하기 위해 사용한다.
+     */
+    public BankTransactionCsvReader(InputStream in, long rowNumOffset) {
+        this(Channels.newChannel(in), DEFAULT_BUFFER_SIZE, rowNumOffset);
+    }
+
+    public BankTransactionCsvReader(ReadableByteChannel channel, int bufferSize) {
+        this(channel, bufferSize, 0);
+    }
+
+    public BankTransactionCsvReader(ReadableByteChannel channel, int bufferSize, long rowNumOffset) {
+        this(new ChannelCsvByteSource(channel, bufferSize), rowNumOffset);
+    }
+
+    public BankTransactionCsvReader(CsvByteSource source, long rowNumOffset) {
+        this.source = source;
+        this.buffer = source.buffer();
+        this.rowNum = rowNumOffset;
+        this.firstLine = rowNumOffset == 0;
+    }
+
+    /**
+     * 다음 행을 파싱하여 버퍼에 추가한다. 더 이상 읽을 행이 없으면 false 를 반환한다.
+     */
+    public boolean readRow(BankTransactionRowBuffer buff) throws IOException {
+        if (!next()) {
+            return false;
+        }
+
+        buff.add(id, year, month, day, userId, bankCode, transactionAmount, transactionType);
+
+        return true;
+    }
+
+    public long getRowNum() {
+        return rowNum;
+    }
+
+    /**
+     * 지금까지 파싱한 행들의 바이트 수 (개행 문자 포함)
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    private boolean next() throws IOException {
+        int lineEnd = findLineEnd();
+
+        if (lineEnd < 0) {
+            return false;
+        }
+
+        rowNum++;
+
+        int start = buffer.position();
+        int end = lineEnd;
+
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+
+        if (firstLine) {
+            firstLine = false;
+            start = skipUtf8Bom(start, end);
+        }
+
+        parseLine(start, end);
+
+        int next = lineEnd < buffer.limit() ? lineEnd + 1 : lineEnd;
+
+        bytesRead += next - buffer.position();
+        buffer.position(next);
+
+        return true;
+    }
+
+    /*
+     * 버퍼의 현재 위치부터 개행 문자의 위치를 찾는다. 마지막 행이 개행 없이 끝나면 limit 을, 남은 데이터가 없으면 -1 을 반환한다.
+     */
+    private int findLineEnd() throws IOException {
+        int scanFrom = buffer.position();
+
+        while (true) {
+            for (int i = scanFrom; i < buffer.limit(); i++) {
+                if (buffer.get(i) == '\n') {
+                    return i;
+                }
+            }
+
+            if (eof) {
+                return buffer.hasRemaining() ? buffer.limit() : -1;
+            }
+
+            int scanned = buffer.remaining();
+
+            fill();
+
+            scanFrom = buffer.position() + scanned;
+        }
+    }
+
+    private void fill() throws IOException {
+        if (buffer.position() == 0 && buffer.limit() == buffer.capacity()) {
+            if (!source.mayHaveMore()) {        // 개행 없이 끝나는 마지막 행이 매핑 구간을 꼭 채운 경우
+                eof = true;
+                return;
+            }
+
+            long nextRow = rowNum + 1;
+            throw new CsvColumnNotValidException(nextRow + "행의 길이가 너무 깁니다.", nextRow);
+        }
+
+        eof = !source.refill();
+        buffer = source.buffer();
+    }
+
+    private int skipUtf8Bom(int start, int end) {
+        if (end - start >= 3
+                && buffer.get(start) == (byte) 0xEF
+                && buffer.get(start + 1) == (byte) 0xBB
+                && buffer.get(start + 2) == (byte) 0xBF) {
+            return start + 3;
+        }
+
+        return start;
+    }
+
+    private void parseLine(int start, int end) {
+
+        int commaCount = 0;
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == ',') {
+                commaCount++;
+            }
+        }
+
+        if (commaCount != COLUMN_COUNT - 1) {
+            throw new CsvColumnNotValidException(rowNum + "행의 컬럼의 수가 일치하지 않습니다.", rowNum);
+        }
+
+        int from = start;
+        int to = indexOfComma(from, end);
+        id = parseLong(from, to);
+
+        from = to + 1;
+        to = indexOfComma(from, end);
+        year = parseInt(from, to);
+
+        from = to + 1;
+        to = indexOfComma(from, end);
+        month = parseInt(from, to);
+
+        from = to + 1;
+        to = indexOfComma(from, end);
+        day = parseInt(from, to);
+
+        from = to + 1;
+        to = indexOfComma(from, end);
+        userId = parseLong(from, to);
+
+        from = to + 1;
+        to = indexOfComma(from, end);
+        bankCode = parseBankCode(from, to);
+
+        from = to + 1;
+        to = indexOfComma(from, end);
+        transactionAmount = parseLong(from, to);
+
+        from = to + 1;
+        transactionType = parseTransactionType(from, end);
+
+        if (!isValidDate(year, month, day)) {
+            throw columnTypeNotValid();
+        }
+    }
+
+    private int indexOfComma(int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (buffer.get(i) == ',') {
+                return i;
+            }
+        }
+
+        return end;
+    }
+
+    private long parseLong(int from, int to) {
+        if (from >= to) {
+            throw columnTypeNotValid();
+        }
+
+        boolean negative = false;
+        byte first = buffer.get(from);
+
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+
+            if (++from == to) {
+                throw columnTypeNotValid();
+            }
+        }
+
+        long value = 0;
+
+        for (int i = from; i < to; i++) {
+            int digit = buffer.get(i) - '0';
+
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                throw columnTypeNotValid();
+            }
+
+            value = value * 10 + digit;
+        }
+
+        return negative ? -value : value;
+    }
+
+    private int parseInt(int from, int to) {
+        long value = parseLong(from, to);
+
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw columnTypeNotValid();
+        }
+
+        return (int) value;
+    }
+
+    private BankCode parseBankCode(int from, int to) {
+        BankCode parsed = to - from == 3 ? BankCode.ofDigits(buffer.get(from), buffer.get(from + 1), buffer.get(from + 2)) : null;
+
+        if (parsed == null) {
+            throw columnTypeNotValid();
+        }
+
+        return parsed;
+    }
+
+    private TransactionType parseTransactionType(int from, int to) {
+        TransactionType parsed = TransactionType.ofToken(buffer, from, to);
+
+        if (parsed == null) {
+            throw columnTypeNotValid();
+        }
+
+        return parsed;
+    }
+
+    private static boolean isValidDate(int year, int month, int day) {
+        if (year < Year.MIN_VALUE || year > Year.MAX_VALUE || month < 1 || month > 12 || day < 1) {
+            return false;
+        }
+
+        switch (month) {
+            case 2:
+                return day <= (Year.isLeap(year) ? 29 : 28);
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return day <= 30;
+            default:
+                return day <= 31;
+        }
+    }
+
+    private CsvColumnNotValidException columnTypeNotValid() {
+        return new CsvColumnNotValidException(rowNum + "행의 컬럼 중 타입이 올바르지 않은 것이 있습니다.", rowNum);
+    }
+}
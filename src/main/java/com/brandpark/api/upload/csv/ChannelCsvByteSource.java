@@ -0,0 +1,41 @@
+package com.brandpark.api.upload.csv;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * 고정 크기의 힙 버퍼에 채널의 데이터를 복사해서 읽는다.
+ */
+public class ChannelCsvByteSource implements CsvByteSource {
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    public ChannelCsvByteSource(ReadableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.buffer.flip();
+    }
+
+    @Override
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    @Override
+    public boolean refill() throws IOException {
+        buffer.compact();
+
+        int n = channel.read(buffer);
+
+        buffer.flip();
+
+        return n >= 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
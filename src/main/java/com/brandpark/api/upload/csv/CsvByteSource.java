@@ -0,0 +1,27 @@
+package com.brandpark.api.upload.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link BankTransactionCsvReader} 가 파싱할 바이트를 공급한다.
+ * 리더는 {@link #buffer()} 의 position ~ limit 구간만 절대 위치로 읽는다.
+ */
+public interface CsvByteSource extends Closeable {
+
+    ByteBuffer buffer();
+
+    /**
+     * 아직 읽지 않은 바이트(position ~ limit)를 유지한 채로 뒤에 다음 데이터를 이어 붙인다.
+     * 호출 후에는 {@link #buffer()} 가 다른 버퍼를 반환할 수 있다. 더 이상 읽을 데이터가 없으면 false 를 반환한다.
+     */
+    boolean refill() throws IOException;
+
+    /**
+     * 버퍼 뒤에 이어 붙일 데이터가 남아 있을 수 있는지. 버퍼가 가득 찼을 때 행이 버퍼보다 긴 것인지, 버퍼가 파일의 끝까지 담은 것인지 구분한다.
+     */
+    default boolean mayHaveMore() {
+        return true;
+    }
+}
@@ -0,0 +1,27 @@
+package com.brandpark.api.upload.csv;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+@Getter
+@RequiredArgsConstructor
+public class CsvChunk {
+
+    private final int index;
+    private final long startOffset;     // 원본 파일에서 chunk 가 시작하는 바이트 위치
+    private final long rowNumOffset;    // chunk 앞에 위치한 행의 수
+    private final int rowCount;
+    private final byte[] bytes;
+    private final int length;
+
+    public long getEndOffset() {
+        return startOffset + length;
+    }
+
+    public InputStream getInputStream() {
+        return new ByteArrayInputStream(bytes, 0, length);
+    }
+}
@@ -0,0 +1,17 @@
+package com.brandpark.api.upload.csv;
+
+/**
+ * chunk 단위 저장 과정에 끼어들기 위한 콜백. beforeCommit 은 chunk 를 저장한 트랜잭션 안에서 호출된다.
+ */
+public interface CsvChunkListener {
+
+    CsvChunkListener NONE = new CsvChunkListener() {
+    };
+
+    default boolean isAlreadyCommitted(CsvChunk chunk) {
+        return false;
+    }
+
+    default void beforeCommit(CsvChunk chunk, long insertedRows) {
+    }
+}
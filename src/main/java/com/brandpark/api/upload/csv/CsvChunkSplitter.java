@@ -0,0 +1,111 @@
+package com.brandpark.api.upload.csv;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * csv 스트림을 개행 경계에서 rowsPerChunk 행씩 잘라 {@link CsvChunk} 로 만든다.
+ * 바이트를 파싱하지 않고 개행 문자만 세기 때문에 chunk 를 만드는 비용은 파일을 한 번 복사하는 정도이다.
+ */
+public class CsvChunkSplitter {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private final int rowsPerChunk;
+    private final byte[] readBuffer = new byte[READ_BUFFER_SIZE];
+    private int readPos;
+    private int readLimit;
+    private boolean eof;
+
+    private int chunkIndex;
+    private long offset;
+    private long rowNumOffset;
+    private int lastChunkLength = READ_BUFFER_SIZE;
+
+    public CsvChunkSplitter(InputStream in, int rowsPerChunk) {
+        this(in, rowsPerChunk, 0, 0, 0);
+    }
+
+    /**
+     * 스트림이 원본 파일의 중간(startOffset, rowNumOffset, chunkIndex)부터 시작하는 경우에 사용한다.
+     */
+    public CsvChunkSplitter(InputStream in, int rowsPerChunk, long startOffset, long rowNumOffset, int chunkIndex) {
+        if (rowsPerChunk < 1) {
+            throw new IllegalArgumentException("chunk 의 행 수는 1 이상이어야 합니다.");
+        }
+
+        this.in = in;
+        this.rowsPerChunk = rowsPerChunk;
+        this.offset = startOffset;
+        this.rowNumOffset = rowNumOffset;
+        this.chunkIndex = chunkIndex;
+    }
+
+    /**
+     * 다음 chunk 를 반환한다. 더 이상 읽을 데이터가 없으면 null 을 반환한다.
+     */
+    public CsvChunk next() throws IOException {
+
+        byte[] chunk = new byte[lastChunkLength];
+        int length = 0;
+        int lines = 0;
+
+        while (lines < rowsPerChunk) {
+
+            if (readPos == readLimit && !fill()) {
+                break;
+            }
+
+            int i = readPos;
+            while (i < readLimit && lines < rowsPerChunk) {
+                if (readBuffer[i++] == '\n') {
+                    lines++;
+                }
+            }
+
+            int n = i - readPos;
+            if (length + n > chunk.length) {
+                chunk = Arrays.copyOf(chunk, Math.max(chunk.length * 2, length + n));
+            }
+
+            System.arraycopy(readBuffer, readPos, chunk, length, n);
+            length += n;
+            readPos = i;
+        }
+
+        if (length == 0) {
+            return null;
+        }
+
+        boolean endsWithPartialLine = chunk[length - 1] != '\n';
+        int rowCount = endsWithPartialLine ? lines + 1 : lines;
+
+        CsvChunk ret = new CsvChunk(chunkIndex++, offset, rowNumOffset, rowCount, chunk, length);
+
+        offset += length;
+        rowNumOffset += rowCount;
+        lastChunkLength = length;
+
+        return ret;
+    }
+
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+
+        int n = in.read(readBuffer);
+
+        if (n < 0) {
+            eof = true;
+            return false;
+        }
+
+        readPos = 0;
+        readLimit = n;
+
+        return true;
+    }
+}
@@ -0,0 +1,71 @@
+package com.brandpark.api.upload.csv;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 파일의 [start, end) 구간을 {@link MappedByteBuffer} 로 매핑하여 힙으로 복사하지 않고 읽는다.
+ * 한 번에 매핑할 수 있는 크기는 2GB 보다 작기 때문에 windowSize 씩 구간을 옮겨가며 다시 매핑한다.
+ */
+public class MappedCsvByteSource implements CsvByteSource {
+
+    public static final int DEFAULT_WINDOW_SIZE = 256 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long end;
+    private final int windowSize;
+    private long windowStart;
+    private MappedByteBuffer buffer;
+
+    public MappedCsvByteSource(FileChannel channel) throws IOException {
+        this(channel, 0, channel.size(), DEFAULT_WINDOW_SIZE);
+    }
+
+    public MappedCsvByteSource(FileChannel channel, long start, long end, int windowSize) throws IOException {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("매핑 구간의 크기는 1 이상이어야 합니다.");
+        }
+
+        this.channel = channel;
+        this.end = end;
+        this.windowSize = windowSize;
+
+        map(start);
+    }
+
+    @Override
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    @Override
+    public boolean refill() throws IOException {
+        if (windowStart + buffer.limit() >= end) {
+            return false;
+        }
+
+        map(windowStart + buffer.position());
+
+        return true;
+    }
+
+    @Override
+    public boolean mayHaveMore() {
+        return windowStart + buffer.limit() < end;
+    }
+
+    /*
+     * 매핑은 GC 될 때 해제된다. (Java 11 에는 명시적으로 해제하는 공개 API 가 없다.)
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void map(long position) throws IOException {
+        windowStart = position;
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowSize, end - position));
+    }
+}
@@ -0,0 +1,23 @@
+package com.brandpark.api.upload.exception;
+
+public class UploadFileTooLargeException extends RuntimeException {
+    public UploadFileTooLargeException() {
+        super();
+    }
+
+    public UploadFileTooLargeException(String message) {
+        super(message);
+    }
+
+    public UploadFileTooLargeException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public UploadFileTooLargeException(Throwable cause) {
+        super(cause);
+    }
+
+    protected UploadFileTooLargeException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
+}
@@ -0,0 +1,7 @@
+package com.brandpark.api.upload.exception;
+
+public class UploadJobNotFoundException extends RuntimeException {
+    public UploadJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.brandpark.api.upload.exception;
+
+public class UploadJobNotResumableException extends RuntimeException {
+    public UploadJobNotResumableException(String message) {
+        super(message);
+    }
+}
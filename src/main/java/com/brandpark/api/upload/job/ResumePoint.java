@@ -0,0 +1,42 @@
+package com.brandpark.api.upload.job;
+
+import com.brandpark.api.upload.job.domain.UploadCheckpoint;
+import lombok.Getter;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 체크포인트로부터 계산한 재개 위치. 앞에서부터 빠짐없이 커밋된 마지막 chunk 의 다음 바이트부터 다시 읽는다.
+ * 병렬로 저장하다 실패하여 그 뒤의 chunk 가 먼저 커밋되어 있다면 해당 chunk 는 건너뛴다.
+ */
+@Getter
+class ResumePoint {
+
+    private long offset;
+    private long rowNumOffset;
+    private int nextChunkIndex;
+    private long committedRows;
+    private UploadCheckpoint lastContiguousCheckpoint;
+    private final Set<Integer> committedChunkIndexes = new HashSet<>();
+
+    static ResumePoint of(List<UploadCheckpoint> checkpointsOrderByChunkIndex) {
+
+        ResumePoint point = new ResumePoint();
+
+        for (UploadCheckpoint checkpoint : checkpointsOrderByChunkIndex) {
+            point.committedChunkIndexes.add(checkpoint.getChunkIndex());
+            point.committedRows += checkpoint.getInsertedRows();
+
+            if (checkpoint.getChunkIndex() == point.nextChunkIndex) {
+                point.offset = checkpoint.getEndOffset();
+                point.rowNumOffset = checkpoint.getLastRowNum();
+                point.nextChunkIndex++;
+                point.lastContiguousCheckpoint = checkpoint;
+            }
+        }
+
+        return point;
+    }
+}
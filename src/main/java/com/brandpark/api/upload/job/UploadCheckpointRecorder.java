@@ -0,0 +1,46 @@
+package com.brandpark.api.upload.job;
+
+import com.brandpark.api.upload.csv.CsvChunk;
+import com.brandpark.api.upload.csv.CsvChunkListener;
+import com.brandpark.api.upload.job.domain.UploadCheckpoint;
+import com.brandpark.api.upload.job.domain.UploadCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * chunk 를 저장한 트랜잭션 안에서 체크포인트를 남기고, 재개할 때 이미 커밋된 chunk 를 건너뛴다.
+ */
+@RequiredArgsConstructor
+class UploadCheckpointRecorder implements CsvChunkListener {
+
+    private final String jobId;
+    private final Set<Integer> committedChunkIndexes;
+    private final UploadCheckpointRepository uploadCheckpointRepository;
+
+    @Override
+    public boolean isAlreadyCommitted(CsvChunk chunk) {
+        return committedChunkIndexes.contains(chunk.getIndex());
+    }
+
+    @Override
+    public void beforeCommit(CsvChunk chunk, long insertedRows) {
+        uploadCheckpointRepository.save(UploadCheckpoint.builder()
+                .jobId(jobId)
+                .chunkIndex(chunk.getIndex())
+                .startOffset(chunk.getStartOffset())
+                .endOffset(chunk.getEndOffset())
+                .lastRowNum(chunk.getRowNumOffset() + chunk.getRowCount())
+                .insertedRows(insertedRows)
+                .checksum(checksum(chunk.getBytes(), chunk.getLength()))
+                .build());
+    }
+
+    static long checksum(byte[] bytes, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+
+        return crc.getValue();
+    }
+}
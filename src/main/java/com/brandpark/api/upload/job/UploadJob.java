@@ -0,0 +1,98 @@
+package com.brandpark.api.upload.job;
+
+import com.brandpark.api.upload.UploadEngine;
+import com.brandpark.api.upload.UploadProgress;
+import com.brandpark.api.upload.job.domain.UploadJobRecord;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 비동기 업로드 작업의 상태. 작업 스레드가 갱신하고 조회 API 가 읽는다.
+ */
+@Getter
+public class UploadJob {
+
+    private final String id;
+    private final UploadEngine engine;
+    private final UploadProgress progress = new UploadProgress();
+    private final LocalDateTime requestedAt = LocalDateTime.now();
+
+    private volatile UploadJobStatus status = UploadJobStatus.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile Long failureRow;
+    private volatile String failureMessage;
+
+    public UploadJob(UploadEngine engine) {
+        this(UUID.randomUUID().toString(), engine);
+    }
+
+    public UploadJob(String id, UploadEngine engine) {
+        this.id = id;
+        this.engine = engine;
+    }
+
+    /**
+     * 메모리에 없는 작업(서버 재시작 등)을 DB 에 남은 기록으로 복원한다.
+     */
+    public static UploadJob restore(UploadJobRecord record, long committedRows) {
+        UploadJob job = new UploadJob(record.getId(), record.getEngine());
+
+        job.progress.addRowsParsed(committedRows);
+        job.progress.addRowsInserted(committedRows);
+        job.status = record.getStatus();
+        job.failureRow = record.getFailureRow();
+        job.failureMessage = record.getFailureMessage();
+
+        return job;
+    }
+
+    public void start() {
+        startedAt = LocalDateTime.now();
+        status = UploadJobStatus.RUNNING;
+    }
+
+    public void complete() {
+        finishedAt = LocalDateTime.now();
+        status = UploadJobStatus.COMPLETED;
+    }
+
+    public void fail(Long failureRow, String failureMessage) {
+        this.failureRow = failureRow;
+        this.failureMessage = failureMessage;
+        finishedAt = LocalDateTime.now();
+        status = UploadJobStatus.FAILED;
+    }
+
+    /**
+     * 일부만 커밋된 chunk 가 있어 재개할 수 없는 실패
+     */
+    public void abort(String failureMessage) {
+        this.failureMessage = failureMessage;
+        finishedAt = LocalDateTime.now();
+        status = UploadJobStatus.ABORTED;
+    }
+
+    public boolean isFinished() {
+        return status == UploadJobStatus.COMPLETED || status == UploadJobStatus.FAILED || status == UploadJobStatus.ABORTED;
+    }
+
+    /**
+     * 작업 시작 이후 초당 저장된 행의 수
+     */
+    public long getRowsPerSecond() {
+        LocalDateTime start = startedAt;
+
+        if (start == null) {
+            return 0;
+        }
+
+        LocalDateTime end = finishedAt != null ? finishedAt : LocalDateTime.now();
+        long elapsedMillis = Math.max(Duration.between(start, end).toMillis(), 1);
+
+        return progress.getRowsInserted() * 1000 / elapsedMillis;
+    }
+}
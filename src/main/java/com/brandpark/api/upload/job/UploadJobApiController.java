@@ -0,0 +1,45 @@
+package com.brandpark.api.upload.job;
+
+import com.brandpark.api.upload.UploadCompression;
+import com.brandpark.api.upload.UploadFileValidator;
+import com.brandpark.api.upload.job.dto.UploadJobResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.net.URI;
+
+@RequiredArgsConstructor
+@RequestMapping("/api/v1")
+@RestController
+public class UploadJobApiController {
+
+    private final UploadJobService uploadJobService;
+    private final UploadFileValidator uploadFileValidator;
+
+    @GetMapping("/upload-jobs/{id}")
+    public UploadJobResponse getUploadJob(@PathVariable("id") String id) {
+        return new UploadJobResponse(uploadJobService.getJob(id));
+    }
+
+    @PostMapping("/upload-jobs/{id}/resume")
+    public ResponseEntity<UploadJobResponse> resumeUploadJob(
+            @PathVariable("id") String id
+            , @RequestParam(value = "file", required = false) MultipartFile file) {
+
+        UploadCompression compression = file != null ? uploadFileValidator.validate(file) : null;
+
+        UploadJob job = uploadJobService.resume(id, file, compression);
+
+        return ResponseEntity
+                .accepted()
+                .location(URI.create("/api/v1/upload-jobs/" + job.getId()))
+                .body(new UploadJobResponse(job));
+    }
+}
@@ -0,0 +1,62 @@
+package com.brandpark.api.upload.job;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 업로드 작업을 메모리에 보관한다. 끝난 작업이 MAX_FINISHED_JOBS 개를 넘으면 오래된 것부터 제거한다.
+ */
+@Component
+public class UploadJobRegistry {
+
+    private static final int MAX_FINISHED_JOBS = 1000;
+
+    private final Map<String, UploadJob> jobs = new ConcurrentHashMap<>();
+
+    public void register(UploadJob job) {
+        evictFinishedJobs();
+        jobs.put(job.getId(), job);
+    }
+
+    /**
+     * 같은 id 의 작업이 진행 중이 아닐 때만 등록한다. 동시에 재개를 요청해도 하나만 등록된다.
+     *
+     * @return 등록했으면 true
+     */
+    public boolean claim(UploadJob job) {
+        evictFinishedJobs();
+
+        UploadJob registered = jobs.compute(job.getId(), (id, current) -> current == null || current.isFinished() ? job : current);
+
+        return registered == job;
+    }
+
+    /**
+     * claim 한 작업을 시작하지 못했을 때 등록을 취소한다.
+     */
+    public void release(UploadJob job) {
+        jobs.remove(job.getId(), job);
+    }
+
+    public Optional<UploadJob> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    private void evictFinishedJobs() {
+        long finished = jobs.values().stream().filter(UploadJob::isFinished).count();
+
+        if (finished < MAX_FINISHED_JOBS) {
+            return;
+        }
+
+        jobs.values().stream()
+                .filter(UploadJob::isFinished)
+                .sorted(Comparator.comparing(UploadJob::getFinishedAt))
+                .limit(finished - MAX_FINISHED_JOBS + 1)
+                .forEach(job -> jobs.remove(job.getId()));
+    }
+}
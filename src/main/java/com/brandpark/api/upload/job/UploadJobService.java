@@ -0,0 +1,341 @@
+package com.brandpark.api.upload.job;
+
+import com.brandpark.api.bank_transaction.exception.PartiallyCommittedException;
+import com.brandpark.api.upload.BankTransactionUploadedEvent;
+import com.brandpark.api.upload.DeferredIndexBuilder;
+import com.brandpark.api.upload.ParallelCsvUploader;
+import com.brandpark.api.upload.UploadCompression;
+import com.brandpark.api.upload.UploadEngine;
+import com.brandpark.api.upload.UploadFileSpooler;
+import com.brandpark.api.upload.csv.CsvChunkSplitter;
+import com.brandpark.api.upload.exception.CsvColumnNotValidException;
+import com.brandpark.api.upload.exception.UploadJobNotFoundException;
+import com.brandpark.api.upload.exception.UploadJobNotResumableException;
+import com.brandpark.api.upload.job.domain.UploadCheckpoint;
+import com.brandpark.api.upload.job.domain.UploadCheckpointRepository;
+import com.brandpark.api.upload.job.domain.UploadJobRecord;
+import com.brandpark.api.upload.job.domain.UploadJobRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PreDestroy;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+
+/**
+ * 업로드 파일을 임시 파일로 옮겨두고 전용 스레드 풀에서 저장한다. 요청 스레드는 작업 id 만 받고 바로 반환된다.
+ *
+ * <p>작업은 chunk 단위로 커밋되며 chunk 마다 체크포인트(바이트 위치, 마지막 행 번호, 체크섬)를 같은 트랜잭션에 남긴다.
+ * 실패하거나 중단된 작업은 임시 파일을 지우지 않으므로, 마지막으로 커밋된 chunk 다음부터 재개할 수 있다.
+ * 체크포인트는 커밋되었지만 저장소의 일부(샤드)에 행이 커밋되지 않은 chunk 가 있으면 재개하면 행이 빠지므로 {@link UploadJobStatus#ABORTED} 로 남긴다.
+ */
+@Slf4j
+@Service
+public class UploadJobService {
+
+    private final ParallelCsvUploader parallelCsvUploader;
+    private final UploadJobRegistry uploadJobRegistry;
+    private final UploadJobRecordRepository uploadJobRecordRepository;
+    private final UploadCheckpointRepository uploadCheckpointRepository;
+    private final UploadFileSpooler uploadFileSpooler;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DeferredIndexBuilder deferredIndexBuilder;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+
+    public UploadJobService(ParallelCsvUploader parallelCsvUploader
+            , UploadJobRegistry uploadJobRegistry
+            , UploadJobRecordRepository uploadJobRecordRepository
+            , UploadCheckpointRepository uploadCheckpointRepository
+            , UploadFileSpooler uploadFileSpooler
+            , ApplicationEventPublisher eventPublisher
+            , DeferredIndexBuilder deferredIndexBuilder
+            , PlatformTransactionManager transactionManager
+            , @Value("${upload.job-threads:2}") int jobThreads) {
+
+        this.parallelCsvUploader = parallelCsvUploader;
+        this.uploadJobRegistry = uploadJobRegistry;
+        this.uploadJobRecordRepository = uploadJobRecordRepository;
+        this.uploadCheckpointRepository = uploadCheckpointRepository;
+        this.uploadFileSpooler = uploadFileSpooler;
+        this.eventPublisher = eventPublisher;
+        this.deferredIndexBuilder = deferredIndexBuilder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = Executors.newFixedThreadPool(jobThreads, new CustomizableThreadFactory("upload-job-"));
+    }
+
+    public UploadJob submit(MultipartFile file, UploadEngine engine) {
+        return submit(file, UploadCompression.NONE, engine);
+    }
+
+    public UploadJob submit(MultipartFile file, UploadCompression compression, UploadEngine engine) {
+
+        Path spooled = uploadFileSpooler.spool(file, compression);
+
+        UploadJob job = new UploadJob(engine);
+
+        UploadJobRecord record = uploadJobRecordRepository.save(UploadJobRecord.builder()
+                .id(job.getId())
+                .spoolPath(spooled.toString())
+                .compression(compression)
+                .engine(engine)
+                .chunkRows(parallelCsvUploader.getChunkRows())
+                .status(UploadJobStatus.QUEUED)
+                .updatedAt(LocalDateTime.now())
+                .build());
+
+        uploadJobRegistry.register(job);
+
+        ResumePoint start = ResumePoint.of(List.of());
+        executor.execute(() -> run(job, record, start));
+
+        return job;
+    }
+
+    /**
+     * @param file null 이 아니면 기존 임시 파일 대신 사용한다. (실패한 행을 고친 파일 등)
+     *             마지막으로 커밋된 chunk 의 체크섬이 일치해야 재개할 수 있다.
+     * @param compression file 의 압축 형식. 체크포인트는 압축을 푼 csv 기준이므로 원래 파일과 달라도 된다.
+     */
+    public UploadJob resume(String id, MultipartFile file, UploadCompression compression) {
+
+        UploadJobRecord record = findRecord(id);
+
+        if (record.getStatus() == UploadJobStatus.COMPLETED) {
+            throw new UploadJobNotResumableException("이미 완료된 업로드 작업입니다. id=" + id);
+        }
+
+        if (record.getStatus() == UploadJobStatus.ABORTED) {
+            throw new UploadJobNotResumableException("일부 샤드에만 커밋된 chunk 가 있어 재개할 수 없습니다. id=" + id);
+        }
+
+        UploadJob job = new UploadJob(id, record.getEngine());
+
+        if (!uploadJobRegistry.claim(job)) {
+            throw new UploadJobNotResumableException("진행 중인 업로드 작업입니다. id=" + id);
+        }
+
+        try {
+            ResumePoint point = prepareResume(record, file, compression);
+
+            job.getProgress().addRowsParsed(point.getCommittedRows());
+            job.getProgress().addRowsInserted(point.getCommittedRows());
+
+            executor.execute(() -> run(job, record, point));
+
+            return job;
+        } catch (RuntimeException e) {
+            uploadJobRegistry.release(job);
+            throw e;
+        }
+    }
+
+    /*
+     * claim 한 뒤에 체크포인트를 읽어야 다른 재개 요청이 그 사이에 커밋한 chunk 를 놓치지 않는다.
+     */
+    private ResumePoint prepareResume(UploadJobRecord record, MultipartFile file, UploadCompression compression) {
+
+        String id = record.getId();
+        ResumePoint point = ResumePoint.of(uploadCheckpointRepository.findAllByJobIdOrderByChunkIndex(id));
+
+        if (point.getCommittedChunkIndexes().isEmpty() && record.getInsertedRows() > 0) {
+            throw new UploadJobNotResumableException("체크포인트가 없지만 이미 저장된 행이 있어 처음부터 다시 저장할 수 없습니다. id=" + id);
+        }
+
+        if (file != null) {
+            Path spooled = uploadFileSpooler.spool(file, compression);
+
+            if (!matchesCheckpoint(spooled, compression, point.getLastContiguousCheckpoint())) {
+                uploadFileSpooler.delete(spooled);
+                throw new UploadJobNotResumableException("파일의 내용이 마지막으로 저장된 체크포인트와 일치하지 않습니다. id=" + id);
+            }
+
+            uploadFileSpooler.delete(Paths.get(record.getSpoolPath()));
+            record.changeSpoolFile(spooled.toString(), compression);
+        } else if (!matchesCheckpoint(Paths.get(record.getSpoolPath()), record.getCompression(), point.getLastContiguousCheckpoint())) {
+            throw new UploadJobNotResumableException("임시 파일이 없거나 마지막으로 저장된 체크포인트와 일치하지 않습니다. id=" + id);
+        }
+
+        record.changeStatus(UploadJobStatus.QUEUED, null, null);
+        uploadJobRecordRepository.save(record);
+
+        return point;
+    }
+
+    public UploadJob getJob(String id) {
+        return uploadJobRegistry.find(id)
+                .orElseGet(() -> {
+                    UploadJobRecord record = findRecord(id);
+                    long committedRows = ResumePoint.of(uploadCheckpointRepository.findAllByJobIdOrderByChunkIndex(id)).getCommittedRows();
+
+                    return UploadJob.restore(record, committedRows);
+                });
+    }
+
+    /*
+     * 서버가 중단되어 진행 중이던 작업은 실패로 기록해두고 재개 API 로 이어서 진행한다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void markInterruptedJobs() {
+        for (UploadJobRecord record : uploadJobRecordRepository.findAllByStatusIn(EnumSet.of(UploadJobStatus.QUEUED, UploadJobStatus.RUNNING))) {
+            record.changeStatus(UploadJobStatus.FAILED, null, "서버가 중단되어 업로드 작업이 중단되었습니다.");
+            uploadJobRecordRepository.save(record);
+        }
+    }
+
+    private UploadJobRecord findRecord(String id) {
+        return uploadJobRecordRepository.findById(id)
+                .orElseThrow(() -> new UploadJobNotFoundException("존재하지 않는 업로드 작업입니다. id=" + id));
+    }
+
+    private void run(UploadJob job, UploadJobRecord record, ResumePoint point) {
+
+        job.start();
+        updateRecordStatus(job, record, UploadJobStatus.RUNNING, null, null);
+
+        Path spooled = Paths.get(record.getSpoolPath());
+
+        deferredIndexBuilder.beginUpload();
+
+        try (InputStream in = openCsv(spooled, record.getCompression(), point.getOffset())) {
+
+            CsvChunkSplitter splitter = new CsvChunkSplitter(in
+                    , record.getChunkRows(), point.getOffset(), point.getRowNumOffset(), point.getNextChunkIndex());
+
+            parallelCsvUploader.upload(splitter, job.getEngine(), job.getProgress()
+                    , new UploadCheckpointRecorder(job.getId(), point.getCommittedChunkIndexes(), uploadCheckpointRepository));
+
+            // 완료 상태와 체크포인트 삭제를 한 트랜잭션에 커밋한다. 그 사이에 중단되면 완료되지 않은 작업이 체크포인트 없이 남아 처음부터 다시 저장된다.
+            transactionTemplate.executeWithoutResult(status -> {
+                updateRecordStatus(job, record, UploadJobStatus.COMPLETED, null, null);
+                uploadCheckpointRepository.deleteAllByJobId(job.getId());
+            });
+            uploadFileSpooler.delete(spooled);
+
+            job.complete();
+
+        } catch (CsvColumnNotValidException e) {
+            job.fail(e.getRow(), e.getMessage());
+            updateRecordStatus(job, record, UploadJobStatus.FAILED, e.getRow(), e.getMessage());
+        } catch (PartiallyCommittedException e) {
+            log.error("업로드 작업 중단 : {}", job.getId(), e);
+            job.abort(e.getMessage());
+            updateRecordStatus(job, record, UploadJobStatus.ABORTED, null, e.getMessage());
+        } catch (Exception e) {
+            log.error("업로드 작업 실패 : {}", job.getId(), e);
+            job.fail(null, e.getMessage());
+            updateRecordStatus(job, record, UploadJobStatus.FAILED, null, e.getMessage());
+        } finally {
+            deferredIndexBuilder.endUpload();
+            eventPublisher.publishEvent(new BankTransactionUploadedEvent(job.getProgress().getRowsInserted()));
+        }
+    }
+
+    /*
+     * 압축을 푼 csv 의 offset 위치부터 읽는 스트림을 연다. 압축된 파일은 탐색할 수 없으므로 앞부분을 풀면서 건너뛴다.
+     */
+    private InputStream openCsv(Path spooled, UploadCompression compression, long offset) throws IOException {
+
+        FileChannel channel = FileChannel.open(spooled, StandardOpenOption.READ);
+
+        if (compression == UploadCompression.NONE) {
+            channel.position(offset);
+            return Channels.newInputStream(channel);
+        }
+
+        InputStream in;
+
+        try {
+            in = compression.decompress(Channels.newInputStream(channel));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+
+        try {
+            long remaining = offset;
+
+            while (remaining > 0) {
+                long skipped = in.skip(remaining);
+
+                if (skipped <= 0) {
+                    if (in.read() < 0) {
+                        throw new EOFException("압축을 푼 파일이 체크포인트보다 짧습니다.");
+                    }
+                    skipped = 1;
+                }
+
+                remaining -= skipped;
+            }
+
+            return in;
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    private void updateRecordStatus(UploadJob job, UploadJobRecord record, UploadJobStatus status, Long failureRow, String failureMessage) {
+        record.changeInsertedRows(job.getProgress().getRowsInserted());
+        record.changeStatus(status, failureRow, failureMessage);
+        uploadJobRecordRepository.save(record);
+    }
+
+    private boolean matchesCheckpoint(Path spooled, UploadCompression compression, UploadCheckpoint checkpoint) {
+
+        if (!Files.exists(spooled)) {
+            return false;
+        }
+
+        if (checkpoint == null) {
+            return true;
+        }
+
+        try (InputStream in = openCsv(spooled, compression, checkpoint.getStartOffset())) {
+
+            int length = (int) (checkpoint.getEndOffset() - checkpoint.getStartOffset());
+            byte[] chunk = in.readNBytes(length);
+
+            if (chunk.length != length) {
+                return false;
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(chunk);
+
+            return crc.getValue() == checkpoint.getChecksum();
+
+        } catch (EOFException e) {
+            return false;
+        } catch (IOException e) {
+            log.error("임시 파일을 읽는 중 에러 발생 : {}", spooled, e);
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
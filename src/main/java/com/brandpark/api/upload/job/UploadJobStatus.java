@@ -0,0 +1,15 @@
+package com.brandpark.api.upload.job;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public enum UploadJobStatus {
+
+    QUEUED("대기"),
+    RUNNING("진행중"),
+    COMPLETED("완료"),
+    FAILED("실패"),
+    ABORTED("중단");     // 일부만 커밋된 chunk 가 있어 재개할 수 없다.
+
+    private final String statusName;
+}
@@ -0,0 +1,47 @@
+package com.brandpark.api.upload.job.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+/**
+ * 커밋된 chunk 하나의 위치와 체크섬. chunk 의 거래내역과 같은 트랜잭션에서 저장된다.
+ */
+@Builder
+@NoArgsConstructor @AllArgsConstructor
+@Getter
+@Table(
+        name = "upload_checkpoint"
+        , uniqueConstraints = @UniqueConstraint(name = "uk_upload_checkpoint", columnNames = {"upload_job_id", "chunk_index"})
+)
+@Entity
+public class UploadCheckpoint {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "upload_checkpoint_id")
+    private Long id;
+
+    @Column(name = "upload_job_id", nullable = false, length = 36)
+    private String jobId;
+
+    @Column(name = "chunk_index", nullable = false)
+    private int chunkIndex;
+
+    @Column(name = "start_offset", nullable = false)
+    private long startOffset;
+
+    @Column(name = "end_offset", nullable = false)
+    private long endOffset;
+
+    @Column(name = "last_row_num", nullable = false)
+    private long lastRowNum;
+
+    @Column(name = "inserted_rows", nullable = false)
+    private long insertedRows;
+
+    @Column(name = "checksum", nullable = false)
+    private long checksum;
+}
@@ -0,0 +1,19 @@
+package com.brandpark.api.upload.job.domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface UploadCheckpointRepository extends JpaRepository<UploadCheckpoint, Long> {
+
+    List<UploadCheckpoint> findAllByJobIdOrderByChunkIndex(String jobId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UploadCheckpoint uc WHERE uc.jobId = :jobId")
+    void deleteAllByJobId(@Param("jobId") String jobId);
+}
@@ -0,0 +1,71 @@
+package com.brandpark.api.upload.job.domain;
+
+import com.brandpark.api.upload.UploadCompression;
+import com.brandpark.api.upload.UploadEngine;
+import com.brandpark.api.upload.job.UploadJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Builder
+@NoArgsConstructor @AllArgsConstructor
+@Getter
+@Table(name = "upload_job")
+@Entity
+public class UploadJobRecord {
+
+    @Id
+    @Column(name = "upload_job_id", length = 36)
+    private String id;
+
+    @Column(name = "spool_path", nullable = false, length = 1024)
+    private String spoolPath;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "compression", nullable = false)
+    private UploadCompression compression;     // 체크포인트의 오프셋은 압축을 푼 csv 기준이다.
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "engine", nullable = false)
+    private UploadEngine engine;
+
+    @Column(name = "chunk_rows", nullable = false)
+    private int chunkRows;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private UploadJobStatus status;
+
+    @Column(name = "failure_row")
+    private Long failureRow;
+
+    @Column(name = "failure_message", length = 1000)
+    private String failureMessage;
+
+    @Column(name = "inserted_rows", nullable = false)
+    private long insertedRows;      // 작업이 끝났을 때까지 커밋된 행의 수. 체크포인트가 없어도 저장된 행이 있는지 알 수 있다.
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public void changeStatus(UploadJobStatus status, Long failureRow, String failureMessage) {
+        this.status = status;
+        this.failureRow = failureRow;
+        this.failureMessage = failureMessage;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public void changeInsertedRows(long insertedRows) {
+        this.insertedRows = insertedRows;
+    }
+
+    public void changeSpoolFile(String spoolPath, UploadCompression compression) {
+        this.spoolPath = spoolPath;
+        this.compression = compression;
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,12 @@
+package com.brandpark.api.upload.job.domain;
+
+import com.brandpark.api.upload.job.UploadJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface UploadJobRecordRepository extends JpaRepository<UploadJobRecord, String> {
+
+    List<UploadJobRecord> findAllByStatusIn(Collection<UploadJobStatus> statuses);
+}
@@ -0,0 +1,37 @@
+package com.brandpark.api.upload.job.dto;
+
+import com.brandpark.api.upload.job.UploadJob;
+import com.brandpark.api.upload.job.UploadJobStatus;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@Data
+public class UploadJobResponse {
+    private String jobId;
+    private UploadJobStatus status;
+    private long rowsParsed;
+    private long rowsInserted;
+    private long rowsPerSecond;
+    private Long failureRow;
+    private String failureMessage;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime startedAt;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime finishedAt;
+
+    public UploadJobResponse(UploadJob job) {
+        jobId = job.getId();
+        status = job.getStatus();
+        rowsParsed = job.getProgress().getRowsParsed();
+        rowsInserted = job.getProgress().getRowsInserted();
+        rowsPerSecond = job.getRowsPerSecond();
+        failureRow = job.getFailureRow();
+        failureMessage = job.getFailureMessage();
+        startedAt = job.getStartedAt();
+        finishedAt = job.getFinishedAt();
+    }
+}
@@ -0,0 +1,42 @@
+package com.brandpark.api.user_balance;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * 유저별 거래 수, 입금/출금 합계, 첫/마지막 거래일자. 업로드할 때 {@link UserBalanceUpdater} 가 누적한다.
+ */
+@NoArgsConstructor
+@Getter
+@Table(
+        name = "user_balance"
+        , indexes = @Index(name = "idx_user_balance_balance", columnList = "balance, user_id")     // 잔액 상위 N 명 조회
+)
+@Entity
+public class UserBalance {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "transaction_count", nullable = false)
+    private long transactionCount;
+
+    @Column(name = "deposit_sum", nullable = false)
+    private long depositSum;
+
+    @Column(name = "withdraw_sum", nullable = false)
+    private long withdrawSum;
+
+    @Column(name = "balance", nullable = false)
+    private long balance;       // depositSum - withdrawSum
+
+    @Column(name = "first_transaction_date", nullable = false)
+    private LocalDate firstTransactionDate;
+
+    @Column(name = "last_transaction_date", nullable = false)
+    private LocalDate lastTransactionDate;
+}
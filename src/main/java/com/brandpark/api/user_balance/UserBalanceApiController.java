@@ -0,0 +1,37 @@
+package com.brandpark.api.user_balance;
+
+import com.brandpark.api.user_balance.dto.UserBalanceResponse;
+import com.brandpark.api.user_balance.exception.UserBalanceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@ConditionalOnProperty(name = "aggregate.user-balance.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@RequestMapping("/api/v1")
+@RestController
+public class UserBalanceApiController {
+
+    private static final int MAX_TOP_SIZE = 100;
+
+    private final UserBalanceRepository userBalanceRepository;
+
+    @GetMapping("/users/{userId}/balance")
+    public UserBalanceResponse getUserBalance(@PathVariable long userId) {
+
+        return userBalanceRepository.findByUserId(userId)
+                .orElseThrow(() -> new UserBalanceNotFoundException("거래내역이 없는 유저입니다."));
+    }
+
+    @GetMapping("/users/balance/top")
+    public List<UserBalanceResponse> getTopUserBalances(@RequestParam(value = "size", required = false, defaultValue = "10") int size) {
+
+        return userBalanceRepository.findTopByBalance(Math.max(1, Math.min(size, MAX_TOP_SIZE)));
+    }
+}
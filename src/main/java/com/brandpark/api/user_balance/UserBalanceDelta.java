@@ -0,0 +1,41 @@
+package com.brandpark.api.user_balance;
+
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * 한 chunk 에서 같은 유저로 모인 거래
+ */
+@Getter
+class UserBalanceDelta {
+
+    private long transactionCount;
+    private long depositSum;
+    private long withdrawSum;
+    private LocalDate firstTransactionDate;
+    private LocalDate lastTransactionDate;
+
+    void add(TransactionType transactionType, long transactionAmount, LocalDate transactionDate) {
+        transactionCount++;
+
+        if (transactionType == TransactionType.DEPOSIT) {
+            depositSum += transactionAmount;
+        } else {
+            withdrawSum += transactionAmount;
+        }
+
+        if (firstTransactionDate == null || transactionDate.isBefore(firstTransactionDate)) {
+            firstTransactionDate = transactionDate;
+        }
+
+        if (lastTransactionDate == null || transactionDate.isAfter(lastTransactionDate)) {
+            lastTransactionDate = transactionDate;
+        }
+    }
+
+    long getBalance() {
+        return depositSum - withdrawSum;
+    }
+}
@@ -0,0 +1,63 @@
+package com.brandpark.api.user_balance;
+
+import com.brandpark.api.upload.BatchMerge;
+import com.brandpark.api.user_balance.dto.UserBalanceResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedMap;
+
+@RequiredArgsConstructor
+@Repository
+public class UserBalanceRepository {
+
+    private static final String SELECT_SQL = "SELECT user_id, transaction_count, deposit_sum, withdraw_sum, balance, first_transaction_date, last_transaction_date"
+            + " FROM user_balance";
+    private static final String MERGE_SQL = "MERGE INTO user_balance b"
+            + " USING (SELECT CAST(? AS BIGINT) user_id, CAST(? AS BIGINT) transaction_count, CAST(? AS BIGINT) deposit_sum, CAST(? AS BIGINT) withdraw_sum"
+            + ", CAST(? AS BIGINT) balance, CAST(? AS DATE) first_transaction_date, CAST(? AS DATE) last_transaction_date) d"
+            + " ON (b.user_id = d.user_id)"
+            + " WHEN MATCHED THEN UPDATE SET transaction_count = b.transaction_count + d.transaction_count"
+            + ", deposit_sum = b.deposit_sum + d.deposit_sum, withdraw_sum = b.withdraw_sum + d.withdraw_sum, balance = b.balance + d.balance"
+            + ", first_transaction_date = LEAST(b.first_transaction_date, d.first_transaction_date)"
+            + ", last_transaction_date = GREATEST(b.last_transaction_date, d.last_transaction_date)"
+            + " WHEN NOT MATCHED THEN INSERT"
+            + " (user_id, transaction_count, deposit_sum, withdraw_sum, balance, first_transaction_date, last_transaction_date)"
+            + " VALUES (d.user_id, d.transaction_count, d.deposit_sum, d.withdraw_sum, d.balance, d.first_transaction_date, d.last_transaction_date)";
+
+    private static final RowMapper<UserBalanceResponse> ROW_MAPPER = (rs, rowNum) -> new UserBalanceResponse(
+            rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5)
+            , rs.getObject(6, LocalDate.class).toString(), rs.getObject(7, LocalDate.class).toString());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 유저ID 순서대로 정렬된 변화량을 MERGE 한 번(batch)으로 더한다.
+     */
+    void addAll(SortedMap<Long, UserBalanceDelta> deltas) {
+
+        List<Object[]> batchArgs = new ArrayList<>(deltas.size());
+
+        deltas.forEach((userId, delta) -> batchArgs.add(new Object[]{userId, delta.getTransactionCount(), delta.getDepositSum(), delta.getWithdrawSum()
+                , delta.getBalance(), delta.getFirstTransactionDate(), delta.getLastTransactionDate()}));
+
+        BatchMerge.execute(jdbcTemplate, MERGE_SQL, batchArgs);
+    }
+
+    public Optional<UserBalanceResponse> findByUserId(long userId) {
+        return jdbcTemplate.query(SELECT_SQL + " WHERE user_id = ?", ROW_MAPPER, userId).stream().findFirst();
+    }
+
+    /**
+     * 잔액이 많은 순서로 size 명을 조회한다. 잔액이 같으면 유저ID ASC
+     */
+    public List<UserBalanceResponse> findTopByBalance(int size) {
+        return jdbcTemplate.query(SELECT_SQL + " ORDER BY balance DESC, user_id LIMIT ?", ROW_MAPPER, size);
+    }
+}
@@ -0,0 +1,31 @@
+package com.brandpark.api.user_balance;
+
+import com.brandpark.api.upload.BankTransactionBatchListener;
+import com.brandpark.api.upload.BankTransactionRowBuffer;
+import com.brandpark.api.upload.ChunkDeltas;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 업로드된 batch 를 유저별로 모아 잔액에 더한다.
+ * chunk 하나의 변화량을 모두 모은 뒤 커밋 직전에 유저ID 순서대로 한 번에 더한다. ({@link ChunkDeltas})
+ */
+@ConditionalOnProperty(name = "aggregate.user-balance.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Component
+public class UserBalanceUpdater implements BankTransactionBatchListener {
+
+    private final UserBalanceRepository userBalanceRepository;
+
+    @Override
+    public void onBatchInserted(BankTransactionRowBuffer batch) {
+
+        ChunkDeltas.<Long, UserBalanceDelta>collect(this, deltas -> {
+            for (int i = 0; i < batch.size(); i++) {
+                deltas.computeIfAbsent(batch.getUserId(i), userId -> new UserBalanceDelta())
+                        .add(batch.getTransactionType(i), batch.getTransactionAmount(i), batch.getTransactionDate(i));
+            }
+        }, userBalanceRepository::addAll);
+    }
+}
@@ -0,0 +1,17 @@
+package com.brandpark.api.user_balance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor @AllArgsConstructor
+@Data
+public class UserBalanceResponse {
+    private Long userId;
+    private long transactionCount;
+    private long depositSum;
+    private long withdrawSum;
+    private long balance;
+    private String firstTransactionDate;
+    private String lastTransactionDate;
+}
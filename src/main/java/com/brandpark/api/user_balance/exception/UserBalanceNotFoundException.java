@@ -0,0 +1,7 @@
+package com.brandpark.api.user_balance.exception;
+
+public class UserBalanceNotFoundException extends RuntimeException {
+    public UserBalanceNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,67 @@
+package com.brandpark.config;
+
+import com.brandpark.api.replica.ReadReplicas;
+import com.brandpark.api.replica.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * datasource.replica.urls 가 있으면 spring.datasource 를 기본 DB 로, datasource.replica.urls 를 복제 DB 로 두고
+ * 읽기 전용 트랜잭션을 복제 DB 로 보내는 DataSource 를 등록한다. 없으면 Spring Boot 가 기본 DB 의 DataSource 만 등록한다.
+ */
+@ConditionalOnProperty(name = "datasource.replica.urls")
+@Configuration
+public class ReadReplicaDataSourceConfig {
+
+    @ConfigurationProperties("spring.datasource.hikari")
+    @Bean
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReadReplicas readReplicas(HikariDataSource primaryDataSource
+            , DataSourceProperties properties
+            , MeterRegistry meterRegistry
+            , @Value("${datasource.replica.urls}") List<String> urls
+            , @Value("${datasource.replica.pool-size:10}") int poolSize
+            , @Value("${datasource.replica.max-lag:5s}") Duration maxLag
+            , @Value("${datasource.replica.probe-interval:1s}") Duration probeInterval) {
+
+        List<HikariDataSource> replicas = new ArrayList<>(urls.size());
+
+        for (int i = 0; i < urls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + i);
+            config.setJdbcUrl(urls.get(i).trim());
+            config.setUsername(properties.determineUsername());
+            config.setPassword(properties.determinePassword());
+            config.setMaximumPoolSize(poolSize);
+            config.setReadOnly(true);
+
+            replicas.add(new HikariDataSource(config));
+        }
+
+        return new ReadReplicas(primaryDataSource, replicas, maxLag, probeInterval, meterRegistry);
+    }
+
+    @Primary
+    @Bean
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReadReplicas readReplicas) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource, readReplicas));
+    }
+}
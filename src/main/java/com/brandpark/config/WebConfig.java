@@ -1,8 +1,10 @@
 package com.brandpark.config;
 
 import com.brandpark.api.bank_transaction.converter.BankCodeRequestConverter;
+import com.brandpark.api.replica.ConsistencyTokenInterceptor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
@@ -11,4 +13,9 @@ public class WebConfig implements WebMvcConfigurer {
     public void addFormatters(FormatterRegistry registry) {
         registry.addConverter(new BankCodeRequestConverter());
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConsistencyTokenInterceptor()).addPathPatterns("/api/**");
+    }
 }
@@ -4,6 +4,8 @@ import com.brandpark.api.bank_transaction.domain.BankCode;
 import com.brandpark.api.bank_transaction.domain.BankTransaction;
 import com.brandpark.api.bank_transaction.domain.BankTransactionRepository;
 import com.brandpark.api.bank_transaction.dto.BankTransactionResponse;
+import com.brandpark.api.bank_transaction.dto.CursorResult;
+import com.brandpark.api.bank_transaction.exception.InvalidCursorException;
 import com.brandpark.api.bank_transaction.dto.PageResult;
 import com.brandpark.api.exception_handle.ApiError;
 import com.brandpark.util.AssertUtil;
@@ -24,6 +26,7 @@ import org.springframework.web.method.annotation.MethodArgumentTypeMismatchExcep
 import javax.persistence.EntityManager;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -544,6 +547,69 @@ class BankTransactionApiControllerTest {
                 });
     }
 
+    @DisplayName("유저별 입출금 내역 커서 조회 - 성공(nextCursor 로 다음 페이지 조회)")
+    @Test
+    public void RetrieveTransactionByUserAfterCursor_Success() throws Exception {
+
+        // given
+        String transactionDateParam = "2022-01-01";
+        int size = 4;
+
+        // when
+        CursorResult<BankTransactionResponse> first = readCursorResult(mockMvc.perform(get("/api/v1/bank-transactions/by-user/cursor")
+                        .param("transaction_date", transactionDateParam)
+                        .param("size", String.valueOf(size)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8));
+
+        CursorResult<BankTransactionResponse> second = readCursorResult(mockMvc.perform(get("/api/v1/bank-transactions/by-user/cursor")
+                        .param("transaction_date", transactionDateParam)
+                        .param("size", String.valueOf(size))
+                        .param("cursor", first.getNextCursor()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8));
+
+        // then
+        assertThat(first.getContentsSize()).isEqualTo(size);
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(second.getContentsSize()).isEqualTo(2);
+        assertThat(second.isHasNext()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+
+        List<BankTransactionResponse> contents = new ArrayList<>(first.getContents());
+        contents.addAll(second.getContents());
+
+        for (BankTransactionResponse content : contents) {
+            AssertUtil.assertObjPropertyNotNull(content);
+            assertThat(content.getTransactionDate()).isEqualTo(transactionDateParam);
+        }
+
+        assertOrderByUserIdAsc(contents);
+    }
+
+    @DisplayName("은행별 입출금 내역 커서 조회 - 실패(올바르지 않은 커서인 경우)")
+    @Test
+    public void RetrieveTransactionByBankAfterCursor_Fail_When_InvalidCursor() throws Exception {
+
+        // when, then
+        mockMvc.perform(get("/api/v1/bank-transactions/by-bank/cursor")
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> {
+
+                    assertThat(result.getResolvedException()).isInstanceOf(InvalidCursorException.class);
+
+                    ApiError error = objectMapper.readValue(result.getResponse().getContentAsString(StandardCharsets.UTF_8), ApiError.class);
+
+                    assertThat(error.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+                });
+    }
+
+    private CursorResult<BankTransactionResponse> readCursorResult(String json) throws Exception {
+        return objectMapper.readValue(json, new TypeReference<>() {
+        });
+    }
+
     private void assertOrderByUserIdAsc(List<BankTransactionResponse> contents) {
         for (int i = 0; i < contents.size() - 1; i++) {
             assertThat(contents.get(i).getUserId()).isLessThanOrEqualTo(contents.get(i + 1).getUserId());
@@ -0,0 +1,225 @@
+package com.brandpark.api.bank_transaction.columnar;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.BankTransaction;
+import com.brandpark.api.bank_transaction.domain.BankTransactionRepository;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.brandpark.api.bank_transaction.dto.BankTransactionResponse;
+import com.brandpark.api.bank_transaction.dto.PageResult;
+import com.brandpark.api.bank_transaction.query.BankTransactionQueryRepository;
+import com.brandpark.api.bank_transaction.query.CountStrategy;
+import com.brandpark.api.replica.ConsistencyTokenInterceptor;
+import com.brandpark.api.upload.UploadEngine;
+import com.brandpark.api.upload.UploadProgress;
+import com.brandpark.api.upload.UploadRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * 캐시는 다른 스레드에서 커밋된 데이터를 적재하므로 테스트 트랜잭션으로 감싸지 않고 커밋한 뒤 지운다.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {"query.hot-cache.enabled=true", "query.hot-cache.days=2"})
+class ColumnarTransactionCacheTest {
+
+    static final LocalDate JAN_1 = LocalDate.of(2022, 1, 1);
+    static final LocalDate JAN_2 = LocalDate.of(2022, 1, 2);
+    static final LocalDate JAN_3 = LocalDate.of(2022, 1, 3);
+
+    @Autowired ColumnarTransactionCache columnarTransactionCache;
+    @Autowired BankTransactionQueryRepository bankTransactionQueryRepository;
+    @Autowired BankTransactionRepository bankTransactionRepository;
+    @Autowired UploadRepository uploadRepository;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        BankCode[] bankCodes = BankCode.values();
+        List<BankTransaction> entities = new ArrayList<>();
+
+        // 1월 1일 ~ 3일, 날짜마다 60건. 유저ID 가 겹치도록 하여 같은 정렬 키 안에서 거래ID 순서까지 비교한다.
+        for (int i = 1; i <= 180; i++) {
+            String csvRow = i + ",2022,1," + ((i - 1) / 60 + 1) + "," + (i * 7 % 13) + "," + bankCodes[i * 3 % bankCodes.length].getCode()
+                    + "," + (i * 100) + "," + (i % 3 == 0 ? "WITHDRAW" : "DEPOSIT");
+
+            entities.add(BankTransaction.csvRowToEntity(csvRow.split(",")));
+        }
+
+        bankTransactionRepository.saveAll(entities);
+
+        columnarTransactionCache.refresh();
+        awaitLoaded();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bankTransactionRepository.deleteAllInBatch();
+        columnarTransactionCache.refresh();
+    }
+
+    @DisplayName("컬럼 캐시 유저별 조회 - 최근 거래일자의 조회 결과가 DB 조회 결과와 같다.")
+    @Test
+    public void FindAllByUser_SameAsDatabase() throws Exception {
+
+        for (TransactionType transactionType : new TransactionType[]{null, TransactionType.DEPOSIT, TransactionType.WITHDRAW}) {
+            for (int page = 0; page < 4; page++) {
+
+                // given
+                Pageable pageable = PageRequest.of(page, 15);
+
+                // when
+                PageResult<BankTransactionResponse> cached = columnarTransactionCache.findAllByUser(JAN_3, transactionType, pageable, CountStrategy.EXACT).orElseThrow();
+
+                // then
+                PageResult<BankTransactionResponse> expected = bankTransactionQueryRepository.findAllBankTransactionResponseByUser(JAN_3, transactionType, pageable, CountStrategy.EXACT);
+
+                assertThat(cached.getContents()).isEqualTo(expected.getContents());
+                assertThat(cached.getTotalElements()).isEqualTo(expected.getTotalElements());
+                assertThat(cached.isHasNext()).isEqualTo(expected.isHasNext());
+            }
+        }
+    }
+
+    @DisplayName("컬럼 캐시 은행별 조회 - 최근 거래일자의 은행코드, 거래타입 조회 결과가 DB 조회 결과와 같다.")
+    @Test
+    public void FindAllByBank_SameAsDatabase() throws Exception {
+
+        List<BankCode> bankCodes = new ArrayList<>(List.of(BankCode.values()));
+        bankCodes.add(null);
+
+        for (BankCode bankCode : bankCodes) {
+            for (TransactionType transactionType : new TransactionType[]{null, TransactionType.WITHDRAW}) {
+
+                // given
+                Pageable pageable = PageRequest.of(0, 10);
+
+                // when
+                PageResult<BankTransactionResponse> cached = columnarTransactionCache.findAllByBank(JAN_2, transactionType, bankCode, pageable, CountStrategy.EXACT).orElseThrow();
+
+                // then
+                PageResult<BankTransactionResponse> expected = bankTransactionQueryRepository.findAllBankTransactionResponseByBank(JAN_2, transactionType, bankCode, pageable, CountStrategy.EXACT);
+
+                assertThat(cached.getContents()).isEqualTo(expected.getContents());
+                assertThat(cached.getTotalElements()).isEqualTo(expected.getTotalElements());     // 비트맵 AND 결과의 cardinality
+                assertThat(cached.isHasNext()).isEqualTo(expected.isHasNext());
+            }
+        }
+    }
+
+    @DisplayName("컬럼 캐시 조회 - 비트맵으로 구한 정확한 개수를 요청한 countStrategy 로 응답하고, NONE 이면 개수를 생략한다.")
+    @Test
+    public void FindAllByBank_CountStrategy() throws Exception {
+
+        // given
+        Pageable firstPage = PageRequest.of(0, 3);
+        long expectedTotalElements = bankTransactionRepository.findAll().stream()
+                .filter(entity -> entity.getTransactionDate().equals(JAN_3))
+                .filter(entity -> entity.getTransactionType() == TransactionType.WITHDRAW)
+                .filter(entity -> entity.getBankCode() == BankCode.SH)
+                .count();
+
+        // when
+        PageResult<BankTransactionResponse> approximate = columnarTransactionCache.findAllByBank(JAN_3, TransactionType.WITHDRAW, BankCode.SH, firstPage, CountStrategy.APPROXIMATE).orElseThrow();
+        PageResult<BankTransactionResponse> none = columnarTransactionCache.findAllByBank(JAN_3, TransactionType.WITHDRAW, BankCode.SH, firstPage, CountStrategy.NONE).orElseThrow();
+
+        // then
+        PageResult<BankTransactionResponse> expected = bankTransactionQueryRepository.findAllBankTransactionResponseByBank(JAN_3, TransactionType.WITHDRAW, BankCode.SH, firstPage, CountStrategy.NONE);
+
+        assertThat(expectedTotalElements).isPositive();
+        assertThat(approximate.getCountStrategy()).isEqualTo(CountStrategy.APPROXIMATE);
+        assertThat(approximate.getTotalElements()).isEqualTo(expectedTotalElements);
+
+        assertThat(none.getCountStrategy()).isEqualTo(CountStrategy.NONE);
+        assertThat(none.getTotalElements()).isEqualTo(expected.getTotalElements()).isEqualTo(-1);
+        assertThat(none.getTotalPages()).isEqualTo(expected.getTotalPages());
+        assertThat(none.isHasNext()).isEqualTo(expected.isHasNext());
+        assertThat(none.getContents()).isEqualTo(expected.getContents());
+    }
+
+    @DisplayName("컬럼 캐시 조회 - 캐시 범위 밖이거나 거래일자 조건이 없으면 DB 에서 조회하도록 응답하지 않는다.")
+    @Test
+    public void Find_Empty_When_ColdRange() throws Exception {
+
+        // given
+        Pageable pageable = PageRequest.of(0, 10);
+
+        // when, then
+        assertThat(columnarTransactionCache.findAllByUser(JAN_1, null, pageable, CountStrategy.EXACT)).isEmpty();     // 최근 2일(2일, 3일)만 적재
+        assertThat(columnarTransactionCache.findAllByUser(null, null, pageable, CountStrategy.EXACT)).isEmpty();
+        assertThat(columnarTransactionCache.findAllByBank(JAN_3, null, null, pageable, CountStrategy.EXACT)).isPresent();
+    }
+
+    @DisplayName("컬럼 캐시 - 업로드 트랜잭션(chunk)이 커밋되면 업로드가 끝나기 전이라도 다시 적재하고, 캐시 범위 이전의 거래일자만 저장했다면 비우지 않는다.")
+    @Test
+    public void Refresh_When_ChunkCommitted() throws Exception {
+
+        // given
+        Pageable pageable = PageRequest.of(0, 10);
+        long before = columnarTransactionCache.findAllByUser(JAN_3, null, pageable, CountStrategy.EXACT).orElseThrow().getTotalElements();
+
+        // when
+        uploadChunk("181,2022,1,3,1,004,1000,DEPOSIT");
+        awaitLoaded();
+
+        long afterRecentChunk = columnarTransactionCache.findAllByUser(JAN_3, null, pageable, CountStrategy.EXACT).orElseThrow().getTotalElements();
+
+        uploadChunk("182,2021,12,31,1,004,1000,DEPOSIT");
+
+        boolean loadedAfterOldChunk = columnarTransactionCache.isLoaded();
+
+        // then
+        assertThat(afterRecentChunk).isEqualTo(before + 1);
+        assertThat(loadedAfterOldChunk).isTrue();
+    }
+
+    @DisplayName("컬럼 캐시 조회 - 적재할 때의 업로드 순번보다 큰 일관성 토큰을 보내면 DB 에서 조회하도록 응답하지 않는다.")
+    @Test
+    public void Find_Empty_When_ConsistencyTokenNewerThanSnapshot() throws Exception {
+
+        // given
+        Pageable pageable = PageRequest.of(0, 10);
+        ConsistencyTokenInterceptor interceptor = new ConsistencyTokenInterceptor();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(ConsistencyTokenInterceptor.HEADER, String.valueOf(Long.MAX_VALUE));
+
+        // when
+        interceptor.preHandle(request, null, null);
+
+        try {
+            // then
+            assertThat(columnarTransactionCache.findAllByUser(JAN_3, null, pageable, CountStrategy.EXACT)).isEmpty();
+            assertThat(columnarTransactionCache.findAllByBank(JAN_3, null, null, pageable, CountStrategy.EXACT)).isEmpty();
+        } finally {
+            interceptor.afterCompletion(request, null, null, null);
+        }
+
+        assertThat(columnarTransactionCache.findAllByUser(JAN_3, null, pageable, CountStrategy.EXACT)).isPresent();
+    }
+
+    private void uploadChunk(String csvRow) {
+        uploadRepository.batchInsertBankTransactionFromCsv(new ByteArrayInputStream(csvRow.getBytes(StandardCharsets.UTF_8)), 0, UploadEngine.JDBC, new UploadProgress());
+    }
+
+    private void awaitLoaded() throws InterruptedException {
+        for (int i = 0; i < 100 && !columnarTransactionCache.isLoaded(); i++) {
+            Thread.sleep(50);
+        }
+
+        assertThat(columnarTransactionCache.isLoaded()).isTrue();
+    }
+}
@@ -0,0 +1,93 @@
+package com.brandpark.api.bank_transaction.counter;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.brandpark.api.upload.BankTransactionRowBuffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)    // chunk 트랜잭션을 직접 커밋/롤백한다.
+@DataJpaTest
+class BankTransactionCounterUpdaterTest {
+
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+    BankTransactionCounterRepository bankTransactionCounterRepository;
+    BankTransactionCounterUpdater bankTransactionCounterUpdater;
+
+    @BeforeEach
+    public void setUp() {
+        bankTransactionCounterRepository = new BankTransactionCounterRepository(jdbcTemplate);
+        bankTransactionCounterUpdater = new BankTransactionCounterUpdater(bankTransactionCounterRepository);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM bank_transaction_counter");
+    }
+
+    @DisplayName("chunk 트랜잭션의 batch 들을 (거래일자, 거래타입, 은행코드) 별로 모았다가 커밋할 때 누적한다.")
+    @Test
+    public void OnBatchInserted_AccumulatesCounters() throws Exception {
+
+        // given
+        BankTransactionRowBuffer batch = new BankTransactionRowBuffer(10);
+        batch.add(1, 2022, 1, 1, 1, BankCode.KB, 1000, TransactionType.DEPOSIT);
+        batch.add(2, 2022, 1, 1, 2, BankCode.KB, 1000, TransactionType.DEPOSIT);
+        batch.add(3, 2022, 1, 1, 3, BankCode.NH, 1000, TransactionType.WITHDRAW);
+        batch.add(4, 2022, 1, 2, 4, BankCode.KB, 1000, TransactionType.DEPOSIT);
+
+        // when
+        bankTransactionCounterUpdater.onBatchInserted(batch);     // 트랜잭션 밖에서는 바로 더한다.
+
+        long beforeCommit = new TransactionTemplate(transactionManager).execute(status -> {
+            bankTransactionCounterUpdater.onBatchInserted(batch);
+            bankTransactionCounterUpdater.onBatchInserted(batch);
+            return bankTransactionCounterRepository.sum(null, null, null);
+        });
+
+        // then
+        assertThat(beforeCommit).isEqualTo(4);
+
+        LocalDate jan1 = LocalDate.of(2022, 1, 1);
+
+        assertThat(bankTransactionCounterRepository.sum(null, null, null)).isEqualTo(12);
+        assertThat(bankTransactionCounterRepository.sum(jan1, null, null)).isEqualTo(9);
+        assertThat(bankTransactionCounterRepository.sum(jan1, TransactionType.DEPOSIT, BankCode.KB)).isEqualTo(6);
+        assertThat(bankTransactionCounterRepository.sum(null, TransactionType.WITHDRAW, null)).isEqualTo(3);
+        assertThat(bankTransactionCounterRepository.sum(null, null, BankCode.SH)).isEqualTo(0);
+    }
+
+    @DisplayName("롤백된 chunk 의 batch 는 카운터에 더하지 않는다.")
+    @Test
+    public void OnBatchInserted_RolledBack_NotAccumulated() throws Exception {
+
+        // given
+        BankTransactionRowBuffer batch = new BankTransactionRowBuffer(10);
+        batch.add(1, 2022, 1, 1, 1, BankCode.KB, 1000, TransactionType.DEPOSIT);
+
+        // when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            bankTransactionCounterUpdater.onBatchInserted(batch);
+            status.setRollbackOnly();
+        });
+
+        // then
+        assertThat(bankTransactionCounterRepository.sum(null, null, null)).isEqualTo(0);
+    }
+}
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class BankCodeTest {
@@ -62,4 +64,22 @@ class BankCodeTest {
             BankCode.ofCode(invalidCode);
         });
     }
-}
\ No newline at end of file
+
+    @DisplayName("세 자리 숫자가 아닌 코드인 경우 예외가 발생한다.")
+    @Test
+    public void ThrowException_When_NotThreeDigits() throws Exception {
+        for (String invalidCode : new String[]{"04", "0004", "0a4", "-04", " 04", ""}) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> BankCode.ofCode(invalidCode));
+        }
+    }
+
+    @DisplayName("세 자리의 ASCII 바이트로 문자열을 만들지 않고 BankCode 를 찾을 수 있다.")
+    @Test
+    public void GetEnum_Success_When_UseDigitBytes() throws Exception {
+        byte[] bytes = "088".getBytes(StandardCharsets.US_ASCII);
+
+        assertThat(BankCode.ofDigits(bytes[0], bytes[1], bytes[2])).isEqualTo(BankCode.SH);
+        assertThat(BankCode.ofDigits('0', '0', '5')).isNull();
+        assertThat(BankCode.ofDigits('0', '/', '4')).isNull();
+    }
+}
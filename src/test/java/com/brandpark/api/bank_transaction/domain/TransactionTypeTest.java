@@ -0,0 +1,40 @@
+package com.brandpark.api.bank_transaction.domain;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionTypeTest {
+
+    @DisplayName("대소문자를 구분하지 않고 이름으로 TransactionType 을 만들 수 있다.")
+    @Test
+    public void GetEnum_Success_When_UseName_IgnoreCase() throws Exception {
+        assertThat(TransactionType.ofName("WITHDRAW")).isEqualTo(TransactionType.WITHDRAW);
+        assertThat(TransactionType.ofName("withdraw")).isEqualTo(TransactionType.WITHDRAW);
+        assertThat(TransactionType.ofName("Deposit")).isEqualTo(TransactionType.DEPOSIT);
+    }
+
+    @DisplayName("존재하지 않는 이름인 경우 예외가 발생한다.")
+    @Test
+    public void ThrowException_When_InvalidName() throws Exception {
+        for (String invalidName : new String[]{"DEPOSITS", "WITHDRA", "", null}) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> TransactionType.ofName(invalidName));
+        }
+    }
+
+    @DisplayName("바이트 버퍼의 구간을 대소문자를 구분하지 않고 비교하여 TransactionType 을 찾을 수 있다.")
+    @Test
+    public void GetEnum_Success_When_UseTokenBytes() throws Exception {
+        ByteBuffer buffer = ByteBuffer.wrap("1,withdraw,DEPOSIT,DEPOSIt!,DEPOSITS".getBytes(StandardCharsets.US_ASCII));
+
+        assertThat(TransactionType.ofToken(buffer, 2, 10)).isEqualTo(TransactionType.WITHDRAW);
+        assertThat(TransactionType.ofToken(buffer, 11, 18)).isEqualTo(TransactionType.DEPOSIT);
+        assertThat(TransactionType.ofToken(buffer, 19, 27)).isNull();     // 8 바이트지만 WITHDRAW 가 아니다.
+        assertThat(TransactionType.ofToken(buffer, 28, 36)).isNull();
+    }
+}
@@ -0,0 +1,127 @@
+package com.brandpark.api.bank_transaction.export;
+
+import com.brandpark.api.bank_transaction.domain.BankTransaction;
+import com.brandpark.api.bank_transaction.domain.BankTransactionRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+ * 응답은 다른 스레드에서 별도의 트랜잭션으로 쓰이므로 테스트 트랜잭션으로 감싸지 않고 커밋한 뒤 지운다.
+ */
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@SpringBootTest
+class BankTransactionExportApiControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired BankTransactionRepository bankTransactionRepository;
+
+    String[] csvRows = {
+            "1,2022,1,1,3,011,29000,DEPOSIT", "2,2022,1,1,2,004,1000,DEPOSIT", "3,2022,1,1,1,011,500,WITHDRAW"
+            , "4,2022,1,2,9,004,29000,DEPOSIT", "5,2022,1,2,8,011,7000,WITHDRAW", "6,2022,1,2,7,004,300,WITHDRAW"
+    };
+
+    @BeforeEach
+    public void setUp() {
+        List<BankTransaction> entities = new ArrayList<>();
+
+        for (String csvRow : csvRows) {
+            entities.add(BankTransaction.csvRowToEntity(csvRow.split(",")));
+        }
+
+        bankTransactionRepository.saveAll(entities);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bankTransactionRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("거래내역 내보내기 - 성공(NDJSON, 조건 없음)")
+    @Test
+    public void ExportTransaction_Success_Ndjson() throws Exception {
+
+        // when
+        String body = export(get("/api/v1/bank-transactions/export"));
+
+        // then
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(csvRows.length);
+
+        // 거래일자, 유저ID 순서
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("bankTransactionId").asLong()).isEqualTo(3L);
+        assertThat(first.get("userId").asLong()).isEqualTo(1L);
+        assertThat(first.get("bankCode").asText()).isEqualTo("011");
+        assertThat(first.get("transactionType").asText()).isEqualTo("WITHDRAW");
+        assertThat(first.get("transactionDate").asText()).isEqualTo("2022-01-01");
+        assertThat(first.get("transactionAmount").asLong()).isEqualTo(500L);
+
+        JsonNode last = objectMapper.readTree(lines[lines.length - 1]);
+        assertThat(last.get("bankTransactionId").asLong()).isEqualTo(4L);
+        assertThat(last.get("transactionDate").asText()).isEqualTo("2022-01-02");
+    }
+
+    @DisplayName("거래내역 내보내기 - 성공(CSV, 거래일자, 거래유형, 은행 조건)")
+    @Test
+    public void ExportTransaction_Success_Csv_With_Filters() throws Exception {
+
+        // when
+        String body = export(get("/api/v1/bank-transactions/export")
+                .param("transaction_date", "2022-01-02")
+                .param("transaction_type", "WITHDRAW")
+                .param("bank_code", "004")
+                .param("format", "CSV"));
+
+        // then
+        assertThat(body).isEqualTo("6,2022,1,2,7,004,300,WITHDRAW\n");
+    }
+
+    @DisplayName("거래내역 내보내기 - 성공(조건에 해당하는 거래가 없는 경우 빈 응답)")
+    @Test
+    public void ExportTransaction_Success_Empty() throws Exception {
+
+        // when
+        String body = export(get("/api/v1/bank-transactions/export")
+                .param("transaction_date", "2021-12-31"));
+
+        // then
+        assertThat(body).isEmpty();
+    }
+
+    private String export(RequestBuilder requestBuilder) throws Exception {
+        MvcResult asyncResult = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Content-Disposition"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,215 @@
+package com.brandpark.api.bank_transaction.partition;
+
+import com.brandpark.api.bank_transaction.counter.BankTransactionCounterRepository;
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.brandpark.api.bank_transaction.dto.BankTransactionResponse;
+import com.brandpark.api.bank_transaction.dto.CursorResult;
+import com.brandpark.api.bank_transaction.dto.PageResult;
+import com.brandpark.api.bank_transaction.query.CountStrategy;
+import com.brandpark.api.bank_transaction.store.TransactionCondition;
+import com.brandpark.api.bank_transaction.store.TransactionStore;
+import com.brandpark.api.upload.UploadEngine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {"aggregate.counter.enabled=true", "storage.backend=partitioned", "logging.level.org.springframework.jdbc.core=info"})
+class PartitionedTransactionStoreTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired TransactionStore transactionStore;
+    @Autowired BankTransactionPartitionRepository bankTransactionPartitionRepository;
+    @Autowired BankTransactionPartitionService bankTransactionPartitionService;
+    @Autowired BankTransactionCounterRepository bankTransactionCounterRepository;
+
+    @DisplayName("거래월별 파티션에 나누어 저장하고, 거래일자 조건이 없으면 파티션을 이어서 조회")
+    @Test
+    public void UploadAndFindAcrossPartitions() throws Exception {
+
+        // given
+        bankTransactionPartitionService.dropBefore(YearMonth.of(3000, 1));     // 거래일자 조건 없이 모든 파티션을 조회하므로 다른 테스트의 파티션을 지운다.
+
+        List<BankTransactionResponse> rows = randomRows(9_300_000L, YearMonth.of(2019, 1), 3, 300);
+
+        // when
+        upload(rows);
+
+        // then
+        assertThat(transactionStore).isInstanceOf(PartitionedTransactionStore.class);
+        assertThat(bankTransactionPartitionRepository.findAll()).containsExactly(YearMonth.of(2019, 1), YearMonth.of(2019, 2), YearMonth.of(2019, 3));
+
+        List<Long> expected = rows.stream()
+                .sorted(Comparator.comparing(BankTransactionResponse::getTransactionDate)
+                        .thenComparing(BankTransactionResponse::getUserId)
+                        .thenComparing(BankTransactionResponse::getBankTransactionId))
+                .map(BankTransactionResponse::getBankTransactionId)
+                .collect(Collectors.toList());
+
+        for (CountStrategy countStrategy : new CountStrategy[]{CountStrategy.EXACT, CountStrategy.APPROXIMATE, CountStrategy.CACHED, CountStrategy.NONE}) {
+            for (int page = 0; page < 10; page++) {
+                PageResult<BankTransactionResponse> result = transactionStore.findAllByUser(null, null, PageRequest.of(page, 70), countStrategy);
+
+                assertThat(ids(result)).isEqualTo(expected.subList(Math.min(page * 70, expected.size()), Math.min(page * 70 + 70, expected.size())));
+                assertThat(result.getTotalElements()).isEqualTo(countStrategy == CountStrategy.NONE ? -1 : expected.size());
+            }
+        }
+    }
+
+    @DisplayName("거래일자 조건이 있으면 그 달의 파티션만 조회")
+    @Test
+    public void FindByBank_InOnePartition() throws Exception {
+
+        // given
+        upload(List.of(
+                new BankTransactionResponse(9_310_003L, 1L, BankCode.SH, TransactionType.DEPOSIT, LocalDate.of(2019, 6, 3), 100)
+                , new BankTransactionResponse(9_310_001L, 2L, BankCode.KB, TransactionType.DEPOSIT, LocalDate.of(2019, 6, 3), 100)
+                , new BankTransactionResponse(9_310_002L, 3L, BankCode.KB, TransactionType.WITHDRAW, LocalDate.of(2019, 6, 3), 100)
+                , new BankTransactionResponse(9_310_004L, 4L, BankCode.KB, TransactionType.DEPOSIT, LocalDate.of(2019, 7, 3), 100)));
+
+        // when, then
+        mockMvc.perform(get("/api/v1/bank-transactions/by-bank").param("transaction_date", "2019-06-03"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.contents[*].bankTransactionId").value(contains(9_310_001, 9_310_002, 9_310_003)));
+
+        mockMvc.perform(get("/api/v1/bank-transactions/by-bank").param("transaction_date", "2019-08-03"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(0));
+    }
+
+    @DisplayName("커서 조회와 내보내기는 커서의 거래월 파티션부터 이어서 조회")
+    @Test
+    public void FindAfterAndExportAcrossPartitions() throws Exception {
+
+        // given
+        bankTransactionPartitionService.dropBefore(YearMonth.of(3000, 1));
+
+        List<BankTransactionResponse> rows = randomRows(9_330_000L, YearMonth.of(2017, 1), 3, 200);
+        upload(rows);
+
+        // when
+        List<Long> byUser = readAll(cursor -> transactionStore.findAllByUserAfter(null, TransactionType.DEPOSIT, cursor, 70));
+        List<Long> byBank = readAll(cursor -> transactionStore.findAllByBankAfter(null, null, BankCode.KB, cursor, 70));
+        List<Long> exported = new ArrayList<>();
+
+        transactionStore.forEachByUser(null, null, BankCode.SH, (id, userId, bankCode, type, date, amount) -> exported.add(id));
+
+        // then
+        assertThat(byUser).isEqualTo(expected(rows, TransactionCondition.USER_ORDER, r -> r.getTransactionType().equals(TransactionType.DEPOSIT.name())));
+        assertThat(byBank).isEqualTo(expected(rows, TransactionCondition.BANK_ORDER, r -> r.getBankCode().equals(BankCode.KB.getCode())));
+        assertThat(exported).isEqualTo(expected(rows, TransactionCondition.USER_ORDER, r -> r.getBankCode().equals(BankCode.SH.getCode())));
+    }
+
+    @DisplayName("지난 거래월의 파티션을 통째로 지운다.")
+    @Test
+    public void DropPartitionsBefore() throws Exception {
+
+        // given
+        upload(randomRows(9_320_000L, YearMonth.of(2018, 1), 3, 90));
+
+        // when
+        mockMvc.perform(delete("/api/v1/admin/bank-transactions/partitions").param("before", "2018-03"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(contains("2018-01", "2018-02")));
+
+        // then
+        assertThat(bankTransactionPartitionRepository.findAll()).doesNotContain(YearMonth.of(2018, 1), YearMonth.of(2018, 2)).contains(YearMonth.of(2018, 3));
+        assertThat(bankTransactionCounterRepository.sumBetween(LocalDate.of(2018, 1, 1), LocalDate.of(2018, 2, 28), null, null)).isZero();
+        assertThat(bankTransactionCounterRepository.sumBetween(LocalDate.of(2018, 3, 1), LocalDate.of(2018, 3, 31), null, null)).isEqualTo(90);
+        assertThat(transactionStore.findAllByUser(LocalDate.of(2018, 1, 1), null, PageRequest.of(0, 20), CountStrategy.EXACT).getContentsSize()).isZero();
+
+        mockMvc.perform(get("/api/v1/admin/bank-transactions/partitions"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.month == '2018-03')].rowCount").value(contains(90)));
+
+        mockMvc.perform(delete("/api/v1/admin/bank-transactions/partitions/2018-03"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/v1/admin/bank-transactions/partitions/2018-03"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/v1/admin/bank-transactions/partitions/2018-3x"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static List<Long> readAll(Function<String, CursorResult<BankTransactionResponse>> findAfter) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+
+        do {
+            CursorResult<BankTransactionResponse> result = findAfter.apply(cursor);
+            result.getContents().forEach(r -> ids.add(r.getBankTransactionId()));
+            cursor = result.getNextCursor();
+        } while (cursor != null);
+
+        return ids;
+    }
+
+    private static List<Long> expected(List<BankTransactionResponse> rows, Comparator<BankTransactionResponse> order, Predicate<BankTransactionResponse> filter) {
+        return rows.stream().filter(filter).sorted(order).map(BankTransactionResponse::getBankTransactionId).collect(Collectors.toList());
+    }
+
+    private void upload(List<BankTransactionResponse> rows) throws Exception {
+        String csv = rows.stream()
+                .map(r -> {
+                    LocalDate date = LocalDate.parse(r.getTransactionDate());
+                    return String.join(",", String.valueOf(r.getBankTransactionId()), String.valueOf(date.getYear()), String.valueOf(date.getMonthValue())
+                            , String.valueOf(date.getDayOfMonth()), String.valueOf(r.getUserId()), r.getBankCode(), String.valueOf(r.getTransactionAmount()), r.getTransactionType());
+                })
+                .collect(Collectors.joining("\n"));
+
+        mockMvc.perform(multipart("/api/v1/bank-transactions/persist-csv")
+                        .file(new MockMultipartFile("file", "transaction.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)))
+                        .param("engine", UploadEngine.JDBC.name()))
+                .andExpect(status().isOk());
+    }
+
+    /*
+     * 거래월마다 rowsPerMonth 개. 거래월의 순서를 섞어 한 버퍼에 여러 거래월이 들어가도록 한다.
+     */
+    private List<BankTransactionResponse> randomRows(long firstId, YearMonth firstMonth, int months, int rowsPerMonth) {
+        Random random = new Random(firstId);
+        BankCode[] bankCodes = BankCode.values();
+        List<BankTransactionResponse> rows = new ArrayList<>();
+
+        for (int i = 0; i < months * rowsPerMonth; i++) {
+            YearMonth month = firstMonth.plusMonths(i % months);
+
+            rows.add(new BankTransactionResponse(firstId + i, (long) random.nextInt(50) + 1, bankCodes[random.nextInt(bankCodes.length)]
+                    , random.nextBoolean() ? TransactionType.DEPOSIT : TransactionType.WITHDRAW
+                    , month.atDay(random.nextInt(3) + 1), random.nextInt(10000) + 1));
+        }
+
+        return rows;
+    }
+
+    private static List<Long> ids(PageResult<BankTransactionResponse> result) {
+        return result.getContents().stream().map(BankTransactionResponse::getBankTransactionId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,86 @@
+package com.brandpark.api.bank_transaction.query;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 조회 API 의 {조건, 정렬} 이 인덱스 순서대로 읽혀 별도의 정렬(filesort) 없이 수행되는지 실행 계획으로 확인한다.
+ */
+@ActiveProfiles("test")
+@DataJpaTest
+class BankTransactionIndexPlanTest {
+
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        List<Object[]> rows = new ArrayList<>();
+
+        for (int i = 1; i <= 2000; i++) {
+            LocalDate transactionDate = LocalDate.of(2022, 1, 1).plusDays(i % 10);
+
+            rows.add(new Object[]{i, transactionDate.getYear(), transactionDate.getMonthValue(), transactionDate.getDayOfMonth(), transactionDate
+                    , i % 97, i % 2 == 0 ? "004" : "011", 1000, i % 2 == 0 ? "DEPOSIT" : "WITHDRAW"});
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO bank_transaction"
+                + " (bank_transaction_id, year, month, day, transaction_date, user_id, bank_code, transaction_amount, transaction_type)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    @DisplayName("유저별 조회는 (거래일자, 유저ID, 거래ID) 인덱스 순서대로 읽는다.")
+    @Test
+    public void ByUserListing_UsesIndexOrderedScan() throws Exception {
+
+        assertIndexSorted("idx_bank_transaction_date_user"
+                , "SELECT * FROM bank_transaction bt ORDER BY bt.transaction_date, bt.user_id LIMIT 20");
+
+        assertIndexSorted("idx_bank_transaction_date_user"
+                , "SELECT * FROM bank_transaction bt WHERE bt.transaction_date = DATE '2022-01-05' AND bt.transaction_type = 'DEPOSIT'"
+                        + " ORDER BY bt.transaction_date, bt.user_id LIMIT 20 OFFSET 40");
+
+        assertIndexSorted("idx_bank_transaction_date_user"      // 커서 조회
+                , "SELECT * FROM bank_transaction bt WHERE bt.transaction_date >= DATE '2022-01-05'"
+                        + " AND (bt.transaction_date > DATE '2022-01-05'"
+                        + " OR (bt.transaction_date = DATE '2022-01-05' AND bt.user_id > 3)"
+                        + " OR (bt.transaction_date = DATE '2022-01-05' AND bt.user_id = 3 AND bt.bank_transaction_id > 9))"
+                        + " ORDER BY bt.transaction_date, bt.user_id, bt.bank_transaction_id LIMIT 21");
+    }
+
+    @DisplayName("은행별 조회는 (거래일자, 은행코드, 거래ID) 인덱스 순서대로 읽는다.")
+    @Test
+    public void ByBankListing_UsesIndexOrderedScan() throws Exception {
+
+        assertIndexSorted("idx_bank_transaction_date_bank"
+                , "SELECT * FROM bank_transaction bt ORDER BY bt.transaction_date, bt.bank_code LIMIT 20");
+
+        assertIndexSorted("idx_bank_transaction_date_bank"
+                , "SELECT * FROM bank_transaction bt WHERE bt.transaction_date = DATE '2022-01-05' AND bt.bank_code = '004'"
+                        + " ORDER BY bt.transaction_date, bt.bank_code LIMIT 20");
+
+        assertIndexSorted("idx_bank_transaction_date_bank"      // 커서 조회
+                , "SELECT * FROM bank_transaction bt WHERE bt.transaction_date >= DATE '2022-01-05'"
+                        + " AND (bt.transaction_date > DATE '2022-01-05'"
+                        + " OR (bt.transaction_date = DATE '2022-01-05' AND bt.bank_code > '004')"
+                        + " OR (bt.transaction_date = DATE '2022-01-05' AND bt.bank_code = '004' AND bt.bank_transaction_id > 9))"
+                        + " ORDER BY bt.transaction_date, bt.bank_code, bt.bank_transaction_id LIMIT 21");
+    }
+
+    private void assertIndexSorted(String indexName, String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+
+        assertThat(plan).containsIgnoringCase(indexName);
+        assertThat(plan).contains("/* index sorted */");
+    }
+}
@@ -1,10 +1,19 @@
 package com.brandpark.api.bank_transaction.query;
 
+import com.brandpark.api.bank_transaction.counter.BankTransactionCounterRepository;
+import com.brandpark.api.bank_transaction.counter.BankTransactionCounterUpdater;
 import com.brandpark.api.bank_transaction.domain.BankCode;
 import com.brandpark.api.bank_transaction.domain.BankTransaction;
 import com.brandpark.api.bank_transaction.domain.BankTransactionRepository;
 import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.brandpark.api.bank_transaction.dto.BankTransactionResponse;
+import com.brandpark.api.bank_transaction.dto.CursorResult;
 import com.brandpark.api.bank_transaction.dto.PageResult;
+import com.brandpark.api.bank_transaction.exception.InvalidCursorException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Assertions;
+import com.brandpark.api.upload.BankTransactionRowBuffer;
 import com.brandpark.util.AssertUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,12 +22,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 
 import javax.persistence.EntityManager;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -29,14 +42,17 @@ class BankTransactionQueryRepositoryTest {
 
     @Autowired EntityManager entityManager;
     @Autowired BankTransactionRepository bankTransactionRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
     BankTransactionQueryRepository bankTransactionQueryRepository;
+    SimpleMeterRegistry meterRegistry;
     int totalElements;
     final int PAGE_0 = 0;
     final int PAGE_SIZE_10 = 10;
 
     @BeforeEach
     public void setUp() {
-        bankTransactionQueryRepository = new BankTransactionQueryRepository(entityManager);
+        meterRegistry = new SimpleMeterRegistry();
+        bankTransactionQueryRepository = new BankTransactionQueryRepository(entityManager, new BankTransactionCounterRepository(jdbcTemplate), new BankTransactionCountCache(), new QueryMetrics(meterRegistry));
         /*
          * <1월 1일>
          *   - 국민은행(004)에 입금 2번, 출금 1번
@@ -344,6 +360,198 @@ class BankTransactionQueryRepositoryTest {
         assertOrderByTransactionDateAscAndBankCodeAsc(contents);
     }
 
+    @DisplayName("유저별 거래내역 엔티티 조회 - 전체 개수를 세지 않는 경우 다음 페이지가 있는지만 알려준다.")
+    @Test
+    public void FindAllBankTransactionEntityByUser_CountStrategyNone() throws Exception {
+
+        // given
+        final Pageable firstPage = PageRequest.of(PAGE_0, 5);
+        final Pageable lastPage = PageRequest.of(2, 5);
+
+        // when
+        PageResult<BankTransaction> first = bankTransactionQueryRepository.findAllBankTransactionByUser(null, null, firstPage, CountStrategy.NONE);
+        PageResult<BankTransaction> last = bankTransactionQueryRepository.findAllBankTransactionByUser(null, null, lastPage, CountStrategy.NONE);
+
+        // then
+        assertThat(first.getCountStrategy()).isEqualTo(CountStrategy.NONE);
+        assertThat(first.getTotalElements()).isEqualTo(-1);
+        assertThat(first.getContents()).hasSize(5);
+        assertThat(first.isHasNext()).isTrue();
+
+        assertThat(last.getContents()).hasSize(2);
+        assertThat(last.isHasNext()).isFalse();
+    }
+
+    @DisplayName("은행별 거래내역 엔티티 조회 - 캐시한 개수는 업로드가 끝나 무효화되기 전까지 재사용한다.")
+    @Test
+    public void FindAllBankTransactionEntityByBank_CountStrategyCached() throws Exception {
+
+        // given
+        BankTransactionCountCache countCache = new BankTransactionCountCache();
+        bankTransactionQueryRepository = new BankTransactionQueryRepository(entityManager, new BankTransactionCounterRepository(jdbcTemplate), countCache, new QueryMetrics(new SimpleMeterRegistry()));
+
+        final Pageable pageable = PageRequest.of(PAGE_0, PAGE_SIZE_10);
+        PageResult<BankTransaction> before = bankTransactionQueryRepository.findAllBankTransactionByBank(null, null, BankCode.KB, pageable, CountStrategy.CACHED);
+
+        entityManager.persist(BankTransaction.csvRowToEntity("13,2022,1,3,13,004,29000,DEPOSIT".split(",")));
+        entityManager.flush();
+
+        // when
+        PageResult<BankTransaction> cached = bankTransactionQueryRepository.findAllBankTransactionByBank(null, null, BankCode.KB, pageable, CountStrategy.CACHED);
+        countCache.invalidate();
+        PageResult<BankTransaction> invalidated = bankTransactionQueryRepository.findAllBankTransactionByBank(null, null, BankCode.KB, pageable, CountStrategy.CACHED);
+
+        // then
+        assertThat(before.getTotalElements()).isEqualTo(6);
+        assertThat(cached.getTotalElements()).isEqualTo(6);
+        assertThat(invalidated.getTotalElements()).isEqualTo(7);
+        assertThat(invalidated.getCountStrategy()).isEqualTo(CountStrategy.CACHED);
+    }
+
+    @DisplayName("유저별 거래내역 엔티티 조회 - 근사 개수는 업로드할 때 누적한 카운터를 합산한다.")
+    @Test
+    public void FindAllBankTransactionEntityByUser_CountStrategyApproximate() throws Exception {
+
+        // given
+        BankTransactionRowBuffer uploaded = new BankTransactionRowBuffer(totalElements);   // setUp 에서 저장한 행이 업로드되었다고 가정한다.
+
+        for (BankTransaction entity : bankTransactionRepository.findAll()) {
+            uploaded.add(entity.getId(), entity.getYear(), entity.getMonth(), entity.getDay()
+                    , entity.getUserId(), entity.getBankCode(), entity.getTransactionAmount(), entity.getTransactionType());
+        }
+
+        new BankTransactionCounterUpdater(new BankTransactionCounterRepository(jdbcTemplate)).onBatchInserted(uploaded);
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);     // 업로드 트랜잭션이 커밋되기 직전에 카운터에 더한다.
+
+        final Pageable pageable = PageRequest.of(PAGE_0, PAGE_SIZE_10);
+
+        // when
+        PageResult<BankTransaction> result = bankTransactionQueryRepository.findAllBankTransactionByUser(null, TransactionType.WITHDRAW, pageable, CountStrategy.APPROXIMATE);
+
+        // then
+        assertThat(result.getCountStrategy()).isEqualTo(CountStrategy.APPROXIMATE);
+        assertThat(result.getTotalElements()).isEqualTo(4);
+        assertThat(result.getContents()).hasSize(4);
+        assertThat(result.isHasNext()).isFalse();
+    }
+
+    @DisplayName("유저별 거래내역 커서 조회 - 커서를 따라가면 모든 행을 {거래일자, 유저ID} ASC 로 한 번씩 조회한다.")
+    @Test
+    public void FindAllBankTransactionEntityByUserAfterCursor_VisitsAllRowsOnce() throws Exception {
+
+        // given
+        int size = 5;
+        List<BankTransaction> visited = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+
+        // when
+        do {
+            CursorResult<BankTransaction> result = bankTransactionQueryRepository.findAllBankTransactionByUserAfter(null, null, cursor, size);
+
+            assertThat(result.getContentsSize()).isLessThanOrEqualTo(size);
+
+            visited.addAll(result.getContents());
+            cursor = result.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // then
+        assertThat(pages).isEqualTo(3);     // 5, 5, 2
+        assertThat(visited).hasSize(totalElements);
+        assertThat(visited).extracting(BankTransaction::getId).doesNotHaveDuplicates();
+        assertOrderByTransactionDateAscAndUserIdAsc(visited);
+    }
+
+    @DisplayName("은행별 거래내역 커서 조회 - 조건과 함께 커서를 따라가면 {거래일자, 은행코드} ASC 로 한 번씩 조회한다.")
+    @Test
+    public void FindAllBankTransactionEntityByBankAfterCursor_VisitsAllRowsOnce() throws Exception {
+
+        // given
+        int size = 2;
+        List<BankTransaction> visited = new ArrayList<>();
+        String cursor = null;
+
+        // when
+        do {
+            CursorResult<BankTransaction> result = bankTransactionQueryRepository.findAllBankTransactionByBankAfter(null, TransactionType.DEPOSIT, null, cursor, size);
+
+            visited.addAll(result.getContents());
+            cursor = result.getNextCursor();
+        } while (cursor != null);
+
+        // then
+        assertThat(visited).hasSize(8);     // 날짜별, 은행별로 입금 2번
+        assertThat(visited).extracting(BankTransaction::getId).doesNotHaveDuplicates();
+        assertThat(visited).allMatch(entity -> entity.getTransactionType() == TransactionType.DEPOSIT);
+        assertOrderByTransactionDateAscAndBankCodeAsc(visited);
+    }
+
+    @DisplayName("거래내역 커서 조회 - 실패(다른 조회에서 발급되었거나 올바르지 않은 커서인 경우)")
+    @Test
+    public void FindAllBankTransactionEntityAfterCursor_Fail_When_InvalidCursor() throws Exception {
+
+        // given
+        String byUserCursor = bankTransactionQueryRepository.findAllBankTransactionByUserAfter(null, null, null, 1).getNextCursor();
+
+        // when, then
+        Assertions.assertThrows(InvalidCursorException.class
+                , () -> bankTransactionQueryRepository.findAllBankTransactionByBankAfter(null, null, null, byUserCursor, 1));
+        Assertions.assertThrows(InvalidCursorException.class
+                , () -> bankTransactionQueryRepository.findAllBankTransactionByUserAfter(null, null, "not-a-cursor", 1));
+    }
+
+    @DisplayName("유저별 거래내역 DTO 조회 - 엔티티 조회와 같은 행을 같은 순서로 응답 DTO 로 조회하고, 영속성 컨텍스트에 엔티티를 올리지 않는다.")
+    @Test
+    public void FindAllBankTransactionResponseByUser_SameAsEntity_Without_ManagedEntity() throws Exception {
+
+        // given
+        final Pageable pageable = PageRequest.of(PAGE_0, PAGE_SIZE_10);
+        List<BankTransactionResponse> expected = bankTransactionQueryRepository.findAllBankTransactionByUser(null, TransactionType.DEPOSIT, pageable).getContents()
+                .stream()
+                .map(BankTransactionResponse::new)
+                .collect(Collectors.toList());
+        entityManager.clear();
+
+        // when
+        PageResult<BankTransactionResponse> result = bankTransactionQueryRepository.findAllBankTransactionResponseByUser(null, TransactionType.DEPOSIT, pageable, CountStrategy.EXACT);
+
+        // then
+        AssertUtil.assertPageResult(PAGE_0, PAGE_SIZE_10, 8, result);
+        assertThat(result.getContents()).isEqualTo(expected);
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @DisplayName("은행별 거래내역 DTO 커서 조회 - 커서를 따라가면 엔티티 커서 조회와 같은 행을 조회한다.")
+    @Test
+    public void FindAllBankTransactionResponseByBankAfterCursor_SameAsEntity() throws Exception {
+
+        // given
+        int size = 5;
+        List<Long> expectedIds = new ArrayList<>();
+        List<Long> visitedIds = new ArrayList<>();
+        String cursor = null;
+
+        do {
+            CursorResult<BankTransaction> result = bankTransactionQueryRepository.findAllBankTransactionByBankAfter(null, null, null, cursor, size);
+
+            result.getContents().forEach(entity -> expectedIds.add(entity.getId()));
+            cursor = result.getNextCursor();
+        } while (cursor != null);
+
+        // when
+        do {
+            CursorResult<BankTransactionResponse> result = bankTransactionQueryRepository.findAllBankTransactionResponseByBankAfter(null, null, null, cursor, size);
+
+            result.getContents().forEach(response -> visitedIds.add(response.getBankTransactionId()));
+            cursor = result.getNextCursor();
+        } while (cursor != null);
+
+        // then
+        assertThat(visitedIds).hasSize(totalElements);
+        assertThat(visitedIds).isEqualTo(expectedIds);
+    }
+
     private void assertOrderByTransactionDateAsc(List<BankTransaction> contents) {
         for (int i = 0; i < contents.size() - 1; i++) {
             assertThat(contents.get(i).getTransactionDate()).isBeforeOrEqualTo(contents.get(i + 1).getTransactionDate());
@@ -381,4 +589,25 @@ class BankTransactionQueryRepositoryTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @DisplayName("조회 지표 - content/count 쿼리 시간, 반환한 행의 수, 페이지 깊이")
+    @Test
+    public void RecordQueryMetrics() throws Exception {
+
+        // given
+        LocalDate transactionDate = LocalDate.of(2022, 1, 1);
+
+        // when
+        bankTransactionQueryRepository.findAllBankTransactionResponseByUser(transactionDate, null, PageRequest.of(1, 4), CountStrategy.EXACT);
+        bankTransactionQueryRepository.findAllBankTransactionResponseByBank(transactionDate, null, BankCode.KB, PageRequest.of(0, 10), CountStrategy.NONE);
+
+        // then
+        assertThat(meterRegistry.get("bank_transaction.query.content").tag("query", "by-user").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("bank_transaction.query.count").tag("query", "by-user").tag("count", "EXACT").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("bank_transaction.query.returned").tag("query", "by-user").summary().totalAmount()).isEqualTo(2);
+        assertThat(meterRegistry.get("bank_transaction.query.page.offset").tag("query", "by-user").summary().totalAmount()).isEqualTo(4);
+
+        assertThat(meterRegistry.get("bank_transaction.query.content").tag("query", "by-bank").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find("bank_transaction.query.count").tag("query", "by-bank").timer()).isNull();
+    }
+}
@@ -0,0 +1,172 @@
+package com.brandpark.api.bank_transaction.query;
+
+import com.brandpark.api.bank_transaction.dto.PageResult;
+import com.brandpark.api.upload.UploadEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 업로드를 거치지 않고 bank_transaction 에 직접 넣은 행은 캐시를 지우지 않으므로, 그 행이 조회되지 않으면 캐시된 결과를 받은 것이다.
+ */
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {"query.result-cache.enabled=true", "query.result-cache.max-rows=100"})
+class BankTransactionResultCacheTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired MeterRegistry meterRegistry;
+
+    @DisplayName("업로드가 커밋되면 그 거래일자의 결과와 거래일자 조건이 없는 결과만 지운다.")
+    @Test
+    public void InvalidateOnlyTouchedDates() throws Exception {
+
+        // given
+        upload("9600001,2015,3,1,1,004,1000,DEPOSIT\n9600002,2015,3,2,1,004,1000,DEPOSIT", status().isOk());
+
+        mockMvc.perform(byBank("2015-03-01")).andExpect(jsonPath("$.totalElements").value(1));
+        mockMvc.perform(byBank("2015-03-02")).andExpect(jsonPath("$.totalElements").value(1));
+        mockMvc.perform(byBank(null)).andExpect(jsonPath("$.totalElements").isNumber());
+
+        double hits = hits();
+
+        insertDirectly(9_600_011L, LocalDate.of(2015, 3, 1));
+        insertDirectly(9_600_012L, LocalDate.of(2015, 3, 2));
+
+        // when
+        upload("9600021,2015,3,2,2,004,1000,DEPOSIT", status().isOk());
+
+        // then
+        mockMvc.perform(byBank("2015-03-01")).andExpect(jsonPath("$.totalElements").value(1));      // 캐시
+        mockMvc.perform(byBank("2015-03-02")).andExpect(jsonPath("$.totalElements").value(3));      // 지워져서 다시 조회
+        mockMvc.perform(byBank("2015-03-02")).andExpect(jsonPath("$.totalElements").value(3));      // 다시 캐시
+
+        assertThat(hits()).isEqualTo(hits + 2);
+        assertThat(meterRegistry.get("bank_transaction.result_cache.invalidated").counter().count()).isGreaterThanOrEqualTo(2);
+    }
+
+    @DisplayName("롤백된 업로드는 캐시를 지우지 않는다.")
+    @Test
+    public void KeepCache_WhenUploadRolledBack() throws Exception {
+
+        // given
+        upload("9610001,2015,4,1,1,004,1000,DEPOSIT", status().isOk());
+        mockMvc.perform(byBank("2015-04-01")).andExpect(jsonPath("$.totalElements").value(1));
+
+        insertDirectly(9_610_002L, LocalDate.of(2015, 4, 1));
+
+        String rows = IntStream.range(0, 150)       // batchSize(100) 보다 많이 저장한 뒤에 잘못된 은행 코드 111
+                .mapToObj(i -> (9_610_100 + i) + ",2015,4,1,3,004,1000,DEPOSIT")
+                .collect(Collectors.joining("\n")) + "\n9610999,2015,4,1,3,111,1000,DEPOSIT";
+
+        // when
+        upload(rows, status().isBadRequest());
+
+        // then
+        mockMvc.perform(byBank("2015-04-01")).andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    @DisplayName("캐시한 행 수의 합이 max-rows 를 넘으면 내보낸다.")
+    @Test
+    public void EvictByRowCount() throws Exception {
+
+        // given
+        upload(IntStream.range(0, 150)
+                .mapToObj(i -> (9_620_000 + i) + ",2015,5,1," + (i % 40 + 1) + ",004,1000,DEPOSIT")
+                .collect(Collectors.joining("\n")), status().isOk());
+
+        double evictions = meterRegistry.get("cache.evictions").tag("cache", "bank_transaction_result").functionCounter().count();
+
+        // when
+        for (int page = 0; page < 5; page++) {      // 행 30개짜리 페이지 5개
+            mockMvc.perform(byBank("2015-05-01").param("page", String.valueOf(page)).param("size", "30"))
+                    .andExpect(status().isOk());
+        }
+
+        // then
+        assertThat(meterRegistry.get("cache.evictions").tag("cache", "bank_transaction_result").functionCounter().count()).isGreaterThan(evictions);
+        assertThat(meterRegistry.get("cache.eviction.weight").tag("cache", "bank_transaction_result").functionCounter().count()).isPositive();
+    }
+
+    @DisplayName("복제 DB 를 사용하면 ttl 은 복제 지연의 상한(max-lag)을 넘지 않는다.")
+    @Test
+    public void CapTtlAtReplicaMaxLag() throws Exception {
+
+        // given
+        BankTransactionResultCache withReplica = new BankTransactionResultCache(new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(10)
+                , "jdbc:h2:mem:replica", Duration.ofMillis(50));
+        BankTransactionResultCache withoutReplica = new BankTransactionResultCache(new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(10)
+                , "", Duration.ofMillis(50));
+
+        AtomicInteger loadsWithReplica = new AtomicInteger();
+        AtomicInteger loadsWithoutReplica = new AtomicInteger();
+
+        find(withReplica, loadsWithReplica);
+        find(withoutReplica, loadsWithoutReplica);
+
+        // when
+        Thread.sleep(200);
+
+        find(withReplica, loadsWithReplica);
+        find(withoutReplica, loadsWithoutReplica);
+
+        // then
+        assertThat(loadsWithReplica.get()).isEqualTo(2);
+        assertThat(loadsWithoutReplica.get()).isEqualTo(1);
+    }
+
+    private static void find(BankTransactionResultCache cache, AtomicInteger loads) {
+        cache.findAllByBank(LocalDate.of(2015, 6, 1), null, null, CountStrategy.EXACT, PageRequest.of(0, 20), () -> {
+            loads.incrementAndGet();
+            return PageResult.create(List.of(), PageRequest.of(0, 20), 0, CountStrategy.EXACT);
+        });
+    }
+
+    private double hits() {
+        return meterRegistry.get("cache.gets").tag("cache", "bank_transaction_result").tag("result", "hit").functionCounter().count();
+    }
+
+    private static MockHttpServletRequestBuilder byBank(String transactionDate) {
+        MockHttpServletRequestBuilder request = get("/api/v1/bank-transactions/by-bank");
+        return transactionDate == null ? request : request.param("transaction_date", transactionDate);
+    }
+
+    private void upload(String csv, ResultMatcher expected) throws Exception {
+        mockMvc.perform(multipart("/api/v1/bank-transactions/persist-csv")
+                        .file(new MockMultipartFile("file", "transaction.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)))
+                        .param("engine", UploadEngine.JDBC.name()))
+                .andExpect(expected);
+    }
+
+    private void insertDirectly(long id, LocalDate transactionDate) {
+        jdbcTemplate.update("INSERT INTO bank_transaction (bank_transaction_id, year, month, day, transaction_date, user_id, bank_code, transaction_amount, transaction_type)"
+                        + " VALUES (?, ?, ?, ?, ?, 1, '004', 1000, 'DEPOSIT')"
+                , id, transactionDate.getYear(), transactionDate.getMonthValue(), transactionDate.getDayOfMonth(), transactionDate);
+    }
+}
@@ -0,0 +1,125 @@
+package com.brandpark.api.bank_transaction.query;
+
+import com.brandpark.api.bank_transaction.counter.BankTransactionCounterRepository;
+import com.brandpark.api.bank_transaction.dto.BankTransactionResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * 1,000 행 페이지 하나를 응답 DTO 로 만들기까지의 시간과 힙 할당량을, 엔티티를 조회한 뒤 복사하는 방법과 DTO 로 바로 조회하는 방법으로 비교한다.
+ */
+@Slf4j
+@ActiveProfiles("test")
+@Transactional
+@DataJpaTest
+public class QueryPerformanceTest {
+
+    static final int ROW_COUNT = 20000;
+    static final int PAGE_SIZE = 1000;
+    static final int WARM_UP = 20;
+    static final int ITERATIONS = 50;
+
+    @Autowired EntityManager entityManager;
+    @Autowired JdbcTemplate jdbcTemplate;
+    BankTransactionQueryRepository bankTransactionQueryRepository;
+
+    @BeforeEach
+    public void setUp() {
+        bankTransactionQueryRepository = new BankTransactionQueryRepository(entityManager, new BankTransactionCounterRepository(jdbcTemplate), new BankTransactionCountCache(), new QueryMetrics(new SimpleMeterRegistry()));
+
+        List<Object[]> rows = new ArrayList<>();
+
+        for (int i = 1; i <= ROW_COUNT; i++) {
+            int day = i % 28 + 1;
+            rows.add(new Object[]{i, 2022, 1, day, i % 500, i % 2 == 0 ? "004" : "011", 29000, i % 3 == 0 ? "WITHDRAW" : "DEPOSIT", day});
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO bank_transaction (bank_transaction_id, year, month, day, user_id, bank_code, transaction_amount, transaction_type, transaction_date)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, DATEADD('DAY', ? - 1, DATE '2022-01-01'))", rows);
+    }
+
+    @DisplayName("거래내역 1,000 행 페이지 조회 - 엔티티 조회 후 복사")
+    @Test
+    public void FindPage_1000_Entity() {
+        measure("ENTITY", page -> bankTransactionQueryRepository.findAllBankTransactionByUser(null, null, page, CountStrategy.NONE).getContents()
+                .stream()
+                .map(BankTransactionResponse::new)
+                .collect(Collectors.toList()));
+    }
+
+    @DisplayName("거래내역 1,000 행 페이지 조회 - DTO 로 바로 조회")
+    @Test
+    public void FindPage_1000_Projection() {
+        measure("PROJECTION", page -> bankTransactionQueryRepository.findAllBankTransactionResponseByUser(null, null, page, CountStrategy.NONE).getContents());
+    }
+
+    @DisplayName("거래내역 1,000 행 페이지 조회 - 두 방법의 결과가 같다.")
+    @Test
+    public void FindPage_1000_SameContents() {
+
+        // given
+        Pageable pageable = PageRequest.of(3, PAGE_SIZE);
+
+        // when
+        List<BankTransactionResponse> copied = bankTransactionQueryRepository.findAllBankTransactionByUser(null, null, pageable, CountStrategy.NONE).getContents()
+                .stream()
+                .map(BankTransactionResponse::new)
+                .collect(Collectors.toList());
+        List<BankTransactionResponse> projected = bankTransactionQueryRepository.findAllBankTransactionResponseByUser(null, null, pageable, CountStrategy.NONE).getContents();
+
+        // then
+        assertThat(projected).hasSize(PAGE_SIZE);
+        assertThat(projected).isEqualTo(copied);
+    }
+
+    private void measure(String name, Function<Pageable, List<BankTransactionResponse>> findPage) {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int pages = ROW_COUNT / PAGE_SIZE;
+
+        for (int i = 0; i < WARM_UP; i++) {
+            findPage.apply(PageRequest.of(i % pages, PAGE_SIZE));
+            entityManager.clear();
+        }
+
+        long elapsedNanos = 0;
+        long allocatedBytes = 0;
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            Pageable pageable = PageRequest.of(i % pages, PAGE_SIZE);
+
+            long bytesBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+
+            List<BankTransactionResponse> contents = findPage.apply(pageable);
+
+            elapsedNanos += System.nanoTime() - start;
+            allocatedBytes += threadMXBean.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+            assertThat(contents).hasSize(PAGE_SIZE);
+            entityManager.clear();      // 다음 페이지 조회가 1차 캐시를 재사용하지 않도록 한다.
+        }
+
+        log.info("[{}] {} rows/page, {} us/page, {} KB/page"
+                , name, PAGE_SIZE, elapsedNanos / ITERATIONS / 1000, allocatedBytes / ITERATIONS / 1024);
+    }
+}
@@ -0,0 +1,308 @@
+package com.brandpark.api.bank_transaction.shard;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.brandpark.api.bank_transaction.dto.BankTransactionResponse;
+import com.brandpark.api.bank_transaction.dto.CursorResult;
+import com.brandpark.api.bank_transaction.dto.PageResult;
+import com.brandpark.api.bank_transaction.query.CountStrategy;
+import com.brandpark.api.bank_transaction.store.TransactionCondition;
+import com.brandpark.api.bank_transaction.store.TransactionStore;
+import com.brandpark.api.upload.UploadEngine;
+import com.brandpark.api.upload.job.UploadJobStatus;
+import com.brandpark.api.upload.job.dto.UploadJobResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.Mockito.doReturn;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {"aggregate.counter.enabled=true", "storage.backend=sharded", "storage.shard.count=3"
+        , "storage.shard.url=jdbc:h2:mem:shard-test-{shard};DB_CLOSE_DELAY=-1", "logging.level.org.springframework.jdbc.core=info"})
+class ShardedTransactionStoreTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired TransactionStore transactionStore;
+    @SpyBean TransactionShards transactionShards;
+
+    @DisplayName("유저ID 로 샤드에 나누어 저장하고, 모든 샤드의 결과를 병합하여 페이지 조회")
+    @Test
+    public void UploadAndFindAcrossShards() throws Exception {
+
+        // given
+        LocalDate transactionDate = LocalDate.of(2017, 3, 1);
+        List<BankTransactionResponse> rows = randomRows(9_400_000L, transactionDate, 500);
+
+        // when
+        upload(rows, status().isOk());
+
+        // then
+        assertThat(transactionStore).isInstanceOf(ShardedTransactionStore.class);
+
+        for (int shard = 0; shard < transactionShards.size(); shard++) {
+            int s = shard;
+            long expected = rows.stream().filter(r -> transactionShards.shardOf(r.getUserId()) == s).count();
+
+            assertThat(countRows(shard, transactionDate)).isEqualTo(expected).isPositive();
+        }
+
+        List<Long> expected = rows.stream()
+                .sorted(TransactionCondition.USER_ORDER)
+                .map(BankTransactionResponse::getBankTransactionId)
+                .collect(Collectors.toList());
+
+        for (CountStrategy countStrategy : new CountStrategy[]{CountStrategy.EXACT, CountStrategy.APPROXIMATE, CountStrategy.CACHED, CountStrategy.NONE}) {
+            for (int page = 0; page < 9; page++) {
+                PageResult<BankTransactionResponse> result = transactionStore.findAllByUser(transactionDate, null, PageRequest.of(page, 60), countStrategy);
+
+                assertThat(ids(result)).isEqualTo(expected.subList(Math.min(page * 60, expected.size()), Math.min(page * 60 + 60, expected.size())));
+                assertThat(result.getTotalElements()).isEqualTo(countStrategy == CountStrategy.NONE ? -1 : expected.size());
+            }
+        }
+    }
+
+    @DisplayName("은행별 조회도 모든 샤드에서 은행코드 순서로 병합")
+    @Test
+    public void FindByBank() throws Exception {
+
+        // given
+        upload(List.of(
+                new BankTransactionResponse(9_410_003L, 1L, BankCode.SH, TransactionType.DEPOSIT, LocalDate.of(2017, 4, 3), 100)
+                , new BankTransactionResponse(9_410_001L, 2L, BankCode.KB, TransactionType.DEPOSIT, LocalDate.of(2017, 4, 3), 100)
+                , new BankTransactionResponse(9_410_002L, 3L, BankCode.KB, TransactionType.WITHDRAW, LocalDate.of(2017, 4, 3), 100)
+                , new BankTransactionResponse(9_410_004L, 4L, BankCode.KB, TransactionType.DEPOSIT, LocalDate.of(2017, 4, 4), 100)), status().isOk());
+
+        // when, then
+        mockMvc.perform(get("/api/v1/bank-transactions/by-bank").param("transaction_date", "2017-04-03"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.contents[*].bankTransactionId").value(contains(9_410_001, 9_410_002, 9_410_003)));
+
+        mockMvc.perform(get("/api/v1/bank-transactions/by-bank").param("transaction_date", "2017-04-03").param("bank_code", "004"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.contents[*].bankTransactionId").value(contains(9_410_001, 9_410_002)));
+    }
+
+    @DisplayName("업로드가 실패하면 이미 샤드에 쓴 행도 롤백")
+    @Test
+    public void RollbackAllShards_WhenUploadFails() throws Exception {
+
+        // given
+        LocalDate transactionDate = LocalDate.of(2017, 5, 1);
+        List<BankTransactionResponse> rows = randomRows(9_420_000L, transactionDate, 300);
+
+        String csv = csv(rows) + "\n9429999,2017,5,1,1,111,100,DEPOSIT";     // 버퍼를 몇 번 저장한 뒤의 잘못된 은행 코드 111
+
+        // when
+        mockMvc.perform(multipart("/api/v1/bank-transactions/persist-csv")
+                        .file(new MockMultipartFile("file", "transaction.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)))
+                        .param("engine", UploadEngine.JDBC.name()))
+                .andExpect(status().isBadRequest());
+
+        // then
+        for (int shard = 0; shard < transactionShards.size(); shard++) {
+            assertThat(countRows(shard, transactionDate)).isZero();
+        }
+    }
+
+    @DisplayName("업로드 트랜잭션이 커밋된 뒤 샤드 하나의 커밋이 실패하면 나머지 샤드는 커밋하고, 작업은 재개할 수 없는 중단 상태가 된다.")
+    @Test
+    public void AbortUploadJob_When_ShardCommitFailsAfterUploadCommitted() throws Exception {
+
+        // given
+        LocalDate transactionDate = LocalDate.of(2017, 6, 1);
+        List<BankTransactionResponse> rows = randomRows(9_450_000L, transactionDate, 300);
+        int failingShard = 1;
+
+        doReturn(failingCommit(transactionShards.dataSource(failingShard))).when(transactionShards).dataSource(failingShard);
+
+        // when
+        MvcResult accepted = mockMvc.perform(multipart("/api/v1/bank-transactions/persist-csv")
+                        .file(new MockMultipartFile("file", "transaction.csv", "text/csv", csv(rows).getBytes(StandardCharsets.UTF_8)))
+                        .param("async", "true")
+                        .param("engine", UploadEngine.JDBC.name()))
+                .andExpect(status().isAccepted())
+                .andReturn();
+
+        UploadJobResponse aborted = awaitFinished(readJob(accepted).getJobId());
+
+        // then
+        assertThat(aborted.getStatus()).isEqualTo(UploadJobStatus.ABORTED);
+
+        for (int shard = 0; shard < transactionShards.size(); shard++) {
+            int s = shard;
+            long expected = shard == failingShard ? 0 : rows.stream().filter(r -> transactionShards.shardOf(r.getUserId()) == s).count();
+
+            assertThat(countRows(shard, transactionDate)).isEqualTo(expected);
+        }
+
+        mockMvc.perform(post("/api/v1/upload-jobs/{id}/resume", aborted.getJobId()))
+                .andExpect(status().isConflict());
+    }
+
+    @DisplayName("커서 조회와 내보내기는 모든 샤드에 커서 다음 행을 요청하고 병합하여 이어서 조회")
+    @Test
+    public void FindAfterAndExportAcrossShards() throws Exception {
+
+        // given
+        LocalDate first = LocalDate.of(2017, 4, 1);
+        LocalDate second = first.plusDays(1);
+        List<BankTransactionResponse> firstRows = randomRows(9_430_000L, first, 1500);     // 내보내기의 한 번 조회(1000) 보다 많이
+        List<BankTransactionResponse> secondRows = randomRows(9_440_000L, second, 300);
+
+        upload(firstRows, status().isOk());
+        upload(secondRows, status().isOk());
+
+        // when
+        List<Long> byUser = readAll(cursor -> transactionStore.findAllByUserAfter(first, null, cursor, 70));
+        List<Long> byBank = readAll(cursor -> transactionStore.findAllByBankAfter(second, TransactionType.DEPOSIT, BankCode.KB, cursor, 20));
+        List<Long> exported = new ArrayList<>();
+
+        transactionStore.forEachByUser(first, null, null, (id, userId, bankCode, type, date, amount) -> exported.add(id));
+
+        // then
+        assertThat(byUser).isEqualTo(expected(firstRows, TransactionCondition.USER_ORDER, r -> true));
+        assertThat(byBank).isEqualTo(expected(secondRows, TransactionCondition.BANK_ORDER
+                , r -> r.getBankCode().equals(BankCode.KB.getCode()) && r.getTransactionType().equals(TransactionType.DEPOSIT.name())));
+        assertThat(exported).isEqualTo(expected(firstRows, TransactionCondition.USER_ORDER, r -> true));
+    }
+
+    private long countRows(int shard, LocalDate transactionDate) {
+        Long count = transactionShards.jdbcTemplate(shard).queryForObject(
+                "SELECT COUNT(*) FROM bank_transaction WHERE transaction_date = ?", Long.class, transactionDate);
+        return count == null ? 0 : count;
+    }
+
+    private void upload(List<BankTransactionResponse> rows, ResultMatcher expected) throws Exception {
+        mockMvc.perform(multipart("/api/v1/bank-transactions/persist-csv")
+                        .file(new MockMultipartFile("file", "transaction.csv", "text/csv", csv(rows).getBytes(StandardCharsets.UTF_8)))
+                        .param("engine", UploadEngine.JDBC.name()))
+                .andExpect(expected);
+    }
+
+    private UploadJobResponse awaitFinished(String jobId) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+
+        while (true) {
+            UploadJobResponse job = readJob(mockMvc.perform(get("/api/v1/upload-jobs/{id}", jobId))
+                    .andExpect(status().isOk())
+                    .andReturn());
+
+            if (job.getStatus() != UploadJobStatus.QUEUED && job.getStatus() != UploadJobStatus.RUNNING) {
+                return job;
+            }
+
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private UploadJobResponse readJob(MvcResult result) throws Exception {
+        return objectMapper.readValue(result.getResponse().getContentAsString(StandardCharsets.UTF_8), UploadJobResponse.class);
+    }
+
+    /*
+     * 커밋만 실패하는 커넥션을 주는 DataSource
+     */
+    private static DataSource failingCommit(DataSource dataSource) {
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection connection = super.getConnection();
+
+                return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class[]{Connection.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("commit")) {
+                        throw new SQLException("샤드 커밋 실패");
+                    }
+
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+            }
+        };
+    }
+
+    private static String csv(List<BankTransactionResponse> rows) {
+        return rows.stream()
+                .map(r -> {
+                    LocalDate date = LocalDate.parse(r.getTransactionDate());
+                    return String.join(",", String.valueOf(r.getBankTransactionId()), String.valueOf(date.getYear()), String.valueOf(date.getMonthValue())
+                            , String.valueOf(date.getDayOfMonth()), String.valueOf(r.getUserId()), r.getBankCode(), String.valueOf(r.getTransactionAmount()), r.getTransactionType());
+                })
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static List<BankTransactionResponse> randomRows(long firstId, LocalDate transactionDate, int size) {
+        Random random = new Random(firstId);
+        BankCode[] bankCodes = BankCode.values();
+        List<BankTransactionResponse> rows = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            rows.add(new BankTransactionResponse(firstId + i, (long) random.nextInt(40) + 1, bankCodes[random.nextInt(bankCodes.length)]
+                    , random.nextBoolean() ? TransactionType.DEPOSIT : TransactionType.WITHDRAW, transactionDate, random.nextInt(10000) + 1));
+        }
+
+        return rows;
+    }
+
+    private static List<Long> readAll(Function<String, CursorResult<BankTransactionResponse>> findAfter) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+
+        do {
+            CursorResult<BankTransactionResponse> result = findAfter.apply(cursor);
+            result.getContents().forEach(r -> ids.add(r.getBankTransactionId()));
+            cursor = result.getNextCursor();
+        } while (cursor != null);
+
+        return ids;
+    }
+
+    private static List<Long> expected(List<BankTransactionResponse> rows, Comparator<BankTransactionResponse> order, Predicate<BankTransactionResponse> filter) {
+        return rows.stream().filter(filter).sorted(order).map(BankTransactionResponse::getBankTransactionId).collect(Collectors.toList());
+    }
+
+    private static List<Long> ids(PageResult<BankTransactionResponse> result) {
+        return result.getContents().stream().map(BankTransactionResponse::getBankTransactionId).collect(Collectors.toList());
+    }
+}
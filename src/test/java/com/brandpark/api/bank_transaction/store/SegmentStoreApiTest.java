@@ -0,0 +1,114 @@
+package com.brandpark.api.bank_transaction.store;
+
+import com.brandpark.api.upload.UploadEngine;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "storage.backend=segment")
+class SegmentStoreApiTest {
+
+    @TempDir static Path dir;
+
+    @Autowired MockMvc mockMvc;
+    @Autowired TransactionStore transactionStore;
+
+    @DynamicPropertySource
+    static void segmentDir(DynamicPropertyRegistry registry) {
+        registry.add("storage.segment.dir", () -> dir.toString());
+    }
+
+    @DisplayName("segment 저장소 - 업로드한 거래내역을 세그먼트에서 조회")
+    @Test
+    public void UploadAndFind() throws Exception {
+
+        // given
+        byte[] contents = ("9210003,2022,4,1,9210002,011,3000,DEPOSIT\n"
+                + "9210001,2022,4,1,9210002,004,1000,WITHDRAW\n"
+                + "9210002,2022,4,1,9210001,088,2000,DEPOSIT\n"
+                + "9210004,2022,4,2,9210001,004,4000,DEPOSIT\n").getBytes(StandardCharsets.UTF_8);
+
+        // when
+        mockMvc.perform(multipart("/api/v1/bank-transactions/persist-csv")
+                .file(new MockMultipartFile("file", "transaction.csv", "text/csv", contents))
+                .param("engine", UploadEngine.JDBC.name()))
+                .andExpect(status().isOk());
+
+        // then
+        assertThat(transactionStore).isInstanceOf(SegmentTransactionStore.class);
+
+        mockMvc.perform(get("/api/v1/bank-transactions/by-user").param("transaction_date", "2022-04-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.contents[*].bankTransactionId").value(contains(9210002, 9210001, 9210003)));
+
+        mockMvc.perform(get("/api/v1/bank-transactions/by-bank").param("transaction_date", "2022-04-01").param("transaction_type", "DEPOSIT"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.contents[*].bankTransactionId").value(contains(9210003, 9210002)));
+    }
+
+    @DisplayName("segment 저장소 - 커서 조회와 내보내기도 세그먼트에서 읽는다.")
+    @Test
+    public void CursorAndExport() throws Exception {
+
+        // given
+        byte[] contents = ("9220003,2022,5,1,9220002,011,3000,DEPOSIT\n"
+                + "9220001,2022,5,1,9220002,004,1000,WITHDRAW\n"
+                + "9220002,2022,5,1,9220001,088,2000,DEPOSIT\n").getBytes(StandardCharsets.UTF_8);
+
+        mockMvc.perform(multipart("/api/v1/bank-transactions/persist-csv")
+                .file(new MockMultipartFile("file", "transaction.csv", "text/csv", contents))
+                .param("engine", UploadEngine.JDBC.name()))
+                .andExpect(status().isOk());
+
+        // when
+        String nextCursor = JsonPath.read(mockMvc.perform(get("/api/v1/bank-transactions/by-user/cursor").param("transaction_date", "2022-05-01").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contents[*].bankTransactionId").value(contains(9220002, 9220001)))
+                .andReturn().getResponse().getContentAsString(), "$.nextCursor");
+
+        // then
+        mockMvc.perform(get("/api/v1/bank-transactions/by-user/cursor").param("transaction_date", "2022-05-01").param("cursor", nextCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.contents[*].bankTransactionId").value(contains(9220003)));
+
+        mockMvc.perform(get("/api/v1/bank-transactions/by-bank/cursor").param("transaction_date", "2022-05-01").param("bank_code", "088"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contents[*].bankTransactionId").value(contains(9220002)));
+
+        MvcResult export = mockMvc.perform(get("/api/v1/bank-transactions/export").param("transaction_date", "2022-05-01").param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertThat(mockMvc.perform(asyncDispatch(export)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString())
+                .isEqualTo("9220002,2022,5,1,9220001,088,2000,DEPOSIT\n"
+                        + "9220001,2022,5,1,9220002,004,1000,WITHDRAW\n"
+                        + "9220003,2022,5,1,9220002,011,3000,DEPOSIT\n");
+    }
+}
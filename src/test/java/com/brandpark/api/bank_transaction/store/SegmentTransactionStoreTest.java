@@ -0,0 +1,304 @@
+package com.brandpark.api.bank_transaction.store;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.brandpark.api.bank_transaction.dto.BankTransactionResponse;
+import com.brandpark.api.bank_transaction.dto.CursorResult;
+import com.brandpark.api.bank_transaction.dto.PageResult;
+import com.brandpark.api.bank_transaction.query.CountStrategy;
+import com.brandpark.api.upload.BankTransactionRowBuffer;
+import com.brandpark.api.upload.UploadEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SegmentTransactionStoreTest {
+
+    private static final LocalDate FIRST_DATE = LocalDate.of(2022, 3, 1);
+    private static final int INDEX_INTERVAL = 4;    // 희소 인덱스를 거치도록 작게 잡는다.
+
+    @TempDir Path dir;
+
+    List<Row> rows = new ArrayList<>();
+    Random random = new Random(21);
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @DisplayName("여러 번 저장한 세그먼트를 병합하여 유저별 순서로 조회한다.")
+    @Test
+    public void FindAllByUser_MergeSegments() throws Exception {
+
+        // given
+        SegmentTransactionStore store = new SegmentTransactionStore(dir.toString(), INDEX_INTERVAL);
+
+        for (int i = 0; i < 3; i++) {
+            store.append(randomRows(i * 1000L, 300), UploadEngine.JDBC);
+        }
+
+        // when, then
+        for (TransactionType type : new TransactionType[]{null, TransactionType.DEPOSIT, TransactionType.WITHDRAW}) {
+            List<Long> expected = expected(Comparator.comparing((Row r) -> r.date).thenComparingLong(r -> r.userId), null, type, null);
+
+            for (int page = 0; page < 20; page++) {
+                PageResult<BankTransactionResponse> result = store.findAllByUser(null, type, PageRequest.of(page, 37), CountStrategy.EXACT);
+
+                assertThat(ids(result)).isEqualTo(slice(expected, page * 37, 37));
+                assertThat(result.getTotalElements()).isEqualTo(expected.size());
+            }
+        }
+    }
+
+    @DisplayName("거래일자, 거래타입, 은행코드 조건으로 은행별 순서로 조회한다.")
+    @Test
+    public void FindAllByBank_Filter() throws Exception {
+
+        // given
+        SegmentTransactionStore store = new SegmentTransactionStore(dir.toString(), INDEX_INTERVAL);
+
+        store.append(randomRows(0, 500), UploadEngine.JDBC);
+        store.append(randomRows(1000, 500), UploadEngine.JDBC);
+
+        LocalDate date = FIRST_DATE.plusDays(1);
+
+        // when, then
+        for (BankCode bankCode : new BankCode[]{null, BankCode.KB, BankCode.SH, BankCode.KK}) {
+            for (TransactionType type : new TransactionType[]{null, TransactionType.WITHDRAW}) {
+                List<Long> expected = expected(Comparator.comparing((Row r) -> r.bankCode.getCode()), date, type, bankCode);
+
+                for (int page = 0; page < 6; page++) {
+                    PageResult<BankTransactionResponse> result = store.findAllByBank(date, type, bankCode, PageRequest.of(page, 20), CountStrategy.EXACT);
+
+                    assertThat(ids(result)).isEqualTo(slice(expected, page * 20, 20));
+                    assertThat(result.getTotalElements()).isEqualTo(expected.size());
+                }
+            }
+        }
+
+        assertThat(store.findAllByBank(FIRST_DATE.minusDays(1), null, null, PageRequest.of(0, 20), CountStrategy.EXACT).getTotalElements()).isZero();
+    }
+
+    @DisplayName("countStrategy 가 NONE 이면 전체 개수 없이 다음 페이지가 있는지만 알려준다.")
+    @Test
+    public void FindPage_Slice_When_CountNone() throws Exception {
+
+        // given
+        SegmentTransactionStore store = new SegmentTransactionStore(dir.toString(), INDEX_INTERVAL);
+        store.append(randomRows(0, 100), UploadEngine.JDBC);
+
+        // when
+        PageResult<BankTransactionResponse> first = store.findAllByUser(null, null, PageRequest.of(0, 60), CountStrategy.NONE);
+        PageResult<BankTransactionResponse> last = store.findAllByUser(null, null, PageRequest.of(1, 60), CountStrategy.NONE);
+
+        // then
+        assertThat(first.getContentsSize()).isEqualTo(60);
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(first.getTotalElements()).isEqualTo(-1);
+
+        assertThat(last.getContentsSize()).isEqualTo(40);
+        assertThat(last.isHasNext()).isFalse();
+    }
+
+    @DisplayName("커서 조회는 세그먼트를 병합하며 이전 페이지의 마지막 행 다음부터 이어서 조회한다.")
+    @Test
+    public void FindAllAfter_MergeSegments() throws Exception {
+
+        // given
+        SegmentTransactionStore store = new SegmentTransactionStore(dir.toString(), INDEX_INTERVAL);
+
+        for (int i = 0; i < 3; i++) {
+            store.append(randomRows(i * 1000L, 300), UploadEngine.JDBC);
+        }
+
+        LocalDate date = FIRST_DATE.plusDays(1);
+
+        // when, then
+        for (TransactionType type : new TransactionType[]{null, TransactionType.DEPOSIT}) {
+            assertThat(readAll(cursor -> store.findAllByUserAfter(null, type, cursor, 23)))
+                    .isEqualTo(expected(Comparator.comparing((Row r) -> r.date).thenComparingLong(r -> r.userId), null, type, null));
+
+            assertThat(readAll(cursor -> store.findAllByUserAfter(date, type, cursor, 23)))
+                    .isEqualTo(expected(Comparator.comparingLong(r -> r.userId), date, type, null));
+
+            for (BankCode bankCode : new BankCode[]{null, BankCode.KB}) {
+                assertThat(readAll(cursor -> store.findAllByBankAfter(null, type, bankCode, cursor, 23)))
+                        .isEqualTo(expected(Comparator.comparing((Row r) -> r.date).thenComparing(r -> r.bankCode.getCode()), null, type, bankCode));
+            }
+        }
+    }
+
+    @DisplayName("내보내기는 조건에 맞는 행을 유저별 순서로 하나씩 넘긴다.")
+    @Test
+    public void ForEachByUser() throws Exception {
+
+        // given
+        SegmentTransactionStore store = new SegmentTransactionStore(dir.toString(), INDEX_INTERVAL);
+
+        store.append(randomRows(0, 300), UploadEngine.JDBC);
+        store.append(randomRows(1000, 300), UploadEngine.JDBC);
+
+        List<Long> ids = new ArrayList<>();
+
+        // when
+        store.forEachByUser(null, TransactionType.WITHDRAW, BankCode.SH, (id, userId, bankCode, type, date, amount) -> ids.add(id));
+
+        // then
+        assertThat(ids).isEqualTo(expected(Comparator.comparing((Row r) -> r.date).thenComparingLong(r -> r.userId), null, TransactionType.WITHDRAW, BankCode.SH));
+    }
+
+    @DisplayName("다시 열면 세그먼트 파일을 읽고, 끝나지 않은 업로드의 임시 파일은 지운다.")
+    @Test
+    public void Reopen_LoadSegments_And_DeleteLeftovers() throws Exception {
+
+        // given
+        new SegmentTransactionStore(dir.toString(), INDEX_INTERVAL).append(randomRows(0, 200), UploadEngine.JDBC);
+
+        Path staging = Files.createFile(dir.resolve("unfinished.staging"));
+        Path tmp = Files.createFile(dir.resolve(FIRST_DATE.toString()).resolve("unfinished.user.seg.tmp"));
+
+        // when
+        SegmentTransactionStore reopened = new SegmentTransactionStore(dir.toString(), INDEX_INTERVAL);
+
+        // then
+        List<Long> expected = expected(Comparator.comparing((Row r) -> r.date).thenComparingLong(r -> r.userId), null, null, null);
+
+        assertThat(ids(reopened.findAllByUser(null, null, PageRequest.of(0, 1000), CountStrategy.EXACT))).isEqualTo(expected);
+        assertThat(staging).doesNotExist();
+        assertThat(tmp).doesNotExist();
+    }
+
+    @DisplayName("트랜잭션 안에서 저장한 행은 커밋된 뒤에 조회되고, 롤백되면 파일을 남기지 않는다.")
+    @Test
+    public void Append_VisibleAfterCommit() throws Exception {
+
+        // given
+        SegmentTransactionStore store = new SegmentTransactionStore(dir.toString(), INDEX_INTERVAL);
+
+        // when : 커밋
+        TransactionSynchronizationManager.initSynchronization();
+        store.append(randomRows(0, 50), UploadEngine.JDBC);
+        store.append(randomRows(100, 50), UploadEngine.JDBC);
+
+        long beforeCommit = store.findAllByUser(null, null, PageRequest.of(0, 20), CountStrategy.EXACT).getTotalElements();
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        // then
+        assertThat(beforeCommit).isZero();
+        assertThat(store.findAllByUser(null, null, PageRequest.of(0, 20), CountStrategy.EXACT).getTotalElements()).isEqualTo(100);
+
+        // when : 롤백
+        List<Path> committedFiles = files();
+
+        TransactionSynchronizationManager.initSynchronization();
+        store.append(randomRows(200, 50), UploadEngine.JDBC);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // then
+        assertThat(store.findAllByUser(null, null, PageRequest.of(0, 20), CountStrategy.EXACT).getTotalElements()).isEqualTo(100);
+        assertThat(files()).isEqualTo(committedFiles);
+    }
+
+    private void complete(int status) {
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        }
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+    }
+
+    private List<Path> files() throws Exception {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            return walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private BankTransactionRowBuffer randomRows(long firstId, int count) {
+        BankTransactionRowBuffer buff = new BankTransactionRowBuffer(count);
+        BankCode[] bankCodes = BankCode.values();
+        TransactionType[] types = TransactionType.values();
+
+        for (int i = 0; i < count; i++) {
+            Row row = new Row(firstId + i, FIRST_DATE.plusDays(random.nextInt(3)), random.nextInt(40) + 1
+                    , bankCodes[random.nextInt(bankCodes.length)], types[random.nextInt(types.length)], random.nextInt(100000));
+
+            rows.add(row);
+            buff.add(row.id, row.date.getYear(), row.date.getMonthValue(), row.date.getDayOfMonth(), row.userId, row.bankCode, row.amount, row.type);
+        }
+
+        return buff;
+    }
+
+    private List<Long> expected(Comparator<Row> order, LocalDate date, TransactionType type, BankCode bankCode) {
+        return rows.stream()
+                .filter(r -> date == null || r.date.equals(date))
+                .filter(r -> type == null || r.type == type)
+                .filter(r -> bankCode == null || r.bankCode == bankCode)
+                .sorted(order.thenComparingLong(r -> r.id))
+                .map(r -> r.id)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Long> readAll(Function<String, CursorResult<BankTransactionResponse>> findAfter) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+
+        do {
+            CursorResult<BankTransactionResponse> result = findAfter.apply(cursor);
+            result.getContents().forEach(r -> ids.add(r.getBankTransactionId()));
+            cursor = result.getNextCursor();
+        } while (cursor != null);
+
+        return ids;
+    }
+
+    private static List<Long> slice(List<Long> list, int offset, int size) {
+        return list.subList(Math.min(offset, list.size()), Math.min(offset + size, list.size()));
+    }
+
+    private static List<Long> ids(PageResult<BankTransactionResponse> result) {
+        return result.getContents().stream().map(BankTransactionResponse::getBankTransactionId).collect(Collectors.toList());
+    }
+
+    private static class Row {
+        final long id;
+        final LocalDate date;
+        final long userId;
+        final BankCode bankCode;
+        final TransactionType type;
+        final long amount;
+
+        Row(long id, LocalDate date, long userId, BankCode bankCode, TransactionType type, long amount) {
+            this.id = id;
+            this.date = date;
+            this.userId = userId;
+            this.bankCode = bankCode;
+            this.type = type;
+            this.amount = amount;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.brandpark.api.bank_transaction.summary;
+
+import com.brandpark.api.bank_transaction.domain.BankTransactionRepository;
+import com.brandpark.api.bank_transaction.dto.BankSummaryResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "aggregate.bank-summary.enabled=true")
+class BankTransactionSummaryApiControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired BankTransactionRepository bankTransactionRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        String contents = "1,2022,1,1,3,011,29000,DEPOSIT\n"
+                + "2,2022,1,1,2,004,1000,DEPOSIT\n"
+                + "3,2022,1,1,2,004,500,WITHDRAW\n"
+                + "4,2022,1,1,2,004,3000,DEPOSIT\n"
+                + "5,2022,1,2,3,011,7000,WITHDRAW\n";
+
+        MockMultipartFile csvFile
+                = new MockMultipartFile("file", "transaction.csv", "text/csv", contents.getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/api/v1/bank-transactions/persist-csv")
+                        .file(csvFile))
+                .andExpect(status().isOk());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bankTransactionRepository.deleteAllInBatch();
+        jdbcTemplate.update("DELETE FROM bank_daily_summary");
+    }
+
+    @DisplayName("은행별 거래 요약 조회 - 업로드한 거래가 (거래일자, 은행코드, 거래타입) 별로 집계되어 있다.")
+    @Test
+    public void RetrieveSummaryByBank() throws Exception {
+
+        // when
+        String body = mockMvc.perform(get("/api/v1/bank-transactions/summary/by-bank")
+                        .param("transaction_date", "2022-01-01"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        // then
+        List<BankSummaryResponse> summaries = objectMapper.readValue(body, new TypeReference<>() {});
+
+        assertThat(summaries).containsExactly(
+                new BankSummaryResponse("2022-01-01", "004", "DEPOSIT", 2, 4000)
+                , new BankSummaryResponse("2022-01-01", "004", "WITHDRAW", 1, 500)
+                , new BankSummaryResponse("2022-01-01", "011", "DEPOSIT", 1, 29000));
+    }
+}
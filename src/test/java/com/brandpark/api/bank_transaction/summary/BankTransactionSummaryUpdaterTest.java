@@ -0,0 +1,89 @@
+package com.brandpark.api.bank_transaction.summary;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.brandpark.api.bank_transaction.dto.BankSummaryResponse;
+import com.brandpark.api.upload.BankTransactionRowBuffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)    // chunk 트랜잭션을 직접 커밋한다.
+@DataJpaTest
+class BankTransactionSummaryUpdaterTest {
+
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+    BankTransactionSummaryRepository bankTransactionSummaryRepository;
+    BankTransactionSummaryUpdater bankTransactionSummaryUpdater;
+
+    @BeforeEach
+    public void setUp() {
+        bankTransactionSummaryRepository = new BankTransactionSummaryRepository(jdbcTemplate);
+        bankTransactionSummaryUpdater = new BankTransactionSummaryUpdater(bankTransactionSummaryRepository);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM bank_daily_summary");
+    }
+
+    @DisplayName("chunk 트랜잭션의 batch 들을 (거래일자, 은행코드, 거래타입) 별 거래 수와 금액 합계로 모았다가 커밋할 때 누적한다.")
+    @Test
+    public void OnBatchInserted_AccumulatesBankSummary() throws Exception {
+
+        // given
+        BankTransactionRowBuffer batch = createBatch();
+
+        // when
+        bankTransactionSummaryUpdater.onBatchInserted(batch);     // 트랜잭션 밖에서는 바로 더한다.
+
+        List<BankSummaryResponse> beforeCommit = new TransactionTemplate(transactionManager).execute(status -> {
+            bankTransactionSummaryUpdater.onBatchInserted(batch);
+            bankTransactionSummaryUpdater.onBatchInserted(batch);
+            return bankTransactionSummaryRepository.findAllByBank(null, null, null);
+        });
+
+        // then
+        assertThat(beforeCommit).containsExactly(
+                new BankSummaryResponse("2022-01-01", "004", "DEPOSIT", 2, 3000)
+                , new BankSummaryResponse("2022-01-01", "011", "WITHDRAW", 1, 500)
+                , new BankSummaryResponse("2022-01-02", "004", "DEPOSIT", 1, 4000));
+
+        List<BankSummaryResponse> all = bankTransactionSummaryRepository.findAllByBank(null, null, null);
+
+        assertThat(all).containsExactly(
+                new BankSummaryResponse("2022-01-01", "004", "DEPOSIT", 6, 9000)
+                , new BankSummaryResponse("2022-01-01", "011", "WITHDRAW", 3, 1500)
+                , new BankSummaryResponse("2022-01-02", "004", "DEPOSIT", 3, 12000));
+
+        assertThat(bankTransactionSummaryRepository.findAllByBank(LocalDate.of(2022, 1, 1), TransactionType.DEPOSIT, BankCode.KB))
+                .containsExactly(new BankSummaryResponse("2022-01-01", "004", "DEPOSIT", 6, 9000));
+        assertThat(bankTransactionSummaryRepository.findAllByBank(null, null, BankCode.SH)).isEmpty();
+    }
+
+    private BankTransactionRowBuffer createBatch() {
+        BankTransactionRowBuffer batch = new BankTransactionRowBuffer(10);
+        batch.add(1, 2022, 1, 1, 1, BankCode.KB, 1000, TransactionType.DEPOSIT);
+        batch.add(2, 2022, 1, 1, 1, BankCode.KB, 2000, TransactionType.DEPOSIT);
+        batch.add(3, 2022, 1, 1, 3, BankCode.NH, 500, TransactionType.WITHDRAW);
+        batch.add(4, 2022, 1, 2, 1, BankCode.KB, 4000, TransactionType.DEPOSIT);
+
+        return batch;
+    }
+}
@@ -0,0 +1,151 @@
+package com.brandpark.api.replica;
+
+import com.brandpark.api.bank_transaction.store.BankTransactionTableDdl;
+import com.brandpark.api.upload.UploadEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 기본 DB(테스트의 내장 H2)와 복제 DB(이름 있는 메모리 H2) 두 개로 확인한다. 복제는 테스트가 복제 DB 에 직접 써서 흉내 낸다.
+ * 복제 DB 에만 있는 행이 조회되면 복제 DB 에서 읽은 것이다.
+ */
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {"datasource.replica.urls=" + ReadReplicaRoutingTest.REPLICA_URL
+        , "datasource.replica.max-lag=5s", "datasource.replica.probe-interval=1h"})
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica-test;DB_CLOSE_DELAY=-1";
+
+    @Autowired MockMvc mockMvc;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired ReadReplicas readReplicas;
+    @Autowired MeterRegistry meterRegistry;
+
+    JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @BeforeEach
+    public void createReplicaTables() {
+        BankTransactionTableDdl.copyOf(jdbcTemplate, BankTransactionTableDdl.TABLE_NAME, "").forEach(replica::execute);
+        replica.execute("CREATE TABLE IF NOT EXISTS replication_watermark (replication_watermark_id BIGINT PRIMARY KEY"
+                + ", upload_sequence BIGINT NOT NULL, updated_at TIMESTAMP NOT NULL)");
+    }
+
+    @DisplayName("토큰 없는 조회는 복제 DB 에서, 업로드가 응답한 토큰을 보낸 조회는 그 업로드를 반영한 DB 에서 읽는다.")
+    @Test
+    public void ReadYourUpload_WithConsistencyToken() throws Exception {
+
+        // given
+        insertIntoReplica(9_500_001L, LocalDate.of(2016, 1, 4));
+        replicateWatermark(primaryUploadSequence());
+        readReplicas.probe();
+
+        mockMvc.perform(get("/api/v1/bank-transactions/by-user").param("transaction_date", "2016-01-04"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contents[*].bankTransactionId").value(contains(9_500_001)));
+
+        // when
+        String token = mockMvc.perform(multipart("/api/v1/bank-transactions/persist-csv")
+                        .file(new MockMultipartFile("file", "transaction.csv", "text/csv"
+                                , ("9500011,2016,1,5,1,004,1000,DEPOSIT\n9500012,2016,1,5,2,004,1000,DEPOSIT").getBytes(StandardCharsets.UTF_8)))
+                        .param("engine", UploadEngine.JDBC.name()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(ConsistencyTokenInterceptor.HEADER))
+                .andReturn().getResponse().getHeader(ConsistencyTokenInterceptor.HEADER);
+
+        readReplicas.probe();
+
+        // then
+        assertThat(Long.parseLong(token)).isEqualTo(primaryUploadSequence());
+
+        mockMvc.perform(byUser("2016-01-05"))                     // 복제 DB 는 아직 업로드를 반영하지 못했다.
+                .andExpect(jsonPath("$.totalElements").value(0));
+        mockMvc.perform(byUser("2016-01-05").header(ConsistencyTokenInterceptor.HEADER, token))
+                .andExpect(jsonPath("$.contents[*].bankTransactionId").value(contains(9_500_011, 9_500_012)));
+
+        // 복제 DB 가 토큰의 업로드까지 반영하면 토큰을 보낸 조회도 복제 DB 에서 읽는다.
+        insertIntoReplica(9_500_011L, LocalDate.of(2016, 1, 5));
+        replicateWatermark(Long.parseLong(token));
+        readReplicas.probe();
+
+        mockMvc.perform(byUser("2016-01-05").header(ConsistencyTokenInterceptor.HEADER, token))
+                .andExpect(jsonPath("$.contents[*].bankTransactionId").value(contains(9_500_011)));
+
+        assertThat(meterRegistry.get("datasource.routing.reads").tag("target", "replica-0").counter().count()).isPositive();
+        assertThat(meterRegistry.get("datasource.routing.reads").tag("target", ReadReplicas.PRIMARY).counter().count()).isPositive();
+    }
+
+    @DisplayName("복제 지연이 max-lag 를 넘거나 복제 DB 가 응답하지 않으면 기본 DB 에서 읽는다.")
+    @Test
+    public void FallbackToPrimary_WhenReplicaLagsOrDown() throws Exception {
+
+        // given
+        insertIntoReplica(9_510_001L, LocalDate.of(2016, 2, 1));
+        replicateWatermark(primaryUploadSequence());
+
+        mockMvc.perform(multipart("/api/v1/bank-transactions/persist-csv")
+                        .file(new MockMultipartFile("file", "transaction.csv", "text/csv"
+                                , "9510011,2016,2,2,1,004,1000,DEPOSIT".getBytes(StandardCharsets.UTF_8)))
+                        .param("engine", UploadEngine.JDBC.name()))
+                .andExpect(status().isOk());
+
+        long now = System.currentTimeMillis();
+
+        // when, then
+        readReplicas.probe(now);
+        mockMvc.perform(byUser("2016-02-01")).andExpect(jsonPath("$.totalElements").value(1));
+
+        readReplicas.probe(now + 6_000);       // 복제 DB 가 반영하지 못한 업로드를 6초 전에 보았다.
+        mockMvc.perform(byUser("2016-02-01")).andExpect(jsonPath("$.totalElements").value(0));
+
+        replicateWatermark(primaryUploadSequence());
+        readReplicas.probe(now + 7_000);
+        mockMvc.perform(byUser("2016-02-01")).andExpect(jsonPath("$.totalElements").value(1));
+
+        replica.execute("DROP TABLE replication_watermark");
+        readReplicas.probe(now + 8_000);
+        mockMvc.perform(byUser("2016-02-01")).andExpect(jsonPath("$.totalElements").value(0));
+    }
+
+    private static MockHttpServletRequestBuilder byUser(String transactionDate) {
+        return get("/api/v1/bank-transactions/by-user").param("transaction_date", transactionDate);
+    }
+
+    private long primaryUploadSequence() {
+        return ReplicationWatermarkRepository.uploadSequence(jdbcTemplate);
+    }
+
+    private void insertIntoReplica(long id, LocalDate transactionDate) {
+        replica.update("INSERT INTO bank_transaction (bank_transaction_id, year, month, day, transaction_date, user_id, bank_code, transaction_amount, transaction_type)"
+                        + " VALUES (?, ?, ?, ?, ?, 1, '004', 1000, 'DEPOSIT')"
+                , id, transactionDate.getYear(), transactionDate.getMonthValue(), transactionDate.getDayOfMonth(), transactionDate);
+    }
+
+    private void replicateWatermark(long uploadSequence) {
+        replica.update("MERGE INTO replication_watermark (replication_watermark_id, upload_sequence, updated_at) KEY (replication_watermark_id) VALUES (?, ?, ?)"
+                , ReplicationWatermarkRepository.ID, uploadSequence, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,75 @@
+package com.brandpark.api.upload;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@DataJpaTest
+class DeferredIndexBuilderTest {
+
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @DisplayName("업로드 동안 보조 인덱스를 지우고, 동시에 진행된 마지막 업로드가 끝나면 다시 만든다.")
+    @Test
+    public void DropIndexesDuringUpload_And_RebuildAfterLastUpload() throws Exception {
+
+        // given
+        DeferredIndexBuilder deferredIndexBuilder = new DeferredIndexBuilder(jdbcTemplate, true);
+        List<String> indexes = secondaryIndexNames();
+
+        assertThat(indexes).contains("IDX_BANK_TRANSACTION_DATE_USER", "IDX_BANK_TRANSACTION_DATE_BANK");
+
+        // when
+        deferredIndexBuilder.beginUpload();
+        deferredIndexBuilder.beginUpload();
+
+        List<String> duringUpload = secondaryIndexNames();
+
+        deferredIndexBuilder.endUpload();
+
+        List<String> afterFirstUpload = secondaryIndexNames();
+
+        deferredIndexBuilder.endUpload();
+
+        // then
+        assertThat(duringUpload).isEmpty();
+        assertThat(afterFirstUpload).isEmpty();
+        assertThat(secondaryIndexNames()).containsExactlyInAnyOrderElementsOf(indexes);
+    }
+
+    @DisplayName("테이블에 이미 행이 있으면 업로드 동안에도 보조 인덱스를 지우지 않는다.")
+    @Test
+    public void KeepIndexesDuringUpload_When_TableHasRows() throws Exception {
+
+        // given
+        DeferredIndexBuilder deferredIndexBuilder = new DeferredIndexBuilder(jdbcTemplate, true);
+        List<String> indexes = secondaryIndexNames();
+
+        jdbcTemplate.update("INSERT INTO bank_transaction (bank_transaction_id, year, month, day, transaction_date, user_id, bank_code, transaction_amount, transaction_type)"
+                + " VALUES (1, 2021, 1, 1, DATE '2021-01-01', 1, '004', 1000, 'DEPOSIT')");
+
+        // when
+        deferredIndexBuilder.beginUpload();
+
+        List<String> duringUpload = secondaryIndexNames();
+
+        deferredIndexBuilder.endUpload();
+
+        // then
+        assertThat(duringUpload).containsExactlyInAnyOrderElementsOf(indexes);
+        assertThat(secondaryIndexNames()).containsExactlyInAnyOrderElementsOf(indexes);
+    }
+
+    private List<String> secondaryIndexNames() {
+        return jdbcTemplate.queryForList("SELECT DISTINCT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES"
+                + " WHERE TABLE_NAME = 'BANK_TRANSACTION' AND INDEX_NAME LIKE 'IDX_%'", String.class);
+    }
+}
@@ -0,0 +1,79 @@
+package com.brandpark.api.upload;
+
+import com.brandpark.api.bank_transaction.domain.BankTransactionRepository;
+import com.brandpark.api.upload.exception.CsvColumnNotValidException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {"upload.parallelism=4", "upload.chunk-rows=10"})
+class ParallelCsvUploaderTest {
+
+    @Autowired ParallelCsvUploader parallelCsvUploader;
+    @Autowired BankTransactionRepository bankTransactionRepository;
+
+    @AfterEach
+    public void tearDown() {
+        bankTransactionRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("csv 파일을 chunk 로 나누어 병렬로 저장 - 성공")
+    @Test
+    public void ParallelUpload_Success() throws Exception {
+
+        // given
+        int rowCount = 1005;
+        String contents = createCsv(rowCount, -1);
+
+        // when
+        long insertedRows = parallelCsvUploader.upload(new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8)), UploadEngine.JDBC, new UploadProgress());
+
+        // then
+        assertThat(parallelCsvUploader.isEnabled()).isTrue();
+        assertThat(insertedRows).isEqualTo(rowCount);
+        assertThat(bankTransactionRepository.count()).isEqualTo(rowCount);
+    }
+
+    @DisplayName("csv 파일을 chunk 로 나누어 병렬로 저장 - 실패(원본 파일 기준의 행 번호를 보고한다)")
+    @Test
+    public void ParallelUpload_Fail_Report_RowNumOfOriginalFile() throws Exception {
+
+        // given
+        int rowCount = 1000;
+        int invalidRow = 537;
+        String contents = createCsv(rowCount, invalidRow);
+
+        // when
+        CsvColumnNotValidException ex = Assertions.assertThrows(CsvColumnNotValidException.class, () -> {
+            parallelCsvUploader.upload(new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8)), UploadEngine.JPA, new UploadProgress());
+        });
+
+        // then
+        assertThat(ex.getRow()).isEqualTo(invalidRow);
+
+        long committed = bankTransactionRepository.count();
+        assertThat(committed % 10).isEqualTo(0);    // chunk 단위로만 커밋된다.
+        assertThat(committed).isLessThan(rowCount);
+    }
+
+    private String createCsv(int rowCount, int invalidRow) {
+        StringBuilder contents = new StringBuilder();
+
+        for (int i = 1; i <= rowCount; i++) {
+            String bankCode = i == invalidRow ? "111" : "004";
+            contents.append(i).append(",2021,1,").append(i % 28 + 1).append(",").append(i % 50).append(",").append(bankCode).append(",29000,DEPOSIT\n");
+        }
+
+        return contents.toString();
+    }
+}
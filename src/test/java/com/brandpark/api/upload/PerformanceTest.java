@@ -1,6 +1,8 @@
 package com.brandpark.api.upload;
 
 import com.brandpark.api.bank_transaction.domain.BankTransactionRepository;
+import com.brandpark.tool.SyntheticTransactionGenerator;
+import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,50 +15,68 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
-import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+@Slf4j
 @ActiveProfiles("test")
 @AutoConfigureMockMvc
 @Transactional
-@SpringBootTest
+@SpringBootTest(properties = "logging.level.org.springframework.jdbc.core=info")   // 집계 갱신 쿼리마다 남는 로그가 측정을 가리지 않도록
 public class PerformanceTest {
 
+    static final int ROW_COUNT = 100000;
+
     @Autowired MockMvc mockMvc;
     @Autowired BankTransactionRepository bankTransactionRepository;
     @Autowired EntityManager entityManager;
-    static StringBuilder csvContents;
+    static byte[] csvContents;
 
     @BeforeAll
     public static void beforeAll() {
-        csvContents = new StringBuilder();
-
-        for (int i = 1; i <= 100000; i++) {
-            csvContents.append(i).append(",2021,1,1,4,004,29000,DEPOSIT\n");
-        }
+        // 유저 1만 명, 한 달 동안의 거래. 한 유저/은행/날짜에 몰린 데이터는 인덱스 선택도와 집계 갱신 비용을 가린다.
+        csvContents = new SyntheticTransactionGenerator(42, 10_000, LocalDate.of(2021, 1, 1), 31).toBytes(ROW_COUNT, 1);
     }
 
     @DisplayName("Csv파일로부터 거래내역 10만개 저장")
     @Test
     public void SaveBankTransaction_100000_FromCsv() throws Exception {
+        uploadAndLogRowsPerSec(UploadEngine.JPA);
+    }
 
-        // given
-        String contents = csvContents.toString();   // 10만개
+    @DisplayName("Csv파일로부터 거래내역 10만개 저장(JDBC 엔진)")
+    @Test
+    public void SaveBankTransaction_100000_FromCsv_UsingJdbc() throws Exception {
+        uploadAndLogRowsPerSec(UploadEngine.JDBC);
+    }
+
+    private void uploadAndLogRowsPerSec(UploadEngine engine) throws Exception {
 
+        // given
         MockMultipartFile csvFile
-                = new MockMultipartFile("file", "transaction.csv", "text/csv", contents.getBytes(StandardCharsets.UTF_8));
+                = new MockMultipartFile("file", "transaction.csv", "text/csv", csvContents);   // 10만개
 
         // when
+        long start = System.nanoTime();
+
         mockMvc.perform(multipart("/api/v1/bank-transactions/persist-csv")
-                        .file(csvFile))
+                        .file(csvFile)
+                        .param("engine", engine.name()))
                 .andExpect(status().isOk());
 
         entityManager.flush();
+
+        long elapsedNanos = System.nanoTime() - start;
+
         entityManager.clear();
+
         // then
-//        long count = bankTransactionRepository.count();
-//        assertThat(count).isEqualTo(100000);
+        log.info("[{}] {} rows, {} ms, {} rows/sec"
+                , engine, ROW_COUNT, elapsedNanos / 1_000_000, (long) (ROW_COUNT / (elapsedNanos / 1_000_000_000.0)));
+
+        assertThat(bankTransactionRepository.count()).isEqualTo(ROW_COUNT);
     }
 }
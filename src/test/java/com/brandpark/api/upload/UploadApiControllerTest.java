@@ -6,7 +6,9 @@ import com.brandpark.api.bank_transaction.domain.BankTransaction;
 import com.brandpark.api.exception_handle.ApiError;
 import com.brandpark.api.upload.exception.CsvColumnNotValidException;
 import com.brandpark.api.upload.exception.IllegalFileFormatException;
+import com.brandpark.api.upload.exception.UploadFileTooLargeException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.airlift.compress.zstd.ZstdOutputStream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,11 +20,17 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
 
 import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
@@ -65,6 +73,28 @@ class UploadApiControllerTest {
                 });
     }
 
+    @DisplayName("csv 파일로부터 거래내역 저장 - 실패(upload.max-file-size 보다 큰 경우)")
+    @Test
+    public void BankTransactionPersistFromCsvFile_Fail_When_TooLarge() throws Exception {
+
+        // given
+        MockMultipartFile largeFile = new MockMultipartFile("file", "transaction.csv", "text/csv", "1,2021,1,1,4,004,29000,DEPOSIT".getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public long getSize() {
+                return DataSize.ofGigabytes(11).toBytes();      // 기본 최대 크기 10GB
+            }
+        };
+
+        // when
+        mockMvc.perform(multipart("/api/v1/bank-transactions/persist-csv")
+                        .file(largeFile))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(result -> assertThat(result.getResolvedException()).isInstanceOf(UploadFileTooLargeException.class));
+
+        // then
+        assertThat(bankTransactionRepository.count()).isZero();
+    }
+
     @DisplayName("csv 파일로부터 거래내역 저장 - 실패(컬럼이 하나 누락된 경우)")
     @Test
     public void BankTransactionPersistFromCsvFile_Fail_When_InvalidColumnCount() throws Exception {
@@ -182,4 +212,131 @@ class UploadApiControllerTest {
 
         AssertUtil.assertBankTransaction(actual, expectedCols);
     }
-}
\ No newline at end of file
+
+    @DisplayName("csv 파일로부터 거래내역 저장 - 성공(JDBC 엔진)")
+    @Test
+    public void BankTransactionPersistFromCsvFile_Success_When_JdbcEngine() throws Exception {
+
+        // given
+        String record1 = "1,2021,1,1,4,004,29000,DEPOSIT";
+        String record2 = "2,2021,1,1,5,020,88000,DEPOSIT";
+        String totalRecord = record1 + "\n" + record2;
+        int csvRowCount = 2;
+
+        MockMultipartFile csvFile
+                = new MockMultipartFile("file", "transaction.csv", "text/csv", totalRecord.getBytes(StandardCharsets.UTF_8));
+
+        // when
+        mockMvc.perform(multipart("/api/v1/bank-transactions/persist-csv")
+                        .file(csvFile)
+                        .param("engine", "JDBC"))
+                .andExpect(status().isOk())
+                .andExpect(result -> {
+
+                    String json = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+                    Long persistedRowCnt = objectMapper.readValue(json, Long.class);
+
+                    assertThat(persistedRowCnt).isEqualTo(csvRowCount);
+                });
+
+        entityManager.clear();
+
+        // then
+        List<BankTransaction> all = bankTransactionRepository.findAll();
+
+        assertThat(all).hasSize(csvRowCount);
+
+        BankTransaction actual = bankTransactionRepository.findById(1L).orElseThrow();
+        String[] expectedCols = record1.split(",");
+
+        AssertUtil.assertBankTransaction(actual, expectedCols);
+    }
+
+    @DisplayName("gzip, zstd 로 압축한 csv 파일로부터 거래내역 저장 - 성공")
+    @Test
+    public void BankTransactionPersistFromCsvFile_Success_When_CompressedFile() throws Exception {
+
+        // given
+        StringBuilder contents = new StringBuilder();
+        int csvRowCount = 1000;
+
+        for (int i = 1; i <= csvRowCount; i++) {
+            contents.append(i).append(",2021,1,1,4,004,29000,DEPOSIT\n");
+        }
+
+        byte[] csv = contents.toString().getBytes(StandardCharsets.UTF_8);
+
+        MockMultipartFile gzipFile = new MockMultipartFile("file", "transaction.csv.gz", "application/gzip", gzip(csv));
+        MockMultipartFile zstdFile = new MockMultipartFile("file", "transaction.csv.zst", MediaType.APPLICATION_OCTET_STREAM_VALUE, zstd(csv));   // 확장자로 압축 형식을 찾는다.
+
+        // when, then
+        for (MockMultipartFile compressedFile : List.of(gzipFile, zstdFile)) {
+
+            mockMvc.perform(multipart("/api/v1/bank-transactions/persist-csv")
+                            .file(compressedFile)
+                            .param("engine", "JDBC"))
+                    .andExpect(status().isOk())
+                    .andExpect(result -> {
+                        Long persistedRowCnt = objectMapper.readValue(result.getResponse().getContentAsString(StandardCharsets.UTF_8), Long.class);
+
+                        assertThat(persistedRowCnt).isEqualTo(csvRowCount);
+                    });
+
+            assertThat(bankTransactionRepository.count()).isEqualTo(csvRowCount);
+
+            bankTransactionRepository.deleteAllInBatch();
+        }
+    }
+
+    @DisplayName("gzip, zstd 로 압축한 csv 파일로부터 거래내역 저장 - 실패(압축 파일이 잘린 경우)")
+    @Test
+    public void BankTransactionPersistFromCsvFile_Fail_When_TruncatedCompressedFile() throws Exception {
+
+        // given
+        StringBuilder contents = new StringBuilder();
+
+        for (int i = 1; i <= 1000; i++) {
+            contents.append(i).append(",2021,1,1,").append(i).append(",004,29000,DEPOSIT\n");
+        }
+
+        byte[] csv = contents.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] gzip = gzip(csv);
+        byte[] zstd = zstd(csv);
+
+        MockMultipartFile gzipFile = new MockMultipartFile("file", "transaction.csv.gz", "application/gzip", Arrays.copyOf(gzip, gzip.length / 2));
+        MockMultipartFile zstdFile = new MockMultipartFile("file", "transaction.csv.zst", "application/zstd", Arrays.copyOf(zstd, zstd.length / 2));
+
+        // when, then
+        for (MockMultipartFile truncatedFile : List.of(gzipFile, zstdFile)) {
+
+            mockMvc.perform(multipart("/api/v1/bank-transactions/persist-csv")
+                            .file(truncatedFile)
+                            .param("engine", "JDBC"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(result -> assertThat(result.getResolvedException()).isInstanceOf(IllegalFileFormatException.class));
+
+            assertThat(bankTransactionRepository.count()).isZero();      // 잘리기 전까지 읽은 행도 저장하지 않는다.
+        }
+    }
+
+    private byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (OutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+
+        return out.toByteArray();
+    }
+
+    private byte[] zstd(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (OutputStream zstd = new ZstdOutputStream(out)) {
+            zstd.write(bytes);
+        }
+
+        return out.toByteArray();
+    }
+}
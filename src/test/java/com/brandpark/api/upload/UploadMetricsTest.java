@@ -0,0 +1,101 @@
+package com.brandpark.api.upload;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@AutoConfigureMetrics
+@AutoConfigureMockMvc
+@Transactional
+@SpringBootTest
+class UploadMetricsTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired MeterRegistry meterRegistry;
+
+    @DisplayName("업로드 지표 - 저장한 행, 읽은 바이트, 배치 저장 시간")
+    @Test
+    public void RecordUploadMetrics() throws Exception {
+
+        // given
+        byte[] contents = ("9200001,2022,3,1,9200001,004,1000,DEPOSIT\n"
+                + "9200002,2022,3,1,9200002,011,2000,WITHDRAW\n"
+                + "9200003,2022,3,2,9200003,020,3000,DEPOSIT\n").getBytes(StandardCharsets.UTF_8);
+
+        double parsedBefore = counter("bank_transaction.upload.parsed");
+        double readBefore = counter("bank_transaction.upload.read");
+        long flushBefore = meterRegistry.get("bank_transaction.upload.flush").tag("engine", "JDBC").timer().count();
+        long uploadBefore = meterRegistry.get("bank_transaction.upload").tag("engine", "JDBC").timer().count();
+
+        // when
+        upload(contents).andExpect(status().isOk());
+
+        // then
+        assertThat(counter("bank_transaction.upload.parsed") - parsedBefore).isEqualTo(3);
+        assertThat(counter("bank_transaction.upload.read") - readBefore).isEqualTo(contents.length);
+        assertThat(meterRegistry.get("bank_transaction.upload.flush").tag("engine", "JDBC").timer().count()).isEqualTo(flushBefore + 1);
+        assertThat(meterRegistry.get("bank_transaction.upload").tag("engine", "JDBC").timer().count()).isEqualTo(uploadBefore + 1);
+    }
+
+    @DisplayName("업로드 지표 - 유효하지 않은 행으로 중단된 업로드")
+    @Test
+    public void RecordRejectedRow() throws Exception {
+
+        // given
+        byte[] contents = ("9200011,2022,3,1,9200011,004,1000,DEPOSIT\n"
+                + "9200012,2022,3,1,9200012,999,2000,WITHDRAW\n").getBytes(StandardCharsets.UTF_8);
+
+        double rejectedBefore = counter("bank_transaction.upload.rejected");
+
+        // when
+        upload(contents).andExpect(status().isBadRequest());
+
+        // then
+        assertThat(counter("bank_transaction.upload.rejected") - rejectedBefore).isEqualTo(1);
+    }
+
+    @DisplayName("업로드 지표와 hibernate 통계를 prometheus 형식으로 노출")
+    @Test
+    public void ExposePrometheusEndpoint() throws Exception {
+
+        // given
+        upload("9200021,2022,3,1,9200021,004,1000,DEPOSIT\n".getBytes(StandardCharsets.UTF_8)).andExpect(status().isOk());
+
+        // when
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // then
+        assertThat(scrape).contains("bank_transaction_upload_parsed_rows_total{")
+                .contains("bank_transaction_upload_flush_seconds_bucket{")
+                .contains("hibernate_");
+    }
+
+    private ResultActions upload(byte[] contents) throws Exception {
+        return mockMvc.perform(multipart("/api/v1/bank-transactions/persist-csv")
+                .file(new MockMultipartFile("file", "transaction.csv", "text/csv", contents))
+                .param("engine", UploadEngine.JDBC.name()));
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).tag("engine", "JDBC").counter().count();
+    }
+}
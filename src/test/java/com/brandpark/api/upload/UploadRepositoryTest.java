@@ -1,20 +1,28 @@
 package com.brandpark.api.upload;
 
 import com.brandpark.api.bank_transaction.domain.BankTransaction;
+import com.brandpark.api.bank_transaction.counter.BankTransactionCounterRepository;
 import com.brandpark.api.bank_transaction.domain.BankTransactionRepository;
+import com.brandpark.api.bank_transaction.query.BankTransactionCountCache;
+import com.brandpark.api.bank_transaction.query.BankTransactionQueryRepository;
+import com.brandpark.api.bank_transaction.query.QueryMetrics;
+import com.brandpark.api.bank_transaction.store.JpaTransactionStore;
 import com.brandpark.api.upload.exception.CsvColumnNotValidException;
 import com.brandpark.util.AssertUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.ActiveProfiles;
 
 import javax.persistence.EntityManager;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -25,11 +33,15 @@ class UploadRepositoryTest {
 
     @Autowired EntityManager entityManager;
     @Autowired BankTransactionRepository bankTransactionRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
     UploadRepository uploadRepository = null;
 
     @BeforeEach
     public void setUp() {
-        uploadRepository = new UploadRepository(entityManager);
+        BankTransactionQueryRepository queryRepository = new BankTransactionQueryRepository(entityManager
+                , new BankTransactionCounterRepository(jdbcTemplate), new BankTransactionCountCache(), new QueryMetrics(new SimpleMeterRegistry()));
+
+        uploadRepository = new UploadRepository(new JpaTransactionStore(entityManager, jdbcTemplate, queryRepository), new UploadMetrics(new SimpleMeterRegistry()));
     }
 
     @DisplayName("csv 파일로부터 엔티티 저장 - 실패(비어있는 컬럼이 있는 경우)")
@@ -108,4 +120,70 @@ class UploadRepositoryTest {
 
         AssertUtil.assertBankTransaction(actual, expectedCols);
     }
-}
\ No newline at end of file
+
+    @DisplayName("csv 파일로부터 JDBC 로 저장 - 실패(잘못된 형식의 컬럼이 있는 경우)")
+    @Test
+    public void JdbcBankTransactionPersistFromCsvFile_Fail_When_IllegalTypeColumn() throws Exception {
+
+        // given
+        String invalidRecord = "1,2021,1,1,4,004,29000원,DEPOSIT";   // 금액에 문자열이 들어있는 경우
+
+        MockMultipartFile csvFile
+                = new MockMultipartFile("file", "transaction.csv", "text/csv", invalidRecord.getBytes(StandardCharsets.UTF_8));
+
+        // when, then
+        CsvColumnNotValidException ex = Assertions.assertThrows(CsvColumnNotValidException.class, () -> {
+            uploadRepository.jdbcBatchInsertBankTransactionFromCsvFile(csvFile);
+        });
+
+        assertThat(ex.getRow()).isEqualTo(1);
+    }
+
+    @DisplayName("csv 파일로부터 JDBC 로 저장 - 실패(존재하지 않는 날짜인 경우)")
+    @Test
+    public void JdbcBankTransactionPersistFromCsvFile_Fail_When_InvalidDate() throws Exception {
+
+        // given
+        String invalidRecord = "1,2021,2,30,4,004,29000,DEPOSIT";   // 2월 30일
+
+        MockMultipartFile csvFile
+                = new MockMultipartFile("file", "transaction.csv", "text/csv", invalidRecord.getBytes(StandardCharsets.UTF_8));
+
+        // when, then
+        Assertions.assertThrows(CsvColumnNotValidException.class, () -> {
+            uploadRepository.jdbcBatchInsertBankTransactionFromCsvFile(csvFile);
+        });
+    }
+
+    @DisplayName("csv 파일로부터 JDBC 로 저장 - 성공")
+    @Test
+    public void JdbcBankTransactionPersistFromCsvFile_Success() throws Exception {
+
+        // given
+        String record1 = "1,2021,1,1,4,004,29000,DEPOSIT";
+        String record2 = "2,2021,1,1,5,020,88000,withdraw";
+        String record3 = "3,2021,1,2,6,090,1000,DEPOSIT";
+        String totalRecord = record1 + "\n" + record2 + "\n" + record3;
+        int csvRowCount = 3;
+
+        MockMultipartFile csvFile
+                = new MockMultipartFile("file", "transaction.csv", "text/csv", totalRecord.getBytes(StandardCharsets.UTF_8));
+
+        // when
+        long insertedRows = uploadRepository.jdbcBatchInsertBankTransactionFromCsvFile(csvFile);
+        entityManager.clear();
+
+        // then
+        assertThat(insertedRows).isEqualTo(csvRowCount);
+
+        List<BankTransaction> all = bankTransactionRepository.findAll();
+
+        assertThat(all).hasSize(csvRowCount);
+
+        BankTransaction actual = bankTransactionRepository.findById(1L).orElseThrow();
+        String[] expectedCols = record1.split(",");
+
+        AssertUtil.assertBankTransaction(actual, expectedCols);
+        assertThat(actual.getTransactionDate()).isEqualTo(LocalDate.of(2021, 1, 1));
+    }
+}
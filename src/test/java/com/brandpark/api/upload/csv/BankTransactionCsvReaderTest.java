@@ -0,0 +1,266 @@
+package com.brandpark.api.upload.csv;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.brandpark.api.upload.BankTransactionRowBuffer;
+import com.brandpark.api.upload.exception.CsvColumnNotValidException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BankTransactionCsvReaderTest {
+
+    @DisplayName("csv 바이트를 primitive 컬럼으로 파싱 - 성공")
+    @Test
+    public void ReadRow_Success() throws Exception {
+
+        // given
+        String contents = "1,2021,1,1,4,004,29000,DEPOSIT\n2,2020,2,29,5,090,-88000,withdraw";
+        BankTransactionRowBuffer buff = new BankTransactionRowBuffer(10);
+
+        // when
+        try (BankTransactionCsvReader reader = createReader(contents, BankTransactionCsvReader.DEFAULT_BUFFER_SIZE)) {
+            while (reader.readRow(buff)) {
+            }
+
+            assertThat(reader.getRowNum()).isEqualTo(2);
+        }
+
+        // then
+        assertThat(buff.size()).isEqualTo(2);
+
+        assertThat(buff.getId(0)).isEqualTo(1L);
+        assertThat(buff.getTransactionDate(0)).isEqualTo(LocalDate.of(2021, 1, 1));
+        assertThat(buff.getUserId(0)).isEqualTo(4L);
+        assertThat(buff.getBankCode(0)).isEqualTo(BankCode.KB);
+        assertThat(buff.getTransactionAmount(0)).isEqualTo(29000L);
+        assertThat(buff.getTransactionType(0)).isEqualTo(TransactionType.DEPOSIT);
+
+        assertThat(buff.getTransactionDate(1)).isEqualTo(LocalDate.of(2020, 2, 29));
+        assertThat(buff.getBankCode(1)).isEqualTo(BankCode.KK);
+        assertThat(buff.getTransactionAmount(1)).isEqualTo(-88000L);
+        assertThat(buff.getTransactionType(1)).isEqualTo(TransactionType.WITHDRAW);
+    }
+
+    @DisplayName("csv 바이트를 primitive 컬럼으로 파싱 - 성공(CRLF, BOM, 버퍼 경계에 걸친 행)")
+    @Test
+    public void ReadRow_Success_When_CrlfAndBomAndRowsAcrossBufferBoundary() throws Exception {
+
+        // given
+        StringBuilder contents = new StringBuilder("\uFEFF");
+        int rowCount = 100;
+
+        for (int i = 1; i <= rowCount; i++) {
+            contents.append(i).append(",2021,12,31,").append(i).append(",020,").append(i * 1000).append(",DEPOSIT\r\n");
+        }
+
+        BankTransactionRowBuffer buff = new BankTransactionRowBuffer(rowCount);
+
+        // when
+        try (BankTransactionCsvReader reader = createReader(contents.toString(), 48)) {   // 한 행보다 조금 큰 버퍼
+            while (reader.readRow(buff)) {
+            }
+        }
+
+        // then
+        assertThat(buff.size()).isEqualTo(rowCount);
+
+        for (int i = 0; i < rowCount; i++) {
+            assertThat(buff.getId(i)).isEqualTo(i + 1);
+            assertThat(buff.getUserId(i)).isEqualTo(i + 1);
+            assertThat(buff.getTransactionAmount(i)).isEqualTo((i + 1) * 1000L);
+            assertThat(buff.getBankCode(i)).isEqualTo(BankCode.WB);
+            assertThat(buff.getTransactionDate(i)).isEqualTo(LocalDate.of(2021, 12, 31));
+        }
+    }
+
+    @DisplayName("csv 바이트를 primitive 컬럼으로 파싱 - 실패(컬럼의 수가 8개가 아닌 경우)")
+    @Test
+    public void ReadRow_Fail_When_InvalidColumnCount() throws Exception {
+        assertFailRow("1,2021,1,1,4,004,29000,DEPOSIT\n2,2021,1,1,4,29000,DEPOSIT", 2);
+        assertFailRow("1,2021,1,1,4,004,29000,DEPOSIT,", 1);
+        assertFailRow("1,2021,1,1,4,004,29000,DEPOSIT\n\n", 2);
+    }
+
+    @DisplayName("csv 바이트를 primitive 컬럼으로 파싱 - 실패(컬럼의 타입이 유효하지 않은 경우)")
+    @Test
+    public void ReadRow_Fail_When_InvalidTypeColumn() throws Exception {
+        assertFailRow("1,2021,1,1,4,,29000,DEPOSIT", 1);                   // 비어있는 은행코드
+        assertFailRow("1,2021,1,1,4,111,29000,DEPOSIT", 1);                // 존재하지 않는 은행코드
+        assertFailRow("1,2021,1,1,4,04,29000,DEPOSIT", 1);
+        assertFailRow("1,2021,1,1,4,004,29000원,DEPOSIT", 1);               // 금액에 문자열
+        assertFailRow("1,2021,1,1,4,004,29000,입금", 1);                    // 존재하지 않는 거래타입
+        assertFailRow("1,2021,2,30,4,004,29000,DEPOSIT", 1);               // 존재하지 않는 날짜
+        assertFailRow("99999999999999999999,2021,1,1,4,004,29000,DEPOSIT", 1);   // long 범위 초과
+    }
+
+    @DisplayName("csv 바이트를 primitive 컬럼으로 파싱 - 실패(행이 버퍼보다 긴 경우)")
+    @Test
+    public void ReadRow_Fail_When_RowLongerThanBuffer() throws Exception {
+
+        // given
+        String contents = "1,2021,1,1,4,004,29000,DEPOSIT";
+
+        // when, then
+        CsvColumnNotValidException ex = Assertions.assertThrows(CsvColumnNotValidException.class, () -> {
+            try (BankTransactionCsvReader reader = createReader(contents, 8)) {
+                reader.readRow(new BankTransactionRowBuffer(1));
+            }
+        });
+
+        assertThat(ex.getRow()).isEqualTo(1);
+    }
+
+    @DisplayName("메모리 매핑한 파일을 구간을 옮겨가며 파싱 - 성공(구간 경계에 걸친 행)")
+    @Test
+    public void ReadRow_Success_When_MappedFileAcrossWindowBoundary() throws Exception {
+
+        // given
+        StringBuilder contents = new StringBuilder("\uFEFF");
+        int rowCount = 100;
+
+        for (int i = 1; i <= rowCount; i++) {
+            contents.append(i).append(",2021,12,31,").append(i).append(",020,").append(i * 1000).append(",DEPOSIT\n");
+        }
+
+        Path file = Files.createTempFile("mapped-", ".csv");
+        Files.write(file, contents.toString().getBytes(StandardCharsets.UTF_8));
+
+        BankTransactionRowBuffer buff = new BankTransactionRowBuffer(rowCount);
+
+        // when
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)
+             ; BankTransactionCsvReader reader = new BankTransactionCsvReader(new MappedCsvByteSource(channel, 0, channel.size(), 48), 0)) {   // 한 행보다 조금 큰 구간
+            while (reader.readRow(buff)) {
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        // then
+        assertThat(buff.size()).isEqualTo(rowCount);
+
+        for (int i = 0; i < rowCount; i++) {
+            assertThat(buff.getId(i)).isEqualTo(i + 1);
+            assertThat(buff.getTransactionAmount(i)).isEqualTo((i + 1) * 1000L);
+            assertThat(buff.getTransactionDate(i)).isEqualTo(LocalDate.of(2021, 12, 31));
+        }
+    }
+
+    @DisplayName("메모리 매핑한 파일을 파싱 - 성공(개행 없이 끝나는 한 행짜리 파일)")
+    @Test
+    public void ReadRow_Success_When_MappedFileIsSingleRowWithoutNewline() throws Exception {
+
+        // given
+        Path file = Files.createTempFile("mapped-", ".csv");
+        Files.write(file, "1,2021,1,1,4,004,29000,DEPOSIT".getBytes(StandardCharsets.UTF_8));
+
+        BankTransactionRowBuffer buff = new BankTransactionRowBuffer(1);
+
+        // when
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)
+             ; BankTransactionCsvReader reader = new BankTransactionCsvReader(new MappedCsvByteSource(channel), 0)) {
+            while (reader.readRow(buff)) {
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        // then
+        assertThat(buff.size()).isEqualTo(1);
+        assertThat(buff.getTransactionAmount(0)).isEqualTo(29000L);
+    }
+
+    @DisplayName("메모리 매핑한 파일을 파싱 - 실패(행이 매핑 구간보다 긴 경우)")
+    @Test
+    public void ReadRow_Fail_When_RowLongerThanMappedWindow() throws Exception {
+
+        // given
+        Path file = Files.createTempFile("mapped-", ".csv");
+        Files.write(file, "1,2021,1,1,4,004,29000,DEPOSIT\n2,2021,1,1,4,004,29000,DEPOSIT".getBytes(StandardCharsets.UTF_8));
+
+        // when, then
+        try {
+            CsvColumnNotValidException ex = Assertions.assertThrows(CsvColumnNotValidException.class, () -> {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)
+                     ; BankTransactionCsvReader reader = new BankTransactionCsvReader(new MappedCsvByteSource(channel, 0, channel.size(), 8), 0)) {
+                    reader.readRow(new BankTransactionRowBuffer(1));
+                }
+            });
+
+            assertThat(ex.getRow()).isEqualTo(1);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @DisplayName("10만개의 행을 파싱하는 동안 힙 할당이 거의 발생하지 않는다.")
+    @Test
+    public void ReadRow_AllocatesNearZeroBytes() throws Exception {
+
+        // given
+        StringBuilder contents = new StringBuilder();
+        int rowCount = 100000;
+
+        for (int i = 1; i <= rowCount; i++) {
+            contents.append(i).append(",2021,1,1,4,004,29000,DEPOSIT\n");
+        }
+
+        byte[] bytes = contents.toString().getBytes(StandardCharsets.UTF_8);
+        BankTransactionRowBuffer buff = new BankTransactionRowBuffer(1000);
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        // when
+        long parsedRows = 0;
+
+        try (BankTransactionCsvReader reader = new BankTransactionCsvReader(Channels.newChannel(new ByteArrayInputStream(bytes)), BankTransactionCsvReader.DEFAULT_BUFFER_SIZE)) {
+
+            reader.readRow(buff);
+            buff.clear();
+
+            long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+
+            while (reader.readRow(buff)) {
+                if (buff.isFull()) {
+                    parsedRows += buff.size();
+                    buff.clear();
+                }
+            }
+
+            long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+            // then
+            assertThat(parsedRows + buff.size()).isEqualTo(rowCount - 1);
+            assertThat(allocated).isLessThan(64 * 1024);
+        }
+    }
+
+    private void assertFailRow(String contents, long expectedRow) {
+        CsvColumnNotValidException ex = Assertions.assertThrows(CsvColumnNotValidException.class, () -> {
+            try (BankTransactionCsvReader reader = createReader(contents, BankTransactionCsvReader.DEFAULT_BUFFER_SIZE)) {
+                BankTransactionRowBuffer buff = new BankTransactionRowBuffer(10);
+                while (reader.readRow(buff)) {
+                }
+            }
+        });
+
+        assertThat(ex.getRow()).isEqualTo(expectedRow);
+    }
+
+    private BankTransactionCsvReader createReader(String contents, int bufferSize) {
+        return new BankTransactionCsvReader(Channels.newChannel(new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8))), bufferSize);
+    }
+}
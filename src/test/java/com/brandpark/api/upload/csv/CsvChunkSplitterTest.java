@@ -0,0 +1,71 @@
+package com.brandpark.api.upload.csv;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvChunkSplitterTest {
+
+    @DisplayName("csv 스트림을 개행 경계에서 chunk 로 나눈다.")
+    @Test
+    public void Split_At_NewlineBoundary() throws Exception {
+
+        // given
+        String row = "1,2021,1,1,4,004,29000,DEPOSIT\n";
+        int rowCount = 7;
+        String contents = row.repeat(rowCount - 1) + row.trim();    // 마지막 행은 개행 없이 끝난다.
+
+        CsvChunkSplitter splitter = new CsvChunkSplitter(new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8)), 3);
+
+        // when
+        List<CsvChunk> chunks = new ArrayList<>();
+        CsvChunk chunk;
+
+        while ((chunk = splitter.next()) != null) {
+            chunks.add(chunk);
+        }
+
+        // then
+        assertThat(chunks).hasSize(3);
+
+        assertThat(chunks.get(0).getRowNumOffset()).isEqualTo(0);
+        assertThat(chunks.get(1).getRowNumOffset()).isEqualTo(3);
+        assertThat(chunks.get(2).getRowNumOffset()).isEqualTo(6);
+        assertThat(chunks.get(2).getRowCount()).isEqualTo(1);
+
+        StringBuilder joined = new StringBuilder();
+        long expectedOffset = 0;
+
+        for (CsvChunk c : chunks) {
+            assertThat(c.getStartOffset()).isEqualTo(expectedOffset);
+            expectedOffset = c.getEndOffset();
+
+            joined.append(new String(c.getBytes(), 0, c.getLength(), StandardCharsets.UTF_8));
+        }
+
+        assertThat(joined.toString()).isEqualTo(contents);
+    }
+
+    @DisplayName("개행으로 끝나는 파일은 빈 chunk 를 만들지 않는다.")
+    @Test
+    public void Split_NoEmptyChunk_When_EndsWithNewline() throws Exception {
+
+        // given
+        String contents = "1,2021,1,1,4,004,29000,DEPOSIT\n2,2021,1,1,4,004,29000,DEPOSIT\n";
+
+        CsvChunkSplitter splitter = new CsvChunkSplitter(new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8)), 2);
+
+        // when, then
+        CsvChunk chunk = splitter.next();
+
+        assertThat(chunk.getRowCount()).isEqualTo(2);
+        assertThat(chunk.getLength()).isEqualTo(contents.length());
+        assertThat(splitter.next()).isNull();
+    }
+}
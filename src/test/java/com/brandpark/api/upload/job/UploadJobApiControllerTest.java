@@ -0,0 +1,145 @@
+package com.brandpark.api.upload.job;
+
+import com.brandpark.api.bank_transaction.domain.BankTransactionRepository;
+import com.brandpark.api.exception_handle.ApiError;
+import com.brandpark.api.upload.job.dto.UploadJobResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@SpringBootTest
+class UploadJobApiControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired BankTransactionRepository bankTransactionRepository;
+
+    @AfterEach
+    public void tearDown() {
+        bankTransactionRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("비동기 업로드 - 작업 id 를 바로 반환하고 진행 상황을 조회할 수 있다.")
+    @Test
+    public void AsyncUpload_Success() throws Exception {
+
+        // given
+        int rowCount = 300;
+        MockMultipartFile csvFile = createCsvFile(rowCount, -1);
+
+        // when
+        MvcResult accepted = mockMvc.perform(multipart("/api/v1/bank-transactions/persist-csv")
+                        .file(csvFile)
+                        .param("async", "true"))
+                .andExpect(status().isAccepted())
+                .andReturn();
+
+        UploadJobResponse submitted = readJob(accepted);
+
+        assertThat(submitted.getJobId()).isNotBlank();
+        assertThat(accepted.getResponse().getHeader(HttpHeaders.LOCATION)).isEqualTo("/api/v1/upload-jobs/" + submitted.getJobId());
+
+        UploadJobResponse finished = awaitFinished(submitted.getJobId());
+
+        // then
+        assertThat(finished.getStatus()).isEqualTo(UploadJobStatus.COMPLETED);
+        assertThat(finished.getRowsParsed()).isEqualTo(rowCount);
+        assertThat(finished.getRowsInserted()).isEqualTo(rowCount);
+        assertThat(finished.getFailureRow()).isNull();
+        assertThat(finished.getStartedAt()).isNotNull();
+        assertThat(finished.getFinishedAt()).isNotNull();
+        assertThat(bankTransactionRepository.count()).isEqualTo(rowCount);
+    }
+
+    @DisplayName("비동기 업로드 - 실패한 행 번호를 조회할 수 있다.")
+    @Test
+    public void AsyncUpload_Fail_Report_FailureRow() throws Exception {
+
+        // given
+        int invalidRow = 150;
+        MockMultipartFile csvFile = createCsvFile(300, invalidRow);
+
+        // when
+        MvcResult accepted = mockMvc.perform(multipart("/api/v1/bank-transactions/persist-csv")
+                        .file(csvFile)
+                        .param("async", "true")
+                        .param("engine", "JDBC"))
+                .andExpect(status().isAccepted())
+                .andReturn();
+
+        UploadJobResponse finished = awaitFinished(readJob(accepted).getJobId());
+
+        // then
+        assertThat(finished.getStatus()).isEqualTo(UploadJobStatus.FAILED);
+        assertThat(finished.getFailureRow()).isEqualTo(invalidRow);
+        assertThat(finished.getFailureMessage()).isNotBlank();
+        assertThat(bankTransactionRepository.count()).isEqualTo(0);
+    }
+
+    @DisplayName("존재하지 않는 업로드 작업 조회 - 실패")
+    @Test
+    public void GetUploadJob_Fail_When_NotFound() throws Exception {
+        mockMvc.perform(get("/api/v1/upload-jobs/{id}", "not-exists"))
+                .andExpect(status().isNotFound())
+                .andExpect(result -> {
+                    objectMapper.setDateFormat(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss"));
+                    ApiError error = objectMapper.readValue(result.getResponse().getContentAsString(StandardCharsets.UTF_8), ApiError.class);
+
+                    assertThat(error.getStatus()).isEqualTo(HttpStatus.NOT_FOUND);
+                });
+    }
+
+    private UploadJobResponse awaitFinished(String jobId) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+
+        while (true) {
+            MvcResult result = mockMvc.perform(get("/api/v1/upload-jobs/{id}", jobId))
+                    .andExpect(status().isOk())
+                    .andReturn();
+
+            UploadJobResponse job = readJob(result);
+
+            if (job.getStatus() == UploadJobStatus.COMPLETED || job.getStatus() == UploadJobStatus.FAILED) {
+                return job;
+            }
+
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private UploadJobResponse readJob(MvcResult result) throws Exception {
+        return objectMapper.readValue(result.getResponse().getContentAsString(StandardCharsets.UTF_8), UploadJobResponse.class);
+    }
+
+    private MockMultipartFile createCsvFile(int rowCount, int invalidRow) {
+        StringBuilder contents = new StringBuilder();
+
+        for (int i = 1; i <= rowCount; i++) {
+            String amount = i == invalidRow ? "29000원" : "29000";
+            contents.append(i).append(",2021,1,1,4,004,").append(amount).append(",DEPOSIT\n");
+        }
+
+        return new MockMultipartFile("file", "transaction.csv", "text/csv", contents.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
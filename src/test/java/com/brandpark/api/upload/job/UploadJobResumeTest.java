@@ -0,0 +1,268 @@
+package com.brandpark.api.upload.job;
+
+import com.brandpark.api.bank_transaction.domain.BankTransactionRepository;
+import com.brandpark.api.upload.UploadEngine;
+import com.brandpark.api.upload.exception.UploadJobNotResumableException;
+import com.brandpark.api.upload.job.domain.UploadCheckpoint;
+import com.brandpark.api.upload.job.domain.UploadCheckpointRepository;
+import com.brandpark.api.upload.job.domain.UploadJobRecordRepository;
+import com.brandpark.api.upload.job.dto.UploadJobResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "upload.chunk-rows=10")
+class UploadJobResumeTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired BankTransactionRepository bankTransactionRepository;
+    @Autowired UploadJobRecordRepository uploadJobRecordRepository;
+    @Autowired UploadCheckpointRepository uploadCheckpointRepository;
+    @Autowired UploadJobRegistry uploadJobRegistry;
+
+    @AfterEach
+    public void tearDown() {
+        bankTransactionRepository.deleteAllInBatch();
+        uploadCheckpointRepository.deleteAllInBatch();
+        uploadJobRecordRepository.deleteAllInBatch();
+    }
+
+    @DisplayName("실패한 업로드 작업은 커밋된 chunk 의 체크포인트를 남기고, 고친 파일로 다음 chunk 부터 재개할 수 있다.")
+    @Test
+    public void ResumeUploadJob_From_LastCommittedChunk() throws Exception {
+
+        // given
+        int rowCount = 100;
+        int invalidRow = 55;
+
+        UploadJobResponse failed = awaitFinished(submit(createCsvFile(rowCount, invalidRow)).getJobId());
+
+        assertThat(failed.getStatus()).isEqualTo(UploadJobStatus.FAILED);
+        assertThat(failed.getFailureRow()).isEqualTo(invalidRow);
+        assertThat(bankTransactionRepository.count()).isEqualTo(50);     // 1 ~ 50 행(5개의 chunk)만 커밋
+
+        List<UploadCheckpoint> checkpoints = uploadCheckpointRepository.findAllByJobIdOrderByChunkIndex(failed.getJobId());
+        assertThat(checkpoints).hasSize(5);
+        assertThat(checkpoints.get(4).getLastRowNum()).isEqualTo(50);
+
+        // when
+        MvcResult resumed = mockMvc.perform(multipart("/api/v1/upload-jobs/{id}/resume", failed.getJobId())
+                        .file(createCsvFile(rowCount, -1)))
+                .andExpect(status().isAccepted())
+                .andReturn();
+
+        UploadJobResponse completed = awaitFinished(readJob(resumed).getJobId());
+
+        // then
+        assertThat(completed.getStatus()).isEqualTo(UploadJobStatus.COMPLETED);
+        assertThat(completed.getRowsInserted()).isEqualTo(rowCount);
+        assertThat(bankTransactionRepository.count()).isEqualTo(rowCount);
+        assertThat(uploadCheckpointRepository.findAllByJobIdOrderByChunkIndex(failed.getJobId())).isEmpty();
+    }
+
+    @DisplayName("gzip 으로 압축한 파일로 실패한 작업도 체크포인트부터 재개할 수 있다.")
+    @Test
+    public void ResumeUploadJob_From_LastCommittedChunk_When_GzipFile() throws Exception {
+
+        // given
+        UploadJobResponse failed = awaitFinished(submit(createGzipFile(100, 55)).getJobId());
+
+        assertThat(failed.getStatus()).isEqualTo(UploadJobStatus.FAILED);
+        assertThat(bankTransactionRepository.count()).isEqualTo(50);
+
+        // when
+        MvcResult resumed = mockMvc.perform(multipart("/api/v1/upload-jobs/{id}/resume", failed.getJobId())
+                        .file(createGzipFile(100, -1)))
+                .andExpect(status().isAccepted())
+                .andReturn();
+
+        UploadJobResponse completed = awaitFinished(readJob(resumed).getJobId());
+
+        // then
+        assertThat(completed.getStatus()).isEqualTo(UploadJobStatus.COMPLETED);
+        assertThat(bankTransactionRepository.count()).isEqualTo(100);
+    }
+
+    @DisplayName("압축 파일이 잘려 끝까지 읽지 못한 작업은 완료되지 않고, 체크포인트와 임시 파일을 남겨 온전한 파일로 재개할 수 있다.")
+    @Test
+    public void ResumeUploadJob_When_TruncatedGzipFile() throws Exception {
+
+        // given
+        MockMultipartFile gzipFile = createGzipFile(1000, -1);
+        byte[] truncated = Arrays.copyOf(gzipFile.getBytes(), gzipFile.getBytes().length / 2);
+
+        UploadJobResponse failed = awaitFinished(submit(new MockMultipartFile("file", "transaction.csv.gz", "application/gzip", truncated)).getJobId());
+
+        // then
+        assertThat(failed.getStatus()).isEqualTo(UploadJobStatus.FAILED);
+        assertThat(failed.getFailureMessage()).isNotBlank();
+
+        List<UploadCheckpoint> checkpoints = uploadCheckpointRepository.findAllByJobIdOrderByChunkIndex(failed.getJobId());
+        assertThat(checkpoints).isNotEmpty();
+        assertThat(bankTransactionRepository.count()).isEqualTo(checkpoints.get(checkpoints.size() - 1).getLastRowNum()).isLessThan(1000);
+        assertThat(Paths.get(uploadJobRecordRepository.findById(failed.getJobId()).orElseThrow().getSpoolPath())).exists();
+
+        // when
+        MvcResult resumed = mockMvc.perform(multipart("/api/v1/upload-jobs/{id}/resume", failed.getJobId())
+                        .file(gzipFile))
+                .andExpect(status().isAccepted())
+                .andReturn();
+
+        UploadJobResponse completed = awaitFinished(readJob(resumed).getJobId());
+
+        // then
+        assertThat(completed.getStatus()).isEqualTo(UploadJobStatus.COMPLETED);
+        assertThat(bankTransactionRepository.count()).isEqualTo(1000);
+    }
+
+    @DisplayName("커밋된 chunk 와 내용이 다른 파일로는 재개할 수 없다.")
+    @Test
+    public void ResumeUploadJob_Fail_When_ChecksumNotMatched() throws Exception {
+
+        // given
+        UploadJobResponse failed = awaitFinished(submit(createCsvFile(100, 55)).getJobId());
+
+        String contents = csvContents(100, -1).replace("\n50,2021", "\n50,2022");   // 이미 커밋된 50행의 내용이 다르다.
+        MockMultipartFile tampered = new MockMultipartFile("file", "transaction.csv", "text/csv", contents.getBytes(StandardCharsets.UTF_8));
+
+        // when, then
+        mockMvc.perform(multipart("/api/v1/upload-jobs/{id}/resume", failed.getJobId())
+                        .file(tampered))
+                .andExpect(status().isConflict())
+                .andExpect(result -> assertThat(result.getResolvedException()).isInstanceOf(UploadJobNotResumableException.class));
+    }
+
+    @DisplayName("완료된 업로드 작업은 재개할 수 없다.")
+    @Test
+    public void ResumeUploadJob_Fail_When_Completed() throws Exception {
+
+        // given
+        UploadJobResponse completed = awaitFinished(submit(createCsvFile(30, -1)).getJobId());
+        assertThat(completed.getStatus()).isEqualTo(UploadJobStatus.COMPLETED);
+
+        // when, then
+        mockMvc.perform(multipart("/api/v1/upload-jobs/{id}/resume", completed.getJobId()))
+                .andExpect(status().isConflict());
+    }
+
+    @DisplayName("진행 중인 업로드 작업은 재개할 수 없다.")
+    @Test
+    public void ResumeUploadJob_Fail_When_AlreadyRunning() throws Exception {
+
+        // given
+        UploadJobResponse failed = awaitFinished(submit(createCsvFile(100, 55)).getJobId());
+
+        UploadJob running = new UploadJob(failed.getJobId(), UploadEngine.JDBC);
+        assertThat(uploadJobRegistry.claim(running)).isTrue();
+
+        // when, then
+        mockMvc.perform(multipart("/api/v1/upload-jobs/{id}/resume", failed.getJobId())
+                        .file(createCsvFile(100, -1)))
+                .andExpect(status().isConflict());
+
+        assertThat(uploadJobRegistry.claim(new UploadJob(failed.getJobId(), UploadEngine.JDBC))).isFalse();
+        assertThat(bankTransactionRepository.count()).isEqualTo(50);
+
+        running.fail(null, "test");
+    }
+
+    @DisplayName("저장된 행이 있는데 체크포인트가 없으면 처음부터 다시 저장하지 않는다.")
+    @Test
+    public void ResumeUploadJob_Fail_When_CheckpointsMissing() throws Exception {
+
+        // given
+        UploadJobResponse failed = awaitFinished(submit(createCsvFile(100, 55)).getJobId());
+
+        assertThat(uploadJobRecordRepository.findById(failed.getJobId()).orElseThrow().getInsertedRows()).isEqualTo(50);
+        uploadCheckpointRepository.deleteAllByJobId(failed.getJobId());
+
+        // when, then
+        mockMvc.perform(multipart("/api/v1/upload-jobs/{id}/resume", failed.getJobId())
+                        .file(createCsvFile(100, -1)))
+                .andExpect(status().isConflict());
+
+        assertThat(bankTransactionRepository.count()).isEqualTo(50);
+    }
+
+    private UploadJobResponse submit(MockMultipartFile csvFile) throws Exception {
+        MvcResult accepted = mockMvc.perform(multipart("/api/v1/bank-transactions/persist-csv")
+                        .file(csvFile)
+                        .param("async", "true")
+                        .param("engine", "JDBC"))
+                .andExpect(status().isAccepted())
+                .andReturn();
+
+        return readJob(accepted);
+    }
+
+    private UploadJobResponse awaitFinished(String jobId) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+
+        while (true) {
+            UploadJobResponse job = readJob(mockMvc.perform(get("/api/v1/upload-jobs/{id}", jobId))
+                    .andExpect(status().isOk())
+                    .andReturn());
+
+            if (job.getStatus() == UploadJobStatus.COMPLETED || job.getStatus() == UploadJobStatus.FAILED) {
+                return job;
+            }
+
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private UploadJobResponse readJob(MvcResult result) throws Exception {
+        return objectMapper.readValue(result.getResponse().getContentAsString(StandardCharsets.UTF_8), UploadJobResponse.class);
+    }
+
+    private MockMultipartFile createCsvFile(int rowCount, int invalidRow) {
+        return new MockMultipartFile("file", "transaction.csv", "text/csv", csvContents(rowCount, invalidRow).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private MockMultipartFile createGzipFile(int rowCount, int invalidRow) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (OutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(csvContents(rowCount, invalidRow).getBytes(StandardCharsets.UTF_8));
+        }
+
+        return new MockMultipartFile("file", "transaction.csv.gz", "application/gzip", out.toByteArray());
+    }
+
+    private String csvContents(int rowCount, int invalidRow) {
+        StringBuilder contents = new StringBuilder();
+
+        for (int i = 1; i <= rowCount; i++) {
+            String amount = i == invalidRow ? "29000원" : "29000";
+            contents.append(i).append(",2021,1,1,4,004,").append(amount).append(",DEPOSIT\n");
+        }
+
+        return contents.toString();
+    }
+}
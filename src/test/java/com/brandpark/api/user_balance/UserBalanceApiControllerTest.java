@@ -0,0 +1,119 @@
+package com.brandpark.api.user_balance;
+
+import com.brandpark.api.bank_transaction.domain.BankTransactionRepository;
+import com.brandpark.api.exception_handle.ApiError;
+import com.brandpark.api.user_balance.dto.UserBalanceResponse;
+import com.brandpark.api.user_balance.exception.UserBalanceNotFoundException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "aggregate.user-balance.enabled=true")
+class UserBalanceApiControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired BankTransactionRepository bankTransactionRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        /*
+         * 다른 테스트가 커밋한 데이터와 겹치지 않는 유저ID, 금액을 사용한다.
+         * 유저 9000001 : 입금 800001000, 출금 500 (잔액 800000500)
+         * 유저 9000002 : 입금 900000000 (잔액 900000000)
+         * 유저 9000003 : 입금 1000, 출금 7000 (잔액 -6000)
+         */
+        String contents = "1,2022,1,3,9000001,004,1000,DEPOSIT\n"
+                + "2,2022,1,1,9000001,011,800000000,DEPOSIT\n"
+                + "3,2022,1,2,9000001,004,500,WITHDRAW\n"
+                + "4,2022,1,1,9000002,004,900000000,DEPOSIT\n"
+                + "5,2022,1,5,9000003,011,1000,DEPOSIT\n"
+                + "6,2022,1,6,9000003,011,7000,WITHDRAW\n";
+
+        MockMultipartFile csvFile
+                = new MockMultipartFile("file", "transaction.csv", "text/csv", contents.getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/api/v1/bank-transactions/persist-csv")
+                        .file(csvFile))
+                .andExpect(status().isOk());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bankTransactionRepository.deleteAllInBatch();
+        jdbcTemplate.update("DELETE FROM user_balance");
+    }
+
+    @DisplayName("유저 잔액 조회 - 업로드한 거래의 수, 입금/출금 합계, 첫/마지막 거래일자가 누적되어 있다.")
+    @Test
+    public void RetrieveUserBalance() throws Exception {
+
+        // when
+        String body = mockMvc.perform(get("/api/v1/users/{userId}/balance", 9000001))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        // then
+        UserBalanceResponse balance = objectMapper.readValue(body, UserBalanceResponse.class);
+
+        assertThat(balance).isEqualTo(new UserBalanceResponse(9000001L, 3, 800001000, 500, 800000500, "2022-01-01", "2022-01-03"));
+    }
+
+    @DisplayName("유저 잔액 조회 - 실패(거래내역이 없는 유저인 경우)")
+    @Test
+    public void RetrieveUserBalance_Fail_When_UserNotFound() throws Exception {
+
+        // when, then
+        mockMvc.perform(get("/api/v1/users/{userId}/balance", 999))
+                .andExpect(status().isNotFound())
+                .andExpect(result -> {
+
+                    assertThat(result.getResolvedException()).isInstanceOf(UserBalanceNotFoundException.class);
+
+                    objectMapper.setDateFormat(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss"));
+                    ApiError errorResponse = objectMapper.readValue(result.getResponse().getContentAsString(StandardCharsets.UTF_8), ApiError.class);
+
+                    assertThat(errorResponse.getStatus()).isEqualTo(HttpStatus.NOT_FOUND);
+                });
+    }
+
+    @DisplayName("잔액 상위 유저 조회 - 잔액이 많은 순서로 size 명을 조회한다.")
+    @Test
+    public void RetrieveTopUserBalances() throws Exception {
+
+        // when
+        String body = mockMvc.perform(get("/api/v1/users/balance/top")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        // then
+        List<UserBalanceResponse> top = objectMapper.readValue(body, new TypeReference<>() {});
+
+        assertThat(top).extracting(UserBalanceResponse::getUserId).containsExactly(9000002L, 9000001L);
+        assertThat(top).extracting(UserBalanceResponse::getBalance).containsExactly(900000000L, 800000500L);
+    }
+}
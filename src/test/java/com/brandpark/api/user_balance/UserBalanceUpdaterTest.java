@@ -0,0 +1,69 @@
+package com.brandpark.api.user_balance;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+import com.brandpark.api.upload.BankTransactionRowBuffer;
+import com.brandpark.api.user_balance.dto.UserBalanceResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)    // chunk 트랜잭션을 직접 커밋한다.
+@DataJpaTest
+class UserBalanceUpdaterTest {
+
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+    UserBalanceRepository userBalanceRepository;
+    UserBalanceUpdater userBalanceUpdater;
+
+    @BeforeEach
+    public void setUp() {
+        userBalanceRepository = new UserBalanceRepository(jdbcTemplate);
+        userBalanceUpdater = new UserBalanceUpdater(userBalanceRepository);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM user_balance");
+    }
+
+    @DisplayName("chunk 마다 유저별로 모았다가 커밋할 때 이미 있는 잔액에 더하고, 첫/마지막 거래일자를 넓힌다.")
+    @Test
+    public void OnBatchInserted_AccumulatesPerChunk() throws Exception {
+
+        // given
+        BankTransactionRowBuffer first = new BankTransactionRowBuffer(10);
+        first.add(1, 2022, 1, 5, 1, BankCode.KB, 1000, TransactionType.DEPOSIT);
+        first.add(2, 2022, 1, 6, 2, BankCode.KB, 3000, TransactionType.DEPOSIT);
+
+        BankTransactionRowBuffer second = new BankTransactionRowBuffer(10);
+        second.add(3, 2022, 1, 2, 1, BankCode.NH, 300, TransactionType.WITHDRAW);
+        second.add(4, 2022, 1, 9, 1, BankCode.KB, 2000, TransactionType.DEPOSIT);
+
+        TransactionTemplate chunk = new TransactionTemplate(transactionManager);
+
+        // when
+        chunk.executeWithoutResult(status -> userBalanceUpdater.onBatchInserted(first));
+        chunk.executeWithoutResult(status -> {
+            userBalanceUpdater.onBatchInserted(second);
+            userBalanceUpdater.onBatchInserted(second);
+        });
+
+        // then
+        assertThat(userBalanceRepository.findByUserId(1)).contains(new UserBalanceResponse(1L, 5, 5000, 600, 4400, "2022-01-02", "2022-01-09"));
+        assertThat(userBalanceRepository.findByUserId(2)).contains(new UserBalanceResponse(2L, 1, 3000, 0, 3000, "2022-01-06", "2022-01-06"));
+    }
+}
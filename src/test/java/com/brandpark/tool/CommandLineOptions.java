@@ -0,0 +1,30 @@
+package com.brandpark.tool;
+
+import java.util.HashMap;
+import java.util.Map;
+
+class CommandLineOptions {
+
+    private CommandLineOptions() {
+    }
+
+    /**
+     * --key=value 형식의 인자만 받는다.
+     */
+    static Map<String, String> parse(String[] args) {
+
+        Map<String, String> options = new HashMap<>();
+
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("--key=value 형식이 아닌 인자입니다. : " + arg);
+            }
+
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        return options;
+    }
+}
@@ -0,0 +1,211 @@
+package com.brandpark.tool;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 실행 중인 서버에 업로드와 유저별/은행별 조회를 동시에 보내고, API 별 p50/p99 응답 시간과 처리량을 출력한다.
+ * 업로드 파일은 {@link SyntheticTransactionGenerator} 로 만들고, 업로드마다 거래 ID 가 겹치지 않게 한다.
+ *
+ * <pre>
+ * ./gradlew bootRun
+ * ./gradlew loadTest -Pargs="--duration=60 --readers=16 --uploaders=1 --upload-rows=10000"
+ * </pre>
+ */
+public class LoadTestDriver {
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private final String baseUrl;
+    private final int users;
+    private final LocalDate from;
+    private final int days;
+    private final int maxPage;
+    private final int uploadRows;
+    private final String engine;
+    private final AtomicLong nextId;
+
+    private final LatencyRecorder uploadLatency = new LatencyRecorder("upload");
+    private final LatencyRecorder byUserLatency = new LatencyRecorder("by-user");
+    private final LatencyRecorder byBankLatency = new LatencyRecorder("by-bank");
+
+    LoadTestDriver(Map<String, String> options) {
+        this.baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        this.users = Integer.parseInt(options.getOrDefault("users", "100000"));
+        this.from = LocalDate.parse(options.getOrDefault("from", "2021-01-01"));
+        this.days = Integer.parseInt(options.getOrDefault("days", "365"));
+        this.maxPage = Integer.parseInt(options.getOrDefault("max-page", "10"));
+        this.uploadRows = Integer.parseInt(options.getOrDefault("upload-rows", "10000"));
+        this.engine = options.getOrDefault("engine", "JDBC");
+        this.nextId = new AtomicLong(Long.parseLong(options.getOrDefault("first-id", "100000000")));
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+
+        Map<String, String> options = CommandLineOptions.parse(args);
+
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int readers = Integer.parseInt(options.getOrDefault("readers", "16"));
+        int uploaders = Integer.parseInt(options.getOrDefault("uploaders", "1"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+
+        new LoadTestDriver(options).run(Duration.ofSeconds(durationSeconds), readers, uploaders, seed);
+    }
+
+    void run(Duration duration, int readers, int uploaders, long seed) throws InterruptedException {
+
+        ExecutorService executor = Executors.newFixedThreadPool(readers + uploaders);
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        for (int i = 0; i < uploaders; i++) {
+            SyntheticTransactionGenerator generator = new SyntheticTransactionGenerator(seed + i, users, from, days);
+            executor.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    upload(generator.toBytes(uploadRows, nextId.getAndAdd(uploadRows)));
+                }
+            });
+        }
+
+        for (int i = 0; i < readers; i++) {
+            SyntheticTransactionGenerator generator = new SyntheticTransactionGenerator(seed + uploaders + i, users, from, days);
+            boolean byUser = i % 2 == 0;
+            executor.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    if (byUser) {
+                        findByUser(generator.nextDate(), generator.nextTransactionType());
+                    } else {
+                        findByBank(generator.nextDate(), generator.nextTransactionType(), generator.nextBankCode());
+                    }
+                }
+            });
+        }
+
+        executor.shutdown();
+        executor.awaitTermination(duration.toMillis() + TimeUnit.MINUTES.toMillis(5), TimeUnit.MILLISECONDS);
+
+        double seconds = duration.toNanos() / 1_000_000_000.0;
+
+        System.out.println(LatencyRecorder.HEADER);
+        System.out.println(uploadLatency.summary(seconds));
+        System.out.println(byUserLatency.summary(seconds));
+        System.out.println(byBankLatency.summary(seconds));
+        System.out.printf("uploaded rows/sec : %d%n", (long) (uploadLatency.getSucceeded() * (long) uploadRows / seconds));
+    }
+
+    private void upload(byte[] csv) {
+
+        String boundary = UUID.randomUUID().toString();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(csv.length + 256);
+
+        body.writeBytes(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"transaction.csv\"\r\n"
+                + "Content-Type: text/csv\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        body.writeBytes(csv);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+
+        send(uploadLatency, HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/bank-transactions/persist-csv?engine=" + engine))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build());
+    }
+
+    private void findByUser(LocalDate transactionDate, TransactionType transactionType) {
+        send(byUserLatency, get("/api/v1/bank-transactions/by-user?transaction_date=" + transactionDate
+                + "&transaction_type=" + transactionType + "&page=" + randomPage()));
+    }
+
+    private void findByBank(LocalDate transactionDate, TransactionType transactionType, BankCode bankCode) {
+        send(byBankLatency, get("/api/v1/bank-transactions/by-bank?transaction_date=" + transactionDate
+                + "&transaction_type=" + transactionType + "&bank_code=" + bankCode.getCode() + "&page=" + randomPage()));
+    }
+
+    private int randomPage() {
+        return ThreadLocalRandom.current().nextInt(maxPage);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private void send(LatencyRecorder recorder, HttpRequest request) {
+
+        long start = System.nanoTime();
+
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+
+            recorder.record(System.nanoTime() - start, response.statusCode() < 400);
+        } catch(IOException e) {
+            recorder.record(System.nanoTime() - start, false);
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static class LatencyRecorder {
+
+        static final String HEADER = String.format("%-8s %10s %8s %10s %10s %10s %10s"
+                , "api", "requests", "errors", "req/sec", "p50(ms)", "p99(ms)", "max(ms)");
+
+        private final String name;
+        private final List<Long> latencies = new ArrayList<>();
+        private long errors;
+
+        LatencyRecorder(String name) {
+            this.name = name;
+        }
+
+        synchronized void record(long nanos, boolean succeeded) {
+            if (succeeded) {
+                latencies.add(nanos);
+            } else {
+                errors++;
+            }
+        }
+
+        synchronized long getSucceeded() {
+            return latencies.size();
+        }
+
+        synchronized String summary(double seconds) {
+
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+
+            return String.format("%-8s %10d %8d %10.1f %10.1f %10.1f %10.1f"
+                    , name, sorted.length + errors, errors, sorted.length / seconds
+                    , percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0));
+        }
+
+        private static double percentile(long[] sorted, double p) {
+
+            if (sorted.length == 0) {
+                return 0;
+            }
+
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
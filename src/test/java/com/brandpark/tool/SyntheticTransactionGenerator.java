@@ -0,0 +1,215 @@
+package com.brandpark.tool;
+
+import com.brandpark.api.bank_transaction.domain.BankCode;
+import com.brandpark.api.bank_transaction.domain.TransactionType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 실제와 비슷한 분포의 거래 내역 csv 를 만든다. seed 가 같으면 같은 파일이 만들어진다.
+ *
+ * <ul>
+ *     <li>유저 : 소수의 유저가 거래의 대부분을 차지하도록 앞쪽 id 에 치우치게 뽑는다.</li>
+ *     <li>거래일자 : 주말은 평일보다 적고, 월초와 급여일(25일)에 몰린다.</li>
+ *     <li>은행 : 은행마다 점유율이 다르다.</li>
+ *     <li>금액 : 로그 정규 분포, 100원 단위</li>
+ * </ul>
+ *
+ * <pre>
+ * ./gradlew generateCsv -Pargs="--rows=1000000 --users=100000 --from=2021-01-01 --days=365 --out=build/dataset/transactions.csv"
+ * </pre>
+ */
+public class SyntheticTransactionGenerator {
+
+    private static final double[] BANK_WEIGHTS = {0.30, 0.25, 0.20, 0.15, 0.10};  // BankCode 선언 순서
+    private static final long MIN_AMOUNT = 1_000L;
+    private static final long MAX_AMOUNT = 50_000_000L;
+
+    private final Random random;
+    private final int users;
+    private final double userSkew;
+    private final LocalDate from;
+    private final double[] dateCdf;
+    private final double[] bankCdf;
+    private final double depositRatio;
+    private final double amountMu;
+    private final double amountSigma;
+    private final BankCode[] bankCodes = BankCode.values();
+
+    public SyntheticTransactionGenerator(long seed, int users, LocalDate from, int days) {
+        this(seed, users, 2.0, from, days, 0.45, Math.log(50_000), 1.2);
+    }
+
+    /**
+     * @param userSkew 1 이면 유저를 고르게, 클수록 앞쪽 id 에 치우치게 뽑는다.
+     * @param amountMu 금액 로그 정규 분포의 평균(ln 원)
+     */
+    public SyntheticTransactionGenerator(long seed, int users, double userSkew, LocalDate from, int days
+            , double depositRatio, double amountMu, double amountSigma) {
+
+        if (users < 1 || days < 1) {
+            throw new IllegalArgumentException("유저 수와 기간은 1 이상이어야 합니다.");
+        }
+
+        this.random = new Random(seed);
+        this.users = users;
+        this.userSkew = userSkew;
+        this.from = from;
+        this.dateCdf = cdf(dateWeights(from, days));
+        this.bankCdf = cdf(BANK_WEIGHTS);
+        this.depositRatio = depositRatio;
+        this.amountMu = amountMu;
+        this.amountSigma = amountSigma;
+    }
+
+    public long write(Path file, long rows, long firstId) throws IOException {
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+
+        try (OutputStream out = Files.newOutputStream(file)) {
+            return write(out, rows, firstId);
+        }
+    }
+
+    public long write(OutputStream out, long rows, long firstId) throws IOException {
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII), 1 << 16);
+        StringBuilder row = new StringBuilder(64);
+
+        for (long id = firstId; id < firstId + rows; id++) {
+            row.setLength(0);
+            appendRow(row, id);
+            writer.append(row).append('\n');
+        }
+
+        writer.flush();
+
+        return rows;
+    }
+
+    public byte[] toBytes(int rows, long firstId) {
+
+        StringBuilder csv = new StringBuilder(rows * 48);
+
+        for (long id = firstId; id < firstId + rows; id++) {
+            appendRow(csv, id);
+            csv.append('\n');
+        }
+
+        return csv.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public LocalDate nextDate() {
+        return from.plusDays(pick(dateCdf));
+    }
+
+    public BankCode nextBankCode() {
+        return bankCodes[pick(bankCdf)];
+    }
+
+    public TransactionType nextTransactionType() {
+        return random.nextDouble() < depositRatio ? TransactionType.DEPOSIT : TransactionType.WITHDRAW;
+    }
+
+    public long nextUserId() {
+        return 1 + Math.min(users - 1, (long) (users * Math.pow(random.nextDouble(), userSkew)));
+    }
+
+    public long nextAmount() {
+        long amount = Math.round(Math.exp(amountMu + amountSigma * random.nextGaussian()) / 100) * 100;
+
+        return Math.max(MIN_AMOUNT, Math.min(MAX_AMOUNT, amount));
+    }
+
+    private void appendRow(StringBuilder row, long id) {
+
+        LocalDate date = nextDate();
+
+        row.append(id)
+                .append(',').append(date.getYear())
+                .append(',').append(date.getMonthValue())
+                .append(',').append(date.getDayOfMonth())
+                .append(',').append(nextUserId())
+                .append(',').append(nextBankCode().getCode())
+                .append(',').append(nextAmount())
+                .append(',').append(nextTransactionType().name());
+    }
+
+    private int pick(double[] cdf) {
+        int i = Arrays.binarySearch(cdf, random.nextDouble());
+
+        return Math.min(cdf.length - 1, i < 0 ? -i - 1 : i);
+    }
+
+    private static double[] dateWeights(LocalDate from, int days) {
+
+        double[] weights = new double[days];
+
+        for (int i = 0; i < days; i++) {
+            LocalDate date = from.plusDays(i);
+            double weight = 1.0;
+
+            if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                weight *= 0.5;
+            }
+            if (date.getDayOfMonth() <= 2 || date.getDayOfMonth() == 25) {
+                weight *= 2.5;
+            }
+
+            weights[i] = weight;
+        }
+
+        return weights;
+    }
+
+    private static double[] cdf(double[] weights) {
+
+        double[] cdf = new double[weights.length];
+        double sum = 0;
+
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < cdf.length; i++) {
+            cdf[i] /= sum;
+        }
+
+        return cdf;
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        Map<String, String> options = CommandLineOptions.parse(args);
+
+        long rows = Long.parseLong(options.getOrDefault("rows", "1000000"));
+        int users = Integer.parseInt(options.getOrDefault("users", "100000"));
+        LocalDate from = LocalDate.parse(options.getOrDefault("from", "2021-01-01"));
+        int days = Integer.parseInt(options.getOrDefault("days", "365"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        long firstId = Long.parseLong(options.getOrDefault("first-id", "1"));
+        Path out = Paths.get(options.getOrDefault("out", "build/dataset/transactions.csv"));
+
+        long start = System.nanoTime();
+
+        new SyntheticTransactionGenerator(seed, users, from, days).write(out, rows, firstId);
+
+        System.out.printf("%d rows -> %s (%d bytes, %d ms)%n"
+                , rows, out.toAbsolutePath(), Files.size(out), (System.nanoTime() - start) / 1_000_000);
+    }
+}